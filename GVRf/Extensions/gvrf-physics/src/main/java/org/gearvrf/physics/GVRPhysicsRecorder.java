@@ -0,0 +1,261 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.physics;
+
+import java.util.Arrays;
+
+/**
+ * Records a physics session so it can be replayed step by step.
+ * <p>
+ * When recording starts the state of the world is captured in a
+ * {@link GVRPhysicsSnapshot}. Then the forces, impulses and torques applied
+ * to the rigid bodies are logged with the step they were applied before.
+ * A replay restores the first snapshot and simulates the same number of
+ * steps, applying each input before the same step, as fast as the physics
+ * thread can. The state at the end of the recording is captured too, so
+ * a replay can tell whether it reached the same state.
+ * <p>
+ * Replays are only deterministic in {@linkplain GVRWorld#setFixedTimeStep(float, int)
+ * fixed time step} mode, which recording requires. Changes which are not
+ * forces, impulses or torques, such as moving a scene object or setting a
+ * velocity, are not recorded.
+ * <pre>
+ *     recorder.start();
+ *     // ... play ...
+ *     recorder.stop();
+ *     recorder.replay(new GVRPhysicsRecorder.IReplayListener() {
+ *         public void onReplayed(boolean sameState) { ... }
+ *     });
+ * </pre>
+ */
+public class GVRPhysicsRecorder {
+    /**
+     * Called on the physics thread when a replay ends.
+     */
+    public interface IReplayListener {
+        /**
+         * @param sameState true if the replay ended in the same state
+         *                  as the recording.
+         */
+        void onReplayed(boolean sameState);
+    }
+
+    static final int CENTRAL_FORCE = 0;
+    static final int FORCE = 1;
+    static final int CENTRAL_IMPULSE = 2;
+    static final int IMPULSE = 3;
+    static final int TORQUE = 4;
+    static final int TORQUE_IMPULSE = 5;
+
+    private static final int VALUES_PER_INPUT = 6;
+
+    private final GVRWorld mWorld;
+    private final GVRPhysicsContext mPhysicsContext;
+    private final GVRPhysicsSnapshot mStartState;
+    private final GVRPhysicsSnapshot mEndState;
+    private final GVRPhysicsSnapshot mReplayState;
+
+    // Only used on the physics thread
+    private float mTimeStep;
+    private long mFirstStep;
+    private int mNumSteps;
+    private int mNumInputs;
+    private int[] mInputSteps = new int[64];
+    private long[] mInputBodies = new long[64];
+    private int[] mInputKinds = new int[64];
+    private float[] mInputValues = new float[64 * VALUES_PER_INPUT];
+
+    private volatile boolean mRecording = false;
+
+    /**
+     * Constructs a recorder for a physics world.
+     *
+     * @param world the world to record.
+     * @param numBodies number of rigid bodies the snapshots hold without growing.
+     */
+    public GVRPhysicsRecorder(GVRWorld world, int numBodies) {
+        mWorld = world;
+        mPhysicsContext = GVRPhysicsContext.getInstance();
+        mStartState = new GVRPhysicsSnapshot(numBodies, 0);
+        mEndState = new GVRPhysicsSnapshot(numBodies, 0);
+        mReplayState = new GVRPhysicsSnapshot(numBodies, 0);
+    }
+
+    /**
+     * Starts recording before the next step, discarding any earlier recording.
+     *
+     * @throws IllegalStateException if the world does not use a fixed time step.
+     */
+    public void start() {
+        if (mWorld.getFixedTimeStep() <= 0) {
+            throw new IllegalStateException("Recording needs a fixed time step");
+        }
+        mRecording = true;
+        mPhysicsContext.runOnPhysicsThread(new Runnable() {
+            @Override
+            public void run() {
+                mTimeStep = mWorld.getFixedTimeStep();
+                mNumSteps = 0;
+                mNumInputs = 0;
+
+                // Restoring clears the cached contacts, as a replay will
+                mStartState.capture(mWorld.getNative());
+                mStartState.restore(mWorld.getNative());
+                mFirstStep = mWorld.getStepCount();
+                mWorld.setRecorder(GVRPhysicsRecorder.this);
+            }
+        });
+    }
+
+    /**
+     * Stops recording after the steps simulated so far.
+     */
+    public void stop() {
+        mRecording = false;
+        mPhysicsContext.runOnPhysicsThread(new Runnable() {
+            @Override
+            public void run() {
+                if (mWorld.getRecorder() == GVRPhysicsRecorder.this) {
+                    mWorld.setRecorder(null);
+                    mNumSteps = (int) (mWorld.getStepCount() - mFirstStep);
+                    mEndState.capture(mWorld.getNative());
+                }
+            }
+        });
+    }
+
+    /**
+     * @return true between {@link #start()} and {@link #stop()}.
+     */
+    public boolean isRecording() {
+        return mRecording;
+    }
+
+    /**
+     * Replays the last recording. The world is put back in the state it
+     * was in when recording started and the recorded steps are simulated
+     * again. The simulation then continues from the end of the replay.
+     *
+     * @param listener called when the replay ends, may be null.
+     */
+    public void replay(final IReplayListener listener) {
+        mPhysicsContext.runOnPhysicsThread(new Runnable() {
+            @Override
+            public void run() {
+                final long world = mWorld.getNative();
+                int input = 0;
+
+                if (mRecording || mStartState.restore(world) < 0) {
+                    return;
+                }
+                for (int step = 0; step < mNumSteps; ++step) {
+                    for (; input < mNumInputs && mInputSteps[input] == step; ++input) {
+                        applyInput(input);
+                    }
+                    mWorld.replayStep(mTimeStep);
+                }
+
+                if (listener != null) {
+                    mReplayState.capture(world);
+                    listener.onReplayed(mReplayState.sameState(mEndState));
+                }
+            }
+        });
+    }
+
+    /**
+     * @return the state of the world when recording started.
+     */
+    public GVRPhysicsSnapshot getStartState() {
+        return mStartState;
+    }
+
+    /**
+     * @return the state of the world when recording stopped.
+     */
+    public GVRPhysicsSnapshot getEndState() {
+        return mEndState;
+    }
+
+    /**
+     * @return the number of steps in the last recording.
+     */
+    public int getStepCount() {
+        return mNumSteps;
+    }
+
+    /*
+     * Called on the physics thread for an input applied before
+     * the given step of the world.
+     */
+    void record(long step, long body, int kind, float x, float y, float z,
+                float relX, float relY, float relZ) {
+        if (mNumInputs == mInputSteps.length) {
+            final int capacity = mNumInputs * 2;
+
+            mInputSteps = Arrays.copyOf(mInputSteps, capacity);
+            mInputBodies = Arrays.copyOf(mInputBodies, capacity);
+            mInputKinds = Arrays.copyOf(mInputKinds, capacity);
+            mInputValues = Arrays.copyOf(mInputValues, capacity * VALUES_PER_INPUT);
+        }
+
+        final int v = mNumInputs * VALUES_PER_INPUT;
+
+        mInputSteps[mNumInputs] = (int) (step - mFirstStep);
+        mInputBodies[mNumInputs] = body;
+        mInputKinds[mNumInputs] = kind;
+        mInputValues[v] = x;
+        mInputValues[v + 1] = y;
+        mInputValues[v + 2] = z;
+        mInputValues[v + 3] = relX;
+        mInputValues[v + 4] = relY;
+        mInputValues[v + 5] = relZ;
+        ++mNumInputs;
+    }
+
+    private void applyInput(int input) {
+        final long body = mInputBodies[input];
+        final float[] values = mInputValues;
+        final int v = input * VALUES_PER_INPUT;
+
+        // The body may have left the world since it was recorded
+        if (!mWorld.containsBody(body)) {
+            return;
+        }
+        switch (mInputKinds[input]) {
+            case CENTRAL_FORCE:
+                Native3DRigidBody.applyCentralForce(body, values[v], values[v + 1], values[v + 2]);
+                break;
+            case FORCE:
+                Native3DRigidBody.applyForce(body, values[v], values[v + 1], values[v + 2],
+                        values[v + 3], values[v + 4], values[v + 5]);
+                break;
+            case CENTRAL_IMPULSE:
+                Native3DRigidBody.applyCentralImpulse(body, values[v], values[v + 1], values[v + 2]);
+                break;
+            case IMPULSE:
+                Native3DRigidBody.applyImpulse(body, values[v], values[v + 1], values[v + 2],
+                        values[v + 3], values[v + 4], values[v + 5]);
+                break;
+            case TORQUE:
+                Native3DRigidBody.applyTorque(body, values[v], values[v + 1], values[v + 2]);
+                break;
+            case TORQUE_IMPULSE:
+                Native3DRigidBody.applyTorqueImpulse(body, values[v], values[v + 1], values[v + 2]);
+                break;
+        }
+    }
+}
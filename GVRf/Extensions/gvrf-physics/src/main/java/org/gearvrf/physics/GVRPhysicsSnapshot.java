@@ -0,0 +1,123 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.physics;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * The simulation state of a {@link GVRWorld}, to rewind the world or
+ * to compare two runs of a simulation.
+ * <p>
+ * A snapshot holds, for every {@link GVRRigidBody} in the world, its
+ * position, rotation, linear and angular velocity and activation state,
+ * and for every {@link GVRConstraint} whether it is enabled and its last
+ * applied impulse. It is captured with {@link GVRWorld#saveState} and
+ * restored with {@link GVRWorld#restoreState}, each a single native call.
+ * The snapshot refers to the bodies and constraints themselves, so it can
+ * only be restored into the world it was captured from.
+ * <p>
+ * The buffer is allocated when the snapshot is constructed, and only
+ * grows if the world has more bodies or constraints than it can hold.
+ * The size is 16 bytes, plus 72 bytes for each body and 16 bytes for
+ * each constraint.
+ */
+public class GVRPhysicsSnapshot {
+    private static final int HEADER_SIZE = 16;
+    private static final int BODY_SIZE = 72;
+    private static final int CONSTRAINT_SIZE = 16;
+
+    private ByteBuffer mBuffer;
+    private int mSize = 0;
+
+    /**
+     * Constructs a snapshot large enough for a world of the given size.
+     *
+     * @param numBodies number of rigid bodies to hold without growing.
+     * @param numConstraints number of constraints to hold without growing.
+     */
+    public GVRPhysicsSnapshot(int numBodies, int numConstraints) {
+        mBuffer = allocate(HEADER_SIZE + numBodies * BODY_SIZE + numConstraints * CONSTRAINT_SIZE);
+    }
+
+    /**
+     * Returns the size of the snapshot.
+     *
+     * @return size in bytes, 0 if nothing was captured.
+     */
+    public int getSize() {
+        return mSize;
+    }
+
+    /**
+     * Returns the captured state, to save or send it. The layout is
+     * in the byte order of the device.
+     *
+     * @return a read only view of the captured bytes.
+     */
+    public ByteBuffer getData() {
+        ByteBuffer data = mBuffer.asReadOnlyBuffer();
+        data.limit(mSize);
+        return data.slice();
+    }
+
+    /**
+     * Returns true if both snapshots captured exactly the same state,
+     * such as a recorded run and its replay.
+     *
+     * @param other the snapshot to compare with.
+     * @return true if the captured bytes are identical.
+     */
+    public boolean sameState(GVRPhysicsSnapshot other) {
+        if (mSize != other.mSize) {
+            return false;
+        }
+        for (int i = 0; i < mSize; ++i) {
+            if (mBuffer.get(i) != other.mBuffer.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Captures the world state. Must be called on the physics thread.
+     */
+    void capture(long nativeWorld) {
+        int size = NativePhysics3DWorld.saveState(nativeWorld, mBuffer);
+
+        if (size > mBuffer.capacity()) {
+            mBuffer = allocate(size);
+            size = NativePhysics3DWorld.saveState(nativeWorld, mBuffer);
+        }
+        mSize = size;
+    }
+
+    /*
+     * Restores the world state. Must be called on the physics thread.
+     * Returns the number of bodies restored.
+     */
+    int restore(long nativeWorld) {
+        if (mSize == 0) {
+            return -1;
+        }
+        return NativePhysics3DWorld.restoreState(nativeWorld, mBuffer, mSize);
+    }
+
+    private static ByteBuffer allocate(int size) {
+        return ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder());
+    }
+}
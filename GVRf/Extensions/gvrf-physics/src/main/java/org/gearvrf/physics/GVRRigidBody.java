@@ -181,6 +181,7 @@ public class GVRRigidBody extends GVRPhysicsWorldObject {
             @Override
            public void run() {
                                 Native3DRigidBody.applyCentralForce(getNative(), x, y, z);
+                recordInput(GVRPhysicsRecorder.CENTRAL_FORCE, x, y, z, 0, 0, 0);
                            }
         });
     }
@@ -203,6 +204,7 @@ public class GVRRigidBody extends GVRPhysicsWorldObject {
             public void run() {
                 Native3DRigidBody.applyForce(getNative(), forceX, forceY, forceZ,
                         relX, relY, relZ);
+                recordInput(GVRPhysicsRecorder.FORCE, forceX, forceY, forceZ, relX, relY, relZ);
             }
         });
     }
@@ -219,6 +221,7 @@ public class GVRRigidBody extends GVRPhysicsWorldObject {
             @Override
             public void run() {
                 Native3DRigidBody.applyCentralImpulse(getNative(), x, y, z);
+                recordInput(GVRPhysicsRecorder.CENTRAL_IMPULSE, x, y, z, 0, 0, 0);
             }
         });
     }
@@ -241,6 +244,7 @@ public class GVRRigidBody extends GVRPhysicsWorldObject {
             public void run() {
                 Native3DRigidBody.applyImpulse(getNative(), impulseX, impulseY, impulseZ,
                         relX, relY, relZ);
+                recordInput(GVRPhysicsRecorder.IMPULSE, impulseX, impulseY, impulseZ, relX, relY, relZ);
             }
         });
     }
@@ -257,6 +261,7 @@ public class GVRRigidBody extends GVRPhysicsWorldObject {
             @Override
             public void run() {
                                 Native3DRigidBody.applyTorque(getNative(), x, y, z);
+                recordInput(GVRPhysicsRecorder.TORQUE, x, y, z, 0, 0, 0);
                             }
         });
     }
@@ -273,6 +278,7 @@ public class GVRRigidBody extends GVRPhysicsWorldObject {
             @Override
             public void run() {
                 Native3DRigidBody.applyTorqueImpulse(getNative(), x, y, z);
+                recordInput(GVRPhysicsRecorder.TORQUE_IMPULSE, x, y, z, 0, 0, 0);
             }
         });
     }
@@ -516,6 +522,15 @@ public class GVRRigidBody extends GVRPhysicsWorldObject {
         }
     }
 
+    private void recordInput(int kind, float x, float y, float z,
+                             float relX, float relY, float relZ) {
+        GVRWorld world = getWorld();
+
+        if (world != null) {
+            world.recordInput(this, kind, x, y, z, relX, relY, relZ);
+        }
+    }
+
     @Override
     protected void removeFromWorld(GVRWorld world) {
         if (world != null) {
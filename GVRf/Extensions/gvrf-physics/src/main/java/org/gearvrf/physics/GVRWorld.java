@@ -21,18 +21,29 @@ import android.util.LongSparseArray;
 import org.gearvrf.GVRComponent;
 import org.gearvrf.GVRComponentGroup;
 import org.gearvrf.GVRContext;
+import org.gearvrf.GVRDrawFrameListener;
+import org.gearvrf.GVREventManager;
 import org.gearvrf.GVRSceneObject;
 import org.gearvrf.GVRSceneObject.ComponentVisitor;
 import org.gearvrf.GVRTransform;
 import org.gearvrf.ISceneObjectEvents;
+import org.gearvrf.debug.GVRHistogram;
 import org.joml.Quaternionf;
 import org.joml.Vector3f;
 
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Represents a physics world where all {@link GVRSceneObject} with {@link GVRRigidBody} component
  * attached to are simulated.
  * <p>
  * {@link GVRWorld} is a component that must be attached to the scene's root object.
+ * <p>
+ * By default each simulation step is as long as the time since the previous one.
+ * {@link #setFixedTimeStep(float, int)} simulates in steps of a fixed length instead,
+ * and moves the scene objects once per frame to poses interpolated between the last
+ * two steps, so the motion stays smooth whatever the frame rate.
  */
 public class GVRWorld extends GVRComponent {
     private boolean mInitialized;
@@ -44,6 +55,7 @@ public class GVRWorld extends GVRComponent {
 
     static {
         System.loadLibrary("gvrf-physics");
+        registerCollisionInvokers();
     }
 
     private final LongSparseArray<GVRPhysicsWorldObject> mPhysicsObject = new LongSparseArray<GVRPhysicsWorldObject>();
@@ -52,6 +64,26 @@ public class GVRWorld extends GVRComponent {
     private final PhysicsDragger mPhysicsDragger;
     private GVRRigidBody mRigidBodyDragMe = null;
 
+    // Fixed time step, 0 for variable steps
+    private volatile float mFixedTimeStep = 0;
+    // System.nanoTime() the last published poses are for
+    private volatile long mStateTime;
+    private final AtomicInteger mPendingSteps = new AtomicInteger();
+    private volatile long mDroppedSteps;
+    private final GVRHistogram mStepTimes = new GVRHistogram(1000000);
+    private final GVRHistogram mSubSteps = new GVRHistogram(1024);
+
+    // Collision events, only used on the physics thread
+    private final PhysicsContacts mContacts = new PhysicsContacts();
+    private final float[] mCollisionNormal = new float[3];
+    private final Object[] mCollisionParams = new Object[4];
+    private volatile int mContactCount;
+    private final GVRHistogram mDispatchTimes = new GVRHistogram(1000000);
+
+    // Only used on the physics thread
+    private long mStepCount = 0;
+    private GVRPhysicsRecorder mRecorder = null;
+
     /**
      * Constructs new instance to simulate the Physics World of the Scene.
      *
@@ -252,6 +284,174 @@ public class GVRWorld extends GVRComponent {
         });
     }
 
+    /**
+     * Simulate the world in steps of a fixed length.
+     * <p>
+     * The time elapsed is accumulated and simulated in whole steps. The scene
+     * objects of the rigid bodies are not moved after each step: once per frame,
+     * on the GL thread, they are all moved to a pose interpolated between the
+     * poses before and after the last step. The objects are displayed up to one
+     * step behind the simulation.
+     *
+     * @param timeStep length of a step in seconds, 0 to go back to steps as long
+     *                 as the time since the previous one.
+     * @param maxSubSteps most steps simulated at once. The time beyond that is
+     *                    dropped, so a slow update does not make the next one slower.
+     */
+    public void setFixedTimeStep(final float timeStep, final int maxSubSteps) {
+        if (timeStep < 0 || maxSubSteps < 1) {
+            throw new IllegalArgumentException("Invalid time step " + timeStep
+                    + " or number of sub steps " + maxSubSteps);
+        }
+
+        if (timeStep > 0) {
+            getGVRContext().registerDrawFrameListener(mTransformSync);
+        } else {
+            getGVRContext().unregisterDrawFrameListener(mTransformSync);
+        }
+
+        mFixedTimeStep = timeStep;
+        mPhysicsContext.runOnPhysicsThread(new Runnable() {
+            @Override
+            public void run() {
+                mWorldTask.setFixedTimeStep(timeStep, maxSubSteps);
+                NativePhysics3DWorld.setFixedStep(getNative(), timeStep > 0);
+            }
+        });
+    }
+
+    /**
+     * Capture the state of the simulation before the next step.
+     *
+     * @param snapshot the snapshot to capture into.
+     * @param onSaved called on the physics thread once the state is captured,
+     *                may be null.
+     * @see GVRPhysicsSnapshot
+     */
+    public void saveState(final GVRPhysicsSnapshot snapshot, final Runnable onSaved) {
+        mPhysicsContext.runOnPhysicsThread(new Runnable() {
+            @Override
+            public void run() {
+                snapshot.capture(getNative());
+                if (onSaved != null) {
+                    onSaved.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * Put the simulation back in a state captured by
+     * {@link #saveState(GVRPhysicsSnapshot, Runnable)} before the next step.
+     * Rigid bodies and constraints which have left the world since are skipped.
+     *
+     * @param snapshot the snapshot to restore.
+     */
+    public void restoreState(final GVRPhysicsSnapshot snapshot) {
+        if (snapshot.getSize() == 0) {
+            throw new IllegalArgumentException("Nothing was captured in the snapshot");
+        }
+
+        mPhysicsContext.runOnPhysicsThread(new Runnable() {
+            @Override
+            public void run() {
+                snapshot.restore(getNative());
+            }
+        });
+    }
+
+    /**
+     * Get the length of the simulation steps.
+     *
+     * @return length of a step in seconds, 0 if the steps are as long as the
+     *         time since the previous one.
+     * @see #setFixedTimeStep(float, int)
+     */
+    public float getFixedTimeStep() {
+        return mFixedTimeStep;
+    }
+
+    /**
+     * Get the time the fixed step updates took on the physics thread.
+     *
+     * @return copy of the histogram of the update times in microseconds.
+     */
+    public GVRHistogram getStepTimes() {
+        return new GVRHistogram(mStepTimes);
+    }
+
+    /**
+     * Get the number of fixed steps simulated between two frames.
+     *
+     * @return copy of the histogram of the steps per frame.
+     */
+    public GVRHistogram getSubStepsPerFrame() {
+        return new GVRHistogram(mSubSteps);
+    }
+
+    /**
+     * Get the number of fixed steps dropped because an update would have
+     * simulated more than the maximum number of sub steps.
+     *
+     * @return the number of steps dropped.
+     */
+    public long getDroppedStepCount() {
+        return mDroppedSteps;
+    }
+
+    /**
+     * Get the number of pairs of bodies in contact after the last step.
+     *
+     * @return the number of contacts.
+     */
+    public int getContactCount() {
+        return mContactCount;
+    }
+
+    /**
+     * Get the time taken to find the collisions which started or ended
+     * after each step and to send their {@link ICollisionEvents}.
+     *
+     * @return copy of the histogram of the dispatch times in microseconds.
+     */
+    public GVRHistogram getCollisionDispatchTimes() {
+        return new GVRHistogram(mDispatchTimes);
+    }
+
+    long getStepCount() {
+        return mStepCount;
+    }
+
+    GVRPhysicsRecorder getRecorder() {
+        return mRecorder;
+    }
+
+    void setRecorder(GVRPhysicsRecorder recorder) {
+        mRecorder = recorder;
+    }
+
+    boolean containsBody(long nativeBody) {
+        return mPhysicsObject.get(nativeBody) instanceof GVRRigidBody;
+    }
+
+    /*
+     * Called on the physics thread when an input is applied to a rigid body
+     */
+    void recordInput(GVRRigidBody body, int kind, float x, float y, float z,
+                     float relX, float relY, float relZ) {
+        if (mRecorder != null) {
+            mRecorder.record(mStepCount, body.getNative(), kind, x, y, z, relX, relY, relZ);
+        }
+    }
+
+    /*
+     * Simulates one step of a replay on the physics thread
+     */
+    void replayStep(float timeStep) {
+        NativePhysics3DWorld.stepFixed(getNative(), timeStep, 1);
+        ++mStepCount;
+    }
+
     private void startSimulation() {
         mWorldTask.start();
     }
@@ -260,33 +460,86 @@ public class GVRWorld extends GVRComponent {
         mWorldTask.stop();
     }
 
-    private void generateCollisionEvents() {
-        GVRCollisionInfo collisionInfos[] = NativePhysics3DWorld.listCollisions(getNative());
-
-        String onEnter = "onEnter";
-        String onExit = "onExit";
-
-        for (GVRCollisionInfo info : collisionInfos) {
-            if (info.isHit) {
-                sendCollisionEvent(info, onEnter);
-            } else if (mPhysicsObject.get(info.bodyA) != null
-                    && mPhysicsObject.get(info.bodyB) != null) {
-                // If both bodies are in the scene.
-                sendCollisionEvent(info, onExit);
+    private final GVRDrawFrameListener mTransformSync = new GVRDrawFrameListener() {
+        @Override
+        public void onDrawFrame(float frameTime) {
+            final float timeStep = mFixedTimeStep;
+            if (timeStep <= 0) {
+                return;
             }
+
+            float alpha = (System.nanoTime() - mStateTime) / (timeStep * 1e9f);
+            alpha = Math.max(0.0f, Math.min(alpha, 1.0f));
+            NativePhysics3DWorld.syncTransforms(getNative(), alpha);
+            mSubSteps.record(mPendingSteps.getAndSet(0));
         }
+    };
 
+    private void generateCollisionEvents() {
+        final long start = System.nanoTime();
+
+        mContactCount = mContacts.update(getNative(), mContactHandler);
+        mDispatchTimes.record((System.nanoTime() - start) / 1000);
     }
 
-    private void sendCollisionEvent(GVRCollisionInfo info, String eventName) {
-        GVRSceneObject bodyA = mPhysicsObject.get(info.bodyA).getOwnerObject();
-        GVRSceneObject bodyB = mPhysicsObject.get(info.bodyB).getOwnerObject();
+    private final PhysicsContacts.Handler mContactHandler = new PhysicsContacts.Handler() {
+        @Override
+        public void onContact(boolean isEnter, long bodyA, long bodyB,
+                              ByteBuffer buffer, int offset) {
+            GVRPhysicsWorldObject objectA = mPhysicsObject.get(bodyA);
+            GVRPhysicsWorldObject objectB = mPhysicsObject.get(bodyB);
+
+            // Only if both bodies are in the scene.
+            if (objectA == null || objectB == null) {
+                return;
+            }
+
+            PhysicsContacts.getNormal(buffer, offset, mCollisionNormal);
+            sendCollisionEvent(objectA.getOwnerObject(), objectB.getOwnerObject(),
+                    isEnter ? "onEnter" : "onExit", PhysicsContacts.getDistance(buffer, offset));
+        }
+    };
 
-        getGVRContext().getEventManager().sendEvent(bodyA, ICollisionEvents.class, eventName,
-                bodyA, bodyB, info.normal, info.distance);
+    /*
+     * The parameter array and the normal are reused for every event.
+     */
+    private void sendCollisionEvent(GVRSceneObject bodyA, GVRSceneObject bodyB,
+                                    String eventName, float distance) {
+        final GVREventManager eventManager = getGVRContext().getEventManager();
+        final Object[] params = mCollisionParams;
+
+        params[0] = bodyA;
+        params[1] = bodyB;
+        params[2] = mCollisionNormal;
+        params[3] = distance;
+        eventManager.sendEventWithMask(GVREventManager.SEND_MASK_ALL, bodyA,
+                ICollisionEvents.class, eventName, params);
+
+        params[0] = bodyB;
+        params[1] = bodyA;
+        eventManager.sendEventWithMask(GVREventManager.SEND_MASK_ALL, bodyB,
+                ICollisionEvents.class, eventName, params);
+
+        params[0] = params[1] = params[2] = params[3] = null;
+    }
 
-        getGVRContext().getEventManager().sendEvent(bodyB, ICollisionEvents.class, eventName,
-                bodyB, bodyA, info.normal, info.distance);
+    private static void registerCollisionInvokers() {
+        GVREventManager.registerEventInvoker(ICollisionEvents.class, "onEnter",
+                new GVREventManager.EventInvoker() {
+            @Override
+            public void invoke(Object target, Object[] params) {
+                ((ICollisionEvents) target).onEnter((GVRSceneObject) params[0],
+                        (GVRSceneObject) params[1], (float[]) params[2], (Float) params[3]);
+            }
+        });
+        GVREventManager.registerEventInvoker(ICollisionEvents.class, "onExit",
+                new GVREventManager.EventInvoker() {
+            @Override
+            public void invoke(Object target, Object[] params) {
+                ((ICollisionEvents) target).onExit((GVRSceneObject) params[0],
+                        (GVRSceneObject) params[1], (float[]) params[2], (Float) params[3]);
+            }
+        });
     }
 
     private void doPhysicsAttach(GVRSceneObject rootSceneObject) {
@@ -368,6 +621,11 @@ public class GVRWorld extends GVRComponent {
         private long simulationTime;
         private long lastSimulTime;
 
+        // Fixed time step mode
+        private float fixedTimeStep;
+        private int maxFixedSubSteps;
+        private long accumulator;
+        private long lastNanos;
 
         public GVRWorldTask(long milliseconds) {
             intervalMillis = milliseconds;
@@ -379,6 +637,10 @@ public class GVRWorld extends GVRComponent {
                 return;
             }
 
+            if (fixedTimeStep > 0) {
+                stepFixed();
+                return;
+            }
 
             simulationTime = SystemClock.uptimeMillis();
 
@@ -391,6 +653,7 @@ public class GVRWorld extends GVRComponent {
             maxSubSteps = (int) (timeStep * 60) / 1000 + 1;
 
             NativePhysics3DWorld.step(getNative(), timeStep, maxSubSteps);
+            ++mStepCount;
 
             generateCollisionEvents();
 
@@ -408,6 +671,45 @@ public class GVRWorld extends GVRComponent {
 
         }
 
+        private void stepFixed() {
+            final long now = System.nanoTime();
+            final long stepNanos = (long) (fixedTimeStep * 1e9f);
+            int steps;
+
+            accumulator += now - lastNanos;
+            lastNanos = now;
+            steps = (int) Math.min(accumulator / stepNanos, Integer.MAX_VALUE);
+            if (steps > maxFixedSubSteps) {
+                mDroppedSteps += steps - maxFixedSubSteps;
+                accumulator -= (steps - maxFixedSubSteps) * stepNanos;
+                steps = maxFixedSubSteps;
+            }
+
+            if (steps > 0) {
+                NativePhysics3DWorld.stepFixed(getNative(), fixedTimeStep, steps);
+                mStepTimes.record((System.nanoTime() - now) / 1000);
+                mStepCount += steps;
+
+                accumulator -= steps * stepNanos;
+                mStateTime = now - accumulator;
+                mPendingSteps.addAndGet(steps);
+
+                generateCollisionEvents();
+            }
+
+            // Next update when the accumulator holds a whole step
+            final long delay = (stepNanos - accumulator + 999999) / 1000000;
+            mPhysicsContext.runAtTimeOnPhysicsThread(this, SystemClock.uptimeMillis() + delay);
+        }
+
+        public void setFixedTimeStep(float timeStep, int maxSubSteps) {
+            fixedTimeStep = timeStep;
+            maxFixedSubSteps = maxSubSteps;
+            accumulator = 0;
+            lastNanos = System.nanoTime();
+            lastSimulTime = SystemClock.uptimeMillis();
+        }
+
         public void start() {
             // To avoid concurrency
             mPhysicsContext.runOnPhysicsThread(new Runnable() {
@@ -416,6 +718,8 @@ public class GVRWorld extends GVRComponent {
                     if (!running) {
                         running = true;
                         lastSimulTime = SystemClock.uptimeMillis();
+                        accumulator = 0;
+                        lastNanos = System.nanoTime();
                         mPhysicsContext.runDelayedOnPhysicsThread(GVRWorldTask.this,
                                 intervalMillis);
                     }
@@ -530,9 +834,19 @@ class NativePhysics3DWorld {
 
     static native void step(long jphysics_world, float jtime_step, int maxSubSteps);
 
+    static native void setFixedStep(long jphysics_world, boolean enable);
+
+    static native void stepFixed(long jphysics_world, float jtime_step, int numSteps);
+
+    static native int syncTransforms(long jphysics_world, float alpha);
+
     static native void getGravity(long jworld, float[] array);
 
     static native void setGravity(long jworld, float x, float y, float z);
 
-    static native GVRCollisionInfo[] listCollisions(long jphysics_world);
+    static native int listContacts(long jphysics_world, ByteBuffer contacts);
+
+    static native int saveState(long jphysics_world, ByteBuffer snapshot);
+
+    static native int restoreState(long jphysics_world, ByteBuffer snapshot, int size);
 }
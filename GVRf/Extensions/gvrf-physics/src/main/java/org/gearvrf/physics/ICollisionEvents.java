@@ -20,7 +20,9 @@ import org.gearvrf.IEvents;
 
 /**
  * This interface defines events generated by the collision of {@link GVRRigidBody}.
- *
+ * <p>
+ * The events are sent on the physics thread. The normal array is reused
+ * for the next event, so copy it to keep it.
  */
 public interface ICollisionEvents extends IEvents {
 
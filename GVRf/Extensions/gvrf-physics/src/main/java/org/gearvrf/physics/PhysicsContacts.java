@@ -0,0 +1,232 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.physics;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * This is a helper class to find the collisions which start and end
+ * between two physics steps.
+ *
+ * The native world writes the contacts of a step into a direct buffer.
+ * The buffers of the last two steps are kept, with a set of the pairs of
+ * bodies in each, so a pair found in only one of them is a collision which
+ * started or ended. Nothing is allocated unless a step has more contacts
+ * than any step before.
+ */
+class PhysicsContacts {
+    /*
+     * Layout of a contact, see ContactRecord in physics_world.h
+     */
+    private static final int RECORD_SIZE = 32;
+    private static final int BODY_B_OFFSET = 8;
+    private static final int NORMAL_OFFSET = 16;
+    private static final int DISTANCE_OFFSET = 28;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    interface Handler {
+        /**
+         * Called for each collision which started or ended.
+         *
+         * @param isEnter true if the collision started, false if it ended.
+         * @param bodyA native pointer of the first rigid body.
+         * @param bodyB native pointer of the second rigid body.
+         * @param buffer buffer holding the contact.
+         * @param offset offset of the contact in the buffer.
+         */
+        void onContact(boolean isEnter, long bodyA, long bodyB, ByteBuffer buffer, int offset);
+    }
+
+    private final ByteBuffer[] mBuffers = new ByteBuffer[2];
+    private final PairSet[] mPairs = new PairSet[2];
+    private int mCurrent = 0;
+
+    PhysicsContacts() {
+        for (int i = 0; i < 2; ++i) {
+            mBuffers[i] = allocate(INITIAL_CAPACITY);
+            mPairs[i] = new PairSet(INITIAL_CAPACITY * 2);
+        }
+    }
+
+    static void getNormal(ByteBuffer buffer, int offset, float[] normal) {
+        normal[0] = buffer.getFloat(offset + NORMAL_OFFSET);
+        normal[1] = buffer.getFloat(offset + NORMAL_OFFSET + 4);
+        normal[2] = buffer.getFloat(offset + NORMAL_OFFSET + 8);
+    }
+
+    static float getDistance(ByteBuffer buffer, int offset) {
+        return buffer.getFloat(offset + DISTANCE_OFFSET);
+    }
+
+    /**
+     * Read the contacts of the last step and report the collisions
+     * which started or ended since the previous call.
+     *
+     * @param nativeWorld native pointer of the physics world.
+     * @param handler called for each collision which started or ended.
+     * @return number of contacts in the last step.
+     */
+    int update(long nativeWorld, Handler handler) {
+        ByteBuffer buffer = mBuffers[mCurrent];
+        int count = NativePhysics3DWorld.listContacts(nativeWorld, buffer);
+
+        if (count > buffer.capacity() / RECORD_SIZE) {
+            buffer = allocate(count * 2);
+            mBuffers[mCurrent] = buffer;
+            count = Math.min(NativePhysics3DWorld.listContacts(nativeWorld, buffer),
+                    buffer.capacity() / RECORD_SIZE);
+        }
+
+        final PairSet pairs = mPairs[mCurrent];
+        final PairSet prevPairs = mPairs[1 - mCurrent];
+        final ByteBuffer prevBuffer = mBuffers[1 - mCurrent];
+
+        pairs.clear();
+        for (int i = 0; i < count; ++i) {
+            final int offset = i * RECORD_SIZE;
+            final long bodyA = buffer.getLong(offset);
+            final long bodyB = buffer.getLong(offset + BODY_B_OFFSET);
+
+            if (bodyA == 0 || bodyB == 0) {
+                continue;
+            }
+            if (pairs.put(bodyA, bodyB, offset) && prevPairs.get(bodyA, bodyB) < 0) {
+                handler.onContact(true, bodyA, bodyB, buffer, offset);
+            }
+        }
+
+        for (int slot = 0; slot < prevPairs.capacity(); ++slot) {
+            if (prevPairs.isUsed(slot)) {
+                final int offset = prevPairs.value(slot);
+                final long bodyA = prevBuffer.getLong(offset);
+                final long bodyB = prevBuffer.getLong(offset + BODY_B_OFFSET);
+
+                if (pairs.get(bodyA, bodyB) < 0) {
+                    handler.onContact(false, bodyA, bodyB, prevBuffer, offset);
+                }
+            }
+        }
+
+        mCurrent = 1 - mCurrent;
+        return count;
+    }
+
+    private static ByteBuffer allocate(int numContacts) {
+        return ByteBuffer.allocateDirect(numContacts * RECORD_SIZE).order(ByteOrder.nativeOrder());
+    }
+
+    /*
+     * Open addressing hash map from an unordered pair of non-zero
+     * native pointers to an int.
+     */
+    private static final class PairSet {
+        private long[] mKeysA;
+        private long[] mKeysB;
+        private int[] mValues;
+        private int mSize;
+
+        PairSet(int capacity) {
+            mKeysA = new long[capacity];
+            mKeysB = new long[capacity];
+            mValues = new int[capacity];
+        }
+
+        int capacity() {
+            return mKeysA.length;
+        }
+
+        boolean isUsed(int slot) {
+            return mKeysA[slot] != 0;
+        }
+
+        int value(int slot) {
+            return mValues[slot];
+        }
+
+        void clear() {
+            if (mSize > 0) {
+                Arrays.fill(mKeysA, 0);
+                mSize = 0;
+            }
+        }
+
+        /**
+         * @return the value of the pair, -1 if the pair is not in the set.
+         */
+        int get(long a, long b) {
+            final long lo = Math.min(a, b);
+            final long hi = Math.max(a, b);
+            final int mask = mKeysA.length - 1;
+
+            for (int slot = hash(lo, hi) & mask; mKeysA[slot] != 0; slot = (slot + 1) & mask) {
+                if (mKeysA[slot] == lo && mKeysB[slot] == hi) {
+                    return mValues[slot];
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * @return true if the pair was added, false if it was in the set already.
+         */
+        boolean put(long a, long b, int value) {
+            if ((mSize + 1) * 2 > mKeysA.length) {
+                grow();
+            }
+
+            final long lo = Math.min(a, b);
+            final long hi = Math.max(a, b);
+            final int mask = mKeysA.length - 1;
+            int slot = hash(lo, hi) & mask;
+
+            for (; mKeysA[slot] != 0; slot = (slot + 1) & mask) {
+                if (mKeysA[slot] == lo && mKeysB[slot] == hi) {
+                    return false;
+                }
+            }
+            mKeysA[slot] = lo;
+            mKeysB[slot] = hi;
+            mValues[slot] = value;
+            ++mSize;
+            return true;
+        }
+
+        private void grow() {
+            final long[] keysA = mKeysA;
+            final long[] keysB = mKeysB;
+            final int[] values = mValues;
+
+            mKeysA = new long[keysA.length * 2];
+            mKeysB = new long[keysA.length * 2];
+            mValues = new int[keysA.length * 2];
+            mSize = 0;
+            for (int slot = 0; slot < keysA.length; ++slot) {
+                if (keysA[slot] != 0) {
+                    put(keysA[slot], keysB[slot], values[slot]);
+                }
+            }
+        }
+
+        private static int hash(long lo, long hi) {
+            long h = lo * 0x9E3779B97F4A7C15L + hi * 0xC2B2AE3D27D4EB4FL;
+            h ^= (h >>> 32);
+            return (int) (h ^ (h >>> 16));
+        }
+    }
+}
@@ -32,7 +32,9 @@ BulletRigidBody::BulletRigidBody()
           mRigidBody(new btRigidBody(mConstructionInfo)),
           m_centerOfMassOffset(btTransform::getIdentity()),
           mScale(1.0f, 1.0f, 1.0f),
-          mSimType(SimulationType::DYNAMIC)
+          mSimType(SimulationType::DYNAMIC),
+          mTransformDeferred(false),
+          mSettleCount(0)
 {
     mRigidBody->setUserPointer(this);
 }
@@ -42,7 +44,9 @@ BulletRigidBody::BulletRigidBody(btRigidBody *rigidBody)
           mRigidBody(rigidBody),
           m_centerOfMassOffset(btTransform::getIdentity()),
           mScale(1.0f, 1.0f, 1.0f),
-          mSimType(SimulationType::DYNAMIC)
+          mSimType(SimulationType::DYNAMIC),
+          mTransformDeferred(false),
+          mSettleCount(0)
 {
     mRigidBody->setUserPointer(this);
     mConstructionInfo.m_mass = rigidBody->isStaticObject() ? 0.f : 1.f / rigidBody->getInvMass();
@@ -187,24 +191,46 @@ void BulletRigidBody::getWorldTransform(btTransform &centerOfMassWorldTrans) con
 }
 
 void BulletRigidBody::setWorldTransform(const btTransform &centerOfMassWorldTrans) {
-    Transform* trans = owner_object()->transform();
+    if (mTransformDeferred) {
+        return;
+    }
+    if (!followOwner()) {
+        setOwnerTransform(centerOfMassWorldTrans);
+    }
+}
+
+/*
+ * True if the application moved the owner since the last time
+ * the owner transform was written.
+ */
+bool BulletRigidBody::ownerMoved() const {
     btTransform aux; getWorldTransform(aux);
 
-    if(std::abs(aux.getOrigin().getX() - prevPos.getOrigin().getX()) >= 0.1f ||
-       std::abs(aux.getOrigin().getY() - prevPos.getOrigin().getY()) >= 0.1f ||
-       std::abs(aux.getOrigin().getZ() - prevPos.getOrigin().getZ()) >= 0.1f)
+    return std::abs(aux.getOrigin().getX() - prevPos.getOrigin().getX()) >= 0.1f ||
+           std::abs(aux.getOrigin().getY() - prevPos.getOrigin().getY()) >= 0.1f ||
+           std::abs(aux.getOrigin().getZ() - prevPos.getOrigin().getZ()) >= 0.1f;
+}
+
+/*
+ * Moves the body to its owner if the application moved the owner.
+ */
+bool BulletRigidBody::followOwner() {
+    if (ownerMoved())
     {
+        btTransform aux; getWorldTransform(aux);
+
         mRigidBody->setWorldTransform(aux);
         prevPos = aux;
         //TODO: incomplete solution
+        return true;
     }
-    else
-    {
-        btTransform physicBody = (centerOfMassWorldTrans  * m_centerOfMassOffset);
-        convertBtTransform2Transform(physicBody, trans);
-        prevPos = physicBody;
-    }
-    //convertBtTransform2Transform(centerOfMassWorldTrans * m_centerOfMassOffset, trans);
+    return false;
+}
+
+void BulletRigidBody::setOwnerTransform(const btTransform &centerOfMassWorldTrans) {
+    btTransform physicBody = (centerOfMassWorldTrans  * m_centerOfMassOffset);
+    convertBtTransform2Transform(physicBody, owner_object()->transform());
+    prevPos = physicBody;
 }
 
 void BulletRigidBody::applyCentralForce(float x, float y, float z) {
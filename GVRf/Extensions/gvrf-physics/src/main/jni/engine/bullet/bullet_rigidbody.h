@@ -150,6 +150,20 @@ class BulletRigidBody : public PhysicsRigidBody,
 
     void updateConstructionInfo();
 
+    /*
+     * In fixed time step mode the world writes the owner transform
+     * once per frame instead of after each step, see BulletWorld.
+     */
+    void setTransformDeferred(bool deferred) {
+        mTransformDeferred = deferred;
+    }
+
+    bool ownerMoved() const;
+
+    bool followOwner();
+
+    void setOwnerTransform(const btTransform &centerOfMassWorldTrans);
+
 private:
 
     void finalize();
@@ -164,6 +178,12 @@ private:
     btTransform prevPos;
     btVector3 mScale;
     SimulationType mSimType;
+    bool mTransformDeferred;
+
+    friend class BulletWorld;
+    // Only used by BulletWorld on the physics thread
+    btTransform mStepStartPos;
+    int mSettleCount;
 };
 
 }
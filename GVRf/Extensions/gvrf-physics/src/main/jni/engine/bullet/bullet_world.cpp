@@ -54,6 +54,9 @@ void BulletWorld::initialize() {
     mPhysicsWorld->setGravity(btVector3(0, -10, 0));
 
     mDraggingConstraint = nullptr;
+
+    mFixedStep = false;
+    mFrontPoses = 0;
 }
 
 void BulletWorld::finalize() {
@@ -122,92 +125,381 @@ void BulletWorld::stopDrag() {
 void BulletWorld::addRigidBody(PhysicsRigidBody *body) {
     btRigidBody *b = (static_cast<BulletRigidBody *>(body))->getRigidBody();
     body->updateConstructionInfo();
+    static_cast<BulletRigidBody *>(body)->setTransformDeferred(mFixedStep);
     mPhysicsWorld->addRigidBody(b);
 }
 
 void BulletWorld::addRigidBody(PhysicsRigidBody *body, int collisiontype, int collidesWith) {
     body->updateConstructionInfo();
+    static_cast<BulletRigidBody *>(body)->setTransformDeferred(mFixedStep);
     mPhysicsWorld->addRigidBody((static_cast<BulletRigidBody *>(body))->getRigidBody(),
                                 collidesWith, collisiontype);
 }
 
 void BulletWorld::removeRigidBody(PhysicsRigidBody *body) {
-    mPhysicsWorld->removeRigidBody((static_cast<BulletRigidBody *>(body))->getRigidBody());
+    BulletRigidBody *b = static_cast<BulletRigidBody *>(body);
+
+    mPhysicsWorld->removeRigidBody(b->getRigidBody());
+    clearPoses(b);
+    b->setTransformDeferred(false);
 }
 
-void BulletWorld::step(float timeStep, int maxSubSteps) {
+void BulletWorld::updateDragPivot() {
     if (mDraggingConstraint != nullptr)
     {
         auto matrixB = mPivotObject->transform()->getModelMatrix(true);
         mDraggingConstraint->setPivotB(btVector3(matrixB[3][0], matrixB[3][1], matrixB[3][2]));
     }
+}
 
+void BulletWorld::step(float timeStep, int maxSubSteps) {
+    updateDragPivot();
     mPhysicsWorld->stepSimulation(timeStep, maxSubSteps);
 }
 
 /**
- * Returns by reference the list of new and ceased collisions
- *  that will be the objects of ONENTER and ONEXIT events.
+ * In fixed step mode the bodies do not write their owner transforms
+ * after each step. The poses are published after each call to stepFixed
+ * and the render thread writes them with syncTransforms.
  */
-void BulletWorld::listCollisions(std::list <ContactPoint> &contactPoints) {
+void BulletWorld::setFixedStep(bool enable) {
+    mFixedStep = enable;
+    for (int i = 0; i < mPhysicsWorld->getNumCollisionObjects(); ++i) {
+        btCollisionObject *obj = mPhysicsWorld->getCollisionObjectArray()[i];
+        BulletRigidBody *body = static_cast<BulletRigidBody *>(obj->getUserPointer());
+
+        if (body != nullptr) {
+            body->setTransformDeferred(enable);
+        }
+    }
+    if (!enable) {
+        clearPoses(nullptr);
+    }
+}
+
+void BulletWorld::stepFixed(float timeStep, int numSteps) {
+    if (numSteps <= 0) {
+        return;
+    }
+    {
+        std::lock_guard<std::mutex> lock(mPoseLock);
+        for (int i = 0; i < mPhysicsWorld->getNumCollisionObjects(); ++i) {
+            btRigidBody *rb = btRigidBody::upcast(mPhysicsWorld->getCollisionObjectArray()[i]);
+
+            if ((rb != nullptr) && !rb->isStaticOrKinematicObject()) {
+                static_cast<BulletRigidBody *>(rb->getUserPointer())->followOwner();
+            }
+        }
+    }
+    updateDragPivot();
+    for (int s = 0; s < numSteps; ++s) {
+        if (s == numSteps - 1) {
+            // Interpolation goes from the start to the end of the last step
+            for (int i = 0; i < mPhysicsWorld->getNumCollisionObjects(); ++i) {
+                btCollisionObject *obj = mPhysicsWorld->getCollisionObjectArray()[i];
+                BulletRigidBody *body = static_cast<BulletRigidBody *>(obj->getUserPointer());
+
+                if (body != nullptr) {
+                    body->mStepStartPos = obj->getWorldTransform();
+                }
+            }
+        }
+        mPhysicsWorld->stepSimulation(timeStep, 0, timeStep);
+    }
+    publishPoses();
+}
 
 /*
- * Creates a list of all the current collisions on the World
- * */
-    std::map<std::pair<long,long>, ContactPoint> currCollisions;
-    int numManifolds = mPhysicsWorld->getDispatcher()->getNumManifolds();
-    btPersistentManifold *contactManifold;
+ * Fills the back buffer with the poses of the moving bodies and swaps
+ * it with the front buffer. A body which falls asleep stays in the
+ * buffer two more times so its last pose gets written.
+ */
+void BulletWorld::publishPoses() {
+    btAlignedObjectArray<BodyPose> &poses = mPoses[1 - mFrontPoses];
+
+    poses.resize(0);
+    for (int i = 0; i < mPhysicsWorld->getNumCollisionObjects(); ++i) {
+        btRigidBody *rb = btRigidBody::upcast(mPhysicsWorld->getCollisionObjectArray()[i]);
+
+        if ((rb == nullptr) || rb->isStaticOrKinematicObject()) {
+            continue;
+        }
+        BulletRigidBody *body = static_cast<BulletRigidBody *>(rb->getUserPointer());
+
+        if (rb->isActive()) {
+            body->mSettleCount = 2;
+        } else if (body->mSettleCount > 0) {
+            --body->mSettleCount;
+        } else {
+            continue;
+        }
+        BodyPose pose;
+        pose.body = body;
+        pose.prev = body->mStepStartPos;
+        pose.curr = rb->getWorldTransform();
+        poses.push_back(pose);
+    }
+
+    std::lock_guard<std::mutex> lock(mPoseLock);
+    mFrontPoses = 1 - mFrontPoses;
+}
+
+void BulletWorld::clearPoses(BulletRigidBody *body) {
+    std::lock_guard<std::mutex> lock(mPoseLock);
+
+    for (int b = 0; b < 2; ++b) {
+        btAlignedObjectArray<BodyPose> &poses = mPoses[b];
+
+        for (int i = poses.size() - 1; i >= 0; --i) {
+            if ((body == nullptr) || (poses[i].body == body)) {
+                poses.swap(i, poses.size() - 1);
+                poses.pop_back();
+            }
+        }
+    }
+}
+
+/**
+ * Writes the owner transforms of the moving bodies, interpolated
+ * between the last two published poses. Called once per frame
+ * by the render thread.
+ * @param alpha 0 for the pose before the last step, 1 for the pose after it
+ * @return number of transforms written
+ */
+int BulletWorld::syncTransforms(float alpha) {
+    std::lock_guard<std::mutex> lock(mPoseLock);
+    const btAlignedObjectArray<BodyPose> &poses = mPoses[mFrontPoses];
+    btTransform t;
+
+    for (int i = 0; i < poses.size(); ++i) {
+        const BodyPose &pose = poses[i];
+
+        // Leave a body the application moved for the next step to pick up
+        if (pose.body->ownerMoved()) {
+            continue;
+        }
+        t.setOrigin(pose.prev.getOrigin().lerp(pose.curr.getOrigin(), alpha));
+        t.setRotation(pose.prev.getRotation().slerp(pose.curr.getRotation(), alpha));
+        pose.body->setOwnerTransform(t);
+    }
+    return poses.size();
+}
+
+/**
+ * Writes the current contacts, one for each pair of touching bodies.
+ * Only the first capacity contacts are written.
+ * @return number of contacts, which can be larger than capacity
+ */
+int BulletWorld::listContacts(ContactRecord *contacts, int capacity) {
+    btDispatcher *dispatcher = mPhysicsWorld->getDispatcher();
+    int numManifolds = dispatcher->getNumManifolds();
+    int count = 0;
 
     for (int i = 0; i < numManifolds; i++) {
-        ContactPoint contactPt;
-
-        contactManifold = mPhysicsWorld->getDispatcher()->
-                getManifoldByIndexInternal(i);
-
-        contactPt.body0 = (BulletRigidBody *) (contactManifold->getBody0()->getUserPointer());
-        contactPt.body1 = (BulletRigidBody *) (contactManifold->getBody1()->getUserPointer());
-        contactPt.normal[0] = contactManifold->getContactPoint(0).m_normalWorldOnB.getX();
-        contactPt.normal[1] = contactManifold->getContactPoint(0).m_normalWorldOnB.getY();
-        contactPt.normal[2] = contactManifold->getContactPoint(0).m_normalWorldOnB.getZ();
-        contactPt.distance = contactManifold->getContactPoint(0).getDistance();
-        contactPt.isHit = true;
-
-        std::pair<long, long> collisionPair((long)contactPt.body0, (long)contactPt.body1);
-        std::pair<std::pair<long, long>, ContactPoint> newPair(collisionPair, contactPt);
-        currCollisions.insert(newPair);
-
-        /*
-         * If one of these current collisions is not on the list with all the previous
-         * collision, then it should be on the return list, because it is an onEnter event
-         * */
-        auto it = prevCollisions.find(collisionPair);
-        if ( it == prevCollisions.end()) {
-            contactPoints.push_front(contactPt);
-        } 
-        contactManifold = 0;
-    }
-
-    /*
-     * After going through all the current list, go through all the previous collisions list,
-     * if one of its collisions is not on the current collision list, then it should be
-     * on the return list, because it is an onExit event
-     * */
-    for (auto it = prevCollisions.begin(); it != prevCollisions.end(); ++it) {
-        if (currCollisions.find(it->first) == currCollisions.end()) {
-            ContactPoint cp = it->second;
-            cp.isHit = false;
-            contactPoints.push_front(cp);
+        btPersistentManifold *contactManifold = dispatcher->getManifoldByIndexInternal(i);
+
+        if (contactManifold->getNumContacts() <= 0) {
+            continue;
+        }
+        if (count < capacity) {
+            const btManifoldPoint &pt = contactManifold->getContactPoint(0);
+            ContactRecord &contact = contacts[count];
+
+            contact.body0 = reinterpret_cast<int64_t>(contactManifold->getBody0()->getUserPointer());
+            contact.body1 = reinterpret_cast<int64_t>(contactManifold->getBody1()->getUserPointer());
+            contact.normal[0] = pt.m_normalWorldOnB.getX();
+            contact.normal[1] = pt.m_normalWorldOnB.getY();
+            contact.normal[2] = pt.m_normalWorldOnB.getZ();
+            contact.distance = pt.getDistance();
+        }
+        ++count;
+    }
+    return count;
+}
+
+/**
+ * Writes the state of the rigid bodies and the constraints:
+ * a SnapshotHeader, a BodyState for each body, then a ConstraintState
+ * for each constraint. Nothing is written if the buffer is too small.
+ * @return size of the snapshot in bytes
+ */
+int BulletWorld::saveState(char *buffer, int capacity) {
+    int numBodies = 0;
+    int numConstraints = 0;
+
+    for (int i = 0; i < mPhysicsWorld->getNumCollisionObjects(); ++i) {
+        btCollisionObject *obj = mPhysicsWorld->getCollisionObjectArray()[i];
+
+        if ((btRigidBody::upcast(obj) != nullptr) && (obj->getUserPointer() != nullptr)) {
+            ++numBodies;
         }
     }
+    for (int i = 0; i < mPhysicsWorld->getNumConstraints(); ++i) {
+        if (mPhysicsWorld->getConstraint(i) != mDraggingConstraint) {
+            ++numConstraints;
+        }
+    }
+
+    int size = sizeof(SnapshotHeader) + numBodies * sizeof(BodyState)
+               + numConstraints * sizeof(ConstraintState);
+    if ((buffer == nullptr) || (size > capacity)) {
+        return size;
+    }
+
+    SnapshotHeader *header = reinterpret_cast<SnapshotHeader *>(buffer);
+    header->magic = SNAPSHOT_MAGIC;
+    header->version = SNAPSHOT_VERSION;
+    header->numBodies = numBodies;
+    header->numConstraints = numConstraints;
+
+    BodyState *state = reinterpret_cast<BodyState *>(header + 1);
+    for (int i = 0; i < mPhysicsWorld->getNumCollisionObjects(); ++i) {
+        btRigidBody *rb = btRigidBody::upcast(mPhysicsWorld->getCollisionObjectArray()[i]);
+
+        if ((rb == nullptr) || (rb->getUserPointer() == nullptr)) {
+            continue;
+        }
+        const btTransform &t = rb->getWorldTransform();
+        btQuaternion rot = t.getRotation();
+
+        state->body = reinterpret_cast<int64_t>(rb->getUserPointer());
+        for (int c = 0; c < 3; ++c) {
+            state->position[c] = t.getOrigin()[c];
+            state->linearVelocity[c] = rb->getLinearVelocity()[c];
+            state->angularVelocity[c] = rb->getAngularVelocity()[c];
+        }
+        state->rotation[0] = rot.getX();
+        state->rotation[1] = rot.getY();
+        state->rotation[2] = rot.getZ();
+        state->rotation[3] = rot.getW();
+        state->activationState = rb->getActivationState();
+        state->deactivationTime = rb->getDeactivationTime();
+        state->reserved = 0;
+        ++state;
+    }
+
+    ConstraintState *cstate = reinterpret_cast<ConstraintState *>(state);
+    for (int i = 0; i < mPhysicsWorld->getNumConstraints(); ++i) {
+        btTypedConstraint *constraint = mPhysicsWorld->getConstraint(i);
+
+        if (constraint == mDraggingConstraint) {
+            continue;
+        }
+        cstate->constraint = reinterpret_cast<int64_t>(constraint);
+        cstate->enabled = constraint->isEnabled() ? 1 : 0;
+        cstate->appliedImpulse = constraint->getAppliedImpulse();
+        ++cstate;
+    }
+    return size;
+}
 
 /*
- * Save all the current collisions on the previous collisions list for the next iteration
- * */
-    prevCollisions.clear();
-    prevCollisions.swap(currCollisions);
+ * The snapshot lists the bodies in the order of the world, so the body
+ * is usually found at the same index.
+ */
+btRigidBody *BulletWorld::findRigidBody(int64_t id, int index) const {
+    const btCollisionObjectArray &objects = mPhysicsWorld->getCollisionObjectArray();
 
+    if ((index < objects.size())
+        && (reinterpret_cast<int64_t>(objects[index]->getUserPointer()) == id)) {
+        return btRigidBody::upcast(objects[index]);
+    }
+    for (int i = 0; i < objects.size(); ++i) {
+        if (reinterpret_cast<int64_t>(objects[i]->getUserPointer()) == id) {
+            return btRigidBody::upcast(objects[i]);
+        }
+    }
+    return nullptr;
+}
+
+btTypedConstraint *BulletWorld::findConstraint(int64_t id, int index) const {
+    int numConstraints = mPhysicsWorld->getNumConstraints();
+
+    if ((index < numConstraints)
+        && (reinterpret_cast<int64_t>(mPhysicsWorld->getConstraint(index)) == id)) {
+        return mPhysicsWorld->getConstraint(index);
+    }
+    for (int i = 0; i < numConstraints; ++i) {
+        if (reinterpret_cast<int64_t>(mPhysicsWorld->getConstraint(i)) == id) {
+            return mPhysicsWorld->getConstraint(i);
+        }
+    }
+    return nullptr;
 }
 
+/**
+ * Restores a snapshot written by saveState. Bodies and constraints
+ * which are no longer in the world are skipped. The cached contacts
+ * and the solver are reset, so stepping from a snapshot gives the same
+ * result every time.
+ * @return number of bodies restored, -1 if the snapshot is not valid
+ */
+int BulletWorld::restoreState(const char *buffer, int size) {
+    const SnapshotHeader *header = reinterpret_cast<const SnapshotHeader *>(buffer);
+
+    if ((buffer == nullptr) || (size < (int) sizeof(SnapshotHeader))
+        || (header->magic != SNAPSHOT_MAGIC) || (header->version != SNAPSHOT_VERSION)
+        || (header->numBodies < 0) || (header->numConstraints < 0)
+        || (size < (int) (sizeof(SnapshotHeader) + header->numBodies * sizeof(BodyState)
+                          + header->numConstraints * sizeof(ConstraintState)))) {
+        return -1;
+    }
+
+    std::lock_guard<std::mutex> lock(mPoseLock);
+    btOverlappingPairCache *pairCache = mPhysicsWorld->getBroadphase()->getOverlappingPairCache();
+    const BodyState *state = reinterpret_cast<const BodyState *>(header + 1);
+    int restored = 0;
+
+    for (int i = 0; i < header->numBodies; ++i, ++state) {
+        btRigidBody *rb = findRigidBody(state->body, i);
+
+        if (rb == nullptr) {
+            continue;
+        }
+        BulletRigidBody *body = static_cast<BulletRigidBody *>(rb->getUserPointer());
+        btTransform t(btQuaternion(state->rotation[0], state->rotation[1],
+                                   state->rotation[2], state->rotation[3]),
+                      btVector3(state->position[0], state->position[1], state->position[2]));
+        btVector3 linearVelocity(state->linearVelocity[0], state->linearVelocity[1],
+                                 state->linearVelocity[2]);
+        btVector3 angularVelocity(state->angularVelocity[0], state->angularVelocity[1],
+                                  state->angularVelocity[2]);
+
+        rb->setWorldTransform(t);
+        rb->setInterpolationWorldTransform(t);
+        rb->setLinearVelocity(linearVelocity);
+        rb->setAngularVelocity(angularVelocity);
+        rb->setInterpolationLinearVelocity(linearVelocity);
+        rb->setInterpolationAngularVelocity(angularVelocity);
+        rb->clearForces();
+        rb->forceActivationState(state->activationState);
+        rb->setDeactivationTime(state->deactivationTime);
+        if (!rb->isStaticOrKinematicObject()) {
+            body->setOwnerTransform(t);
+            body->mStepStartPos = t;
+        }
+        if (rb->getBroadphaseHandle() != nullptr) {
+            pairCache->cleanProxyFromPairs(rb->getBroadphaseHandle(), mDispatcher);
+        }
+        ++restored;
+    }
+
+    const ConstraintState *cstate = reinterpret_cast<const ConstraintState *>(state);
+    for (int i = 0; i < header->numConstraints; ++i, ++cstate) {
+        btTypedConstraint *constraint = findConstraint(cstate->constraint, i);
+
+        if (constraint != nullptr) {
+            constraint->setEnabled(cstate->enabled != 0);
+            constraint->internalSetAppliedImpulse(cstate->appliedImpulse);
+        }
+    }
+
+    mSolver->reset();
+    for (int b = 0; b < 2; ++b) {
+        mPoses[b].resize(0);
+    }
+    return restored;
+}
 
 void BulletWorld::setGravity(float x, float y, float z) {
     mPhysicsWorld->setGravity(btVector3(x, y, z));
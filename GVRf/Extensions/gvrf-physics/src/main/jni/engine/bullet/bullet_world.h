@@ -23,8 +23,9 @@
 #include "../physics_common.h"
 #include "../physics_world.h"
 
-#include <utility>
-#include <map>
+#include <mutex>
+#include <LinearMath/btAlignedObjectArray.h>
+#include <LinearMath/btTransform.h>
 #include <BulletDynamics/ConstraintSolver/btPoint2PointConstraint.h>
 
 class btDynamicsWorld;
@@ -37,6 +38,7 @@ namespace gvr {
 
 class PhysicsConstraint;
 class PhysicsRigidBody;
+class BulletRigidBody;
 
 class BulletWorld : public PhysicsWorld {
  public:
@@ -61,7 +63,17 @@ class BulletWorld : public PhysicsWorld {
 
     void step(float timeStep, int maxSubSteps);
 
-    void listCollisions(std::list <ContactPoint> &contactPoints);
+    void setFixedStep(bool enable);
+
+    void stepFixed(float timeStep, int numSteps);
+
+    int syncTransforms(float alpha);
+
+    int saveState(char *buffer, int capacity);
+
+    int restoreState(const char *buffer, int size);
+
+    int listContacts(ContactRecord *contacts, int capacity);
 
     void setGravity(float x, float y, float z);
 
@@ -74,8 +86,27 @@ class BulletWorld : public PhysicsWorld {
 
     void finalize();
 
+    void updateDragPivot();
+
+    void publishPoses();
+
+    void clearPoses(BulletRigidBody *body);
+
+    btRigidBody *findRigidBody(int64_t id, int index) const;
+
+    btTypedConstraint *findConstraint(int64_t id, int index) const;
+
  private:
-    std::map<std::pair <long,long>, ContactPoint> prevCollisions;
+    /*
+     * Poses of the moving bodies after the last two fixed steps,
+     * which the render thread interpolates.
+     */
+    struct BodyPose {
+        BulletRigidBody *body;
+        btTransform prev;
+        btTransform curr;
+    };
+
     btDynamicsWorld *mPhysicsWorld;
     btCollisionConfiguration *mCollisionConfiguration;
     btCollisionDispatcher *mDispatcher;
@@ -86,6 +117,12 @@ class BulletWorld : public PhysicsWorld {
     SceneObject *mPivotObject;
     int mActivationState;
 
+    bool mFixedStep;
+    // Written by the physics thread, read by the render thread
+    btAlignedObjectArray<BodyPose> mPoses[2];
+    int mFrontPoses;
+    std::mutex mPoseLock;
+
     //void (*gTmpFilter)(); // btNearCallback
     //int gNearCallbackCount = 0;
     //void *gUserData = 0;
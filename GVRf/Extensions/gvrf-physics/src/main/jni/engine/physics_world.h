@@ -24,18 +24,58 @@
 #include "physics_rigidbody.h"
 #include "physics_constraint.h"
 #include "../objects/scene_object.h"
-#include <list>
+#include <cstdint>
 
 namespace gvr {
 
-struct ContactPoint {
-	PhysicsRigidBody* body0 = 0;
-	PhysicsRigidBody* body1 = 0;
-	float normal[3] = {0.0f, 0.0f, 0.0f};
-	float distance = 0.0f;
-	bool isHit = true;
+/*
+ * Contact between two bodies, in the layout GVRWorld reads
+ * from its contact buffer.
+ */
+struct ContactRecord {
+	int64_t body0;
+	int64_t body1;
+	float normal[3];
+	float distance;
+};
+
+static_assert(sizeof(ContactRecord) == 32, "GVRWorld expects 32 byte contact records");
+
+/*
+ * Layout of a world snapshot, see GVRPhysicsSnapshot: a header, then a
+ * record for each rigid body, then a record for each constraint.
+ */
+struct SnapshotHeader {
+	int32_t magic;
+	int32_t version;
+	int32_t numBodies;
+	int32_t numConstraints;
+};
+
+struct BodyState {
+	int64_t body;
+	float position[3];
+	float rotation[4];
+	float linearVelocity[3];
+	float angularVelocity[3];
+	int32_t activationState;
+	float deactivationTime;
+	int32_t reserved;
+};
+
+struct ConstraintState {
+	int64_t constraint;
+	int32_t enabled;
+	float appliedImpulse;
 };
 
+static const int32_t SNAPSHOT_MAGIC = 0x50525647;   // "GVRP"
+static const int32_t SNAPSHOT_VERSION = 1;
+
+static_assert(sizeof(SnapshotHeader) == 16, "GVRPhysicsSnapshot expects a 16 byte header");
+static_assert(sizeof(BodyState) == 72, "GVRPhysicsSnapshot expects 72 byte body records");
+static_assert(sizeof(ConstraintState) == 16, "GVRPhysicsSnapshot expects 16 byte constraint records");
+
 class PhysicsWorld : public Component {
 public:
     PhysicsWorld() : Component(PhysicsWorld::getComponentType()){}
@@ -63,7 +103,17 @@ public:
 
     virtual void step(float timeStep, int maxSubSteps) = 0;
 
-    virtual void listCollisions(std::list<ContactPoint>& contactPoints) = 0;
+    virtual void setFixedStep(bool enable) = 0;
+
+    virtual void stepFixed(float timeStep, int numSteps) = 0;
+
+    virtual int syncTransforms(float alpha) = 0;
+
+    virtual int saveState(char *buffer, int capacity) = 0;
+
+    virtual int restoreState(const char *buffer, int size) = 0;
+
+    virtual int listContacts(ContactRecord *contacts, int capacity) = 0;
 
     virtual void setGravity(float gx, float gy, float gz) = 0;
 
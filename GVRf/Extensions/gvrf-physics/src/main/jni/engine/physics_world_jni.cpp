@@ -71,9 +71,29 @@ extern "C" {
     Java_org_gearvrf_physics_NativePhysics3DWorld_step(JNIEnv * env, jobject obj,
             jlong jworld, jfloat jtime_step, int maxSubSteps);
 
-    JNIEXPORT jobjectArray JNICALL
-    Java_org_gearvrf_physics_NativePhysics3DWorld_listCollisions(JNIEnv * env, jobject obj,
-                                                                    jlong jworld);
+    JNIEXPORT void JNICALL
+    Java_org_gearvrf_physics_NativePhysics3DWorld_setFixedStep(JNIEnv * env, jobject obj,
+            jlong jworld, jboolean enable);
+
+    JNIEXPORT void JNICALL
+    Java_org_gearvrf_physics_NativePhysics3DWorld_stepFixed(JNIEnv * env, jobject obj,
+            jlong jworld, jfloat jtime_step, jint numSteps);
+
+    JNIEXPORT jint JNICALL
+    Java_org_gearvrf_physics_NativePhysics3DWorld_syncTransforms(JNIEnv * env, jobject obj,
+            jlong jworld, jfloat alpha);
+
+    JNIEXPORT jint JNICALL
+    Java_org_gearvrf_physics_NativePhysics3DWorld_listContacts(JNIEnv * env, jobject obj,
+            jlong jworld, jobject jbuffer);
+
+    JNIEXPORT jint JNICALL
+    Java_org_gearvrf_physics_NativePhysics3DWorld_saveState(JNIEnv * env, jobject obj,
+            jlong jworld, jobject jbuffer);
+
+    JNIEXPORT jint JNICALL
+    Java_org_gearvrf_physics_NativePhysics3DWorld_restoreState(JNIEnv * env, jobject obj,
+            jlong jworld, jobject jbuffer, jint size);
 
     JNIEXPORT void JNICALL
     Java_org_gearvrf_physics_NativePhysics3DWorld_setGravity(JNIEnv* env, jobject obj,
@@ -166,39 +186,56 @@ Java_org_gearvrf_physics_NativePhysics3DWorld_step(JNIEnv * env, jobject obj,
     world->step((float)jtime_step, maxSubSteps);
 }
 
-JNIEXPORT jobjectArray JNICALL
-Java_org_gearvrf_physics_NativePhysics3DWorld_listCollisions(JNIEnv * env, jobject obj, jlong jworld) {
+JNIEXPORT void JNICALL
+Java_org_gearvrf_physics_NativePhysics3DWorld_setFixedStep(JNIEnv * env, jobject obj,
+        jlong jworld, jboolean enable) {
+    PhysicsWorld *world = reinterpret_cast<PhysicsWorld*>(jworld);
+
+    world->setFixedStep(enable);
+}
+
+JNIEXPORT void JNICALL
+Java_org_gearvrf_physics_NativePhysics3DWorld_stepFixed(JNIEnv * env, jobject obj,
+        jlong jworld, jfloat jtime_step, jint numSteps) {
+    PhysicsWorld *world = reinterpret_cast<PhysicsWorld*>(jworld);
 
-    jclass collisionInfoClass = env->FindClass("org/gearvrf/physics/GVRCollisionInfo");
-    jmethodID collisionInfoConstructor = env->GetMethodID(collisionInfoClass, "<init>", "(JJ[FFZ)V");
+    world->stepFixed((float)jtime_step, numSteps);
+}
 
-    PhysicsWorld *world = reinterpret_cast <PhysicsWorld*> (jworld);
-    std::list <ContactPoint> contactPoints;
+JNIEXPORT jint JNICALL
+Java_org_gearvrf_physics_NativePhysics3DWorld_syncTransforms(JNIEnv * env, jobject obj,
+        jlong jworld, jfloat alpha) {
+    PhysicsWorld *world = reinterpret_cast<PhysicsWorld*>(jworld);
 
-    world->listCollisions(contactPoints);
+    return world->syncTransforms(alpha);
+}
 
-    int size = contactPoints.size();
-    jobjectArray jNewList = env->NewObjectArray(size, collisionInfoClass, NULL);
+JNIEXPORT jint JNICALL
+Java_org_gearvrf_physics_NativePhysics3DWorld_listContacts(JNIEnv * env, jobject obj,
+        jlong jworld, jobject jbuffer) {
+    PhysicsWorld *world = reinterpret_cast<PhysicsWorld*>(jworld);
+    ContactRecord *contacts = static_cast<ContactRecord*>(env->GetDirectBufferAddress(jbuffer));
+    int capacity = env->GetDirectBufferCapacity(jbuffer) / sizeof(ContactRecord);
 
-    int i = 0;
-    for (auto it = contactPoints.begin(); it != contactPoints.end(); ++it) {
-        const ContactPoint& data = *it;
+    return world->listContacts(contacts, capacity);
+}
 
-        jfloatArray normal = env->NewFloatArray(3);
-        env->SetFloatArrayRegion(normal, 0, 3, data.normal);
+JNIEXPORT jint JNICALL
+Java_org_gearvrf_physics_NativePhysics3DWorld_saveState(JNIEnv * env, jobject obj,
+        jlong jworld, jobject jbuffer) {
+    PhysicsWorld *world = reinterpret_cast<PhysicsWorld*>(jworld);
+    char *buffer = static_cast<char*>(env->GetDirectBufferAddress(jbuffer));
 
-        jobject contactObject = env->NewObject(collisionInfoClass, collisionInfoConstructor,
-                                               (jlong)data.body0, (jlong)data.body1,
-                                               (jfloatArray)normal, (jfloat)data.distance,
-                                               (jboolean)data.isHit);
+    return world->saveState(buffer, env->GetDirectBufferCapacity(jbuffer));
+}
 
-        env->SetObjectArrayElement(jNewList, i++, contactObject);
-        env->DeleteLocalRef(contactObject);
-        env->DeleteLocalRef(normal);
-    }
+JNIEXPORT jint JNICALL
+Java_org_gearvrf_physics_NativePhysics3DWorld_restoreState(JNIEnv * env, jobject obj,
+        jlong jworld, jobject jbuffer, jint size) {
+    PhysicsWorld *world = reinterpret_cast<PhysicsWorld*>(jworld);
+    const char *buffer = static_cast<const char*>(env->GetDirectBufferAddress(jbuffer));
 
-    env->DeleteLocalRef(collisionInfoClass);
-    return jNewList;
+    return world->restoreState(buffer, size);
 }
 
 JNIEXPORT void JNICALL
@@ -55,6 +55,7 @@ import org.gearvrf.animation.GVRRepeatMode;
 import org.gearvrf.animation.keyframe.GVRAnimationBehavior;
 import org.gearvrf.animation.keyframe.GVRAnimationChannel;
 import org.gearvrf.animation.keyframe.GVRKeyFrameAnimation;
+import org.gearvrf.debug.GVRHistogram;
 
 import org.gearvrf.scene_objects.GVRVideoSceneObject;
 import org.gearvrf.scene_objects.GVRVideoSceneObjectPlayer;
@@ -131,6 +132,7 @@ public class AnimationInteractivityManager {
     private Vector<TimeSensor> timeSensors = null;
     private Vector<EventUtility> eventUtilities = null;
     private ArrayList<ScriptObject> scriptObjects = null;
+    private RouteGraph routeGraph = null;
 
     private AnchorImplementation anchorImplementation = null;
     private GVRAnimator gvrAnimator = null;
@@ -167,6 +169,8 @@ public class AnimationInteractivityManager {
         this.eventUtilities = eventUtilities;
         this.scriptObjects = scriptObjects;
         this.assetRequest = assetRequest;
+        routeGraph = new RouteGraph(this.root, definedItems, interpolators, sensors,
+                timeSensors, eventUtilities, scriptObjects);
 
         gvrAnimator = new GVRAnimator(this.gvrContext, true);
         root.attachComponent(gvrAnimator);
@@ -178,7 +182,7 @@ public class AnimationInteractivityManager {
     /**
      * buildInteractiveObject represents one X3D <ROUTE /> tag.
      * This method matches the fromNode and toNode with objects in sensors, timeSensors,
-     * interpolators and DEFinded Items array lists.  It will either construct a new
+     * interpolators and DEFinded Items array lists, looking them up by name in the RouteGraph.  It will either construct a new
      * InteractiveObject if a related <ROUTE /> has not called this method, or modify
      * an InteractiveObject if a related <ROUTE /> has been parsed here.
      * For example if a <ROUTE myTouchSensor TO myTimeSensor /> has been parsed, then another
@@ -207,52 +211,25 @@ public class AnimationInteractivityManager {
 
         // Get pointers to the Sensor, TimeSensor, Interpolator,
         // EventUtility (such as BooleanToggle), ScriptObject
-        // and/or Defined Items based the nodes of this object
-        for (Sensor sensor : sensors) {
-            if (sensor.getName().equalsIgnoreCase(fromNode)) {
-                routeFromSensor = sensor;
-            }
-        }
+        // and/or Defined Items based the nodes of this object.
+        // A ROUTE from a node to itself only sets the 'to' node.
+        boolean sameNode = fromNode.equalsIgnoreCase(toNode);
+        routeFromSensor = routeGraph.sensors.get(fromNode);
 
-        for (TimeSensor timeSensor : timeSensors) {
-            if (timeSensor.name.equalsIgnoreCase(toNode)) {
-                routeToTimeSensor = timeSensor;
-            } else if (timeSensor.name.equalsIgnoreCase(fromNode)) {
-                routeFromTimeSensor = timeSensor;
-            }
-        }
+        routeToTimeSensor = routeGraph.timeSensors.get(toNode);
+        if (!sameNode) routeFromTimeSensor = routeGraph.timeSensors.get(fromNode);
 
-        for (Interpolator interpolator : interpolators) {
-            if (interpolator.name.equalsIgnoreCase(toNode)) {
-                routeToInterpolator = interpolator;
-            } else if (interpolator.name.equalsIgnoreCase(fromNode)) {
-                routeFromInterpolator = interpolator;
-            }
-        }
+        routeToInterpolator = routeGraph.interpolators.get(toNode);
+        if (!sameNode) routeFromInterpolator = routeGraph.interpolators.get(fromNode);
 
-        for (EventUtility eventUtility : eventUtilities) {
-            if (eventUtility.getName().equalsIgnoreCase(toNode)) {
-                routeToEventUtility = eventUtility;
-            } else if (eventUtility.getName().equalsIgnoreCase(fromNode)) {
-                routeFromEventUtility = eventUtility;
-            }
-        }
+        routeToEventUtility = routeGraph.eventUtilities.get(toNode);
+        if (!sameNode) routeFromEventUtility = routeGraph.eventUtilities.get(fromNode);
 
-        for (ScriptObject scriptObject : scriptObjects) {
-            if (scriptObject.getName().equalsIgnoreCase(toNode)) {
-                routeToScriptObject = scriptObject;
-            } else if (scriptObject.getName().equalsIgnoreCase(fromNode)) {
-                routeFromScriptObject = scriptObject;
-            }
-        }
+        routeToScriptObject = routeGraph.scriptObjects.get(toNode);
+        if (!sameNode) routeFromScriptObject = routeGraph.scriptObjects.get(fromNode);
 
-        for (DefinedItem definedItem : definedItems) {
-            if (definedItem.getName().equalsIgnoreCase(toNode)) {
-                routeToDefinedItem = definedItem;
-            } else if (definedItem.getName().equalsIgnoreCase(fromNode)) {
-                routeFromDefinedItem = definedItem;
-            }
-        }
+        routeToDefinedItem = routeGraph.definedItems.get(toNode);
+        if (!sameNode) routeFromDefinedItem = routeGraph.definedItems.get(fromNode);
 
         // Now build the InteractiveObject by assigning pointers
         // to an existing InteractiveObject matches non-null links
@@ -513,6 +490,31 @@ public class AnimationInteractivityManager {
      * animation upon a TouchSensor, Anchor, etc.
      */
     public void initAnimationsAndInteractivity() {
+        // The scene is complete, so the objects ROUTEs set can be found by name
+        routeGraph.indexSceneObjects();
+
+        // Compile the ROUTEs from an EventUtility (such as BooleanToggle)
+        //   to the DEFined Objects it switches on and off
+        for (InteractiveObject interactiveObject : interactiveObjects) {
+            if ((interactiveObject.getEventUtility() != null) &&
+                    (interactiveObject.getDefinedItem() != null)) {
+                final GVRSceneObject gvrSceneObject = routeGraph
+                        .getSceneObject(interactiveObject.getDefinedItem().getName());
+                if (gvrSceneObject != null) {
+                    routeGraph.addRoute(interactiveObject.getEventUtility(), new RouteGraph.Target() {
+                        @Override
+                        public void onEvent(Object value) {
+                            GVRComponent gvrComponent = gvrSceneObject.getComponent(
+                                    GVRLight.getComponentType());
+                            if (gvrComponent != null) gvrComponent.setEnable((Boolean) value);
+                        }
+                    });
+                } else {
+                    Log.e(TAG, "'" + interactiveObject.getDefinedItem().getName() + "' possibly not found in the scene.");
+                }
+            }
+        }
+
         for (InteractiveObject interactiveObject : interactiveObjects) {
             GVRAnimationChannel gvrAnimationChannel = null;
             GVRKeyFrameAnimation gvrKeyFrameAnimation = null;
@@ -527,8 +529,8 @@ public class AnimationInteractivityManager {
                 //   first construct the animation channel based on translation, rotation, scale, etc.
                 if ((interactiveObject.getDefinedItemToField().toLowerCase().endsWith(TRANSLATION)) ||
                         (interactiveObject.getDefinedItemToField().toLowerCase().endsWith(POSITION))) {
-                    gvrAnimatedObject = root
-                            .getSceneObjectByName((interactiveObject.getDefinedItem().getName() + x3dObject.TRANSFORM_TRANSLATION_));
+                    gvrAnimatedObject = routeGraph
+                            .getSceneObject((interactiveObject.getDefinedItem().getName() + x3dObject.TRANSFORM_TRANSLATION_));
                     gvrAnimationChannel = new GVRAnimationChannel(
                             gvrAnimatedObject.getName(),
                             interactiveObject.getInterpolator().key.length, 0, 0,
@@ -545,8 +547,8 @@ public class AnimationInteractivityManager {
 
                 else if ((interactiveObject.getDefinedItemToField().toLowerCase().endsWith(ROTATION)) ||
                         (interactiveObject.getDefinedItemToField().toLowerCase().endsWith(ORIENTATION))) {
-                    gvrAnimatedObject = root
-                            .getSceneObjectByName((interactiveObject.getDefinedItem().getName() + x3dObject.TRANSFORM_ROTATION_));
+                    gvrAnimatedObject = routeGraph
+                            .getSceneObject((interactiveObject.getDefinedItem().getName() + x3dObject.TRANSFORM_ROTATION_));
                     gvrAnimationChannel = new GVRAnimationChannel(
                             gvrAnimatedObject.getName(), 0,
                             interactiveObject.getInterpolator().key.length, 0,
@@ -567,8 +569,8 @@ public class AnimationInteractivityManager {
                 }   //  end rotation
 
                 else if (interactiveObject.getDefinedItemToField().toLowerCase().endsWith(SCALE)) {
-                    gvrAnimatedObject = root
-                            .getSceneObjectByName((interactiveObject.getDefinedItem().getName() + x3dObject.TRANSFORM_SCALE_));
+                    gvrAnimatedObject = routeGraph
+                            .getSceneObject((interactiveObject.getDefinedItem().getName() + x3dObject.TRANSFORM_SCALE_));
                     gvrAnimationChannel = new GVRAnimationChannel(
                             gvrAnimatedObject.getName(), 0, 0,
                             interactiveObject.getInterpolator().key.length, GVRAnimationBehavior.DEFAULT,
@@ -633,6 +635,7 @@ public class AnimationInteractivityManager {
                                                 .IS_ACTIVE))) {
                                     if (!isRunning) {
                                         isRunning = true;
+                                        routeGraph.countFired();
                                         interactiveObjectFinal.getSensor().setHitPoint(event.getPickedObject().getHitLocation());
                                         gvrKeyFrameAnimationFinal.start(gvrContext.getAnimationEngine())
                                                 .setOnFinish(new GVROnFinish() {
@@ -659,7 +662,6 @@ public class AnimationInteractivityManager {
                     (interactiveObject.getDefinedItem() != null)) {
                 // a sensor, eventUtility (such as BooleanToggle) and defined object found
                 final InteractiveObject interactiveObjectFinal = interactiveObject;
-                final Vector<InteractiveObject> interactiveObjectsFinal = interactiveObjects;
 
                 if (interactiveObject.getSensor().getSensorType() == Sensor.Type.TOUCH) {
                     interactiveObject.getSensor().getOwnerObject().forAllDescendants(
@@ -683,15 +685,9 @@ public class AnimationInteractivityManager {
                                     stateChanged = true;
                                     EventUtility eventUtility = interactiveObjectFinal.getEventUtility();
                                     eventUtility.setToggle(!eventUtility.getToggle());
-                                    for (InteractiveObject interactiveObject : interactiveObjectsFinal) {
-                                        if (interactiveObject.getEventUtility() == interactiveObjectFinal.getEventUtility()) {
-                                            GVRSceneObject gvrSceneObject = root
-                                                    .getSceneObjectByName(interactiveObject.getDefinedItem().getName());
-                                            GVRComponent gvrComponent = gvrSceneObject.getComponent(
-                                                    GVRLight.getComponentType());
-                                            gvrComponent.setEnable(eventUtility.getToggle());
-                                        }
-                                    }
+                                    routeGraph.countFired();
+                                    // the lights ROUTEd from the EventUtility are switched next frame
+                                    routeGraph.send(eventUtility, eventUtility.getToggle());
                                 }
                             } else if (!event.isActive() && interactiveObjectFinal.getSensorFromField().equals(Sensor.IS_ACTIVE)) {
                                 stateChanged = false;
@@ -745,8 +741,8 @@ public class AnimationInteractivityManager {
                                         if ( hitObjectSceneObject.getName().isEmpty() ) {
                                             hitObjectSceneObject = hitObjectSceneObject.getParent();
                                         }
-                                        gvrSceneObject = root
-                                                .getSceneObjectByName((hitObjectSceneObject.getName() + x3dObject.TRANSFORM_TRANSLATION_));
+                                        gvrSceneObject = routeGraph
+                                                .getSceneObject((hitObjectSceneObject.getName() + x3dObject.TRANSFORM_TRANSLATION_));
 
                                         initPlaneTranslation[0] = gvrSceneObject.getTransform().getPositionX();
                                         initPlaneTranslation[1] = gvrSceneObject.getTransform().getPositionY();
@@ -854,17 +850,19 @@ public class AnimationInteractivityManager {
                                     return true;
                                 }
                             });
+                    final GVRSceneObject gvrSceneObjectFinal = routeGraph
+                            .getSceneObject(interactiveObject.getDefinedItem().getName());
                     interactiveObject.getSensor().addISensorEvents(new ISensorEvents() {
                         boolean isMovieStateSet = false;
 
                         @Override
                         public void onSensorEvent(SensorEvent event) {
                             //Setup SensorEvent callback here
-                            GVRSceneObject gvrSceneObject = root
-                                    .getSceneObjectByName(interactiveObjectFinal.getDefinedItem().getName());
+                            GVRSceneObject gvrSceneObject = gvrSceneObjectFinal;
                             GVRComponent gvrComponent = gvrSceneObject.getComponent(GVRLight.getComponentType());
 
                             if (gvrComponent != null) {
+                                routeGraph.countFired();
                                 if (event.isOver() && interactiveObjectFinal.getSensorFromField().equals(Sensor.IS_OVER)) {
                                     if (gvrComponent != null) gvrComponent.setEnable(true);
                                 } else {
@@ -873,6 +871,7 @@ public class AnimationInteractivityManager {
                             } else if (gvrSceneObject instanceof GVRVideoSceneObject) {
                                 // isOver, but only go thru once per isOver.
                                 if (event.isOver() && !isMovieStateSet) {
+                                    routeGraph.countFired();
                                     GVRVideoSceneObject gvrVideoSceneObject = (GVRVideoSceneObject) gvrSceneObject;
                                     GVRVideoSceneObjectPlayer gvrVideoSceneObjectPlayer = gvrVideoSceneObject.getMediaPlayer();
                                     try {
@@ -1024,6 +1023,8 @@ public class AnimationInteractivityManager {
                                     stateChanged = true;
                                     EventUtility eventUtility = interactiveObjectFinal.getEventUtility();
                                     eventUtility.setToggle(!eventUtility.getToggle());
+                                    routeGraph.countFired();
+                                    routeGraph.send(eventUtility, eventUtility.getToggle());
                                 }
                             } else if (!event.isActive() && interactiveObjectFinal.getSensorFromField().equals(Sensor.IS_ACTIVE)) {
                                 stateChanged = false;
@@ -1048,12 +1049,39 @@ public class AnimationInteractivityManager {
             final GVRDrawFrameListener mOnDrawFrame = new DrawFrame();
             gvrContext.registerDrawFrameListener(mOnDrawFrame);
         }
+        // Propagate the events of the compiled ROUTEs once per frame,
+        //   and count the ROUTEs fired by the listeners above
+        if ((routeGraph.getRouteCount() > 0) || !interactiveObjects.isEmpty()) {
+            gvrContext.registerDrawFrameListener(routeGraph);
+        }
     }   //  end initAnimationsAndInteractivity.
 
+    /**
+     * Returns the number of ROUTEs fired in the last frame, including the ones
+     * fired by the events of other ROUTEs. Only the ROUTEs from an EventUtility
+     * are compiled into the route graph; the others are counted by the
+     * sensor and Script listeners when they deliver an event.
+     * @return number of ROUTEs fired in the last frame.
+     */
+    public int getRoutesFired() {
+        return routeGraph.getRoutesFired();
+    }
+
+    /**
+     * Returns the number of ROUTEs fired in each frame since the
+     * counts were last logged, which is every 600 frames.
+     * @return copy of the histogram of the ROUTEs fired per frame.
+     */
+    public GVRHistogram getRoutesFiredPerFrame() {
+        return routeGraph.getRoutesFiredPerFrame();
+    }
+
 
     private final class SensorActiveDrawFrame implements GVRDrawFrameListener {
         @Override
         public void onDrawFrame(float frameTime) {
+            // the sensor sends its translation or rotation every frame while it is dragged
+            routeGraph.countFired();
             sensorImplementation.onSensorActiveDrawFrame(frameTime);
         }
     }
@@ -1160,8 +1188,8 @@ public class AnimationInteractivityManager {
                     }
                     if (mSensorType == Sensor.Type.PLANE) {
 
-                        mGVRSceneObject = root
-                                .getSceneObjectByName((mGVRSceneObject.getName() + x3dObject.TRANSFORM_TRANSLATION_));
+                        mGVRSceneObject = routeGraph
+                                .getSceneObject((mGVRSceneObject.getName() + x3dObject.TRANSFORM_TRANSLATION_));
 
                         if (mGVRSceneObject != null) {
                             if (StringFieldMatch(mInteractiveObjectFinal.getDefinedItemToField(), "translation")) {
@@ -1178,14 +1206,14 @@ public class AnimationInteractivityManager {
                     }  //  end if PLANESensor
                     else if (mSensorType == Sensor.Type.CYLINDER) {
 
-                        GVRSceneObject gvrSceneObjectTranslation = root
-                                .getSceneObjectByName((mGVRSceneObject.getName() + x3dObject.TRANSFORM_TRANSLATION_));
+                        GVRSceneObject gvrSceneObjectTranslation = routeGraph
+                                .getSceneObject((mGVRSceneObject.getName() + x3dObject.TRANSFORM_TRANSLATION_));
                         initPlaneTranslation[0] = gvrSceneObjectTranslation.getTransform().getPositionX();
                         initPlaneTranslation[1] = gvrSceneObjectTranslation.getTransform().getPositionY();
                         initPlaneTranslation[2] = gvrSceneObjectTranslation.getTransform().getPositionZ();
 
-                        mGVRSceneObject = root
-                                .getSceneObjectByName((mGVRSceneObject.getName() + x3dObject.TRANSFORM_ROTATION_));
+                        mGVRSceneObject = routeGraph
+                                .getSceneObject((mGVRSceneObject.getName() + x3dObject.TRANSFORM_ROTATION_));
 
                         if (mGVRSceneObject != null) {
                             if (StringFieldMatch(mInteractiveObjectFinal.getDefinedItemToField(), "rotation")) {
@@ -1213,14 +1241,14 @@ public class AnimationInteractivityManager {
                     }   //  end if CylinderSensor
                    else if (mSensorType == Sensor.Type.SPHERE) {
 
-                        GVRSceneObject gvrSceneObjectTranslation = root
-                                .getSceneObjectByName((mGVRSceneObject.getName() + x3dObject.TRANSFORM_TRANSLATION_));
+                        GVRSceneObject gvrSceneObjectTranslation = routeGraph
+                                .getSceneObject((mGVRSceneObject.getName() + x3dObject.TRANSFORM_TRANSLATION_));
                         initPlaneTranslation[0] = gvrSceneObjectTranslation.getTransform().getPositionX();
                         initPlaneTranslation[1] = gvrSceneObjectTranslation.getTransform().getPositionY();
                         initPlaneTranslation[2] = gvrSceneObjectTranslation.getTransform().getPositionZ();
 
-                        mGVRSceneObject = root
-                                .getSceneObjectByName( mGVRSceneObject.getName() + x3dObject.TRANSFORM_ROTATION_ );
+                        mGVRSceneObject = routeGraph
+                                .getSceneObject( mGVRSceneObject.getName() + x3dObject.TRANSFORM_ROTATION_ );
 
                         if (mGVRSceneObject != null) {
                             if (StringFieldMatch(mInteractiveObjectFinal.getDefinedItemToField(), "rotation")) {
@@ -1313,7 +1341,7 @@ public class AnimationInteractivityManager {
                     float[] lookAt = gvrCameraRig.getLookAt();
                     Vector3f cameraDir = new Vector3f(lookAt[0], lookAt[1], lookAt[2]);
                     cameraDir.sub(initCameraDir);
-                    if (StringFieldMatch(mInteractiveObjectFinal.getSensorFromField(), "rotation")) {
+                    if (fromField.equals("rotation")) {
                         float xRotation = (cameraDir.x * initHitDistance) * (float) Math.PI / 2;
                         float yRotation = (cameraDir.y * initHitDistance) * (float) Math.PI / 2;
 
@@ -1328,7 +1356,7 @@ public class AnimationInteractivityManager {
                         quatX.mul(quatY);
                         quatX.mul(initQuat);
                         mGVRSceneObject.getTransform().setRotation(quatX.w, quatX.x, quatX.y, quatX.z);
-                    } else if (StringFieldMatch(mInteractiveObjectFinal.getSensorFromField(), "trackPoint")) {
+                    } else if (fromField.equals("trackPoint")) {
                         float xLoc = (cameraDir.x * initHitDistance) ;
                         float yLoc = (cameraDir.y * initHitDistance) ;
                         mGVRSceneObject.getTransform().setPositionX(xLoc);
@@ -1442,18 +1470,19 @@ public class AnimationInteractivityManager {
     /* Allows string matching fields, handling mis-matched case, if value has 'set' so
     'set_translation' and 'translation' or 'translation_changed' and 'translation' match.
     Also gets rid of leading and trailing spaces.  All possible in JavaScript and X3D Routes.
+    Compares in place, as it is called for every field of every event.
      */
     private boolean StringFieldMatch (String original, String matching) {
-        boolean equal = false;
-        original = original.toLowerCase().trim();
-        matching = matching.toLowerCase();
-        if (original.endsWith(matching)) {
-            equal = true;
+        int start = 0;
+        int end = original.length();
+        int length = matching.length();
+        while ((start < end) && (original.charAt(start) <= ' ')) start++;
+        while ((end > start) && (original.charAt(end - 1) <= ' ')) end--;
+        if ((end - start) < length) {
+            return false;
         }
-        else if (original.startsWith(matching)) {
-            equal = true;
-        }
-        return equal;
+        return original.regionMatches(true, end - length, matching, 0, length) ||
+                original.regionMatches(true, start, matching, 0, length);
     }
 
     // funtion called each event and sets the arguments (parameters)
@@ -1636,14 +1665,14 @@ public class AnimationInteractivityManager {
                             else {
                                 if (definedItem.getGVRSceneObject() != null) {
                                     if ( StringFieldMatch( scriptObject.getFromDefinedItemField(field), "translation") ) {
-                                        GVRSceneObject gvrSceneObjectTranslation = root
-                                                .getSceneObjectByName((definedItem.getGVRSceneObject().getName() + x3dObject.TRANSFORM_TRANSLATION_));
+                                        GVRSceneObject gvrSceneObjectTranslation = routeGraph
+                                                .getSceneObject((definedItem.getGVRSceneObject().getName() + x3dObject.TRANSFORM_TRANSLATION_));
                                         scriptParameters.add(gvrSceneObjectTranslation.getTransform().getPositionX());
                                         scriptParameters.add(gvrSceneObjectTranslation.getTransform().getPositionY());
                                         scriptParameters.add(gvrSceneObjectTranslation.getTransform().getPositionZ());
                                     } else if ( StringFieldMatch( scriptObject.getFromDefinedItemField(field), "scale") ) {
-                                        GVRSceneObject gvrSceneObjectScale = root
-                                                .getSceneObjectByName((definedItem.getGVRSceneObject().getName() + x3dObject.TRANSFORM_SCALE_));
+                                        GVRSceneObject gvrSceneObjectScale = routeGraph
+                                                .getSceneObject((definedItem.getGVRSceneObject().getName() + x3dObject.TRANSFORM_SCALE_));
                                         scriptParameters.add(gvrSceneObjectScale.getTransform().getScaleX());
                                         scriptParameters.add(gvrSceneObjectScale.getTransform().getScaleY());
                                         scriptParameters.add(gvrSceneObjectScale.getTransform().getScaleZ());
@@ -2075,6 +2104,10 @@ public class AnimationInteractivityManager {
     // Run the JavaScript program, Output saved in localBindings
     private void RunScript(InteractiveObject interactiveObject, String functionName, Object[] parameters) {
         boolean complete = false;
+        if (!functionName.equals(INITIALIZE_FUNCTION)) {
+            // the event ROUTEd to the Script
+            routeGraph.countFired();
+        }
         if ( V8JavaScriptEngine) {
             GVRJavascriptV8File gvrJavascriptV8File = interactiveObject.getScriptObject().getGVRJavascriptV8File();
             String paramString = "var params =[";
@@ -2148,6 +2181,7 @@ public class AnimationInteractivityManager {
                             }  //  end scriptObjectToDefinedItem != null
                             else if ( scriptObjectToEventUtility != null) {
                                 scriptObjectToEventUtility.setToggle(sfBool.getValue());
+                                routeGraph.send(scriptObjectToEventUtility, sfBool.getValue());
                             }
                             else if ( scriptObject.getToTimeSensor(fieldNode) != null) {
                                 TimeSensor timeSensor = scriptObject.getToTimeSensor(fieldNode);
@@ -2311,15 +2345,15 @@ public class AnimationInteractivityManager {
                                 if ( StringFieldMatch( scriptObject.getToDefinedItemField(fieldNode), "translation")  ||
                                     StringFieldMatch( scriptObject.getToDefinedItemField(fieldNode), "location") ) {
                                     // location applies to point light and spot light
-                                    GVRSceneObject gvrSceneObjectTranslation = root
-                                            .getSceneObjectByName((scriptObjectToDefinedItem.getGVRSceneObject().getName() + x3dObject.TRANSFORM_TRANSLATION_));
+                                    GVRSceneObject gvrSceneObjectTranslation = routeGraph
+                                            .getSceneObject((scriptObjectToDefinedItem.getGVRSceneObject().getName() + x3dObject.TRANSFORM_TRANSLATION_));
                                     if (gvrSceneObjectTranslation != null)
                                         gvrSceneObjectTranslation.getTransform().setPosition(sfVec3f.x, sfVec3f.y, sfVec3f.z);
                                     else
                                         gvrSceneObject.getTransform().setPosition(sfVec3f.x, sfVec3f.y, sfVec3f.z);
                                 } else if ( StringFieldMatch( scriptObject.getToDefinedItemField(fieldNode), "scale") ) {
-                                    GVRSceneObject gvrSceneObjectScale = root
-                                            .getSceneObjectByName((scriptObjectToDefinedItem.getGVRSceneObject().getName() + x3dObject.TRANSFORM_SCALE_));
+                                    GVRSceneObject gvrSceneObjectScale = routeGraph
+                                            .getSceneObject((scriptObjectToDefinedItem.getGVRSceneObject().getName() + x3dObject.TRANSFORM_SCALE_));
                                     if (gvrSceneObjectScale != null)
                                         gvrSceneObjectScale.getTransform().setScale(sfVec3f.x, sfVec3f.y, sfVec3f.z);
                                     else
@@ -2406,8 +2440,8 @@ public class AnimationInteractivityManager {
                                 if ( StringFieldMatch( scriptObject.getToDefinedItemField(fieldNode), "rotation") ) {
                                     scriptObjectToDefinedItem.setAxisAngle(sfRotation.angle, sfRotation.x, sfRotation.y, sfRotation.z);
 
-                                    GVRSceneObject gvrSceneObjectRotation = root
-                                            .getSceneObjectByName((scriptObjectToDefinedItem.getGVRSceneObject().getName() + x3dObject.TRANSFORM_ROTATION_));
+                                    GVRSceneObject gvrSceneObjectRotation = routeGraph
+                                            .getSceneObject((scriptObjectToDefinedItem.getGVRSceneObject().getName() + x3dObject.TRANSFORM_ROTATION_));
                                     float angleDegrees = (float) Math.toDegrees(sfRotation.angle);  // convert radians to degrees
                                     if (gvrSceneObjectRotation != null) {
                                         gvrSceneObjectRotation.getTransform().setRotationByAxis(angleDegrees, sfRotation.x, sfRotation.y, sfRotation.z);
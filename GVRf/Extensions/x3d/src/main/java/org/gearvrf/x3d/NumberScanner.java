@@ -0,0 +1,226 @@
+
+/* Copyright 2016 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.x3d;
+
+/**
+ * Reads the numbers of an X3D attribute such as point="0 1.5e-2 -3, ...".
+ * <p>
+ * The attribute is copied into a character array which is kept from one
+ * attribute to the next, and the numbers are read from it in place,
+ * so scanning allocates nothing once the array is large enough.
+ * Numbers are separated by spaces, commas or any character which cannot
+ * start a number. Exponents ("3e-2", "1.5E+3") are part of the number.
+ * <p>
+ * Floats with up to 18 significant digits and a decimal exponent up to 22
+ * are converted with one multiplication or division of doubles, which is
+ * exact before the final rounding. Longer numbers and larger exponents,
+ * which X3D exporters rarely write, are converted by Double.parseDouble.
+ */
+class NumberScanner
+{
+    private static final double[] POWERS_OF_TEN =
+            {
+                    1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+                    1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+            };
+    private static final int MAX_DIGITS = 18;
+
+    private char[] mChars = new char[256];
+    private int mPos;
+    private int mEnd;
+
+    /**
+     * Start reading the numbers of a string.
+     * @param numberString string with the numbers.
+     */
+    void reset(String numberString)
+    {
+        mEnd = numberString.length();
+        if (mEnd > mChars.length)
+        {
+            mChars = new char[Math.max(mEnd, mChars.length * 2)];
+        }
+        numberString.getChars(0, mEnd, mChars, 0);
+        mPos = 0;
+    }
+
+    /**
+     * Skip to the next number.
+     * @return true if there is another number, false at the end of the string.
+     */
+    boolean hasNext()
+    {
+        final char[] chars = mChars;
+        for (; mPos < mEnd; ++mPos)
+        {
+            char c = chars[mPos];
+            if ((c >= '0') && (c <= '9'))
+            {
+                return true;
+            }
+            if (((c == '-') || (c == '+') || (c == '.')) && startsNumber(mPos))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Read the next number as an integer, such as an index.
+     * Call {@link #hasNext()} first.
+     * @return the number, truncated if it is not an integer.
+     */
+    int nextInt()
+    {
+        final char[] chars = mChars;
+        final int start = mPos;
+        boolean negative = false;
+        int value = 0;
+
+        if ((chars[mPos] == '-') || (chars[mPos] == '+'))
+        {
+            negative = (chars[mPos++] == '-');
+        }
+        while ((mPos < mEnd) && (chars[mPos] >= '0') && (chars[mPos] <= '9'))
+        {
+            value = value * 10 + (chars[mPos++] - '0');
+        }
+        if ((mPos < mEnd) &&
+            ((chars[mPos] == '.') || (chars[mPos] == 'e') || (chars[mPos] == 'E')))
+        {
+            mPos = start;
+            return (int) nextFloat();
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Read the next number as a float.
+     * Call {@link #hasNext()} first.
+     * @return the number.
+     */
+    float nextFloat()
+    {
+        final char[] chars = mChars;
+        final int start = mPos;
+        boolean negative = false;
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+
+        if ((chars[mPos] == '-') || (chars[mPos] == '+'))
+        {
+            negative = (chars[mPos++] == '-');
+        }
+        for (; (mPos < mEnd) && (chars[mPos] >= '0') && (chars[mPos] <= '9'); ++mPos)
+        {
+            if ((mantissa != 0) || (chars[mPos] != '0'))
+            {
+                if (digits < MAX_DIGITS)
+                {
+                    mantissa = mantissa * 10 + (chars[mPos] - '0');
+                }
+                else
+                {
+                    ++exponent;     // digit beyond the precision kept
+                }
+                ++digits;
+            }
+        }
+        if ((mPos < mEnd) && (chars[mPos] == '.'))
+        {
+            for (++mPos; (mPos < mEnd) && (chars[mPos] >= '0') && (chars[mPos] <= '9'); ++mPos)
+            {
+                if ((mantissa != 0) || (chars[mPos] != '0'))
+                {
+                    if (digits < MAX_DIGITS)
+                    {
+                        mantissa = mantissa * 10 + (chars[mPos] - '0');
+                        --exponent;
+                    }
+                    ++digits;
+                }
+                else
+                {
+                    --exponent;     // leading zero after the point
+                }
+            }
+        }
+        if ((mPos < mEnd) && ((chars[mPos] == 'e') || (chars[mPos] == 'E')) && startsExponent(mPos + 1))
+        {
+            boolean negativeExponent = false;
+            int e = 0;
+
+            ++mPos;
+            if ((chars[mPos] == '-') || (chars[mPos] == '+'))
+            {
+                negativeExponent = (chars[mPos++] == '-');
+            }
+            for (; (mPos < mEnd) && (chars[mPos] >= '0') && (chars[mPos] <= '9'); ++mPos)
+            {
+                if (e < 10000)
+                {
+                    e = e * 10 + (chars[mPos] - '0');
+                }
+            }
+            exponent += negativeExponent ? -e : e;
+        }
+
+        double value;
+        if (mantissa == 0)
+        {
+            value = 0;
+        }
+        else if ((digits <= MAX_DIGITS) && (exponent >= -22) && (exponent <= 22) &&
+                 (mantissa < (1L << 53)))
+        {
+            value = (exponent >= 0) ? mantissa * POWERS_OF_TEN[exponent]
+                                    : mantissa / POWERS_OF_TEN[-exponent];
+        }
+        else
+        {
+            value = Math.abs(Double.parseDouble(new String(chars, start, mPos - start)));
+        }
+        return (float) (negative ? -value : value);
+    }
+
+    /*
+     * True if a sign or decimal point at this position is followed by a
+     * digit, directly or after a decimal point.
+     */
+    private boolean startsNumber(int pos)
+    {
+        if ((mChars[pos] != '.') && (pos + 1 < mEnd) && (mChars[pos + 1] == '.'))
+        {
+            ++pos;
+        }
+        return (pos + 1 < mEnd) && (mChars[pos + 1] >= '0') && (mChars[pos + 1] <= '9');
+    }
+
+    /*
+     * True if the characters after an 'e' are an exponent.
+     */
+    private boolean startsExponent(int pos)
+    {
+        if ((pos < mEnd) && ((mChars[pos] == '-') || (mChars[pos] == '+')))
+        {
+            ++pos;
+        }
+        return (pos < mEnd) && (mChars[pos] >= '0') && (mChars[pos] <= '9');
+    }
+}
@@ -0,0 +1,335 @@
+
+/* Copyright 2016 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.x3d;
+
+import org.gearvrf.GVRDrawFrameListener;
+import org.gearvrf.GVRSceneObject;
+import org.gearvrf.debug.GVRHistogram;
+import org.gearvrf.utility.Log;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * RouteGraph is the compiled form of the X3D ROUTEs of a scene.
+ * <p>
+ * While the file is parsed, the DEFined nodes (Sensors, TimeSensors,
+ * Interpolators, EventUtilities, Scripts and DEFined Items) are indexed by
+ * name, so matching the nodes of a ROUTE is a map lookup instead of a scan
+ * of every list. When the scene is complete the GVRSceneObjects are indexed
+ * by name in one traversal, so the objects a ROUTE writes to are resolved
+ * once and not searched for in the scene graph at every event.
+ * <p>
+ * The ROUTEs from an EventUtility (such as a BooleanToggle) to the DEFined
+ * objects it switches are compiled into targets of their source node.
+ * Events sent to the graph are propagated once per frame: the targets of
+ * each source are called in order, and the events they send are propagated
+ * in the same pass. A source sends at most one event per frame, so a cycle
+ * of ROUTEs is broken instead of looping forever, as the X3D event model
+ * requires.
+ * <p>
+ * The other ROUTEs (from sensors to TimeSensors, Scripts and transforms)
+ * are still carried out by the sensor and frame listeners of
+ * AnimationInteractivityManager, which report each event they deliver with
+ * {@link #countFired()}. The number of ROUTEs fired in each frame, compiled
+ * or not, is recorded.
+ */
+class RouteGraph implements GVRDrawFrameListener {
+
+    /**
+     * The node at the end of a ROUTE, with its field already resolved.
+     */
+    interface Target {
+        /**
+         * Called on the GL thread when the source of the ROUTE sends a value.
+         * @param value the value sent, such as a Boolean for a BooleanToggle.
+         */
+        void onEvent(Object value);
+    }
+
+    private static final String TAG = RouteGraph.class.getSimpleName();
+    private static final int MAX_ROUTES_PER_FRAME = 4096;
+    private static final int REPORT_FRAMES = 600;
+
+    private final GVRSceneObject root;
+
+    final NodeIndex<Sensor> sensors;
+    final NodeIndex<TimeSensor> timeSensors;
+    final NodeIndex<Interpolator> interpolators;
+    final NodeIndex<EventUtility> eventUtilities;
+    final NodeIndex<ScriptObject> scriptObjects;
+    final NodeIndex<DefinedItem> definedItems;
+
+    private final HashMap<String, GVRSceneObject> sceneObjects = new HashMap<String, GVRSceneObject>();
+    private final IdentityHashMap<Object, ArrayList<Target>> routes = new IdentityHashMap<Object, ArrayList<Target>>();
+    private int routeCount = 0;
+
+    // Events sent since the last frame, guarded by pendingSources
+    private final ArrayList<Object> pendingSources = new ArrayList<Object>();
+    private final ArrayList<Object> pendingValues = new ArrayList<Object>();
+
+    // Only used on the GL thread
+    private final ArrayList<Object> eventSources = new ArrayList<Object>();
+    private final ArrayList<Object> eventValues = new ArrayList<Object>();
+    private final IdentityHashMap<Object, Boolean> firedSources = new IdentityHashMap<Object, Boolean>();
+    private final GVRHistogram routesPerFrame = new GVRHistogram(MAX_ROUTES_PER_FRAME);
+    private Thread propagatingThread = null;
+    private boolean cycleReported = false;
+    private int framesSinceReport = 0;
+    private volatile int routesFired = 0;
+    // ROUTEs fired by the listeners outside the graph since the last frame
+    private final AtomicInteger listenerRoutesFired = new AtomicInteger();
+
+    RouteGraph(GVRSceneObject root,
+               List<DefinedItem> definedItems,
+               List<Interpolator> interpolators,
+               List<Sensor> sensors,
+               List<TimeSensor> timeSensors,
+               List<EventUtility> eventUtilities,
+               List<ScriptObject> scriptObjects) {
+        this.root = root;
+        this.sensors = new NodeIndex<Sensor>(sensors) {
+            String getName(Sensor sensor) {
+                return sensor.getName();
+            }
+        };
+        this.timeSensors = new NodeIndex<TimeSensor>(timeSensors) {
+            String getName(TimeSensor timeSensor) {
+                return timeSensor.name;
+            }
+        };
+        this.interpolators = new NodeIndex<Interpolator>(interpolators) {
+            String getName(Interpolator interpolator) {
+                return interpolator.name;
+            }
+        };
+        this.eventUtilities = new NodeIndex<EventUtility>(eventUtilities) {
+            String getName(EventUtility eventUtility) {
+                return eventUtility.getName();
+            }
+        };
+        this.scriptObjects = new NodeIndex<ScriptObject>(scriptObjects) {
+            String getName(ScriptObject scriptObject) {
+                return scriptObject.getName();
+            }
+        };
+        this.definedItems = new NodeIndex<DefinedItem>(definedItems) {
+            String getName(DefinedItem definedItem) {
+                return definedItem.getName();
+            }
+        };
+    }
+
+    /**
+     * Index the GVRSceneObjects by name, once the scene is complete.
+     * When several objects have the same name the first one in depth
+     * first order is kept, the one GVRSceneObject.getSceneObjectByName finds.
+     */
+    synchronized void indexSceneObjects() {
+        sceneObjects.clear();
+        root.forAllDescendants(new GVRSceneObject.SceneVisitor() {
+            public boolean visit(GVRSceneObject obj) {
+                String name = obj.getName();
+                if ((name != null) && !name.isEmpty() && !sceneObjects.containsKey(name)) {
+                    sceneObjects.put(name, obj);
+                }
+                return true;
+            }
+        });
+    }
+
+    /**
+     * Find a GVRSceneObject by name without searching the scene graph,
+     * unless it was added after the scene was indexed. A name which is
+     * not found is remembered as missing until the scene is indexed again.
+     * @param name exact name of the GVRSceneObject
+     * @return the GVRSceneObject, or null if there is none with this name.
+     */
+    synchronized GVRSceneObject getSceneObject(String name) {
+        if ((name == null) || name.isEmpty()) {
+            return null;
+        }
+        GVRSceneObject gvrSceneObject = sceneObjects.get(name);
+        if ((gvrSceneObject == null) && !sceneObjects.containsKey(name)) {
+            gvrSceneObject = root.getSceneObjectByName(name);
+            sceneObjects.put(name, gvrSceneObject);
+        }
+        return gvrSceneObject;
+    }
+
+    /**
+     * Compile a ROUTE from a node to a target.
+     * @param source the node sending the events, such as an EventUtility.
+     * @param target called with each value the source sends.
+     */
+    void addRoute(Object source, Target target) {
+        ArrayList<Target> targets = routes.get(source);
+        if (targets == null) {
+            targets = new ArrayList<Target>();
+            routes.put(source, targets);
+        }
+        targets.add(target);
+        routeCount++;
+    }
+
+    /**
+     * @return number of compiled ROUTEs.
+     */
+    int getRouteCount() {
+        return routeCount;
+    }
+
+    /**
+     * Send an event from a node. Events sent while the graph propagates
+     * are part of the same pass, other events wait for the next frame.
+     * If a source sends several events before the next frame only the
+     * last value is propagated.
+     * @param source the node sending the event.
+     * @param value the new value of its output field.
+     */
+    void send(Object source, Object value) {
+        if (propagatingThread == Thread.currentThread()) {
+            eventSources.add(source);
+            eventValues.add(value);
+            return;
+        }
+        synchronized (pendingSources) {
+            for (int i = 0; i < pendingSources.size(); ++i) {
+                if (pendingSources.get(i) == source) {
+                    pendingValues.set(i, value);
+                    return;
+                }
+            }
+            pendingSources.add(source);
+            pendingValues.add(value);
+        }
+    }
+
+    /**
+     * Count a ROUTE event delivered by a listener outside the graph.
+     * It is added to the ROUTEs fired in the next frame.
+     * Can be called from any thread.
+     */
+    void countFired() {
+        listenerRoutesFired.incrementAndGet();
+    }
+
+    /**
+     * @return number of ROUTEs fired in the last frame.
+     */
+    int getRoutesFired() {
+        return routesFired;
+    }
+
+    /**
+     * @return copy of the histogram of the ROUTEs fired per frame,
+     * since the counts were last logged.
+     */
+    GVRHistogram getRoutesFiredPerFrame() {
+        return new GVRHistogram(routesPerFrame);
+    }
+
+    @Override
+    public void onDrawFrame(float frameTime) {
+        synchronized (pendingSources) {
+            eventSources.addAll(pendingSources);
+            eventValues.addAll(pendingValues);
+            pendingSources.clear();
+            pendingValues.clear();
+        }
+
+        int fired = 0;
+        propagatingThread = Thread.currentThread();
+        try {
+            // targets may append to the events while they are propagated
+            for (int i = 0; i < eventSources.size(); ++i) {
+                Object source = eventSources.get(i);
+                if (firedSources.put(source, Boolean.TRUE) != null) {
+                    if (!cycleReported) {
+                        cycleReported = true;
+                        Log.w(TAG, "ROUTE cycle, node sent a second event in one frame");
+                    }
+                    continue;
+                }
+                ArrayList<Target> targets = routes.get(source);
+                if (targets != null) {
+                    Object value = eventValues.get(i);
+                    for (int t = 0; t < targets.size(); ++t) {
+                        targets.get(t).onEvent(value);
+                    }
+                    fired += targets.size();
+                }
+            }
+        } finally {
+            propagatingThread = null;
+            eventSources.clear();
+            eventValues.clear();
+            firedSources.clear();
+        }
+
+        fired += listenerRoutesFired.getAndSet(0);
+        routesFired = fired;
+        routesPerFrame.record(fired);
+        if (++framesSinceReport >= REPORT_FRAMES) {
+            framesSinceReport = 0;
+            if (routesPerFrame.getMax() > 0) {
+                Log.d(TAG, "ROUTEs fired per frame: %s", routesPerFrame);
+            }
+            routesPerFrame.reset();
+        }
+    }
+
+    /**
+     * Index of the nodes of one type by their DEF name, ignoring case.
+     * The nodes are appended to the list while the file is parsed, so
+     * the ones added since the last lookup are indexed first.
+     * When several nodes have the same name the last one is kept.
+     */
+    static abstract class NodeIndex<T> {
+        private final List<T> nodes;
+        private final HashMap<String, T> index = new HashMap<String, T>();
+        private int indexedCount = 0;
+
+        NodeIndex(List<T> nodes) {
+            this.nodes = nodes;
+        }
+
+        abstract String getName(T node);
+
+        T get(String name) {
+            if (name == null) {
+                return null;
+            }
+            for (; indexedCount < nodes.size(); indexedCount++) {
+                T node = nodes.get(indexedCount);
+                String nodeName = getName(node);
+                if (nodeName != null) {
+                    index.put(key(nodeName), node);
+                }
+            }
+            return index.get(key(name));
+        }
+
+        private static String key(String name) {
+            return name.toLowerCase(Locale.ENGLISH);
+        }
+    }
+}
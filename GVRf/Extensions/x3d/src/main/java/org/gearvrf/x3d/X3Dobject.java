@@ -42,6 +42,7 @@ import java.io.StreamTokenizer;
 import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -57,6 +58,7 @@ import org.gearvrf.x3d.data_types.SFBool;
 import org.gearvrf.x3d.data_types.SFFloat;
 import org.gearvrf.x3d.data_types.SFRotation;
 import org.joml.Matrix3f;
+import org.joml.Matrix4f;
 import org.joml.Vector2f;
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
@@ -72,6 +74,7 @@ import org.gearvrf.GVRContext;
 import org.gearvrf.GVRDirectLight;
 import org.gearvrf.GVRImportSettings;
 import org.gearvrf.GVRIndexBuffer;
+import org.gearvrf.GVRInstanceBuffer;
 import org.gearvrf.GVRLODGroup;
 import org.gearvrf.GVRMaterial;
 import org.gearvrf.GVRMesh;
@@ -295,6 +298,24 @@ public class X3Dobject {
                 }
                 mCurSize += entry.length;
             }
+
+            void add(float v)
+            {
+                if (mData == null)
+                {
+                    mData = new float[mMinSize];
+                }
+                else if (mCurSize + 1 > mData.length)
+                {
+                    mData = Arrays.copyOf(mData, (mCurSize * 3) / 2);
+                }
+                mData[mCurSize++] = v;
+            }
+
+            float[] toArray()
+            {
+                return (mData == null) ? new float[0] : Arrays.copyOf(mData, mCurSize);
+            }
         };
 
         static class IntArray
@@ -826,9 +847,9 @@ public class X3Dobject {
     private GVRTexture gvrTexture = null;
     private ArrayList<ScriptObject> scriptObjects = new ArrayList<ScriptObject>();
 
-    private Vector<Key> keys = new Vector<Key>();
-    private Vector<KeyValue> keyValues = new Vector<KeyValue>();
-    private Vector<Float> floatArray = new Vector<Float>();
+    private MeshCreator.FloatArray keys = new MeshCreator.FloatArray(64);
+    private MeshCreator.FloatArray keyValues = new MeshCreator.FloatArray(64 * 4);
+    private MeshCreator.FloatArray floatArray = new MeshCreator.FloatArray(64);
 
     private Vector<TimeSensor> timeSensors = new Vector<TimeSensor>();
     private Vector<Interpolator> interpolators = new Vector<Interpolator>();
@@ -874,6 +895,13 @@ public class X3Dobject {
     // Internal settings from AssetRequest
     private boolean blockLighting = false;
     private boolean blockTexturing = false;
+    private boolean instanceDuplicates = false;
+
+    // Shapes copied by USE, listed under the render data of their DEF,
+    // and the nodes ROUTEs write to. Used to draw the copies instanced.
+    private Map<GVRRenderData, List<GVRRenderData>> usedShapes =
+            new LinkedHashMap<GVRRenderData, List<GVRRenderData>>();
+    private HashSet<String> routeTargets = new HashSet<String>();
 
 
 
@@ -934,6 +962,7 @@ public class X3Dobject {
             EnumSet<GVRImportSettings> settings = assetRequest.getImportSettings();
             blockLighting = settings.contains(GVRImportSettings.NO_LIGHTING);
             blockTexturing = settings.contains(GVRImportSettings.NO_TEXTURING);
+            instanceDuplicates = settings.contains(GVRImportSettings.INSTANCE_DUPLICATES);
 
             meshCreator = new MeshCreator(this.gvrContext, settings);
             // Camera rig setup code based on GVRScene::init()
@@ -971,19 +1000,107 @@ public class X3Dobject {
     /*********************************************/
 
 
+    private void AddUsedShape(GVRRenderData defined, GVRRenderData used)
+    {
+        List<GVRRenderData> copies = usedShapes.get(defined);
+        if (copies == null) {
+            copies = new ArrayList<GVRRenderData>();
+            usedShapes.put(defined, copies);
+        }
+        copies.add(used);
+    }
+
+
+    /**
+     * Check whether a copy made by USE can be merged into an instanced
+     * draw: it must not move, switch level of detail or be picked
+     * after loading, so none of the nodes above it may be a ROUTE
+     * target, a LOD, a Switch or a sensor. Sensors get their colliders
+     * after this runs, so the sensor itself is checked.
+     */
+    private boolean isStaticCopy(GVRSceneObject sceneObject)
+    {
+        for (GVRSceneObject s = sceneObject; (s != null) && (s != root); s = s.getParent()) {
+            if ((s.getCollider() != null) || (s.getComponent(GVRLODGroup.getComponentType()) != null)
+                || (s.getComponent(GVRSwitch.getComponentType()) != null)
+                || (s.getComponent(Sensor.getComponentType()) != null)) {
+                return false;
+            }
+            String name = s.getName();
+            for (String target : routeTargets) {
+                if (name.startsWith(target)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Draw the static copies of each DEFined Shape with one instanced
+     * draw call. The copies keep their scene objects, so the hierarchy
+     * and names are unchanged, but lose their render data to a new
+     * scene object under the root which draws all of them.
+     * The DEFined Shape itself is left alone.
+     */
+    private void InstanceUsedShapes()
+    {
+        for (Map.Entry<GVRRenderData, List<GVRRenderData>> entry : usedShapes.entrySet()) {
+            GVRRenderData defined = entry.getKey();
+            List<GVRSceneObject> copies = new ArrayList<GVRSceneObject>();
+
+            for (GVRRenderData used : entry.getValue()) {
+                GVRSceneObject owner = used.getOwnerObject();
+                if ((owner != null) && isStaticCopy(owner)) {
+                    copies.add(owner);
+                }
+            }
+            if ((copies.size() < 2) || (defined.getMesh() == null)) {
+                continue;
+            }
+            GVRInstanceBuffer instances = new GVRInstanceBuffer(gvrContext, copies.size());
+            for (int i = 0; i < copies.size(); ++i) {
+                GVRSceneObject copy = copies.get(i);
+                Matrix4f toRoot = copy.getTransform().getLocalModelMatrix4f();
+
+                for (GVRSceneObject s = copy.getParent(); (s != null) && (s != root); s = s.getParent()) {
+                    toRoot = s.getTransform().getLocalModelMatrix4f().mul(toRoot);
+                }
+                instances.setTransform(i, toRoot);
+                copy.detachRenderData();
+            }
+            instances.update();
+
+            GVRSceneObject instanced = new GVRSceneObject(gvrContext);
+            GVRRenderData renderData = new GVRRenderData(gvrContext);
+            String name = (defined.getOwnerObject() != null) ? defined.getOwnerObject().getName() : "";
+
+            instanced.setName("INSTANCES_" + name);
+            renderData.setAlphaToCoverage(defined.getAlphaToCoverage());
+            renderData.setRenderingOrder(defined.getRenderingOrder());
+            renderData.setCullFace(defined.getCullFace());
+            renderData.setMaterial(defined.getMaterial());
+            renderData.setMesh(defined.getMesh());
+            renderData.setInstances(instances);
+            instanced.attachRenderData(renderData);
+            root.addChildObject(instanced);
+        }
+        usedShapes.clear();
+    }
+
+
     private void AddKeys(float key)
 
     {
-        Key newKey = new Key(key);
-        keys.add(newKey);
+        keys.add(key);
     }
 
 
     private void AddKeyValues(float[] values)
 
     {
-        KeyValue newKeyValue = new KeyValue(values);
-        keyValues.add(newKeyValue);
+        keyValues.add(values);
     }
 
 
@@ -994,67 +1111,24 @@ public class X3Dobject {
     class UserHandler extends DefaultHandler {
 
         String attributeValue = null;
+        private final NumberScanner numberScanner = new NumberScanner();
 
         private float[] parseFixedLengthFloatString(String numberString,
                                                     int componentCount, boolean constrained0to1, boolean zeroOrGreater) {
-            StringReader sr = new StringReader(numberString);
-            StreamTokenizer st = new StreamTokenizer(sr);
-            st.parseNumbers();
-            int tokenType;
             float componentFloat[] = new float[componentCount];
-            try {
-                for (int i = 0; i < componentCount; i++) {
-                    if ((tokenType = st.nextToken()) == StreamTokenizer.TT_NUMBER) {
-                        componentFloat[i] = (float) st.nval;
-                    } else { // check for an exponent 'e'
-                        if (tokenType == StreamTokenizer.TT_WORD) {
-                            String word = st.sval;
-                            if (word.startsWith("e-")) { // negative exponent
-                                String exponentString = word.substring(2, word.length());
-                                try {
-                                    --i; // with this exponent, we are still working with the
-                                    // previous number
-                                    Integer exponentInt = Integer.parseInt(exponentString);
-                                    componentFloat[i] *= (float) Math
-                                            .pow(10, -exponentInt.intValue());
-                                } catch (NumberFormatException e) {
-                                    Log.e(TAG,
-                                            "parsing fixed length string, exponent number conversion error: "
-                                                    + exponentString);
-                                }
-                            } else if (word.equalsIgnoreCase("e")) { // exponent with plus sign
-                                tokenType = st.nextToken();
-                                if (tokenType == 43) { // "+" plus sign
-                                    if ((tokenType = st.nextToken()) == StreamTokenizer.TT_NUMBER) {
-                                        --i; // with this exponent, we are still working with the
-                                        // previous number
-                                        float exponent = (float) st.nval;
-                                        componentFloat[i] *= (float) Math.pow(10, exponent);
-                                    } else {
-                                        st.pushBack();
-                                        Log.e(TAG,
-                                                "Error: exponent in X3D parser with fixed length float");
-                                    }
-                                } else
-                                    st.pushBack();
-                            } else
-                                st.pushBack();
-                        }
-                    } // end check for 'e' exponent
-                    if (constrained0to1) {
-                        if (componentFloat[i] < 0)
-                            componentFloat[i] = 0;
-                        else if (componentFloat[i] > 1)
-                            componentFloat[i] = 1;
-                    } else if (zeroOrGreater) {
-                        if (componentFloat[i] < 0)
-                            componentFloat[i] = 0;
-                    }
-                } // end for-loop
-            } // end 'try'
-            catch (IOException e) {
-                Log.d(TAG, "Error parsing fixed length float string: " + e);
-            }
+            numberScanner.reset(numberString);
+            for (int i = 0; (i < componentCount) && numberScanner.hasNext(); i++) {
+                componentFloat[i] = numberScanner.nextFloat();
+                if (constrained0to1) {
+                    if (componentFloat[i] < 0)
+                        componentFloat[i] = 0;
+                    else if (componentFloat[i] > 1)
+                        componentFloat[i] = 1;
+                } else if (zeroOrGreater) {
+                    if (componentFloat[i] < 0)
+                        componentFloat[i] = 0;
+                }
+            } // end for-loop
             return componentFloat;
         } // end parseFixedLengthFloatString
 
@@ -1117,164 +1191,78 @@ public class X3Dobject {
         } // end parseMFString
 
         private int parseIntegerString(String numberString) {
-            StringReader sr = new StringReader(numberString);
-            StreamTokenizer st = new StreamTokenizer(sr);
-            st.parseNumbers();
-            int tokenType;
-            int returnValue = 0;
-
-            try {
-                if ((tokenType = st.nextToken()) != StreamTokenizer.TT_EOF) {
-                    if (tokenType == StreamTokenizer.TT_NUMBER) {
-                        returnValue = (int) st.nval;
-                    }
-                }
+            numberScanner.reset(numberString);
+            if (numberScanner.hasNext()) {
+                return numberScanner.nextInt();
             }
-            catch (IOException e) {
-                Log.e(TAG, "Error: parseIntegerString - " + e);
-            }
-            return returnValue;
+            return 0;
         } // end parseIntegerString
 
+        // Reads the numbers of a multiple value attribute, such as the
+        // points of a Coordinate node, straight into the arrays they go to.
+        // Exponents such as 3e-2, which 3DSMax exports, are read as
+        // part of the number.
         private void parseNumbersString(String numberString, int componentType,
                                         int componentCount) {
-            //preprocessing to get rid of 'e' or 'E' exponent
-            // otherwise the SAX parser splits 3e-2 (which is .03) into two
-            // number, 3 and -2.
-            if ( (numberString.indexOf('e') != -1) || (numberString.indexOf('E') != -1) ) {
-                int stringPos = 0;
-                String newReplacementString = "";
-                // we do assume the numberString won't be mixing 'e' and 'E'
-                // but we want to handle any either character
-                char eChar = 'e';
-                if ( numberString.indexOf('E') != -1 ) eChar = 'E';
-                while (numberString.indexOf(eChar, stringPos) != -1)  {
-                    int ePos = numberString.indexOf(eChar, stringPos);
-                    // check for the first space or comma before 'e'.
-                    int prevSpaceBefore_e = Math.max( (numberString.lastIndexOf(' ', ePos)), (numberString.lastIndexOf(',', ePos)) );
-                    prevSpaceBefore_e++;
-                    // Copy from the current position until the comma or space before the 'e'
-                    newReplacementString += numberString.substring(stringPos, prevSpaceBefore_e);
-                    // check for the next space or comma after 'e'.
-                    // Otherwise, we might be at the end of the string.
-                    int nextSpaceAfter_e = Math.min( (numberString.indexOf(' ', ePos)), (numberString.indexOf(',', ePos)) );
-                    if (nextSpaceAfter_e == -1) {
-                        // at the end of the original string, find the last space, comma or EOL of the string
-                        nextSpaceAfter_e = Math.max( (numberString.indexOf(' ', ePos)), (numberString.indexOf(',', ePos)) );
-                        if (nextSpaceAfter_e == -1) nextSpaceAfter_e = Math.max( nextSpaceAfter_e, numberString.length() );
-                    }
-                    String exponentString = numberString.substring(ePos+1, nextSpaceAfter_e);
-                    try {
-                        double newReplacementNumber =
-                                ( (float) (new Float( numberString.substring(prevSpaceBefore_e, ePos) )) )
-                                        * Math.pow(10, (int) (new Integer(exponentString)) );
-                        // At < 1/1000th, it might be more efficient as 0.
-                        if ( Math.abs(newReplacementNumber) < .001 ) newReplacementNumber = 0;
-                        newReplacementString += " " + newReplacementNumber + " ";
-                    }
-                    catch (java.lang.NumberFormatException exception) {
-                        Log.e(TAG, "NumberFormatException in " + numberString.substring(prevSpaceBefore_e, nextSpaceAfter_e) + "; " + exception);
-                    }
-                    catch (Exception exception) {
-                        Log.e(TAG, "Exception in " + numberString.substring(prevSpaceBefore_e, nextSpaceAfter_e) + "; " + exception);
-                    }
-                    stringPos = nextSpaceAfter_e;
+            numberScanner.reset(numberString);
+
+            // first componentType's parse for integer values
+            if (componentType == X3Dobject.indexedFaceSetComponent) {
+                while (numberScanner.hasNext()) {
+                    int value = numberScanner.nextInt();
+                    if (value != -1) {
+                        meshCreator.addPositionIndex(value);
+                    }
+                }
+            } else if (componentType == X3Dobject.textureIndexComponent) {
+                while (numberScanner.hasNext()) {
+                    int value = numberScanner.nextInt();
+                    if (value != -1) {
+                        meshCreator.addTexcoordIndex(value);
+                    }
+                }
+            } else if (componentType == X3Dobject.normalIndexComponent) {
+                while (numberScanner.hasNext()) {
+                    int value = numberScanner.nextInt();
+                    if (value != -1) {
+                        meshCreator.addNormalIndex(value);
+                    }
                 }
-                // Add any remainder of a string
-                numberString = newReplacementString + numberString.substring(stringPos, numberString.length());
             }
-            StringReader sr = new StringReader(numberString);
-            StreamTokenizer st = new StreamTokenizer(sr);
-            st.parseNumbers();
-            int tokenType;
-            short componentShort[] = new short[componentCount];
-            float componentFloat[] = new float[componentCount];
-            try {
-                int index = 0;
-                while ((tokenType = st.nextToken()) != StreamTokenizer.TT_EOF) {
-                    if (tokenType == StreamTokenizer.TT_NUMBER) {
-
-                        // first componentType's parse for short values
-                        // (integers) and will have no exponents
 
-                        if (componentType == X3Dobject.indexedFaceSetComponent) {
-                            if ((int) st.nval != -1) {
-                                meshCreator.addPositionIndex((int) st.nval);
-                                index++;
-                                if (index == componentCount) {
-                                    index = 0;
-                                }
-                            }
-                        } else if (componentType == X3Dobject.textureIndexComponent) {
-                            if ((int) st.nval != -1) {
-                                meshCreator.addTexcoordIndex((int) st.nval);
-                                index++;
-                                if (index == componentCount) {
-                                    index = 0;
-                                }
-                            }
-                        } else if (componentType == X3Dobject.normalIndexComponent) {
-                            if ((int) st.nval != -1) {
-                                meshCreator.addNormalIndex((int) st.nval);
-                                index++;
-                                if (index == componentCount) {
-                                    index = 0;
-                                }
-                            }
-                        }
+            // The rest of these parse floats, one value at a time
+            else if (componentType == X3Dobject.LODComponent) {
+                while (numberScanner.hasNext()) {
+                    AddKeys(numberScanner.nextFloat());
+                }
+            } else if (componentType == X3Dobject.elevationGridHeight) {
+                while (numberScanner.hasNext()) {
+                    floatArray.add(numberScanner.nextFloat());
+                }
+            }
 
-                        // The rest of these will be parsing floats that could
-                        // have 'e' exponent value.  3DSMax will export X3D/VRML
-                        // with the 'e' exponent
-                        //TODO: check for 'e' exponent values.
-
-                        else if (componentType == X3Dobject.verticesComponent) {
-                            componentFloat[index] = (float) (st.nval);
-                            index++;
-                            if (index == componentCount) {
-                                    meshCreator.addInputPosition(componentFloat);
-                                index = 0;
-                            }
+            // or in groups of componentCount values
+            else {
+                float componentFloat[] = new float[componentCount];
+                int index = 0;
+                while (numberScanner.hasNext()) {
+                    componentFloat[index] = numberScanner.nextFloat();
+                    index++;
+                    if (index == componentCount) {
+                        if (componentType == X3Dobject.verticesComponent) {
+                            meshCreator.addInputPosition(componentFloat);
                         } else if (componentType == X3Dobject.textureCoordComponent) {
-                            componentFloat[index] = (float) st.nval;
-                            index++;
-                            if (index == componentCount) {
-                                    meshCreator.addInputTexcoord(componentFloat);
-                                index = 0;
-                            }
+                            meshCreator.addInputTexcoord(componentFloat);
                         } else if (componentType == X3Dobject.normalsComponent) {
-                            componentFloat[index] = (float) st.nval;
-                            index++;
-                            if (index == componentCount) {
-                                    meshCreator.addInputNormal(componentFloat);
-                                index = 0;
-                            }
+                            meshCreator.addInputNormal(componentFloat);
                         } else if (componentType == X3Dobject.interpolatorKeyComponent) {
-                            componentFloat[index] = (float) st.nval;
-                            index++;
-                            if (index == componentCount) {
-                                AddKeys(componentFloat[0]);
-                                index = 0;
-                            }
-                        } else if (componentType == X3Dobject.interpolatorKeyValueComponent) {
-                            componentFloat[index] = (float) st.nval;
-                            index++;
-                            if (index == componentCount) {
-                                AddKeyValues(componentFloat);
-                                index = 0;
-                            }
-                        } else if (componentType == X3Dobject.LODComponent) {
-                            componentFloat[index] = (float) st.nval;
                             AddKeys(componentFloat[0]);
-                        } else if (componentType == X3Dobject.elevationGridHeight) {
-                            floatArray.add(new Float((float) st.nval));
+                        } else if (componentType == X3Dobject.interpolatorKeyValueComponent) {
+                            AddKeyValues(componentFloat);
                         }
-
-                    } // end if token = number
-                } // end while loop
-            } // end try statement
-            catch (IOException e) {
-                Log.e(TAG, "Error: parseNumbersString - " + e);
+                        index = 0;
+                    }
+                }
             }
         } // parseNumbersString
 
@@ -1336,6 +1324,7 @@ public class X3Dobject {
                     currentSceneObject.attachRenderData(gvrRenderData);
                     gvrRenderData.setMaterial(gvrRenderDataDEFitem.getMaterial());
                     gvrRenderData.setMesh(gvrRenderDataDEFitem.getMesh());
+                    AddUsedShape(gvrRenderDataDEFitem, gvrRenderData);
                 } else {
                     ;
                 }
@@ -1604,6 +1593,7 @@ public class X3Dobject {
                         gvrRenderData.setMaterial(gvrRenderDataDEFined.getMaterial());
                         gvrRenderData.setMesh(gvrRenderDataDEFined.getMesh());
                         gvrRenderingDataUSEd = true;
+                        AddUsedShape(gvrRenderDataDEFined, gvrRenderData);
                     }
                     else {
                         Log.e(TAG, "Error: Shape USE='" + attributeValue + "'; No matching DEF='" + attributeValue + "'.");
@@ -2556,6 +2546,9 @@ public class X3Dobject {
                         toField = attributeValue;
                     }
 
+                    if (toNode != null) {
+                        routeTargets.add(toNode);
+                    }
                     animationInteractivityManager.buildInteractiveObject(fromNode, fromField, toNode, toField);
                 } // end <ROUTE> node
 
@@ -2575,11 +2568,7 @@ public class X3Dobject {
                         parseNumbersString(attributeValue, X3Dobject.interpolatorKeyComponent,
                                 1);
 
-                        keysList = new float[keys.size()];
-                        for (int i = 0; i < keysList.length; i++) {
-                            Key keyObject = keys.get(i);
-                            keysList[i] = keyObject.key;
-                        }
+                        keysList = keys.toArray();
                         keys.clear();
                     }
                     attributeValue = attributes.getValue("keyValue");
@@ -2587,13 +2576,7 @@ public class X3Dobject {
                         parseNumbersString(attributeValue,
                                 X3Dobject.interpolatorKeyValueComponent, 3);
 
-                        keyValuesList = new float[keyValues.size() * 3];
-                        for (int i = 0; i < keyValues.size(); i++) {
-                            KeyValue keyValueObject = keyValues.get(i);
-                            for (int j = 0; j < 3; j++) {
-                                keyValuesList[i * 3 + j] = keyValueObject.keyValues[j];
-                            }
-                        }
+                        keyValuesList = keyValues.toArray();
                         keyValues.clear();
                     }
                     Interpolator newInterporlator = new Interpolator(name, keysList,
@@ -2618,11 +2601,7 @@ public class X3Dobject {
                         parseNumbersString(attributeValue, X3Dobject.interpolatorKeyComponent,
                                 1);
 
-                        keysList = new float[keys.size()];
-                        for (int i = 0; i < keysList.length; i++) {
-                            Key keyObject = keys.get(i);
-                            keysList[i] = keyObject.key;
-                        }
+                        keysList = keys.toArray();
                         keys.clear();
                     }
                     attributeValue = attributes.getValue("keyValue");
@@ -2630,13 +2609,7 @@ public class X3Dobject {
                         parseNumbersString(attributeValue,
                                 X3Dobject.interpolatorKeyValueComponent, 4);
 
-                        keyValuesList = new float[keyValues.size() * 4];
-                        for (int i = 0; i < keyValues.size(); i++) {
-                            KeyValue keyValueObject = keyValues.get(i);
-                            for (int j = 0; j < 4; j++) {
-                                keyValuesList[i * 4 + j] = keyValueObject.keyValues[j];
-                            }
-                        }
+                        keyValuesList = keyValues.toArray();
                         keyValues.clear();
                     }
                     Interpolator newInterporlator = new Interpolator(name, keysList,
@@ -2883,11 +2856,7 @@ public class X3Dobject {
                         // reusing the keys parsing here cause it works
                         parseNumbersString(attributeValue, X3Dobject.interpolatorKeyComponent,
                                 1);
-                        length = new float[keys.size()];
-                        for (int i = 0; i < length.length; i++) {
-                            Key keyObject = keys.get(i);
-                            length[i] = keyObject.key;
-                        }
+                        length = keys.toArray();
                         keys.clear();
                         Log.e(TAG, "Text 'length' attribute currently not implemented.");
                     }
@@ -3092,11 +3061,10 @@ public class X3Dobject {
                     attributeValue = attributes.getValue("range");
                     if (attributeValue != null) {
                         parseNumbersString(attributeValue, X3Dobject.LODComponent, 1);
-                        range = new float[keys.size() + 2];
+                        range = new float[keys.getSize() + 2];
                         range[0] = 0;
-                        for (int i = 0; i < keys.size(); i++) {
-                            Key keyObject = keys.get(i);
-                            range[i + 1] = keyObject.key;
+                        for (int i = 0; i < keys.getSize(); i++) {
+                            range[i + 1] = keys.get(i);
                         }
                         range[range.length - 1] = Float.MAX_VALUE;
                         keys.clear();
@@ -3562,9 +3530,12 @@ public class X3Dobject {
                         parseNumbersString(attributeValue, X3Dobject.elevationGridHeight,
                                 xDimension * zDimension);
                         height = new float[(xDimension + 1) * (zDimension + 1)];
-                        for (int i = 0; i < height.length; i++) {
-                            height[i] = floatArray.get(i);
+                        if (floatArray.getSize() < height.length) {
+                            Log.e(TAG, "ElevationGrid 'height' has " + floatArray.getSize() +
+                                    " values, " + height.length + " expected.");
                         }
+                        System.arraycopy(floatArray.toArray(), 0, height, 0,
+                                Math.min(height.length, floatArray.getSize()));
                         floatArray.clear();
                     }
 
@@ -4486,6 +4457,10 @@ public class X3Dobject {
                 }
             }
 
+            if (instanceDuplicates) {
+                InstanceUsedShapes();
+            }
+
             try {
                 animationInteractivityManager.initAnimationsAndInteractivity();
                 // Need to build a JavaScript function that constructs the
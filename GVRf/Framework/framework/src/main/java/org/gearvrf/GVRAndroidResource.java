@@ -16,6 +16,7 @@
 package org.gearvrf;
 
 import android.content.Context;
+import android.content.res.AssetFileDescriptor;
 import android.content.res.Resources;
 import android.graphics.Bitmap;
 import android.util.TypedValue;
@@ -234,6 +235,55 @@ public class GVRAndroidResource {
         return resourceType;
     }
 
+    /**
+     * Get the file holding the resource, so readers can map it
+     * instead of copying the stream.
+     *
+     * @return the file, or {@code null} if the resource is not a file
+     */
+    File getLocalFile()
+    {
+        if (resourceType == ResourceType.LINUX_FILESYSTEM)
+        {
+            return new File(filePath);
+        }
+        return null;
+    }
+
+    /**
+     * Open the region of the APK which holds an asset or a raw resource.
+     * This only works for entries which are stored uncompressed.
+     *
+     * @return the file descriptor of the APK region, or {@code null} if the
+     *         resource is compressed or not packaged in the APK
+     */
+    AssetFileDescriptor openAssetFileDescriptor()
+    {
+        try
+        {
+            switch (resourceType)
+            {
+            case ANDROID_ASSETS:
+                return context.getAssets().openFd(assetPath);
+
+            case ANDROID_RESOURCE:
+                return context.getResources().openRawResourceFd(resourceId);
+
+            default:
+                return null;
+            }
+        }
+        catch (IOException e)
+        {
+            // compressed asset
+        }
+        catch (Resources.NotFoundException e)
+        {
+            // compressed raw resource
+        }
+        return null;
+    }
+
     /*
      * A {@link URLBufferedInputStream} that supports {@link
      * InputStream#mark(int)} and {@link InputStream#reset()}
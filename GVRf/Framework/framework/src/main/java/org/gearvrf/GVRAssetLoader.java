@@ -16,6 +16,7 @@
 package org.gearvrf;
 
 import android.content.Context;
+import android.content.res.AssetFileDescriptor;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.graphics.Canvas;
@@ -32,6 +33,7 @@ import org.gearvrf.scene_objects.GVRModelSceneObject;
 import org.gearvrf.utility.FileNameUtils;
 import org.gearvrf.utility.GVRByteArray;
 import org.gearvrf.utility.Log;
+import org.gearvrf.utility.BoundedCache;
 import org.gearvrf.utility.ResourceCache;
 import org.gearvrf.utility.ResourceCacheBase;
 import org.gearvrf.utility.Threads;
@@ -39,20 +41,23 @@ import org.gearvrf.utility.Threads;
 import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -95,7 +100,8 @@ public final class GVRAssetLoader {
         protected boolean                 mReplaceScene = false;
         protected boolean                 mCacheEnabled = true;
         protected EnumSet<GVRImportSettings> mSettings = null;
-
+        protected final GVRImportStats    mImportStats = new GVRImportStats();
+        protected boolean                 mAddedToScene = false;
 
         /**
          * Request to load an asset and add it to the scene.
@@ -125,6 +131,8 @@ public final class GVRAssetLoader {
         public boolean replaceScene()           { return mReplaceScene; }
         public GVRResourceVolume getVolume()    { return mVolume; }
         public EnumSet<GVRImportSettings> getImportSettings()  { return mSettings; }
+        public GVRImportStats getImportStats()  { return mImportStats; }
+        public GVRScene getScene()              { return mScene; }
 
         public void setImportSettings(EnumSet<GVRImportSettings> settings)
         {
@@ -142,6 +150,35 @@ public final class GVRAssetLoader {
             return fname;
         }
 
+        /**
+         * Called when a stage of the import starts.
+         * @param stage import stage
+         */
+        void beginStage(GVRImportStats.Stage stage)
+        {
+            mImportStats.begin(stage);
+        }
+
+        /**
+         * Called when a stage of the import ends.
+         * Records the statistics of the stage and raises
+         * {@link IAssetImportEvents#onImportStage}.
+         * @param stage import stage
+         * @param items number of items the stage produced
+         */
+        void endStage(GVRImportStats.Stage stage, int items)
+        {
+            mImportStats.end(stage, items);
+            Log.d(TAG, "ASSET: %s %s took %d ms for %d items", mFileName, stage,
+                  mImportStats.getTime(stage), items);
+            if (mUserHandler instanceof IAssetImportEvents)
+            {
+                ((IAssetImportEvents) mUserHandler).onImportStage(mContext, mFileName, stage, mImportStats);
+            }
+            mContext.getEventManager().sendEvent(mContext, IAssetImportEvents.class,
+                                                 "onImportStage", new Object[] { mContext, mFileName, stage, mImportStats });
+        }
+
         /**
          * Disable texture caching
          */
@@ -155,6 +192,18 @@ public final class GVRAssetLoader {
          * @param request callback that indicates which texture to load
          */
         public void loadTexture(TextureRequest request)
+        {
+            loadTexture(request, DEFAULT_PRIORITY);
+        }
+
+        /**
+         * Load a texture asynchronously with a callback.
+         * @param request callback that indicates which texture to load
+         * @param priority this request's priority. Please see the notes on asynchronous
+         *            priorities in the <a href="package-summary.html#async">package
+         *            description</a>.
+         */
+        public void loadTexture(TextureRequest request, int priority)
         {
             synchronized (mNumTextures)
             {
@@ -165,7 +214,7 @@ public final class GVRAssetLoader {
                 {
                     resource = mVolume.openResource(request.TextureFile);
                     GVRAsynchronousResourceLoader.loadTexture(mContext, mCacheEnabled ? mTextureCache : null,
-                                                              request, resource, DEFAULT_PRIORITY, GVRCompressedImage.BALANCED);
+                                                              request, resource, priority, GVRCompressedImage.BALANCED);
                 }
                 catch (IOException ex)
                 {
@@ -201,7 +250,7 @@ public final class GVRAssetLoader {
             GVRImage image;
 
             Log.d(TAG, "ASSET: loadEmbeddedTexture %s %d", request.TextureFile, mNumTextures);
-            Map<String, GVRImage> texCache = GVRAssetLoader.getEmbeddedTextureCache();
+            BoundedCache<String, GVRImage> texCache = GVRAssetLoader.getEmbeddedTextureCache();
             synchronized (mNumTextures)
             {
                 ++mNumTextures;
@@ -384,6 +433,46 @@ public final class GVRAssetLoader {
                                                  "onAssetLoaded", new Object[] { mContext, mModel, mFileName, errors });
         }
 
+        /**
+         * Add the model to the scene, replacing the scene contents
+         * if requested. Only the first call has any effect, so a
+         * streaming import can show the model before it has loaded.
+         * @param model root of the model hierarchy
+         */
+        synchronized void addToScene(GVRSceneObject model)
+        {
+            if ((mScene == null) || mAddedToScene)
+            {
+                return;
+            }
+            mAddedToScene = true;
+            if (mReplaceScene)
+            {
+                GVRSceneObject mainCam = model.getSceneObjectByName("MainCamera");
+                GVRCameraRig modelCam = (mainCam != null) ? mainCam.getCameraRig() : null;
+
+                mScene.clear();
+                if (modelCam != null)
+                {
+                    GVRCameraRig sceneCam = mScene.getMainCameraRig();
+                    sceneCam.getTransform().setModelMatrix(mainCam.getTransform().getLocalModelMatrix());
+                    sceneCam.setNearClippingDistance(modelCam.getNearClippingDistance());
+                    sceneCam.setFarClippingDistance(modelCam.getFarClippingDistance());
+                    sceneCam.setCameraRigType(modelCam.getCameraRigType());
+                }
+            }
+            /*
+             * If the model does not already have a parent,
+             * add it to the scene.
+             */
+            if (model.getParent() == null)
+            {
+                Log.d(TAG, "ASSET: asset %s added to scene", mFileName);
+                mScene.addSceneObject(model);
+            }
+            mImportStats.markVisible();
+        }
+
         /**
          * Generate the onAssetLoaded event.
          * Add the model to the scene and start animations.
@@ -393,33 +482,8 @@ public final class GVRAssetLoader {
             String errors = !"".equals(mErrors) ? mErrors : null;
             if (mModel != null)
             {
-                if ((mScene != null))
-                {
-                    if (mReplaceScene)
-                    {
-                        GVRSceneObject mainCam = mModel.getSceneObjectByName("MainCamera");
-                        GVRCameraRig modelCam = (mainCam != null) ? mainCam.getCameraRig() : null;
-
-                        mScene.clear();
-                        if (modelCam != null)
-                        {
-                            GVRCameraRig sceneCam = mScene.getMainCameraRig();
-                            sceneCam.getTransform().setModelMatrix(mainCam.getTransform().getLocalModelMatrix());
-                            sceneCam.setNearClippingDistance(modelCam.getNearClippingDistance());
-                            sceneCam.setFarClippingDistance(modelCam.getFarClippingDistance());
-                            sceneCam.setCameraRigType(modelCam.getCameraRigType());
-                        }
-                    }
-                    /*
-                     * If the model does not already have a parent,
-                     * add it to the scene.
-                     */
-                    if (mModel.getParent() == null)
-                    {
-                        Log.d(TAG, "ASSET: asset %s added to scene", mFileName);
-                        mScene.addSceneObject(mModel);
-                    }
-                }
+                beginStage(GVRImportStats.Stage.ATTACH);
+                addToScene(mModel);
                 /*
                  * If the model has animations, start them now.
                  */
@@ -428,6 +492,9 @@ public final class GVRAssetLoader {
                 {
                     animator.start();
                 }
+                endStage(GVRImportStats.Stage.ATTACH, 1);
+                Log.d(TAG, "ASSET: %s imported in %d ms\n%s", mFileName,
+                      mImportStats.getTotalTime(), mImportStats);
             }
             onAssetLoaded(mContext, mModel, mFileName, errors);
         }
@@ -522,10 +589,23 @@ public final class GVRAssetLoader {
     }
 
 
+    /**
+     * Default budget of the mesh cache in bytes.
+     * @see #getMeshCache()
+     */
+    public static final long DEFAULT_MESH_CACHE_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * Default budget of the embedded texture cache in bytes.
+     * @see #getEmbeddedTextureCache()
+     */
+    public static final long DEFAULT_EMBEDDED_CACHE_SIZE = 32 * 1024 * 1024;
+
     protected GVRContext mContext;
     protected static ResourceCache<GVRImage> mTextureCache = new ResourceCache<GVRImage>();
-    protected ResourceCacheBase<GVRMesh> mMeshCache = new ResourceCacheBase<>();
-    protected static HashMap<String, GVRImage> mEmbeddedCache = new HashMap<String, GVRImage>();
+    protected ResourceCacheBase<GVRMesh> mMeshCache =
+            new ResourceCacheBase<>(DEFAULT_MESH_CACHE_SIZE, BoundedCache.EvictionPolicy.LRU);
+    protected static BoundedCache<String, GVRImage> mEmbeddedCache = newEmbeddedCache(DEFAULT_EMBEDDED_CACHE_SIZE);
     protected static GVRBitmapImage mDefaultImage = null;
 
     /**
@@ -538,13 +618,28 @@ public final class GVRAssetLoader {
 
             @Override
             public void run() {
+                long textureBudget = mTextureCache.getCache().getMaxSize();
                 mTextureCache = new ResourceCache<GVRImage>();
-                mEmbeddedCache = new HashMap<String, GVRImage>();
+                mTextureCache.getCache().setMaxSize(textureBudget);
+                mEmbeddedCache = newEmbeddedCache(mEmbeddedCache.getMaxSize());
                 mDefaultImage = null;
             }
         });
     }
 
+    private static BoundedCache<String, GVRImage> newEmbeddedCache(long maxSize)
+    {
+        return new BoundedCache<String, GVRImage>(maxSize, BoundedCache.EvictionPolicy.LRU,
+                new BoundedCache.Sizer<GVRImage>()
+                {
+                    @Override
+                    public long sizeOf(GVRImage image)
+                    {
+                        return image.getDataSize();
+                    }
+                });
+    }
+
     /**
      * Construct an instance of the asset loader
      * @param context GVRContext to get asset load events
@@ -557,15 +652,39 @@ public final class GVRAssetLoader {
 
     /**
      * Get the embedded texture cache.
-     * This is an internal routine used during asset loading for processing
-     * embedded textures.
+     * It is used during asset loading for processing embedded textures.
+     * Its budget can be changed and its hit, miss and eviction
+     * counters can be read.
      * @return embedded texture cache
      */
-    static Map<String, GVRImage> getEmbeddedTextureCache()
+    public static BoundedCache<String, GVRImage> getEmbeddedTextureCache()
     {
         return mEmbeddedCache;
     }
 
+    /**
+     * Get the texture cache shared by all asset loaders.
+     * Its budget can be changed and its hit, miss and eviction
+     * counters can be read through {@link ResourceCacheBase#getCache()}.
+     * @return texture cache
+     */
+    public static ResourceCache<GVRImage> getTextureCache()
+    {
+        return mTextureCache;
+    }
+
+    /**
+     * Get the mesh cache of this asset loader, used by
+     * {@link #loadMesh(GVRAndroidResource)}.
+     * Its budget can be changed and its hit, miss and eviction
+     * counters can be read through {@link ResourceCacheBase#getCache()}.
+     * @return mesh cache
+     */
+    public ResourceCacheBase<GVRMesh> getMeshCache()
+    {
+        return mMeshCache;
+    }
+
     private static GVRImage getDefaultImage(GVRContext ctx)
     {
         if (mDefaultImage == null)
@@ -910,21 +1029,38 @@ public final class GVRAssetLoader {
     }
 
     // IO Handler for Jassimp
+    /**
+     * Model file for Jassimp.
+     * <p>
+     * Files and uncompressed APK entries are memory-mapped, and
+     * {@link #read(ByteBuffer)} copies the mapping straight into the
+     * native buffer, so a model never passes through the Java heap.
+     * Other resources (compressed assets, network, input streams)
+     * are read into memory once.
+     */
     static class ResourceStream implements AiIOStream
     {
         protected final GVRAndroidResource resource;
-        private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        private final ByteBuffer mapped;
+        private final ExposedByteArrayOutputStream output;
 
         ResourceStream(GVRResourceVolume v, String path) throws IOException
         {
             resource = v.openResource(path);
+            mapped = map(resource);
+            if (mapped != null)
+            {
+                output = null;
+                return;
+            }
             InputStream stream = resource.getStream();
             if (stream == null)
             {
                 throw new IOException("Cannot open " + path);
             }
+            output = new ExposedByteArrayOutputStream(Math.max(stream.available(), 1024));
             int read;
-            byte[] data = new byte[1024];
+            byte[] data = new byte[16 * 1024];
             while((read = stream.read(data, 0, data.length)) != -1)
             {
                 output.write(data, 0, read);
@@ -933,19 +1069,129 @@ public final class GVRAssetLoader {
             resource.closeStream();
         }
 
-        public int getFileSize() { return output.size(); }
+        public int getFileSize()
+        {
+            return (mapped != null) ? mapped.capacity() : output.size();
+        }
 
         public boolean read(ByteBuffer buffer)
         {
+            if (mapped != null)
+            {
+                if (mapped.capacity() == 0)
+                {
+                    return false;
+                }
+                buffer.put(mapped.duplicate());
+                return true;
+            }
             if (output.size() > 0)
             {
-                buffer.put(output.toByteArray());
+                output.writeTo(buffer);
                 return true;
             }
             return false;
         }
+
+        /**
+         * @return the content of the stream, without a copy
+         */
+        ByteBuffer getBuffer()
+        {
+            return (mapped != null) ? mapped.duplicate() : output.toByteBuffer();
+        }
+
+        /*
+         * The mapping stays valid after the channel is closed.
+         * Returns null if the resource cannot be mapped.
+         */
+        private static ByteBuffer map(GVRAndroidResource resource)
+        {
+            File file = resource.getLocalFile();
+            if (file != null)
+            {
+                RandomAccessFile raf = null;
+                try
+                {
+                    raf = new RandomAccessFile(file, "r");
+                    FileChannel channel = raf.getChannel();
+                    return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                }
+                catch (IOException e)
+                {
+                    return null;
+                }
+                finally
+                {
+                    closeQuietly(raf);
+                }
+            }
+
+            AssetFileDescriptor afd = resource.openAssetFileDescriptor();
+            if (afd == null)
+            {
+                return null;
+            }
+            FileInputStream stream = null;
+            try
+            {
+                long length = afd.getLength();
+                if ((length == AssetFileDescriptor.UNKNOWN_LENGTH) || (length > Integer.MAX_VALUE))
+                {
+                    return null;
+                }
+                // Stored entry: the bytes are a plain region of the APK
+                stream = new FileInputStream(afd.getFileDescriptor());
+                return stream.getChannel().map(FileChannel.MapMode.READ_ONLY,
+                                               afd.getStartOffset(), length);
+            }
+            catch (IOException e)
+            {
+                return null;
+            }
+            finally
+            {
+                closeQuietly(stream);
+                closeQuietly(afd);
+            }
+        }
+
+        private static void closeQuietly(Closeable closeable)
+        {
+            if (closeable != null)
+            {
+                try
+                {
+                    closeable.close();
+                }
+                catch (IOException e)
+                {
+                }
+            }
+        }
     };
 
+    /*
+     * Avoids the copy made by toByteArray()
+     */
+    private static class ExposedByteArrayOutputStream extends ByteArrayOutputStream
+    {
+        ExposedByteArrayOutputStream(int size)
+        {
+            super(size);
+        }
+
+        synchronized void writeTo(ByteBuffer buffer)
+        {
+            buffer.put(buf, 0, count);
+        }
+
+        synchronized ByteBuffer toByteBuffer()
+        {
+            return ByteBuffer.wrap(buf, 0, count).slice();
+        }
+    }
+
     // IO Handler for Jassimp
     static class ResourceVolumeIO implements AiIOSystem<ResourceStream>
     {
@@ -1049,18 +1295,10 @@ public final class GVRAssetLoader {
     {
         GVRModelSceneObject model = new GVRModelSceneObject(mContext);
         AssetRequest assetRequest = new AssetRequest(model, new GVRResourceVolume(mContext, filePath), scene, null, false);
-        String ext = filePath.substring(filePath.length() - 3).toLowerCase();
 
         assetRequest.setImportSettings(GVRImportSettings.getRecommendedSettings());
         model.setName(assetRequest.getBaseName());
-        if (ext.equals("x3d"))
-        {
-            loadX3DModel(assetRequest, model);
-        }
-        else
-        {
-            loadJassimpModel(assetRequest, model);
-        }
+        loadModel(assetRequest, model, filePath);
         return model;
     }
 
@@ -1092,18 +1330,10 @@ public final class GVRAssetLoader {
     {
         GVRModelSceneObject model = new GVRModelSceneObject(mContext);
         AssetRequest assetRequest = new AssetRequest(model, new GVRResourceVolume(mContext, filePath), scene, null, true);
-        String ext = filePath.substring(filePath.length() - 3).toLowerCase();
 
         model.setName(assetRequest.getBaseName());
         assetRequest.setImportSettings(GVRImportSettings.getRecommendedSettings());
-        if (ext.equals("x3d"))
-        {
-            loadX3DModel(assetRequest, model);
-        }
-        else
-        {
-            loadJassimpModel(assetRequest, model);
-        }
+        loadModel(assetRequest, model, filePath);
         return model;
     }
 
@@ -1137,20 +1367,12 @@ public final class GVRAssetLoader {
             {
                 AssetRequest assetRequest = new AssetRequest(model, volume, scene, handler, true);
                 String filePath = volume.getFileName();
-                String ext = filePath.substring(filePath.length() - 3).toLowerCase();
 
                 assetRequest.setImportSettings(GVRImportSettings.getRecommendedSettings());
                 model.setName(assetRequest.getBaseName());
                 try
                 {
-                    if (ext.equals("x3d"))
-                    {
-                        loadX3DModel(assetRequest, model);
-                    }
-                    else
-                    {
-                        loadJassimpModel(assetRequest, model);
-                    }
+                    loadModel(assetRequest, model, filePath);
                 }
                 catch (IOException ex)
                 {
@@ -1192,20 +1414,12 @@ public final class GVRAssetLoader {
             {
                 AssetRequest assetRequest = new AssetRequest(model, volume, scene, handler, true);
                 String filePath = volume.getFileName();
-                String ext = filePath.substring(filePath.length() - 3).toLowerCase();
 
                 assetRequest.setImportSettings(settings);
                 model.setName(assetRequest.getBaseName());
                 try
                 {
-                    if (ext.equals("x3d"))
-                    {
-                        loadX3DModel(assetRequest, model);
-                    }
-                    else
-                    {
-                        loadJassimpModel(assetRequest, model);
-                    }
+                    loadModel(assetRequest, model, filePath);
                 }
                 catch (IOException ex)
                 {
@@ -1247,20 +1461,12 @@ public final class GVRAssetLoader {
             {
                 String filePath = volume.getFileName();
                 AssetRequest assetRequest = new AssetRequest(model, volume, scene, null, false);
-                String ext = filePath.substring(filePath.length() - 3).toLowerCase();
 
                 model.setName(assetRequest.getBaseName());
                 assetRequest.setImportSettings(GVRImportSettings.getRecommendedSettings());
                 try
                 {
-                    if (ext.equals("x3d"))
-                    {
-                        loadX3DModel(assetRequest, model);
-                    }
-                    else
-                    {
-                        loadJassimpModel(assetRequest, model);
-                    }
+                    loadModel(assetRequest, model, filePath);
                 }
                 catch (IOException ex)
                 {
@@ -1304,20 +1510,12 @@ public final class GVRAssetLoader {
             {
                 String filePath = volume.getFileName();
                 AssetRequest assetRequest = new AssetRequest(model, volume, scene, null, false);
-                String ext = filePath.substring(filePath.length() - 3).toLowerCase();
 
                 model.setName(assetRequest.getBaseName());
                 assetRequest.setImportSettings(settings);
                 try
                 {
-                    if (ext.equals("x3d"))
-                    {
-                        loadX3DModel(assetRequest, model);
-                    }
-                    else
-                    {
-                        loadJassimpModel(assetRequest, model);
-                    }
+                    loadModel(assetRequest, model, filePath);
                 }
                 catch (IOException ex)
                 {
@@ -1358,18 +1556,10 @@ public final class GVRAssetLoader {
         GVRModelSceneObject model = new GVRModelSceneObject(mContext);
         GVRResourceVolume   volume = new GVRResourceVolume(mContext, filePath);
         AssetRequest assetRequest = new AssetRequest(model, volume, null, handler, false);
-        String ext = filePath.substring(filePath.length() - 3).toLowerCase();
 
         model.setName(assetRequest.getBaseName());
         assetRequest.setImportSettings(GVRImportSettings.getRecommendedSettings());
-        if (ext.equals("x3d"))
-        {
-            loadX3DModel(assetRequest, model);
-        }
-        else
-        {
-            loadJassimpModel(assetRequest, model);
-        }
+        loadModel(assetRequest, model, filePath);
         return model;
     }
 
@@ -1413,20 +1603,12 @@ public final class GVRAssetLoader {
                                          boolean cacheEnabled,
                                          GVRScene scene) throws IOException
     {
-        String ext = filePath.substring(filePath.length() - 3).toLowerCase();
         GVRModelSceneObject model = new GVRModelSceneObject(mContext);
         AssetRequest assetRequest = new AssetRequest(model, new GVRResourceVolume(mContext, filePath), scene, null, false);
         model.setName(assetRequest.getBaseName());
         assetRequest.setImportSettings(settings);
         assetRequest.useCache(cacheEnabled);
-        if (ext.equals("x3d"))
-        {
-            loadX3DModel(assetRequest, model);
-        }
-        else
-        {
-            loadJassimpModel(assetRequest, model);
-        }
+        loadModel(assetRequest, model, filePath);
         return model;
     }
 
@@ -1472,7 +1654,6 @@ public final class GVRAssetLoader {
                                          GVRScene scene) throws IOException
     {
         String filePath = resource.getResourceFilename();
-        String ext = filePath.substring(filePath.length() - 3).toLowerCase();
         GVRModelSceneObject model = new GVRModelSceneObject(mContext);
         GVRResourceVolume volume = new GVRResourceVolume(mContext, resource);
         AssetRequest assetRequest = new AssetRequest(model, volume, scene, null, false);
@@ -1484,14 +1665,7 @@ public final class GVRAssetLoader {
         model.setName(assetRequest.getBaseName());
         assetRequest.setImportSettings(settings);
         assetRequest.useCache(cacheEnabled);
-        if (ext.equals("x3d"))
-        {
-            loadX3DModel(assetRequest, model);
-        }
-        else
-        {
-            loadJassimpModel(assetRequest, model);
-        }
+        loadModel(assetRequest, model, filePath);
         return model;
     }
 
@@ -1535,7 +1709,6 @@ public final class GVRAssetLoader {
             public void run()
             {
                 String filePath = fileVolume.getFileName();
-                String ext = filePath.substring(filePath.length() - 3).toLowerCase();
                 AssetRequest assetRequest =
                         new AssetRequest(model, fileVolume, null, handler, false);
                 model.setName(assetRequest.getBaseName());
@@ -1543,14 +1716,7 @@ public final class GVRAssetLoader {
                 assetRequest.useCache(cacheEnabled);
                 try
                 {
-                    if (ext.equals("x3d"))
-                    {
-                        loadX3DModel(assetRequest, model);
-                    }
-                    else
-                    {
-                        loadJassimpModel(assetRequest, model);
-                    }
+                    loadModel(assetRequest, model, filePath);
                 }
                 catch (IOException ex)
                 {
@@ -1753,6 +1919,36 @@ public final class GVRAssetLoader {
         GVRAsynchronousResourceLoader.loadMesh(mContext, callback, resource, priority);
     }
 
+    /**
+     * Loads a scene object {@link GVRSceneObject} from a 3D model,
+     * choosing the importer from the file extension: X3D, the binary
+     * GearVRf format or Assimp for everything else.
+     * All the {@code loadModel} and {@code loadScene} functions call this.
+     *
+     * @param request
+     *            AssetRequest with the filename, relative to the root of the volume.
+     * @param model
+     *            GVRModelSceneObject that is the root of the loaded asset
+     * @param filePath
+     *            name of the file, its extension selects the importer
+     * @return the root of the loaded asset
+     * @throws IOException
+     */
+    private GVRSceneObject loadModel(AssetRequest request, GVRSceneObject model, String filePath) throws IOException
+    {
+        String ext = filePath.substring(filePath.length() - 3).toLowerCase();
+
+        if (ext.equals("x3d"))
+        {
+            return loadX3DModel(request, model);
+        }
+        else if (GVRBinaryScene.isBinaryModel(request.getBaseName()))
+        {
+            return loadBinaryModel(request, model);
+        }
+        return loadJassimpModel(request, model);
+    }
+
     /**
      * Loads a scene object {@link GVRSceneObject} from a 3D model.
      *
@@ -1776,6 +1972,7 @@ public final class GVRAssetLoader {
         ResourceVolumeIO jassimpIO = new ResourceVolumeIO(request.getVolume());
         try
         {
+            request.beginStage(GVRImportStats.Stage.PARSE);
             assimpScene = Jassimp.importFile(FileNameUtils.getFilename(filePath),
                                              jassimpAdapter.toJassimpSettings(request.getImportSettings()),
                                              jassimpIO);
@@ -1792,6 +1989,7 @@ public final class GVRAssetLoader {
             request.onModelError(mContext, errmsg, filePath);
             throw new IOException(errmsg);
         }
+        request.endStage(GVRImportStats.Stage.PARSE, assimpScene.getMeshes().size());
         boolean startAnimations = request.getImportSettings().contains(GVRImportSettings.START_ANIMATIONS);
         jassimpAdapter.processScene(request, model, assimpScene, request.getVolume(), startAnimations);
         request.onModelLoaded(mContext, model, filePath);
@@ -1799,6 +1997,79 @@ public final class GVRAssetLoader {
     }
 
 
+    /**
+     * Loads a model saved by {@link #saveBinaryModel(GVRSceneObject, File)}.
+     * The file is memory-mapped when it is on the file system or
+     * stored uncompressed in the APK.
+     * <p>
+     * All the scene objects are created here. Only the meshes and
+     * materials are decoded when a node first refers to them, so a
+     * mesh or material shared by several nodes is decoded once.
+     * A damaged file is reported with onModelError.
+     *
+     * @param request
+     *            AssetRequest with the filename, relative to the root of the volume.
+     * @param model
+     *            GVRModelSceneObject that is the root of the loaded asset
+     * @return A {@link GVRModelSceneObject} that contains the meshes with textures and bones
+     * and animations.
+     * @throws IOException
+     */
+    private GVRSceneObject loadBinaryModel(AssetRequest request, GVRSceneObject model) throws IOException
+    {
+        String filePath = request.getBaseName();
+        GVRBinaryScene.Reader reader;
+
+        model.setName(filePath);
+        try
+        {
+            ResourceStream stream = new ResourceStream(request.getVolume(), FileNameUtils.getFilename(filePath));
+            reader = new GVRBinaryScene.Reader(mContext, stream.getBuffer());
+        }
+        catch (IOException ex)
+        {
+            String errmsg = "Cannot load model: " + ex.getMessage();
+            request.onModelError(mContext, errmsg, filePath);
+            throw new IOException(errmsg);
+        }
+        try
+        {
+            reader.createModel(request, model);
+        }
+        catch (RuntimeException ex)
+        {
+            // Damaged sections fail while they are decoded
+            String errmsg = "Cannot load model: damaged section, " + ex.toString();
+            request.onModelError(mContext, errmsg, filePath);
+            throw new IOException(errmsg, ex);
+        }
+        request.onModelLoaded(mContext, model, filePath);
+        return model;
+    }
+
+    /**
+     * Saves a model in the binary GearVRf format. Loading the saved
+     * file with any of the {@code loadModel} functions skips the
+     * Assimp import and conversion, which makes it much faster.
+     * <p>
+     * Meshes, materials, bones and keyframe animations are saved.
+     * Textures are saved by file name and loaded from the volume of
+     * the binary model, so they should be copied next to it.
+     * Textures embedded in the source model (named like "model.fbx*0")
+     * have no file to load them from and are not saved.
+     * Cameras and lights are not saved.
+     *
+     * @param model
+     *            Root of the model, usually returned by {@link #loadModel(String)}
+     * @param file
+     *            Destination file. Its name should end with ".gvrb".
+     * @throws IOException if the file cannot be written
+     */
+    public void saveBinaryModel(GVRSceneObject model, File file) throws IOException
+    {
+        GVRBinaryScene.write(model, file);
+    }
+
     GVRSceneObject loadX3DModel(GVRAssetLoader.AssetRequest assetRequest,
                                 GVRSceneObject root) throws IOException
     {
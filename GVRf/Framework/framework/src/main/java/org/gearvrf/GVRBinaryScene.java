@@ -0,0 +1,991 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+
+import org.gearvrf.animation.GVRAnimation;
+import org.gearvrf.animation.GVRAnimator;
+import org.gearvrf.animation.keyframe.GVRAnimationBehavior;
+import org.gearvrf.animation.keyframe.GVRAnimationChannel;
+import org.gearvrf.animation.keyframe.GVRKeyFrameAnimation;
+import org.gearvrf.scene_objects.GVRModelSceneObject;
+import org.gearvrf.shaders.GVRPBRShader;
+import org.gearvrf.utility.Log;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Binary container for an imported model.
+ * <p>
+ * Importing with Assimp parses the source file and converts every mesh,
+ * material, bone and animation channel each time the model is loaded.
+ * {@link GVRAssetLoader#saveBinaryModel(GVRSceneObject, File)} writes the
+ * converted scene once; loading the {@code .gvrb} file memory-maps it and
+ * copies the vertex and index data straight from the mapping into the
+ * native buffers.
+ * <p>
+ * The file starts with a header and a table of sections. There is one
+ * section for the node hierarchy and one for each mesh, material and
+ * keyframe animation. Meshes and materials are only decoded when a node
+ * refers to them, and animations only if they are wanted.
+ * All values are 32 bits in the byte order of the device which
+ * wrote the file.
+ */
+final class GVRBinaryScene
+{
+    private static final String TAG = Log.tag(GVRBinaryScene.class);
+
+    /** File name extension of binary models */
+    static final String EXTENSION = ".gvrb";
+
+    private static final int MAGIC = 0x42525647; // "GVRB"
+    /** Bump when the layout changes */
+    private static final int VERSION = 1;
+
+    private static final int SECTION_NODES = 1;
+    private static final int SECTION_MESH = 2;
+    private static final int SECTION_MATERIAL = 3;
+    private static final int SECTION_ANIMATION = 4;
+
+    private static final int NODE_HAS_RENDER_DATA = 1;
+    private static final int NODE_LIGHT_ENABLED = 2;
+    private static final int NODE_ALPHA_BLEND = 4;
+
+    private static final int TYPE_FLOAT = 0;
+    private static final int TYPE_INT = 1;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final Pattern sTypePattern = Pattern.compile("([a-zA-Z]+)([0-9]*)[ \t]+([a-zA-Z0-9_]+)");
+
+    private GVRBinaryScene()
+    {
+    }
+
+    static boolean isBinaryModel(String fileName)
+    {
+        return fileName.toLowerCase().endsWith(EXTENSION);
+    }
+
+    /*
+     * Writing
+     */
+
+    /**
+     * Write a model to a file.
+     * @param model root of the model
+     * @param file  destination file
+     * @throws IOException if the file cannot be written
+     */
+    static void write(GVRSceneObject model, File file) throws IOException
+    {
+        List<GVRSceneObject> nodes = new ArrayList<GVRSceneObject>();
+        List<Integer> parents = new ArrayList<Integer>();
+        Map<GVRMesh, Integer> meshes = new IdentityHashMap<GVRMesh, Integer>();
+        Map<GVRMaterial, Integer> materials = new IdentityHashMap<GVRMaterial, Integer>();
+        List<GVRKeyFrameAnimation> animations = new ArrayList<GVRKeyFrameAnimation>();
+
+        collectNodes(model, -1, nodes, parents, meshes, materials);
+        if (model instanceof GVRModelSceneObject)
+        {
+            for (GVRAnimation anim : ((GVRModelSceneObject) model).getAnimations())
+            {
+                if (anim instanceof GVRKeyFrameAnimation)
+                {
+                    animations.add((GVRKeyFrameAnimation) anim);
+                }
+            }
+        }
+
+        GVRMesh[] meshList = new GVRMesh[meshes.size()];
+        for (Map.Entry<GVRMesh, Integer> e : meshes.entrySet())
+        {
+            meshList[e.getValue()] = e.getKey();
+        }
+        GVRMaterial[] materialList = new GVRMaterial[materials.size()];
+        for (Map.Entry<GVRMaterial, Integer> e : materials.entrySet())
+        {
+            materialList[e.getValue()] = e.getKey();
+        }
+
+        int numSections = 1 + meshList.length + materialList.length + animations.size();
+        int headerSize = 4 * (3 + 3 * numSections);
+        ByteBuffer header = ByteBuffer.allocate(headerSize).order(ByteOrder.nativeOrder());
+        header.putInt(MAGIC);
+        header.putInt(VERSION);
+        header.putInt(numSections);
+
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try
+        {
+            FileChannel channel = raf.getChannel();
+            channel.truncate(0);
+            channel.position(headerSize);
+
+            SectionBuffer section = new SectionBuffer();
+            writeNodes(section, nodes, parents, meshes, materials);
+            writeSection(channel, header, SECTION_NODES, section);
+            for (GVRMesh mesh : meshList)
+            {
+                writeMesh(section, mesh);
+                writeSection(channel, header, SECTION_MESH, section);
+            }
+            for (GVRMaterial material : materialList)
+            {
+                writeMaterial(section, material);
+                writeSection(channel, header, SECTION_MATERIAL, section);
+            }
+            for (GVRKeyFrameAnimation anim : animations)
+            {
+                writeAnimation(section, anim);
+                writeSection(channel, header, SECTION_ANIMATION, section);
+            }
+            header.flip();
+            channel.write(header, 0);
+        }
+        finally
+        {
+            raf.close();
+        }
+        Log.d(TAG, "saved %s: %d nodes, %d meshes, %d materials, %d animations",
+              file, nodes.size(), meshList.length, materialList.length, animations.size());
+    }
+
+    private static void collectNodes(GVRSceneObject node, int parent,
+                                     List<GVRSceneObject> nodes, List<Integer> parents,
+                                     Map<GVRMesh, Integer> meshes, Map<GVRMaterial, Integer> materials)
+    {
+        int index = nodes.size();
+        nodes.add(node);
+        parents.add(parent);
+
+        GVRRenderData rdata = node.getRenderData();
+        if (rdata != null)
+        {
+            GVRMesh mesh = rdata.getMesh();
+            GVRMaterial material = rdata.getMaterial();
+            if ((mesh != null) && !meshes.containsKey(mesh))
+            {
+                meshes.put(mesh, meshes.size());
+            }
+            if ((material != null) && !materials.containsKey(material))
+            {
+                materials.put(material, materials.size());
+            }
+        }
+        for (GVRSceneObject child : node.getChildren())
+        {
+            collectNodes(child, index, nodes, parents, meshes, materials);
+        }
+    }
+
+    private static void writeSection(FileChannel channel, ByteBuffer header,
+                                     int type, SectionBuffer section) throws IOException
+    {
+        ByteBuffer data = section.finish();
+        header.putInt(type);
+        header.putInt((int) channel.position());
+        header.putInt(data.remaining());
+        while (data.hasRemaining())
+        {
+            channel.write(data);
+        }
+    }
+
+    private static void writeNodes(SectionBuffer out, List<GVRSceneObject> nodes, List<Integer> parents,
+                                   Map<GVRMesh, Integer> meshes, Map<GVRMaterial, Integer> materials)
+    {
+        float[] matrix = new float[16];
+
+        out.putInt(nodes.size());
+        for (int i = 0; i < nodes.size(); ++i)
+        {
+            GVRSceneObject node = nodes.get(i);
+            GVRRenderData rdata = node.getRenderData();
+            int flags = 0;
+            int meshIndex = -1;
+            int materialIndex = -1;
+            int renderingOrder = 0;
+
+            if (rdata != null)
+            {
+                flags |= NODE_HAS_RENDER_DATA;
+                flags |= rdata.isLightEnabled() ? NODE_LIGHT_ENABLED : 0;
+                flags |= rdata.getAlphaBlend() ? NODE_ALPHA_BLEND : 0;
+                if (rdata.getMesh() != null)
+                {
+                    meshIndex = meshes.get(rdata.getMesh());
+                }
+                if (rdata.getMaterial() != null)
+                {
+                    materialIndex = materials.get(rdata.getMaterial());
+                }
+                renderingOrder = rdata.getRenderingOrder();
+            }
+            node.getTransform().getLocalModelMatrix(matrix);
+            out.putString(node.getName());
+            out.putInt(parents.get(i));
+            out.putFloats(matrix);
+            out.putInt(flags);
+            out.putInt(meshIndex);
+            out.putInt(materialIndex);
+            out.putInt(renderingOrder);
+        }
+    }
+
+    private static void writeMesh(SectionBuffer out, GVRMesh mesh)
+    {
+        GVRVertexBuffer vbuf = mesh.getVertexBuffer();
+        GVRIndexBuffer ibuf = mesh.getIndexBuffer();
+        String descriptor = vbuf.getDescriptor();
+        List<String> names = new ArrayList<String>();
+        List<Boolean> isInt = new ArrayList<Boolean>();
+        Matcher matcher = sTypePattern.matcher(descriptor);
+
+        while (matcher.find())
+        {
+            String name = matcher.group(3);
+            if (vbuf.hasAttribute(name))
+            {
+                names.add(name);
+                isInt.add(matcher.group(1).equalsIgnoreCase("int"));
+            }
+        }
+        out.putString(descriptor);
+        out.putInt(vbuf.getVertexCount());
+        out.putInt(names.size());
+        for (int i = 0; i < names.size(); ++i)
+        {
+            String name = names.get(i);
+            out.putString(name);
+            if (isInt.get(i))
+            {
+                out.putInt(TYPE_INT);
+                out.putInts(vbuf.getIntArray(name));
+            }
+            else
+            {
+                out.putInt(TYPE_FLOAT);
+                out.putFloats(vbuf.getFloatArray(name));
+            }
+        }
+
+        if ((ibuf == null) || (ibuf.getIndexCount() == 0))
+        {
+            out.putInt(0);
+        }
+        else if (ibuf.getIndexSize() == 2)
+        {
+            char[] indices = ibuf.asCharArray();
+            out.putInt(2);
+            out.putInt(indices.length);
+            out.putChars(indices);
+        }
+        else
+        {
+            out.putInt(4);
+            out.putInts(ibuf.asIntArray());
+        }
+
+        List<GVRBone> bones = mesh.getBones();
+        float[] matrix = new float[16];
+        out.putInt(bones.size());
+        for (GVRBone bone : bones)
+        {
+            out.putString(bone.getName());
+            bone.getOffsetMatrix().get(matrix);
+            out.putFloats(matrix);
+        }
+    }
+
+    private static void writeMaterial(SectionBuffer out, GVRMaterial material)
+    {
+        List<String> names = new ArrayList<String>();
+        List<Object> values = new ArrayList<Object>();
+        Matcher matcher = sTypePattern.matcher(material.getUniformDescriptor());
+
+        while (matcher.find())
+        {
+            String name = matcher.group(3);
+            if (material.hasUniform(name))
+            {
+                Object value = matcher.group(1).equalsIgnoreCase("int")
+                        ? material.getIntVec(name) : material.getFloatVec(name);
+                if (value != null)
+                {
+                    names.add(name);
+                    values.add(value);
+                }
+            }
+        }
+        out.putString(material.getShaderType().ID.getName());
+        out.putInt(names.size());
+        for (int i = 0; i < names.size(); ++i)
+        {
+            Object value = values.get(i);
+            out.putString(names.get(i));
+            if (value instanceof int[])
+            {
+                out.putInt(TYPE_INT);
+                out.putInts((int[]) value);
+            }
+            else
+            {
+                out.putInt(TYPE_FLOAT);
+                out.putFloats((float[]) value);
+            }
+        }
+
+        /*
+         * Only textures loaded from files can be saved,
+         * they are loaded again from the model's volume.
+         * Embedded textures, named after the model with "*0" and so on,
+         * cannot be loaded that way.
+         */
+        List<String> texNames = new ArrayList<String>();
+        List<GVRTexture> textures = new ArrayList<GVRTexture>();
+        for (String name : material.getTextureNames())
+        {
+            GVRTexture tex = material.getTexture(name);
+            GVRImage image = (tex != null) ? tex.getImage() : null;
+            String fileName = (image != null) ? image.getFileName() : null;
+            if ((fileName != null) && !fileName.isEmpty() && (fileName.indexOf('*') < 0))
+            {
+                texNames.add(name);
+                textures.add(tex);
+            }
+        }
+        out.putInt(texNames.size());
+        for (int i = 0; i < texNames.size(); ++i)
+        {
+            GVRTexture tex = textures.get(i);
+            GVRTextureParameters params = tex.mTextureParams;
+            out.putString(texNames.get(i));
+            out.putString(tex.getImage().getFileName());
+            out.putString(tex.getTexCoordAttr());
+            out.putString(tex.getTexCoordShaderVar());
+            out.putInt((params != null) ? params.getWrapSType().ordinal() : -1);
+            out.putInt((params != null) ? params.getWrapTType().ordinal() : -1);
+            out.putInt((params != null) ? params.getMinFilterType().ordinal() : -1);
+            out.putInt((params != null) ? params.getMagFilterType().ordinal() : -1);
+        }
+    }
+
+    private static void writeAnimation(SectionBuffer out, GVRKeyFrameAnimation anim)
+    {
+        int numChannels = anim.getNumChannels();
+
+        out.putString(anim.getName());
+        out.putFloat(anim.getDurationTicks());
+        out.putFloat(anim.getTicksPerSecond());
+        out.putInt(numChannels);
+        for (int c = 0; c < numChannels; ++c)
+        {
+            GVRAnimationChannel channel = anim.getChannel(c);
+            int n;
+
+            out.putString(channel.getNodeName());
+            out.putInt(channel.getPreState().ordinal());
+            out.putInt(channel.getPostState().ordinal());
+
+            n = channel.getNumPosKeys();
+            out.putInt(n);
+            for (int i = 0; i < n; ++i)
+            {
+                out.putFloat((float) channel.getPosKeyTime(i));
+            }
+            for (int i = 0; i < n; ++i)
+            {
+                Vector3f v = channel.getPosKeyVector(i);
+                out.putFloat(v.x);
+                out.putFloat(v.y);
+                out.putFloat(v.z);
+            }
+
+            n = channel.getNumRotKeys();
+            out.putInt(n);
+            for (int i = 0; i < n; ++i)
+            {
+                out.putFloat((float) channel.getRotKeyTime(i));
+            }
+            for (int i = 0; i < n; ++i)
+            {
+                Quaternionf q = channel.getRotKeyQuaternion(i);
+                out.putFloat(q.x);
+                out.putFloat(q.y);
+                out.putFloat(q.z);
+                out.putFloat(q.w);
+            }
+
+            n = channel.getNumScaleKeys();
+            out.putInt(n);
+            for (int i = 0; i < n; ++i)
+            {
+                out.putFloat((float) channel.getScaleKeyTime(i));
+            }
+            for (int i = 0; i < n; ++i)
+            {
+                Vector3f v = channel.getScaleKeyVector(i);
+                out.putFloat(v.x);
+                out.putFloat(v.y);
+                out.putFloat(v.z);
+            }
+        }
+    }
+
+    /*
+     * Growable buffer for one section, reused for all of them.
+     * Arrays are prefixed by their length and everything is
+     * padded to 4 bytes so the reader can view arrays in place.
+     */
+    private static final class SectionBuffer
+    {
+        private ByteBuffer mBuffer = ByteBuffer.allocate(64 * 1024).order(ByteOrder.nativeOrder());
+
+        private void ensure(int bytes)
+        {
+            if (mBuffer.remaining() < bytes)
+            {
+                int capacity = Math.max(mBuffer.capacity() * 2, mBuffer.position() + bytes);
+                ByteBuffer bigger = ByteBuffer.allocate(capacity).order(ByteOrder.nativeOrder());
+                mBuffer.flip();
+                bigger.put(mBuffer);
+                mBuffer = bigger;
+            }
+        }
+
+        void putInt(int v)
+        {
+            ensure(4);
+            mBuffer.putInt(v);
+        }
+
+        void putFloat(float v)
+        {
+            ensure(4);
+            mBuffer.putFloat(v);
+        }
+
+        void putString(String s)
+        {
+            if (s == null)
+            {
+                putInt(-1);
+                return;
+            }
+            byte[] bytes = s.getBytes(UTF8);
+            putInt(bytes.length);
+            ensure(bytes.length + 3);
+            mBuffer.put(bytes);
+            pad();
+        }
+
+        void putFloats(float[] data)
+        {
+            putInt(data.length);
+            ensure(data.length * 4);
+            mBuffer.asFloatBuffer().put(data);
+            mBuffer.position(mBuffer.position() + data.length * 4);
+        }
+
+        void putInts(int[] data)
+        {
+            putInt(data.length);
+            ensure(data.length * 4);
+            mBuffer.asIntBuffer().put(data);
+            mBuffer.position(mBuffer.position() + data.length * 4);
+        }
+
+        /* The count is written by the caller */
+        void putChars(char[] data)
+        {
+            ensure(data.length * 2 + 2);
+            mBuffer.asCharBuffer().put(data);
+            mBuffer.position(mBuffer.position() + data.length * 2);
+            pad();
+        }
+
+        private void pad()
+        {
+            while ((mBuffer.position() & 3) != 0)
+            {
+                mBuffer.put((byte) 0);
+            }
+        }
+
+        /** @return the section data, ready to write; the buffer is reset */
+        ByteBuffer finish()
+        {
+            ByteBuffer data = mBuffer.duplicate();
+            data.flip();
+            mBuffer.clear();
+            return data;
+        }
+    }
+
+    /*
+     * Reading
+     */
+
+    /**
+     * Reads a binary model from a memory-mapped file.
+     * The node hierarchy is built in full, mesh and material
+     * sections are decoded when a node first refers to them.
+     */
+    static final class Reader
+    {
+        private final GVRContext mContext;
+        private final ByteBuffer mData;
+        private final int[] mNodeSection = new int[2];
+        private final List<int[]> mMeshSections = new ArrayList<int[]>();
+        private final List<int[]> mMaterialSections = new ArrayList<int[]>();
+        private final List<int[]> mAnimationSections = new ArrayList<int[]>();
+        private final GVRMesh[] mMeshes;
+        private final GVRMaterial[] mMaterials;
+        private final Map<String, GVRShaderId> mShaderIds = new HashMap<String, GVRShaderId>();
+
+        /**
+         * @param ctx  context to create the scene objects in
+         * @param data content of the file, usually a mapping
+         * @throws IOException if the header is not valid
+         */
+        Reader(GVRContext ctx, ByteBuffer data) throws IOException
+        {
+            mContext = ctx;
+            mData = data.duplicate().order(ByteOrder.nativeOrder());
+            mData.position(0);
+            if (mData.remaining() < 12)
+            {
+                throw new IOException("Truncated binary model");
+            }
+            int magic = mData.getInt();
+            if (magic != MAGIC)
+            {
+                throw new IOException((magic == Integer.reverseBytes(MAGIC))
+                                      ? "Binary model was written with another byte order"
+                                      : "Not a binary model");
+            }
+            int version = mData.getInt();
+            if (version != VERSION)
+            {
+                throw new IOException("Unsupported binary model version " + version);
+            }
+            int numSections = mData.getInt();
+            if ((numSections < 1) || (mData.remaining() < numSections * 12))
+            {
+                throw new IOException("Truncated binary model");
+            }
+            boolean hasNodes = false;
+            for (int i = 0; i < numSections; ++i)
+            {
+                int type = mData.getInt();
+                int offset = mData.getInt();
+                int length = mData.getInt();
+                int[] section = new int[] { offset, length };
+
+                if ((offset < 0) || (length < 0) || ((long) offset + length > mData.capacity()))
+                {
+                    throw new IOException("Bad section in binary model");
+                }
+                switch (type)
+                {
+                    case SECTION_NODES:
+                        mNodeSection[0] = offset;
+                        mNodeSection[1] = length;
+                        hasNodes = true;
+                        break;
+                    case SECTION_MESH: mMeshSections.add(section); break;
+                    case SECTION_MATERIAL: mMaterialSections.add(section); break;
+                    case SECTION_ANIMATION: mAnimationSections.add(section); break;
+                    default: break; // newer section types are skipped
+                }
+            }
+            if (!hasNodes)
+            {
+                throw new IOException("Binary model has no nodes");
+            }
+            mMeshes = new GVRMesh[mMeshSections.size()];
+            mMaterials = new GVRMaterial[mMaterialSections.size()];
+        }
+
+        private ByteBuffer section(int[] section)
+        {
+            ByteBuffer buf = mData.duplicate();
+            buf.position(section[0]);
+            buf.limit(section[0] + section[1]);
+            return buf.slice().order(ByteOrder.nativeOrder());
+        }
+
+        /**
+         * Build the model under the given root.
+         * @param request asset request, used to load the textures
+         * @param model   root of the model
+         */
+        void createModel(GVRAssetLoader.AssetRequest request, GVRSceneObject model)
+        {
+            EnumSet<GVRImportSettings> settings = request.getImportSettings();
+            ByteBuffer in = section(mNodeSection);
+            int numNodes = in.getInt();
+            GVRSceneObject[] nodes = new GVRSceneObject[numNodes];
+            float[] matrix = new float[16];
+
+            for (int i = 0; i < numNodes; ++i)
+            {
+                String name = getString(in);
+                int parent = in.getInt();
+                getFloats(in, matrix);
+                int flags = in.getInt();
+                int meshIndex = in.getInt();
+                int materialIndex = in.getInt();
+                int renderingOrder = in.getInt();
+                GVRSceneObject node;
+
+                if (parent < 0)
+                {
+                    node = model;
+                }
+                else
+                {
+                    node = new GVRSceneObject(mContext);
+                    node.setName(name);
+                    nodes[parent].addChildObject(node);
+                }
+                nodes[i] = node;
+                node.getTransform().setModelMatrix(matrix);
+                if ((flags & NODE_HAS_RENDER_DATA) != 0)
+                {
+                    GVRRenderData rdata = new GVRRenderData(mContext);
+                    if (meshIndex >= 0)
+                    {
+                        rdata.setMesh(getMesh(meshIndex));
+                    }
+                    if (materialIndex >= 0)
+                    {
+                        rdata.setMaterial(getMaterial(materialIndex, request));
+                    }
+                    if ((flags & NODE_LIGHT_ENABLED) == 0)
+                    {
+                        rdata.disableLight();
+                    }
+                    rdata.setAlphaBlend((flags & NODE_ALPHA_BLEND) != 0);
+                    rdata.setRenderingOrder(renderingOrder);
+                    node.attachRenderData(rdata);
+                }
+            }
+            if (!settings.contains(GVRImportSettings.NO_ANIMATION) && !mAnimationSections.isEmpty())
+            {
+                boolean start = settings.contains(GVRImportSettings.START_ANIMATIONS);
+                GVRAnimator animator = new GVRAnimator(mContext, start);
+                model.attachComponent(animator);
+                for (int[] section : mAnimationSections)
+                {
+                    GVRKeyFrameAnimation anim = readAnimation(section(section), model);
+                    animator.addAnimation(anim);
+                    if (model instanceof GVRModelSceneObject)
+                    {
+                        ((GVRModelSceneObject) model).getAnimations().add(anim);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Get a mesh, decoding its section the first time.
+         * The vertex and index data are passed to the native
+         * buffers as views of the mapping, without copies.
+         */
+        GVRMesh getMesh(int index)
+        {
+            if (mMeshes[index] != null)
+            {
+                return mMeshes[index];
+            }
+            ByteBuffer in = section(mMeshSections.get(index));
+            String descriptor = getString(in);
+            int vertexCount = in.getInt();
+            int numAttributes = in.getInt();
+            GVRVertexBuffer vbuf = new GVRVertexBuffer(mContext, descriptor, vertexCount);
+
+            for (int i = 0; i < numAttributes; ++i)
+            {
+                String name = getString(in);
+                int type = in.getInt();
+                ByteBuffer data = getArray(in, 4);
+                if (type == TYPE_INT)
+                {
+                    vbuf.setIntVec(name, data.asIntBuffer());
+                }
+                else
+                {
+                    vbuf.setFloatVec(name, data.asFloatBuffer());
+                }
+            }
+
+            GVRIndexBuffer ibuf = null;
+            int indexSize = in.getInt();
+            if (indexSize != 0)
+            {
+                int indexCount = in.getInt();
+                ibuf = new GVRIndexBuffer(mContext, indexSize, indexCount);
+                ByteBuffer data = view(in, indexCount * indexSize);
+                if (indexSize == 2)
+                {
+                    CharBuffer indices = data.asCharBuffer();
+                    ibuf.setShortVec(indices);
+                    skipPadding(in);
+                }
+                else
+                {
+                    IntBuffer indices = data.asIntBuffer();
+                    ibuf.setIntVec(indices);
+                }
+            }
+
+            GVRMesh mesh = new GVRMesh(vbuf, ibuf);
+            int numBones = in.getInt();
+            if (numBones > 0)
+            {
+                List<GVRBone> bones = new ArrayList<GVRBone>(numBones);
+                float[] matrix = new float[16];
+                for (int i = 0; i < numBones; ++i)
+                {
+                    GVRBone bone = new GVRBone(mContext);
+                    bone.setName(getString(in));
+                    getFloats(in, matrix);
+                    bone.setOffsetMatrix(matrix);
+                    bones.add(bone);
+                }
+                mesh.setBones(bones);
+            }
+            mMeshes[index] = mesh;
+            return mesh;
+        }
+
+        /**
+         * Get a material, decoding its section the first time.
+         */
+        GVRMaterial getMaterial(int index, GVRAssetLoader.AssetRequest request)
+        {
+            if (mMaterials[index] != null)
+            {
+                return mMaterials[index];
+            }
+            ByteBuffer in = section(mMaterialSections.get(index));
+            GVRShaderId shaderId = getShaderId(getString(in));
+            GVRMaterial material = new GVRMaterial(mContext, shaderId);
+
+            int numUniforms = in.getInt();
+            for (int i = 0; i < numUniforms; ++i)
+            {
+                String name = getString(in);
+                int type = in.getInt();
+                if (type == TYPE_INT)
+                {
+                    int[] values = new int[in.getInt()];
+                    in.asIntBuffer().get(values);
+                    in.position(in.position() + values.length * 4);
+                    material.setIntArray(name, values);
+                }
+                else
+                {
+                    float[] values = new float[in.getInt()];
+                    in.asFloatBuffer().get(values);
+                    in.position(in.position() + values.length * 4);
+                    material.setFloatArray(name, values);
+                }
+            }
+
+            boolean loadTextures = !request.getImportSettings().contains(GVRImportSettings.NO_TEXTURING);
+            int numTextures = in.getInt();
+            for (int i = 0; i < numTextures; ++i)
+            {
+                String key = getString(in);
+                String fileName = getString(in);
+                String texCoordAttr = getString(in);
+                String shaderVar = getString(in);
+                int wrapS = in.getInt();
+                int wrapT = in.getInt();
+                int minFilter = in.getInt();
+                int magFilter = in.getInt();
+
+                if (!loadTextures)
+                {
+                    continue;
+                }
+                GVRTextureParameters params = null;
+                if (wrapS >= 0)
+                {
+                    params = new GVRTextureParameters(mContext);
+                    params.setWrapSType(GVRTextureParameters.TextureWrapType.values()[wrapS]);
+                    params.setWrapTType(GVRTextureParameters.TextureWrapType.values()[wrapT]);
+                    params.setMinFilterType(GVRTextureParameters.TextureFilterType.values()[minFilter]);
+                    params.setMagFilterType(GVRTextureParameters.TextureFilterType.values()[magFilter]);
+                }
+                GVRTexture tex = new GVRTexture(mContext, params);
+                tex.setTexCoord(texCoordAttr, shaderVar);
+                material.setTexture(key, tex);
+                request.loadTexture(new GVRAssetLoader.TextureRequest(request, tex, fileName));
+            }
+
+            // The BRDF lookup table is generated, not loaded from the model
+            if ((shaderId.ID == GVRPBRShader.class) && !material.hasTexture("brdfLUTTexture"))
+            {
+                Bitmap bitmap = BitmapFactory.decodeResource(mContext.getContext().getResources(),
+                                                             R.drawable.brdflookup);
+                GVRTexture brdfLUTtex = new GVRTexture(mContext);
+                brdfLUTtex.setImage(new GVRBitmapImage(mContext, bitmap));
+                material.setTexture("brdfLUTTexture", brdfLUTtex);
+            }
+            mMaterials[index] = material;
+            return material;
+        }
+
+        @SuppressWarnings("unchecked")
+        private GVRShaderId getShaderId(String className)
+        {
+            GVRShaderId id = mShaderIds.get(className);
+            if (id == null)
+            {
+                try
+                {
+                    id = new GVRShaderId((Class<? extends GVRShader>) Class.forName(className));
+                }
+                catch (ClassNotFoundException ex)
+                {
+                    Log.e(TAG, "Shader %s not found, using Phong", className);
+                    id = GVRMaterial.GVRShaderType.Phong.ID;
+                }
+                mShaderIds.put(className, id);
+            }
+            return id;
+        }
+
+        private GVRKeyFrameAnimation readAnimation(ByteBuffer in, GVRSceneObject model)
+        {
+            String name = getString(in);
+            float duration = in.getFloat();
+            float ticksPerSecond = in.getFloat();
+            int numChannels = in.getInt();
+            GVRAnimationBehavior[] behaviors = GVRAnimationBehavior.values();
+            GVRKeyFrameAnimation anim = new GVRKeyFrameAnimation(name, model, duration, ticksPerSecond);
+
+            for (int c = 0; c < numChannels; ++c)
+            {
+                String nodeName = getString(in);
+                GVRAnimationBehavior pre = behaviors[in.getInt()];
+                GVRAnimationBehavior post = behaviors[in.getInt()];
+                int n = in.getInt();
+                float[] posTimes = readFloats(in, n);
+                float[] posValues = readFloats(in, n * 3);
+                n = in.getInt();
+                float[] rotTimes = readFloats(in, n);
+                float[] rotValues = readFloats(in, n * 4);
+                n = in.getInt();
+                float[] scaleTimes = readFloats(in, n);
+                float[] scaleValues = readFloats(in, n * 3);
+
+                anim.addChannel(new GVRAnimationChannel(nodeName, posTimes, posValues,
+                                                        rotTimes, rotValues, scaleTimes, scaleValues,
+                                                        pre, post));
+            }
+            anim.prepare();
+            return anim;
+        }
+
+        private static String getString(ByteBuffer in)
+        {
+            int length = in.getInt();
+            if (length < 0)
+            {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            in.get(bytes);
+            skipPadding(in);
+            return new String(bytes, UTF8);
+        }
+
+        private static void getFloats(ByteBuffer in, float[] dest)
+        {
+            if (in.getInt() != dest.length)
+            {
+                throw new IllegalStateException("Corrupt binary model");
+            }
+            in.asFloatBuffer().get(dest);
+            in.position(in.position() + dest.length * 4);
+        }
+
+        private static float[] readFloats(ByteBuffer in, int count)
+        {
+            float[] values = new float[count];
+            in.asFloatBuffer().get(values);
+            in.position(in.position() + count * 4);
+            return values;
+        }
+
+        /* A length-prefixed array, as a view of the mapping */
+        private static ByteBuffer getArray(ByteBuffer in, int elementSize)
+        {
+            int count = in.getInt();
+            return view(in, count * elementSize);
+        }
+
+        /*
+         * The vertex and index buffers only take direct or array-backed
+         * buffers, and the typed views of a heap ByteBuffer are neither.
+         * Models which could not be mapped, such as compressed assets,
+         * are read into a heap buffer, so their arrays are copied.
+         */
+        private static ByteBuffer view(ByteBuffer in, int bytes)
+        {
+            ByteBuffer view = in.slice().order(ByteOrder.nativeOrder());
+            view.limit(bytes);
+            in.position(in.position() + bytes);
+            if (!view.isDirect())
+            {
+                ByteBuffer copy = ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+                copy.put(view);
+                copy.flip();
+                return copy;
+            }
+            return view.slice().order(ByteOrder.nativeOrder());
+        }
+
+        private static void skipPadding(ByteBuffer in)
+        {
+            in.position((in.position() + 3) & ~3);
+        }
+    }
+}
@@ -25,6 +25,11 @@ import org.gearvrf.utility.Log;
 
 import java.io.IOException;
 import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
 import java.util.Arrays;
 import java.util.List;
 
@@ -109,6 +114,7 @@ public class GVRBitmapImage extends GVRImage
     {
         super(gvrContext, NativeBitmapImage.constructor(ImageType.BITMAP.Value, GL_LUMINANCE));
         NativeBitmapImage.updateFromMemory(getNative(), width, height, grayscaleData);
+        mDataSize = (long) width * height;
     }
 
     /**
@@ -137,6 +143,7 @@ public class GVRBitmapImage extends GVRImage
             bmap = getBitmapSupported(bmap);
 
         NativeBitmapImage.updateFromBitmap(getNative(), bmap, bmap.hasAlpha(), bmap.getConfig().name());
+        mDataSize = bmap.getByteCount();
     }
 
     private Bitmap getBitmapSupported(Bitmap orig)
@@ -176,6 +183,25 @@ public class GVRBitmapImage extends GVRImage
     public void setBuffer(final int width, final int height, final int format, final int type, final Buffer pixels)
     {
         NativeBitmapImage.updateFromBuffer(getNative(), 0, 0, width, height, format, type, pixels);
+        mDataSize = getBufferSize(pixels);
+    }
+
+    private static long getBufferSize(Buffer pixels)
+    {
+        long n = pixels.capacity();
+        if (pixels instanceof ByteBuffer)
+        {
+            return n;
+        }
+        if ((pixels instanceof ShortBuffer) || (pixels instanceof CharBuffer))
+        {
+            return n * 2;
+        }
+        if ((pixels instanceof LongBuffer) || (pixels instanceof DoubleBuffer))
+        {
+            return n * 8;
+        }
+        return n * 4;
     }
 
     /**
@@ -228,6 +254,7 @@ public class GVRBitmapImage extends GVRImage
     public void update(int width, int height, byte[] grayscaleData)
     {
         NativeBitmapImage.updateFromMemory(getNative(), width, height, grayscaleData);
+        mDataSize = (long) width * height;
     }
 
     private static Bitmap loadBitmap(GVRContext gvrContext, String pngAssetFilename)
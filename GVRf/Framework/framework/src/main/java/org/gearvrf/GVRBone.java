@@ -58,6 +58,7 @@ public final class GVRBone extends GVRComponent implements PrettyPrint {
     }
 
     public void setOffsetMatrix(float[] offsetMatrix) {
+        mOffsetMatrix.set(offsetMatrix);
         NativeBone.setOffsetMatrix(getNative(), offsetMatrix);
     }
 
@@ -108,9 +109,18 @@ public final class GVRBone extends GVRComponent implements PrettyPrint {
      * @return the offset matrix
      */
     public Matrix4f getOffsetMatrix() {
-        Matrix4f offsetMatrix = new Matrix4f();
-        offsetMatrix.set(NativeBone.getOffsetMatrix(getNative()));
-        return offsetMatrix;
+        return new Matrix4f(mOffsetMatrix);
+    }
+
+    /**
+     * Copies the offset matrix into {@code dest} without allocating.
+     *
+     * @param dest matrix to receive the offset matrix
+     * @return {@code dest}
+     * @see #getOffsetMatrix()
+     */
+    public Matrix4f getOffsetMatrix(Matrix4f dest) {
+        return dest.set(mOffsetMatrix);
     }
 
     /**
@@ -167,6 +177,12 @@ public final class GVRBone extends GVRComponent implements PrettyPrint {
      * bone.
      */
     private GVRSceneObject mSceneObject;
+
+    /**
+     * Copy of the native offset matrix, which is only set
+     * from Java, so skinning can read it every frame.
+     */
+    private final Matrix4f mOffsetMatrix = new Matrix4f();
 }
 
 class NativeBone {
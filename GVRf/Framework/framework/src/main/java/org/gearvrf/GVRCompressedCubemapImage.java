@@ -41,6 +41,7 @@ public class GVRCompressedCubemapImage extends GVRImage
         mWidth = width;
         mHeight = height;
         mImageSize = imageSize;
+        mDataSize = 6L * imageSize;
         NativeCubemapImage.updateCompressed(getNative(), width, height, imageSize, data, dataOffsets);
     }
 
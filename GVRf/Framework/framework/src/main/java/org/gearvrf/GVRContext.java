@@ -169,6 +169,10 @@ public abstract class GVRContext implements IEventReceiver {
     protected DebugServer mDebugServer;
 
     protected GVRAssetLoader mImporter = new GVRAssetLoader(this);
+
+    private final GVRLODSystem mLODSystem = new GVRLODSystem(this);
+
+    private final GVRFrameProfiler mFrameProfiler = new GVRFrameProfiler();
     /*
      * Methods
      */
@@ -234,6 +238,26 @@ public abstract class GVRContext implements IEventReceiver {
     public GVRAssetLoader getAssetLoader() {
         return mImporter;
     }
+
+    /**
+     * Get the {@link GVRLODSystem} which selects the level of detail
+     * of all the {@link GVRLODGroup} components once per frame.
+     *
+     * @return The LOD system associated with this context.
+     */
+    public GVRLODSystem getLODSystem() {
+        return mLODSystem;
+    }
+
+    /**
+     * Get the {@link GVRFrameProfiler} which times the phases of
+     * every frame on the GL thread.
+     *
+     * @return The frame profiler associated with this context.
+     */
+    public GVRFrameProfiler getFrameProfiler() {
+        return mFrameProfiler;
+    }
     
     /**
      * Get the event receiver for this context.
@@ -418,13 +442,32 @@ public abstract class GVRContext implements IEventReceiver {
      * made from the GL thread (aka the "GL context"). The callback queue is
      * processed before any registered
      * {@linkplain #registerDrawFrameListener(GVRDrawFrameListener) frame
-     * listeners}.
+     * listeners}. Callbacks which do not fit in the
+     * {@linkplain GVRGLTaskQueue#setFrameBudget(float) frame budget} wait
+     * for the next frame.
      * 
      * @param runnable
      *            A bit of code that must run on the GL thread
      */
     public abstract void runOnGlThread(Runnable runnable);
 
+    /**
+     * Enqueues a callback to be run in the GL thread with a priority.
+     *
+     * The callbacks posted for a frame run in priority order, and the
+     * {@link GVRGLTaskQueue.Priority#NORMAL NORMAL} and
+     * {@link GVRGLTaskQueue.Priority#LOW LOW} callbacks which do not fit in
+     * the {@linkplain GVRGLTaskQueue#setFrameBudget(float) frame budget}
+     * wait for the next frame. Called on the GL thread, a {@code LOW}
+     * callback is still queued while the others run immediately.
+     *
+     * @param runnable
+     *            A bit of code that must run on the GL thread
+     * @param priority
+     *            priority of the callback
+     */
+    public abstract void runOnGlThread(Runnable runnable, GVRGLTaskQueue.Priority priority);
+
     /**
      * Enqueues a callback to be run in the GL thread after rendering a frame.
      *
@@ -441,6 +484,14 @@ public abstract class GVRContext implements IEventReceiver {
      */
     public abstract void runOnGlThreadPostRender(int delayFrames, Runnable runnable);
 
+    /**
+     * Get the queue of the callbacks posted to the GL thread, to set its
+     * frame budget or read how much time the callbacks took.
+     *
+     * @return The GL task queue associated with this context.
+     */
+    public abstract GVRGLTaskQueue getGLTaskQueue();
+
     /**
      * Subscribes a {@link GVRDrawFrameListener}.
      * 
@@ -99,10 +99,22 @@ public final class GVRContextProxy extends GVRContext {
         mContext.get().runOnGlThread(runnable);
     }
 
+    public void runOnGlThread(Runnable runnable, GVRGLTaskQueue.Priority priority) {
+        mContext.get().runOnGlThread(runnable, priority);
+    }
+
     public void runOnGlThreadPostRender(int delayFrames, Runnable runnable) {
         mContext.get().runOnGlThreadPostRender(delayFrames, runnable);
     }
 
+    public GVRGLTaskQueue getGLTaskQueue() {
+        return mContext.get().getGLTaskQueue();
+    }
+
+    public GVRFrameProfiler getFrameProfiler() {
+        return mContext.get().getFrameProfiler();
+    }
+
     public void registerDrawFrameListener(GVRDrawFrameListener frameListener) {
         mContext.get().registerDrawFrameListener(frameListener);
     }
@@ -59,6 +59,12 @@ public class GVRCubemapImage extends GVRImage
     public void update(Bitmap[] bitmapArray)
     {
         NativeCubemapImage.update(getNative(), bitmapArray);
+        long size = 0;
+        for (Bitmap bitmap : bitmapArray)
+        {
+            size += bitmap.getByteCount();
+        }
+        mDataSize = size;
     }
 
     /**
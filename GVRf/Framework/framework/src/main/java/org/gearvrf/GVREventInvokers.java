@@ -0,0 +1,212 @@
+/* Copyright 2016 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf;
+
+import android.view.MotionEvent;
+
+import org.gearvrf.GVREventManager.EventInvoker;
+import org.gearvrf.GVRPicker.GVRPickedObject;
+import org.gearvrf.script.IScriptable;
+
+/**
+ * Direct invokers for the framework events which are sent
+ * every frame or for every pick.
+ * @see GVREventManager#registerEventInvoker(Class, String, EventInvoker)
+ */
+final class GVREventInvokers {
+    private GVREventInvokers() {
+    }
+
+    /*
+     * The parameters are cast before the handler is called. A parameter
+     * of the wrong type is reported by the event manager through
+     * GVRContext.logError and the call is skipped, as the reflective
+     * invoker does, while exceptions thrown by the handler still reach
+     * the application.
+     */
+    private static <T> T cast(Class<T> type, Object param) {
+        try {
+            return type.cast(param);
+        } catch (ClassCastException e) {
+            throw new GVREventManager.ParamTypeException(e.getMessage());
+        }
+    }
+
+    private static abstract class Invoker1<A> extends EventInvoker {
+        private final Class<A> mType0;
+
+        Invoker1(Class<A> type0) {
+            mType0 = type0;
+        }
+
+        abstract void call(Object target, A p0);
+
+        @Override
+        public final void invoke(Object target, Object[] params) {
+            invoke1(target, params[0]);
+        }
+
+        @Override
+        public final void invoke1(Object target, Object p0) {
+            call(target, cast(mType0, p0));
+        }
+    }
+
+    private static abstract class Invoker2<A, B> extends EventInvoker {
+        private final Class<A> mType0;
+        private final Class<B> mType1;
+
+        Invoker2(Class<A> type0, Class<B> type1) {
+            mType0 = type0;
+            mType1 = type1;
+        }
+
+        abstract void call(Object target, A p0, B p1);
+
+        @Override
+        public final void invoke(Object target, Object[] params) {
+            invoke2(target, params[0], params[1]);
+        }
+
+        @Override
+        public final void invoke2(Object target, Object p0, Object p1) {
+            call(target, cast(mType0, p0), cast(mType1, p1));
+        }
+    }
+
+    static void registerDefaults() {
+        registerPickEvents();
+        registerTouchEvents();
+        registerScriptEvents();
+
+        GVREventManager.registerEventInvoker(ISensorEvents.class, "onSensorEvent", new Invoker1<SensorEvent>(SensorEvent.class) {
+            @Override
+            void call(Object target, SensorEvent event) {
+                ((ISensorEvents) target).onSensorEvent(event);
+            }
+        });
+    }
+
+    private static void registerPickEvents() {
+        GVREventManager.registerEventInvoker(IPickEvents.class, "onPick", new Invoker1<GVRPicker>(GVRPicker.class) {
+            @Override
+            void call(Object target, GVRPicker picker) {
+                ((IPickEvents) target).onPick(picker);
+            }
+        });
+        GVREventManager.registerEventInvoker(IPickEvents.class, "onNoPick", new Invoker1<GVRPicker>(GVRPicker.class) {
+            @Override
+            void call(Object target, GVRPicker picker) {
+                ((IPickEvents) target).onNoPick(picker);
+            }
+        });
+        GVREventManager.registerEventInvoker(IPickEvents.class, "onEnter",
+                new Invoker2<GVRSceneObject, GVRPickedObject>(GVRSceneObject.class, GVRPickedObject.class) {
+            @Override
+            void call(Object target, GVRSceneObject sceneObj, GVRPickedObject pickInfo) {
+                ((IPickEvents) target).onEnter(sceneObj, pickInfo);
+            }
+        });
+        GVREventManager.registerEventInvoker(IPickEvents.class, "onExit", new Invoker1<GVRSceneObject>(GVRSceneObject.class) {
+            @Override
+            void call(Object target, GVRSceneObject sceneObj) {
+                ((IPickEvents) target).onExit(sceneObj);
+            }
+        });
+        GVREventManager.registerEventInvoker(IPickEvents.class, "onInside",
+                new Invoker2<GVRSceneObject, GVRPickedObject>(GVRSceneObject.class, GVRPickedObject.class) {
+            @Override
+            void call(Object target, GVRSceneObject sceneObj, GVRPickedObject pickInfo) {
+                ((IPickEvents) target).onInside(sceneObj, pickInfo);
+            }
+        });
+    }
+
+    private static void registerTouchEvents() {
+        GVREventManager.registerEventInvoker(ITouchEvents.class, "onEnter",
+                new Invoker2<GVRSceneObject, GVRPickedObject>(GVRSceneObject.class, GVRPickedObject.class) {
+            @Override
+            void call(Object target, GVRSceneObject sceneObj, GVRPickedObject pickInfo) {
+                ((ITouchEvents) target).onEnter(sceneObj, pickInfo);
+            }
+        });
+        GVREventManager.registerEventInvoker(ITouchEvents.class, "onExit",
+                new Invoker2<GVRSceneObject, GVRPickedObject>(GVRSceneObject.class, GVRPickedObject.class) {
+            @Override
+            void call(Object target, GVRSceneObject sceneObj, GVRPickedObject pickInfo) {
+                ((ITouchEvents) target).onExit(sceneObj, pickInfo);
+            }
+        });
+        GVREventManager.registerEventInvoker(ITouchEvents.class, "onTouchStart",
+                new Invoker2<GVRSceneObject, GVRPickedObject>(GVRSceneObject.class, GVRPickedObject.class) {
+            @Override
+            void call(Object target, GVRSceneObject sceneObj, GVRPickedObject pickInfo) {
+                ((ITouchEvents) target).onTouchStart(sceneObj, pickInfo);
+            }
+        });
+        GVREventManager.registerEventInvoker(ITouchEvents.class, "onTouchEnd",
+                new Invoker2<GVRSceneObject, GVRPickedObject>(GVRSceneObject.class, GVRPickedObject.class) {
+            @Override
+            void call(Object target, GVRSceneObject sceneObj, GVRPickedObject pickInfo) {
+                ((ITouchEvents) target).onTouchEnd(sceneObj, pickInfo);
+            }
+        });
+        GVREventManager.registerEventInvoker(ITouchEvents.class, "onInside",
+                new Invoker2<GVRSceneObject, GVRPickedObject>(GVRSceneObject.class, GVRPickedObject.class) {
+            @Override
+            void call(Object target, GVRSceneObject sceneObj, GVRPickedObject pickInfo) {
+                ((ITouchEvents) target).onInside(sceneObj, pickInfo);
+            }
+        });
+        GVREventManager.registerEventInvoker(ITouchEvents.class, "onMotionOutside",
+                new Invoker2<GVRPicker, MotionEvent>(GVRPicker.class, MotionEvent.class) {
+            @Override
+            void call(Object target, GVRPicker picker, MotionEvent event) {
+                ((ITouchEvents) target).onMotionOutside(picker, event);
+            }
+        });
+    }
+
+    /*
+     * onInit is not included because it is only sent once and
+     * may throw checked exceptions which the reflective path reports.
+     */
+    private static void registerScriptEvents() {
+        GVREventManager.registerEventInvoker(IScriptEvents.class, "onStep", new EventInvoker() {
+            @Override
+            public void invoke(Object target, Object[] params) {
+                invoke0(target);
+            }
+
+            @Override
+            public void invoke0(Object target) {
+                ((IScriptEvents) target).onStep();
+            }
+        });
+        GVREventManager.registerEventInvoker(IScriptEvents.class, "onAttach", new Invoker1<IScriptable>(IScriptable.class) {
+            @Override
+            void call(Object target, IScriptable owner) {
+                ((IScriptEvents) target).onAttach(owner);
+            }
+        });
+        GVREventManager.registerEventInvoker(IScriptEvents.class, "onDetach", new Invoker1<IScriptable>(IScriptable.class) {
+            @Override
+            void call(Object target, IScriptable owner) {
+                ((IScriptEvents) target).onDetach(owner);
+            }
+        });
+    }
+}
@@ -17,11 +17,8 @@ package org.gearvrf;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.gearvrf.script.GVRScriptFile;
 import org.gearvrf.script.IScriptable;
@@ -54,22 +51,98 @@ import org.gearvrf.script.IScriptable;
  * end
  * }
  * </pre>
+ *
+ * Each (event interface, event name) pair is bound only once to an
+ * {@link EventInvoker}. Frequently sent framework events use invokers
+ * which call the interface method directly; other events fall back to a
+ * reflective invoker. Additional direct invokers can be registered with
+ * {@link #registerEventInvoker(Class, String, EventInvoker)}.
  */
 public class GVREventManager {
     private static final String TAG = GVREventManager.class.getSimpleName();
+    private static final Object[] NO_PARAMS = new Object[0];
     private GVRContext mGvrContext;
 
-    // Cache for Java handler methods; keys *must* be weakly referenced
-    private final WeakHashMap<Object, Map<String, Method>> mHandlerMethodCache;
+    // Invokers bound per event interface and event name. Bound methods
+    // come from the interface, so they do not depend on the target.
+    private final ConcurrentHashMap<Class<?>, ConcurrentHashMap<String, EventInvoker>> mInvokerCache;
+
+    // Direct invokers, shared by all event managers
+    private static final ConcurrentHashMap<Class<?>, ConcurrentHashMap<String, EventInvoker>> sDirectInvokers
+            = new ConcurrentHashMap<Class<?>, ConcurrentHashMap<String, EventInvoker>>();
 
     public static final int SEND_MASK_OBJECT = 0x1;
     protected static final int SEND_MASK_LISTENERS = 0x2;
     protected static final int SEND_MASK_SCRIPTS = 0x4;
     public static final int SEND_MASK_ALL = SEND_MASK_OBJECT | SEND_MASK_LISTENERS | SEND_MASK_SCRIPTS;
 
+    static {
+        GVREventInvokers.registerDefaults();
+    }
+
     GVREventManager(GVRContext gvrContext) {
         mGvrContext = gvrContext;
-        mHandlerMethodCache = new WeakHashMap<Object, Map<String, Method>>();
+        mInvokerCache = new ConcurrentHashMap<Class<?>, ConcurrentHashMap<String, EventInvoker>>();
+    }
+
+    /**
+     * Calls one event method on an object implementing the event interface.
+     * <p>
+     * Subclasses must implement {@link #invoke(Object, Object[])}. The
+     * fixed arity variants are used by the {@code sendEvent} overloads
+     * which do not allocate a parameter array; the default implementations
+     * build the array and call {@link #invoke(Object, Object[])}, so a direct
+     * invoker should override the variant matching the arity of its event.
+     * <p>
+     * Invokers are only called after the event name and the parameters
+     * have been verified against the event interface, and only for targets
+     * which implement that interface.
+     */
+    public static abstract class EventInvoker {
+        /**
+         * Call the event method with the given parameters.
+         * @param target    object implementing the event interface
+         * @param params    parameters of the event
+         */
+        public abstract void invoke(Object target, Object[] params);
+
+        public void invoke0(Object target) {
+            invoke(target, NO_PARAMS);
+        }
+
+        public void invoke1(Object target, Object p0) {
+            invoke(target, new Object[] { p0 });
+        }
+
+        public void invoke2(Object target, Object p0, Object p1) {
+            invoke(target, new Object[] { p0, p1 });
+        }
+    }
+
+    /**
+     * Registers an invoker which calls the event method directly instead of
+     * through reflection. This is worthwhile for events which are sent
+     * every frame or for every collision.
+     * <p>
+     * The invoker must call the method named {@code eventName} in
+     * {@code eventsClass} by casting the target to the event interface.
+     * It only affects events which have not been sent yet.
+     *
+     * @param eventsClass   event interface, such as {@link IPickEvents}.class
+     * @param eventName     name of the event, such as "onPick"
+     * @param invoker       invoker calling the interface method
+     */
+    public static void registerEventInvoker(Class<? extends IEvents> eventsClass, String eventName,
+            EventInvoker invoker) {
+        ConcurrentHashMap<String, EventInvoker> invokers = sDirectInvokers.get(eventsClass);
+        if (invokers == null) {
+            invokers = new ConcurrentHashMap<String, EventInvoker>();
+            ConcurrentHashMap<String, EventInvoker> existing = sDirectInvokers.putIfAbsent(eventsClass, invokers);
+            if (existing != null) {
+                invokers = existing;
+            }
+        }
+        invokers.put(eventName, invoker);
     }
 
     /**
@@ -108,6 +181,39 @@ public class GVREventManager {
         return sendEventWithMask(SEND_MASK_ALL, target, eventsClass, eventName, params);
     }
 
+    /**
+     * Delivers an event without parameters to a handler object.
+     * Unlike {@link #sendEvent(Object, Class, String, Object...)}
+     * no parameter array is allocated.
+     * @see #sendEvent(Object, Class, String, Object...)
+     */
+    public boolean sendEvent(Object target, Class<? extends IEvents> eventsClass,
+            String eventName) {
+        return dispatchEvent(SEND_MASK_ALL, target, eventsClass, eventName, 0, null, null, null);
+    }
+
+    /**
+     * Delivers an event with one parameter to a handler object.
+     * Unlike {@link #sendEvent(Object, Class, String, Object...)}
+     * no parameter array is allocated.
+     * @see #sendEvent(Object, Class, String, Object...)
+     */
+    public boolean sendEvent(Object target, Class<? extends IEvents> eventsClass,
+            String eventName, Object param0) {
+        return dispatchEvent(SEND_MASK_ALL, target, eventsClass, eventName, 1, param0, null, null);
+    }
+
+    /**
+     * Delivers an event with two parameters to a handler object.
+     * Unlike {@link #sendEvent(Object, Class, String, Object...)}
+     * no parameter array is allocated.
+     * @see #sendEvent(Object, Class, String, Object...)
+     */
+    public boolean sendEvent(Object target, Class<? extends IEvents> eventsClass,
+            String eventName, Object param0, Object param1) {
+        return dispatchEvent(SEND_MASK_ALL, target, eventsClass, eventName, 2, param0, param1, null);
+    }
+
     public boolean sendEventWithMask(int sendMask, Object target, Class<? extends IEvents> eventsClass,
             String eventName, Object... params) {
         return sendEventWithMaskParamArray(sendMask, target, eventsClass, eventName, params);
@@ -115,15 +221,29 @@ public class GVREventManager {
 
     protected boolean sendEventWithMaskParamArray(int sendMask, Object target, Class<? extends IEvents> eventsClass,
             String eventName, Object[] params) {
+        return dispatchEvent(sendMask, target, eventsClass, eventName, params.length, null, null, params);
+    }
+
+    /*
+     * Delivers the event. Either params is not null, or the parameters
+     * are passed in param0 and param1 and numParams is at most 2.
+     */
+    private boolean dispatchEvent(int sendMask, Object target, Class<? extends IEvents> eventsClass,
+            String eventName, int numParams, Object param0, Object param1, Object[] params) {
         // Set to true if an event is handled.
         boolean handledSuccessful = false;
 
         // Verify the event name and parameters (cached)
-        Method method = findHandlerMethod(target, eventsClass, eventName, params);
+        EventInvoker invoker = getCachedInvoker(eventsClass, eventName);
+        if (invoker == null) {
+            invoker = bindInvoker(eventsClass, eventName,
+                    (params != null) ? params : makeParams(numParams, param0, param1));
+        }
+
         if ((sendMask & SEND_MASK_OBJECT) != 0) {
             // Invoke the method if the target implements the interface
             if (eventsClass.isInstance(target)) {
-                invokeMethod(target, method, params);
+                callInvoker(invoker, target, numParams, param0, param1, params);
                 handledSuccessful = true;
             }
         }
@@ -141,12 +261,9 @@ public class GVREventManager {
                     if (!eventsClass.isInstance(listener) || receiver.getOwner() != target)
                         continue;
 
-                    Method listenerMethod = findHandlerMethod(listener, eventsClass, eventName, params);
-                    if (listenerMethod != null) {
-                        // This may throw RuntimeException if the handler does so.
-                        invokeMethod(listener, listenerMethod, params);
-                        handledSuccessful = true;
-                    }
+                    // This may throw RuntimeException if the handler does so.
+                    callInvoker(invoker, listener, numParams, param0, param1, params);
+                    handledSuccessful = true;
                 }
             }
         }
@@ -154,27 +271,98 @@ public class GVREventManager {
         if ((sendMask & SEND_MASK_SCRIPTS) != 0) {
             // Try invoking the handler in the script
             if (target instanceof IScriptable) {
-                handledSuccessful |= tryInvokeScript((IScriptable)target, eventName, params);
+                handledSuccessful |= tryInvokeScript((IScriptable)target, eventName,
+                        numParams, param0, param1, params);
             }
         }
 
         return handledSuccessful;
     }
 
+    private static Object[] makeParams(int numParams, Object param0, Object param1) {
+        switch (numParams) {
+            case 0:
+                return NO_PARAMS;
+            case 1:
+                return new Object[] { param0 };
+            default:
+                return new Object[] { param0, param1 };
+        }
+    }
+
+    private void callInvoker(EventInvoker invoker, Object target, int numParams,
+            Object param0, Object param1, Object[] params) {
+        try {
+            if (params != null) {
+                invoker.invoke(target, params);
+                return;
+            }
+            switch (numParams) {
+                case 0:
+                    invoker.invoke0(target);
+                    break;
+                case 1:
+                    invoker.invoke1(target, param0);
+                    break;
+                default:
+                    invoker.invoke2(target, param0, param1);
+                    break;
+            }
+        } catch (ParamTypeException e) {
+            // reported like an argument mismatch in the reflective invoker
+            mGvrContext.logError(e.getMessage(), target);
+        }
+    }
+
+    /*
+     * Thrown by the direct invokers when a parameter does not have the
+     * type of the event method, before the method is called.
+     */
+    static final class ParamTypeException extends RuntimeException {
+        ParamTypeException(String message) {
+            super(message);
+        }
+    }
+
+    /*
+     * Verify the event against the eventsClass interface and bind it to
+     * an invoker. The direct invoker is used if one is registered, otherwise
+     * the method is called through reflection.
+     */
+    private EventInvoker bindInvoker(Class<? extends IEvents> eventsClass,
+            String eventName, Object[] params) {
+        Method method = findHandlerMethod(eventsClass, eventName, params);
+        EventInvoker invoker = null;
+
+        ConcurrentHashMap<String, EventInvoker> directInvokers = sDirectInvokers.get(eventsClass);
+        if (directInvokers != null) {
+            invoker = directInvokers.get(eventName);
+        }
+        if (invoker == null) {
+            invoker = new ReflectiveInvoker(method);
+        }
+
+        // Cache the invoker, even if the target doesn't implement the interface. This is
+        // to avoid always verifying the event.
+        ConcurrentHashMap<String, EventInvoker> classCache = mInvokerCache.get(eventsClass);
+        if (classCache == null) {
+            classCache = new ConcurrentHashMap<String, EventInvoker>();
+            ConcurrentHashMap<String, EventInvoker> existing = mInvokerCache.putIfAbsent(eventsClass, classCache);
+            if (existing != null) {
+                classCache = existing;
+            }
+        }
+        EventInvoker existing = classCache.putIfAbsent(eventName, invoker);
+        return (existing != null) ? existing : invoker;
+    }
+
     /*
      * Return the method in eventsClass by checking the signature.
      * RuntimeException is thrown if the event is not found in the eventsClass interface,
      * or the parameter types don't match.
      */
-    private Method findHandlerMethod(Object target, Class<? extends IEvents> eventsClass,
+    private Method findHandlerMethod(Class<? extends IEvents> eventsClass,
             String eventName, Object[] params) {
-        // Use cached method if available. Note: no further type checking is done if the
-        // method has been cached. It will be checked by JRE when the method is invoked.
-        Method cachedMethod = getCachedMethod(target, eventName);
-        if (cachedMethod != null) {
-            return cachedMethod;
-        }
-
         // Check the event and params against the eventsClass interface object.
         Method nameMatch = null;
         Method signatureMatch = null;
@@ -214,10 +402,6 @@ public class GVREventManager {
                     + "parameters don't match", eventName));
         }
 
-        // Cache the method for the target, even if it doesn't implement the interface. This is
-        // to avoid always verifying the event.
-        addCachedMethod(target, eventName, signatureMatch);
-
         return signatureMatch;
     }
 
@@ -268,38 +452,41 @@ public class GVREventManager {
         return false;
     }
 
-    private Method getCachedMethod(Object target, String eventName) {
-        // Lock the whole cache for both first- and second-level lookup
-        synchronized (mHandlerMethodCache) {
-            Map<String, Method> targetCache = mHandlerMethodCache.get(target);
-            if (targetCache == null) {
-                return null;
-            }
-
-            return targetCache.get(eventName);
-        }
-    }
-
-    private void addCachedMethod(Object target, String eventName, Method method) {
-        // Lock the whole cache for both first- and second-level lookup
-        synchronized (mHandlerMethodCache) {
-            Map<String, Method> targetCache = mHandlerMethodCache.get(target);
-            if (targetCache == null) {
-                targetCache = new TreeMap<String, Method>();
-                mHandlerMethodCache.put(target, targetCache);
-            }
-
-            targetCache.put(eventName, method);
+    private EventInvoker getCachedInvoker(Class<? extends IEvents> eventsClass, String eventName) {
+        // Note: no further type checking is done if the invoker has been cached.
+        // It will be checked by the cast or by JRE when the method is invoked.
+        ConcurrentHashMap<String, EventInvoker> classCache = mInvokerCache.get(eventsClass);
+        if (classCache == null) {
+            return null;
         }
+        return classCache.get(eventName);
     }
 
     private boolean tryInvokeScript(IScriptable target, String eventName,
-            Object[] params) {
+            int numParams, Object param0, Object param1, Object[] params) {
         GVRScriptFile script = mGvrContext.getScriptManager().getScriptFile(target);
         if (script == null)
             return false;
 
-        return script.invokeFunction(eventName, params);
+        return script.invokeFunction(eventName,
+                (params != null) ? params : makeParams(numParams, param0, param1));
+    }
+
+    /*
+     * Calls the interface method through reflection, for events
+     * without a direct invoker.
+     */
+    private final class ReflectiveInvoker extends EventInvoker {
+        private final Method mMethod;
+
+        ReflectiveInvoker(Method method) {
+            mMethod = method;
+        }
+
+        @Override
+        public void invoke(Object target, Object[] params) {
+            invokeMethod(target, mMethod, params);
+        }
     }
 
     private void invokeMethod(Object target, Method method, Object[] params) {
@@ -67,6 +67,7 @@ public class GVRFloatImage extends GVRImage
     {
         super(gvrContext, NativeBitmapImage.constructor(ImageType.FLOAT_BITMAP.Value, GL_RG));
         NativeFloatImage.update(getNative(), width, height, GL_RG, data);
+        mDataSize = 4L * data.length;
     }
 
     public GVRFloatImage(GVRContext gvrContext, int pixelFormat)
@@ -112,6 +113,7 @@ public class GVRFloatImage extends GVRImage
             throw new IllegalArgumentException();
         }
         NativeFloatImage.update(getNative(), width, height, 0, data);
+        mDataSize = 4L * data.length;
     }
 }
 
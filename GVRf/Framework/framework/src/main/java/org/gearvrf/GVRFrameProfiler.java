@@ -0,0 +1,388 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf;
+
+import org.gearvrf.animation.GVRAnimationEngine;
+import org.gearvrf.debug.GVRHistogram;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Times the phases of every frame on the GL thread.
+ * <p>
+ * The profiler is always on. Each frame costs a few calls to
+ * {@link System#nanoTime()} per phase and per frame listener, and nothing
+ * is allocated once every frame listener class has been seen. The
+ * durations of each phase go into a {@link GVRHistogram}, from which the
+ * percentiles are read, and the timings of the last {@link #TRACE_FRAMES}
+ * frames are kept in a ring buffer which can be written in the Chrome
+ * trace event format with {@link #writeChromeTrace(Writer)}, to be viewed
+ * in chrome://tracing.
+ * <p>
+ * The frame listeners are also timed by class, summed over the instances
+ * of a class in a frame. The picker and animation engine phases, and the
+ * rendering of the render targets, are likewise sums of the listeners
+ * they run in.
+ *
+ * @see GVRContext#getFrameProfiler()
+ */
+public final class GVRFrameProfiler {
+    /**
+     * The phases of a frame.
+     */
+    public enum Phase {
+        /** The whole frame, from before the eyes are drawn until after */
+        FRAME,
+        /** The tasks posted with {@link GVRContext#runOnGlThread(Runnable)} */
+        TASKS,
+        /** All the {@link GVRDrawFrameListener}s */
+        FRAME_LISTENERS,
+        /** The {@link GVRPicker}s, which are frame listeners */
+        PICKER,
+        /** The {@link GVRAnimationEngine}, which is a frame listener */
+        ANIMATION,
+        /** The {@link GVRRenderTarget}s culled and rendered by frame listeners */
+        CULL_AND_RENDER,
+        /** Rendering the shadow maps */
+        SHADOW_MAPS,
+        /** Culling and rendering the eyes */
+        EYES,
+        /** The tasks posted with {@link GVRContext#runOnGlThreadPostRender(int, Runnable)} */
+        POST_RENDER,
+        /** Releasing the native objects of the Java objects which were collected */
+        FINALIZE
+    }
+
+    /**
+     * Number of frames kept for {@link #writeChromeTrace(Writer)}.
+     */
+    public static final int TRACE_FRAMES = 256;
+
+    private static final int NUM_PHASES = Phase.values().length;
+    private static final int MAX_LISTENER_CLASSES = 32;
+    private static final int MAX_TRACKS = NUM_PHASES + MAX_LISTENER_CLASSES;
+    // Histograms hold microseconds
+    private static final long HIGHEST_MICROS = 1000000;
+
+    private volatile boolean mEnabled = true;
+
+    // Only used on the GL thread
+    private boolean mInFrame = false;
+    private long mFrameStart = 0;
+    private long mFrameInterval = 0;
+    private final long[] mPhaseStart = new long[NUM_PHASES];
+    private final long[] mOffset = new long[MAX_TRACKS];
+    private final long[] mDuration = new long[MAX_TRACKS];
+    private final Map<Class<?>, Integer> mListenerTracks = new HashMap<Class<?>, Integer>();
+
+    // Guarded by this
+    private int mTrackCount = NUM_PHASES;
+    private final String[] mTrackNames = new String[MAX_TRACKS];
+    private final int[] mListenerPhase = new int[MAX_TRACKS];
+    private final GVRHistogram[] mHistograms = new GVRHistogram[MAX_TRACKS];
+    private final GVRHistogram mIntervals = new GVRHistogram(HIGHEST_MICROS);
+    private long mFrameCount = 0;
+    private final long[] mTraceStart = new long[TRACE_FRAMES];
+    private final int[] mTraceOffset = new int[TRACE_FRAMES * MAX_TRACKS];
+    private final int[] mTraceDuration = new int[TRACE_FRAMES * MAX_TRACKS];
+
+    GVRFrameProfiler() {
+        for (Phase phase : Phase.values()) {
+            mTrackNames[phase.ordinal()] = phase.name();
+            mHistograms[phase.ordinal()] = new GVRHistogram(HIGHEST_MICROS);
+        }
+    }
+
+    /**
+     * Turn the profiler on or off. It is on by default.
+     * The statistics gathered so far are kept.
+     *
+     * @param enabled
+     *            true to time the frames
+     */
+    public void setEnabled(boolean enabled) {
+        mEnabled = enabled;
+    }
+
+    /**
+     * @return true if the frames are timed
+     */
+    public boolean isEnabled() {
+        return mEnabled;
+    }
+
+    /**
+     * @return number of frames timed since the profiler was reset
+     */
+    public synchronized long getFrameCount() {
+        return mFrameCount;
+    }
+
+    /**
+     * Get the time below which a percentage of the frames spent in a phase.
+     * Frames which skipped the phase are not counted.
+     *
+     * @param phase
+     *            phase of the frame
+     * @param percentile
+     *            percentage between 0 and 100, 99 for the 99th percentile
+     * @return time in milliseconds
+     */
+    public synchronized float getPercentile(Phase phase, double percentile) {
+        return mHistograms[phase.ordinal()].getPercentile(percentile) / 1000.0f;
+    }
+
+    /**
+     * Get the time below which a percentage of the intervals between
+     * the start of consecutive frames fall, to check the frame pacing.
+     *
+     * @param percentile
+     *            percentage between 0 and 100
+     * @return time in milliseconds
+     */
+    public synchronized float getFrameIntervalPercentile(double percentile) {
+        return mIntervals.getPercentile(percentile) / 1000.0f;
+    }
+
+    /**
+     * @param phase
+     *            phase of the frame
+     * @return a copy of the histogram of the time spent in the phase,
+     *         in microseconds
+     */
+    public synchronized GVRHistogram getHistogram(Phase phase) {
+        return new GVRHistogram(mHistograms[phase.ordinal()]);
+    }
+
+    /**
+     * @return a copy of the histogram of the intervals between the start
+     *         of consecutive frames, in microseconds
+     */
+    public synchronized GVRHistogram getFrameIntervalHistogram() {
+        return new GVRHistogram(mIntervals);
+    }
+
+    /**
+     * @return copies of the histograms of the time spent in each class of
+     *         frame listener, in microseconds, keyed by class name
+     */
+    public synchronized Map<String, GVRHistogram> getListenerHistograms() {
+        Map<String, GVRHistogram> histograms = new LinkedHashMap<String, GVRHistogram>();
+
+        for (int t = NUM_PHASES; t < mTrackCount; ++t) {
+            histograms.put(mTrackNames[t], new GVRHistogram(mHistograms[t]));
+        }
+        return histograms;
+    }
+
+    /**
+     * Clear the histograms and the frames kept for the trace.
+     */
+    public synchronized void reset() {
+        for (int t = 0; t < mTrackCount; ++t) {
+            mHistograms[t].reset();
+        }
+        mIntervals.reset();
+        mFrameCount = 0;
+    }
+
+    /**
+     * Write the frames kept in the ring buffer as Chrome trace event JSON.
+     * The phases are on the first thread of the trace, nested in their
+     * frame. The picker, animation engine, render targets and frame listener
+     * classes are on the second thread, each as one event which starts when
+     * it first ran in the frame and lasts the sum of its run times.
+     *
+     * @param writer
+     *            where to write the trace, which is not closed
+     * @throws IOException
+     *            if the writer fails
+     */
+    public void writeChromeTrace(Writer writer) throws IOException {
+        final long frameCount;
+        final int trackCount;
+        final String[] names;
+        final long[] starts;
+        final int[] offsets;
+        final int[] durations;
+
+        synchronized (this) {
+            frameCount = mFrameCount;
+            trackCount = mTrackCount;
+            names = mTrackNames.clone();
+            starts = mTraceStart.clone();
+            offsets = mTraceOffset.clone();
+            durations = mTraceDuration.clone();
+        }
+        writer.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[\n");
+        writer.write("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":1,\"args\":{\"name\":\"GL thread\"}},\n");
+        writer.write("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":2,\"args\":{\"name\":\"Per frame sums\"}}");
+        for (long f = Math.max(0, frameCount - TRACE_FRAMES); f < frameCount; ++f) {
+            final int frame = (int) (f % TRACE_FRAMES);
+            final long start = starts[frame] / 1000;
+
+            for (int t = 0; t < trackCount; ++t) {
+                final int i = frame * MAX_TRACKS + t;
+                if (offsets[i] < 0) {
+                    continue;
+                }
+                writer.write(String.format(",\n{\"name\":\"%s\",\"cat\":\"frame\",\"ph\":\"X\",\"ts\":%d,\"dur\":%d,\"pid\":1,\"tid\":%d}",
+                                           names[t], start + offsets[i], durations[i],
+                                           isSummed(t) ? 2 : 1));
+            }
+        }
+        writer.write("\n]}\n");
+        writer.flush();
+    }
+
+    private static boolean isSummed(int track) {
+        return (track >= NUM_PHASES)
+                || (track == Phase.PICKER.ordinal())
+                || (track == Phase.ANIMATION.ordinal())
+                || (track == Phase.CULL_AND_RENDER.ordinal());
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append(String.format("%d frames, interval p50=%.2f p99=%.2f ms\n", mFrameCount,
+                                mIntervals.getPercentile(50) / 1000.0f,
+                                mIntervals.getPercentile(99) / 1000.0f));
+        for (int t = 0; t < mTrackCount; ++t) {
+            final GVRHistogram h = mHistograms[t];
+            if (h.getCount() > 0) {
+                sb.append(String.format("%s: p50=%.2f p95=%.2f p99=%.2f max=%.2f ms\n", mTrackNames[t],
+                                        h.getPercentile(50) / 1000.0f, h.getPercentile(95) / 1000.0f,
+                                        h.getPercentile(99) / 1000.0f, h.getMax() / 1000.0f));
+            }
+        }
+        return sb.toString();
+    }
+
+    void beginFrame() {
+        if (!mEnabled) {
+            mInFrame = false;
+            mFrameStart = 0;
+            return;
+        }
+        final long now = System.nanoTime();
+
+        mFrameInterval = (mFrameStart != 0) ? now - mFrameStart : 0;
+        mFrameStart = now;
+        Arrays.fill(mOffset, -1);
+        Arrays.fill(mDuration, 0);
+        mInFrame = true;
+    }
+
+    void begin(Phase phase) {
+        if (mInFrame) {
+            mPhaseStart[phase.ordinal()] = System.nanoTime();
+        }
+    }
+
+    void end(Phase phase) {
+        if (mInFrame) {
+            add(phase.ordinal(), mPhaseStart[phase.ordinal()], System.nanoTime());
+        }
+    }
+
+    /**
+     * Record the time a frame listener took.
+     * @param listener listener which ran
+     * @param start    {@link System#nanoTime()} before the listener ran
+     */
+    void endListener(GVRDrawFrameListener listener, long start) {
+        if (!mInFrame) {
+            return;
+        }
+        final long end = System.nanoTime();
+        final Integer track = getListenerTrack(listener.getClass());
+
+        if (track != null) {
+            final int t = track;
+            add(t, start, end);
+            if (mListenerPhase[t] >= 0) {
+                add(mListenerPhase[t], start, end);
+            }
+        }
+    }
+
+    private void add(int track, long start, long end) {
+        if (mOffset[track] < 0) {
+            mOffset[track] = start - mFrameStart;
+        }
+        mDuration[track] += end - start;
+    }
+
+    private Integer getListenerTrack(Class<?> cls) {
+        Integer track = mListenerTracks.get(cls);
+
+        if ((track == null) && !mListenerTracks.containsKey(cls)) {
+            synchronized (this) {
+                if (mTrackCount < MAX_TRACKS) {
+                    track = mTrackCount++;
+                    mTrackNames[track] = cls.getName();
+                    mHistograms[track] = new GVRHistogram(HIGHEST_MICROS);
+                    if (GVRPicker.class.isAssignableFrom(cls)) {
+                        mListenerPhase[track] = Phase.PICKER.ordinal();
+                    } else if (cls.getEnclosingClass() == GVRAnimationEngine.class) {
+                        mListenerPhase[track] = Phase.ANIMATION.ordinal();
+                    } else {
+                        mListenerPhase[track] = -1;
+                    }
+                }
+            }
+            // Classes past the limit are only counted in FRAME_LISTENERS
+            mListenerTracks.put(cls, track);
+        }
+        return track;
+    }
+
+    void endFrame() {
+        if (!mInFrame) {
+            return;
+        }
+        mInFrame = false;
+        add(Phase.FRAME.ordinal(), mFrameStart, System.nanoTime());
+
+        synchronized (this) {
+            final int frame = (int) (mFrameCount % TRACE_FRAMES);
+            final int row = frame * MAX_TRACKS;
+
+            mTraceStart[frame] = mFrameStart;
+            for (int t = 0; t < MAX_TRACKS; ++t) {
+                if ((t < mTrackCount) && (mOffset[t] >= 0)) {
+                    final long micros = mDuration[t] / 1000;
+                    mTraceOffset[row + t] = (int) (mOffset[t] / 1000);
+                    mTraceDuration[row + t] = (int) micros;
+                    mHistograms[t].record(micros);
+                } else {
+                    mTraceOffset[row + t] = -1;
+                }
+            }
+            if (mFrameInterval > 0) {
+                mIntervals.record(mFrameInterval / 1000);
+            }
+            ++mFrameCount;
+        }
+    }
+}
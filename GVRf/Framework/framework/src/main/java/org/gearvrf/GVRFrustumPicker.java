@@ -60,6 +60,11 @@ public class GVRFrustumPicker extends GVRPicker {
     protected FrustumIntersection mCuller;
     protected float[] mProjMatrix = null;
     protected Matrix4f mProjection = null;
+    // Reused by each pick
+    private final Matrix4f mViewProjection = new Matrix4f();
+    private final float[] mViewProjectionArray = new float[16];
+    private final Vector4f mCenter = new Vector4f();
+    private final Vector4f mEdge = new Vector4f();
 
     /**
      * Construct a picker which picks from a given scene.
@@ -172,7 +177,7 @@ public class GVRFrustumPicker extends GVRPicker {
     public void doPick()
     {
         GVRSceneObject owner = getOwnerObject();
-        GVRPickedObject[] picked = pickVisible(mScene);
+        GVRPickedObject[] picked;
 
         if (mProjection != null)
         {
@@ -186,6 +191,8 @@ public class GVRFrustumPicker extends GVRPicker {
                 view_matrix = mScene.getMainCameraRig().getHeadTransform().getModelMatrix4f();
             }
             view_matrix.invert();
+            mProjection.mul(view_matrix, mViewProjection);
+            picked = pickFrustum(mScene, mViewProjection.get(mViewProjectionArray));
 
             for (int i = 0; i < picked.length; ++i)
             {
@@ -195,8 +202,8 @@ public class GVRFrustumPicker extends GVRPicker {
                 {
                     GVRSceneObject sceneObj = hit.hitObject;
                     GVRSceneObject.BoundingVolume bv = sceneObj.getBoundingVolume();
-                    Vector4f center = new Vector4f(bv.center.x, bv.center.y, bv.center.z, 1);
-                    Vector4f p = new Vector4f(bv.center.x, bv.center.y, bv.center.z + bv.radius, 1);
+                    Vector4f center = mCenter.set(bv.center.x, bv.center.y, bv.center.z, 1);
+                    Vector4f p = mEdge.set(bv.center.x, bv.center.y, bv.center.z + bv.radius, 1);
                     float radius;
 
                     center.mul(view_matrix);
@@ -211,6 +218,10 @@ public class GVRFrustumPicker extends GVRPicker {
                 }
             }
         }
+        else
+        {
+            picked = pickVisible(mScene);
+        }
         generatePickEvents(picked);
     }
 
@@ -246,4 +257,19 @@ public class GVRFrustumPicker extends GVRPicker {
             sFindObjectsLock.unlock();
         }
     }
+
+    /*
+     * Find the colliders whose bounds are inside or intersect
+     * the frustum of a view projection matrix.
+     */
+    private static GVRPickedObject[] pickFrustum(GVRScene scene, float[] viewProjection) {
+        sFindObjectsLock.lock();
+        try {
+            final GVRPickedObject[] result = NativePicker.pickFrustum(scene.getNative(),
+                    viewProjection);
+            return result;
+        } finally {
+            sFindObjectsLock.unlock();
+        }
+    }
 }
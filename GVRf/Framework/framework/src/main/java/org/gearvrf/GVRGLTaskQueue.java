@@ -0,0 +1,357 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf;
+
+import org.gearvrf.utility.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The queue of tasks posted to the GL thread with
+ * {@link GVRContext#runOnGlThread(Runnable)} and
+ * {@link GVRContext#runOnGlThreadPostRender(int, Runnable)}.
+ * <p>
+ * Any thread can post a task without taking a lock. Tasks are run
+ * before each frame in {@link Priority} order, and first in first out
+ * within a priority. The tasks run in a frame are limited by a
+ * {@linkplain #setFrameBudget(float) time budget}: once the budget is
+ * spent, the remaining {@link Priority#NORMAL} and {@link Priority#LOW}
+ * tasks wait for the next frame. {@link Priority#HIGH} tasks always run
+ * in the frame they were posted for.
+ * <p>
+ * The statistics of the last frame tell how much GL thread time the
+ * posted tasks took and how long they waited, so a frame spike can be
+ * traced to the tasks which caused it.
+ *
+ * @see GVRContext#getGLTaskQueue()
+ */
+public final class GVRGLTaskQueue {
+    private static final String TAG = Log.tag(GVRGLTaskQueue.class);
+
+    /**
+     * Priority of a task posted with
+     * {@link GVRContext#runOnGlThread(Runnable, Priority)}.
+     */
+    public enum Priority {
+        /**
+         * Runs in the next frame whatever the budget, for work the frame
+         * depends on such as updating a video texture.
+         */
+        HIGH,
+        /** The priority of {@link GVRContext#runOnGlThread(Runnable)} */
+        NORMAL,
+        /**
+         * Runs when the higher priorities leave budget for it, for work
+         * which can be spread over frames such as uploading textures.
+         */
+        LOW
+    }
+
+    /**
+     * The default {@linkplain #setFrameBudget(float) frame budget}
+     * in milliseconds.
+     */
+    public static final float DEFAULT_FRAME_BUDGET = 4.0f;
+
+    private static final int NUM_PRIORITIES = Priority.values().length;
+
+    private static final class Task {
+        final Runnable mRunnable;
+        final long mPostTime;
+
+        Task(Runnable runnable) {
+            mRunnable = runnable;
+            mPostTime = System.nanoTime();
+        }
+    }
+
+    private static final class PostRenderTask {
+        final Runnable mRunnable;
+        int mDelayFrames;
+
+        PostRenderTask(Runnable runnable, int delayFrames) {
+            mRunnable = runnable;
+            mDelayFrames = delayFrames;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private final ConcurrentLinkedQueue<Task>[] mQueues = new ConcurrentLinkedQueue[NUM_PRIORITIES];
+    private final AtomicInteger[] mDepth = new AtomicInteger[NUM_PRIORITIES];
+
+    private final ConcurrentLinkedQueue<PostRenderTask> mPostRenderQueue = new ConcurrentLinkedQueue<PostRenderTask>();
+    // Only used on the GL thread
+    private final List<PostRenderTask> mPostRenderTasks = new ArrayList<PostRenderTask>();
+
+    private volatile long mBudgetNanos = (long) (DEFAULT_FRAME_BUDGET * 1e6f);
+
+    // Statistics of the last frame, written on the GL thread
+    private volatile long mWorkTime;
+    private volatile int mTaskCount;
+    private volatile long mMaxWait;
+    private volatile long mTotalWait;
+    private volatile long mSlowestTime;
+    private volatile String mSlowestTask;
+    private volatile long mSpilledFrames;
+
+    GVRGLTaskQueue() {
+        for (int i = 0; i < NUM_PRIORITIES; ++i) {
+            mQueues[i] = new ConcurrentLinkedQueue<Task>();
+            mDepth[i] = new AtomicInteger();
+        }
+    }
+
+    /**
+     * Set the GL thread time the posted tasks may take in a frame.
+     * The task which crosses the budget is allowed to finish, and at
+     * least one task runs every frame so the queue always drains.
+     *
+     * @param milliseconds
+     *            budget in milliseconds, 0 for no budget
+     */
+    public void setFrameBudget(float milliseconds) {
+        if (milliseconds < 0) {
+            throw new IllegalArgumentException("frame budget cannot be negative");
+        }
+        mBudgetNanos = (long) (milliseconds * 1e6f);
+    }
+
+    /**
+     * @return GL thread time the posted tasks may take in a frame,
+     *         in milliseconds
+     */
+    public float getFrameBudget() {
+        return mBudgetNanos / 1e6f;
+    }
+
+    /**
+     * @return number of tasks waiting to run, all priorities together
+     */
+    public int getDepth() {
+        int depth = 0;
+        for (AtomicInteger d : mDepth) {
+            depth += d.get();
+        }
+        return depth;
+    }
+
+    /**
+     * @param priority
+     *            task priority
+     * @return number of tasks of the priority waiting to run
+     */
+    public int getDepth(Priority priority) {
+        return mDepth[priority.ordinal()].get();
+    }
+
+    /**
+     * @return number of tasks waiting to run after rendering,
+     *         approximate when called off the GL thread
+     */
+    public int getPostRenderDepth() {
+        return mPostRenderQueue.size() + mPostRenderTasks.size();
+    }
+
+    /**
+     * @return GL thread time the tasks took in the last frame,
+     *         in milliseconds
+     */
+    public float getWorkTime() {
+        return mWorkTime / 1e6f;
+    }
+
+    /**
+     * @return number of tasks run in the last frame
+     */
+    public int getTaskCount() {
+        return mTaskCount;
+    }
+
+    /**
+     * @return longest time a task run in the last frame waited in the
+     *         queue, in milliseconds
+     */
+    public float getMaxWaitTime() {
+        return mMaxWait / 1e6f;
+    }
+
+    /**
+     * @return average time the tasks run in the last frame waited in the
+     *         queue, in milliseconds
+     */
+    public float getAverageWaitTime() {
+        final int count = mTaskCount;
+        return (count > 0) ? mTotalWait / (count * 1e6f) : 0;
+    }
+
+    /**
+     * @return time the slowest task of the last frame took, in milliseconds
+     */
+    public float getSlowestTaskTime() {
+        return mSlowestTime / 1e6f;
+    }
+
+    /**
+     * @return class name of the slowest task of the last frame,
+     *         null if no task ran
+     */
+    public String getSlowestTask() {
+        return mSlowestTask;
+    }
+
+    /**
+     * @return number of frames which left tasks for the next frame
+     *         because the budget was spent
+     */
+    public long getSpilledFrameCount() {
+        return mSpilledFrames;
+    }
+
+    void post(Runnable runnable, Priority priority) {
+        final int p = priority.ordinal();
+
+        // Counted first so the depth is never negative
+        mDepth[p].incrementAndGet();
+        mQueues[p].offer(new Task(runnable));
+    }
+
+    void postAfterRender(int delayFrames, Runnable runnable) {
+        mPostRenderQueue.offer(new PostRenderTask(runnable, delayFrames));
+    }
+
+    /**
+     * Run the posted tasks within the frame budget.
+     * Called on the GL thread before each frame.
+     */
+    void run() {
+        final long budget = mBudgetNanos;
+        run((budget > 0) ? budget : Long.MAX_VALUE);
+    }
+
+    /**
+     * Run all the posted tasks, whatever the budget.
+     */
+    void runAll() {
+        run(Long.MAX_VALUE);
+    }
+
+    private void run(long budget) {
+        final long start = System.nanoTime();
+        long now = start;
+        long maxWait = 0;
+        long totalWait = 0;
+        long slowestTime = 0;
+        Runnable slowest = null;
+        int count = 0;
+
+        drain:
+        for (int p = 0; p < NUM_PRIORITIES; ++p) {
+            final ConcurrentLinkedQueue<Task> queue = mQueues[p];
+            final boolean budgeted = (p != Priority.HIGH.ordinal());
+            // Tasks posted while the queue runs wait for the next frame
+            int pending = mDepth[p].get();
+            Task task;
+
+            while (pending-- > 0) {
+                if (budgeted && (count > 0) && (now - start >= budget)) {
+                    ++mSpilledFrames;
+                    break drain;
+                }
+                task = queue.poll();
+                if (task == null) {
+                    break;
+                }
+                mDepth[p].decrementAndGet();
+
+                final long wait = now - task.mPostTime;
+                maxWait = Math.max(maxWait, wait);
+                totalWait += wait;
+                try {
+                    task.mRunnable.run();
+                } catch (final Exception exc) {
+                    Log.e(TAG, "Runnable-on-GL %s threw %s", task.mRunnable, exc.toString());
+                    exc.printStackTrace();
+                }
+                final long end = System.nanoTime();
+                if (end - now > slowestTime) {
+                    slowestTime = end - now;
+                    slowest = task.mRunnable;
+                }
+                now = end;
+                ++count;
+            }
+        }
+        mWorkTime = now - start;
+        mTaskCount = count;
+        mMaxWait = maxWait;
+        mTotalWait = totalWait;
+        mSlowestTime = slowestTime;
+        mSlowestTask = (slowest != null) ? slowest.getClass().getName() : null;
+    }
+
+    /**
+     * Run the tasks posted to run after rendering whose delay has elapsed.
+     * Called on the GL thread after each frame.
+     * <p>
+     * A runnable posted again while it is pending runs once, with the
+     * delay of the last post, as runnables which toggle their state on
+     * each run such as the cursor dragger depend on.
+     */
+    void runPostRender() {
+        PostRenderTask task;
+
+        while ((task = mPostRenderQueue.poll()) != null) {
+            addPostRenderTask(task);
+        }
+        for (int i = 0; i < mPostRenderTasks.size(); ) {
+            task = mPostRenderTasks.get(i);
+            if (task.mDelayFrames > 0) {
+                --task.mDelayFrames;
+                ++i;
+                continue;
+            }
+            mPostRenderTasks.remove(i);
+            try {
+                task.mRunnable.run();
+            } catch (final Exception exc) {
+                Log.e(TAG, "Post-render runnable %s threw %s", task.mRunnable, exc.toString());
+                exc.printStackTrace();
+            }
+        }
+    }
+
+    private void addPostRenderTask(PostRenderTask task) {
+        for (int i = 0; i < mPostRenderTasks.size(); ++i) {
+            if (mPostRenderTasks.get(i).mRunnable.equals(task.mRunnable)) {
+                mPostRenderTasks.set(i, task);
+                return;
+            }
+        }
+        mPostRenderTasks.add(task);
+    }
+
+    void clear() {
+        for (int p = 0; p < NUM_PRIORITIES; ++p) {
+            mQueues[p].clear();
+            mDepth[p].set(0);
+        }
+        mPostRenderQueue.clear();
+        mPostRenderTasks.clear();
+    }
+}
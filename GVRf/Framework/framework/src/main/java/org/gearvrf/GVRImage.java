@@ -51,6 +51,22 @@ public class GVRImage extends GVRHybridObject
 
     protected static final String TAG = "GVRImage";
 
+    /**
+     * Approximate number of bytes of pixel data, 0 if unknown.
+     * Subclasses update this whenever new pixel data is supplied.
+     */
+    protected long mDataSize = 0;
+
+    /**
+     * Get the approximate size of the pixel data in this image.
+     * This is used by resource caches to stay within their budget.
+     * @return number of bytes of pixel data or 0 if unknown
+     */
+    public long getDataSize()
+    {
+        return mDataSize;
+    }
+
     public String getFileName()
     {
         return NativeBitmapImage.getFileName(getNative());
@@ -103,7 +103,23 @@ public enum GVRImportSettings {
     /**
      * Do not include textures and omit texture coordinates from meshes
      */
-    NO_TEXTURING(0x8000000);
+    NO_TEXTURING(0x8000000),
+
+    /**
+     * Add the model to the scene as soon as its hierarchy is built,
+     * showing a bounding box for each mesh. The meshes and textures
+     * replace the placeholders as they load, the ones closest
+     * to the camera first.
+     */
+    STREAM(0x10000000),
+
+    /**
+     * Draw the copies of a shape the model reuses with one instanced
+     * draw call. Only copies which cannot move or be picked after
+     * loading are merged. Supported by the X3D loader, for shapes
+     * reused with USE.
+     */
+    INSTANCE_DUPLICATES(0x20000000);
 
     
     private int mValue;
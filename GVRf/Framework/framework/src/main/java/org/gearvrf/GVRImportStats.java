@@ -0,0 +1,208 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf;
+
+import android.os.Debug;
+import android.os.SystemClock;
+
+/**
+ * Time and memory spent in each stage of a model import.
+ * <p>
+ * The asset loader imports a model in the stages listed by {@link Stage}.
+ * When a stage finishes, {@link IAssetImportEvents#onImportStage} is raised
+ * with the statistics gathered so far, so an application can show progress
+ * and see where a slow import spends its time.
+ * <p>
+ * Memory is measured as the growth of the Java heap and of the native heap
+ * while the stage runs. Both heaps are shared by the whole process, so the
+ * numbers are only meaningful when little else is running, and the Java heap
+ * can shrink if the garbage collector runs during a stage.
+ *
+ * @see GVRAssetLoader.AssetRequest#getImportStats()
+ */
+public final class GVRImportStats
+{
+    /**
+     * The stages of a model import, in the order they usually run.
+     * A streaming import builds the hierarchy from placeholders first
+     * and attaches it, then makes the materials and meshes.
+     */
+    public enum Stage
+    {
+        /** Reading and parsing the model file */
+        PARSE,
+        /** Converting the meshes, in parallel for multi-mesh models */
+        MESHES,
+        /** Creating the materials and starting the texture loads */
+        MATERIALS,
+        /** Building the scene object hierarchy */
+        HIERARCHY,
+        /** Converting the animations */
+        ANIMATIONS,
+        /** Adding the model to the scene once its textures are loaded */
+        ATTACH
+    }
+
+    private static final int NUM_STAGES = Stage.values().length;
+
+    private final long[] mTime = new long[NUM_STAGES];
+    private final long[] mHeapGrowth = new long[NUM_STAGES];
+    private final long[] mNativeHeapGrowth = new long[NUM_STAGES];
+    private final int[] mItems = new int[NUM_STAGES];
+    private final boolean[] mDone = new boolean[NUM_STAGES];
+
+    // Values when the current stage started
+    private long mStartTime;
+    private long mStartHeap;
+    private long mStartNativeHeap;
+
+    private final long mRequestTime = SystemClock.elapsedRealtime();
+    private long mTimeToVisible = -1;
+
+    GVRImportStats() { }
+
+    /**
+     * Record the time the model was added to the scene,
+     * the first time this is called.
+     */
+    synchronized void markVisible()
+    {
+        if (mTimeToVisible < 0)
+        {
+            mTimeToVisible = SystemClock.elapsedRealtime() - mRequestTime;
+        }
+    }
+
+    /**
+     * Get the time from the import request until the model was added
+     * to the scene. A streaming import adds the model with placeholders
+     * as soon as the hierarchy is built, other imports add it after all
+     * the meshes and textures have loaded.
+     * @return time to first visible in milliseconds, -1 if the model
+     *         has not been added to a scene
+     */
+    public synchronized long getTimeToFirstVisible()
+    {
+        return mTimeToVisible;
+    }
+
+    synchronized void begin(Stage stage)
+    {
+        Runtime runtime = Runtime.getRuntime();
+
+        mStartHeap = runtime.totalMemory() - runtime.freeMemory();
+        mStartNativeHeap = Debug.getNativeHeapAllocatedSize();
+        mStartTime = SystemClock.elapsedRealtime();
+    }
+
+    /**
+     * Record the statistics of a stage started with {@link #begin(Stage)}.
+     * @param stage stage which ended
+     * @param items number of items the stage produced (meshes, materials, ...)
+     */
+    synchronized void end(Stage stage, int items)
+    {
+        Runtime runtime = Runtime.getRuntime();
+        int s = stage.ordinal();
+
+        mTime[s] += SystemClock.elapsedRealtime() - mStartTime;
+        mHeapGrowth[s] += runtime.totalMemory() - runtime.freeMemory() - mStartHeap;
+        mNativeHeapGrowth[s] += Debug.getNativeHeapAllocatedSize() - mStartNativeHeap;
+        mItems[s] += items;
+        mDone[s] = true;
+    }
+
+    /**
+     * @param stage import stage
+     * @return true if the stage has finished
+     */
+    public synchronized boolean isDone(Stage stage)
+    {
+        return mDone[stage.ordinal()];
+    }
+
+    /**
+     * @param stage import stage
+     * @return wall-clock time spent in the stage, in milliseconds
+     */
+    public synchronized long getTime(Stage stage)
+    {
+        return mTime[stage.ordinal()];
+    }
+
+    /**
+     * @return wall-clock time spent in all the stages, in milliseconds
+     */
+    public synchronized long getTotalTime()
+    {
+        long total = 0;
+        for (long t : mTime)
+        {
+            total += t;
+        }
+        return total;
+    }
+
+    /**
+     * @param stage import stage
+     * @return growth of the Java heap during the stage, in bytes
+     */
+    public synchronized long getHeapGrowth(Stage stage)
+    {
+        return mHeapGrowth[stage.ordinal()];
+    }
+
+    /**
+     * @param stage import stage
+     * @return growth of the native heap during the stage, in bytes
+     */
+    public synchronized long getNativeHeapGrowth(Stage stage)
+    {
+        return mNativeHeapGrowth[stage.ordinal()];
+    }
+
+    /**
+     * @param stage import stage
+     * @return number of items (meshes, materials, scene objects
+     *         or animations) the stage produced
+     */
+    public synchronized int getItemCount(Stage stage)
+    {
+        return mItems[stage.ordinal()];
+    }
+
+    @Override
+    public synchronized String toString()
+    {
+        StringBuilder sb = new StringBuilder();
+
+        if (mTimeToVisible >= 0)
+        {
+            sb.append(String.format("visible after %d ms\n", mTimeToVisible));
+        }
+        for (Stage stage : Stage.values())
+        {
+            int s = stage.ordinal();
+            if (mDone[s])
+            {
+                sb.append(String.format("%s: %d ms, %d items, heap %+d KB, native %+d KB\n",
+                                        stage, mTime[s], mItems[s],
+                                        mHeapGrowth[s] / 1024, mNativeHeapGrowth[s] / 1024));
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -332,6 +332,15 @@ public class GVRIndexBuffer extends GVRHybridObject implements PrettyPrint
         return NativeIndexBuffer.getIndexSize(getNative());
     }
 
+    /**
+     * Get the number of bytes of index data.
+     * @return index count times bytes per index.
+     */
+    public long getDataSize()
+    {
+        return (long) getIndexCount() * getIndexSize();
+    }
+
 
     @Override
     public void prettyPrint(StringBuffer sb, int indent) {
@@ -0,0 +1,228 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf;
+
+import org.joml.Matrix4f;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-instance attributes for drawing a mesh many times with one draw call.
+ * <p>
+ * Each instance has a transform, relative to the scene object which owns
+ * the {@link GVRRenderData}, and a color which multiplies the color of the
+ * material. The instance buffer is attached with
+ * {@link GVRRenderData#setInstances(GVRInstanceBuffer)}, which selects a
+ * shader variant where HAS_a_instance_row0 and HAS_a_instance_color are
+ * defined. Shaders built from the GearVRf shader templates handle them;
+ * a custom shader template needs to declare the attributes to use them.
+ * <p>
+ * The setters only change a copy kept in Java, so many instances can be
+ * changed at once. {@link #update()} sends the whole buffer to the
+ * renderer with one native call.
+ * <pre>
+ *     GVRInstanceBuffer instances = new GVRInstanceBuffer(context, 100);
+ *     for (int i = 0; i < 100; ++i)
+ *     {
+ *         instances.setTransform(i, new Matrix4f().translation(i, 0, 0));
+ *     }
+ *     instances.update();
+ *     renderData.setInstances(instances);
+ * </pre>
+ * @see GVRRenderData#setInstances(GVRInstanceBuffer)
+ */
+public class GVRInstanceBuffer extends GVRVertexBuffer
+{
+    /**
+     * The attributes of each instance: the first three rows of the
+     * instance transform and the instance color.
+     */
+    public static final String DESCRIPTOR =
+            "float4 a_instance_row0 float4 a_instance_row1 float4 a_instance_row2 float4 a_instance_color";
+
+    private static final int FLOATS_PER_INSTANCE = 16;
+    private static final int COLOR_OFFSET = 12;
+
+    private final int mInstanceCount;
+    private final float[] mData;
+    private final List<GVRRenderData> mUsers = new ArrayList<GVRRenderData>();
+
+    /**
+     * Construct an instance buffer. All the instances start at the
+     * origin of the owner object and white.
+     * @param gvrContext    GVRContext to associate the buffer with.
+     * @param instanceCount number of instances, which cannot be changed.
+     */
+    public GVRInstanceBuffer(GVRContext gvrContext, int instanceCount)
+    {
+        super(gvrContext, DESCRIPTOR, instanceCount);
+        if (instanceCount <= 0)
+        {
+            throw new IllegalArgumentException("Instance count must be positive");
+        }
+        mInstanceCount = instanceCount;
+        mData = new float[instanceCount * FLOATS_PER_INSTANCE];
+        for (int i = 0; i < instanceCount; ++i)
+        {
+            int ofs = i * FLOATS_PER_INSTANCE;
+            mData[ofs] = 1;
+            mData[ofs + 5] = 1;
+            mData[ofs + 10] = 1;
+            for (int c = 0; c < 4; ++c)
+            {
+                mData[ofs + COLOR_OFFSET + c] = 1;
+            }
+        }
+        update();
+    }
+
+    /**
+     * @return number of instances drawn.
+     */
+    public int getInstanceCount()
+    {
+        return mInstanceCount;
+    }
+
+    /**
+     * Set the transform of an instance.
+     * The projective part of the matrix is ignored.
+     * @param index  0-based index of the instance.
+     * @param matrix transform relative to the owner object.
+     */
+    public synchronized void setTransform(int index, Matrix4f matrix)
+    {
+        int ofs = offsetOf(index);
+
+        mData[ofs] = matrix.m00();
+        mData[ofs + 1] = matrix.m10();
+        mData[ofs + 2] = matrix.m20();
+        mData[ofs + 3] = matrix.m30();
+        mData[ofs + 4] = matrix.m01();
+        mData[ofs + 5] = matrix.m11();
+        mData[ofs + 6] = matrix.m21();
+        mData[ofs + 7] = matrix.m31();
+        mData[ofs + 8] = matrix.m02();
+        mData[ofs + 9] = matrix.m12();
+        mData[ofs + 10] = matrix.m22();
+        mData[ofs + 11] = matrix.m32();
+    }
+
+    /**
+     * Set the transforms of consecutive instances from matrices in
+     * column major order, the layout of {@link GVRTransform#getModelMatrix()}.
+     * The projective part of the matrices is ignored.
+     * @param first    0-based index of the first instance to set.
+     * @param matrices 16 floats for each instance.
+     */
+    public synchronized void setTransforms(int first, float[] matrices)
+    {
+        int n = matrices.length / 16;
+
+        checkRange(first, n);
+        for (int i = 0; i < n; ++i)
+        {
+            int ofs = (first + i) * FLOATS_PER_INSTANCE;
+            int m = i * 16;
+
+            for (int row = 0; row < 3; ++row)
+            {
+                for (int col = 0; col < 4; ++col)
+                {
+                    mData[ofs + row * 4 + col] = matrices[m + col * 4 + row];
+                }
+            }
+        }
+    }
+
+    /**
+     * Set the color of an instance. The color multiplies the color
+     * the material gives the mesh.
+     * @param index 0-based index of the instance.
+     * @param r     red component.
+     * @param g     green component.
+     * @param b     blue component.
+     * @param a     alpha component.
+     */
+    public synchronized void setColor(int index, float r, float g, float b, float a)
+    {
+        int ofs = offsetOf(index) + COLOR_OFFSET;
+
+        mData[ofs] = r;
+        mData[ofs + 1] = g;
+        mData[ofs + 2] = b;
+        mData[ofs + 3] = a;
+    }
+
+    /**
+     * Set the colors of consecutive instances.
+     * @param first  0-based index of the first instance to set.
+     * @param colors 4 floats (red, green, blue, alpha) for each instance.
+     */
+    public synchronized void setColors(int first, float[] colors)
+    {
+        int n = colors.length / 4;
+
+        checkRange(first, n);
+        for (int i = 0; i < n; ++i)
+        {
+            System.arraycopy(colors, i * 4, mData,
+                             (first + i) * FLOATS_PER_INSTANCE + COLOR_OFFSET, 4);
+        }
+    }
+
+    /**
+     * Send the changed transforms and colors to the renderer.
+     * The render data using this buffer update their bounds.
+     */
+    public synchronized void update()
+    {
+        if (!NativeVertexBuffer.setVertexData(getNative(), mData))
+        {
+            throw new IllegalStateException("Instance data cannot be updated");
+        }
+        for (GVRRenderData rdata : mUsers)
+        {
+            NativeRenderData.setInstances(rdata.getNative(), getNative());
+        }
+    }
+
+    synchronized void addUser(GVRRenderData rdata)
+    {
+        mUsers.add(rdata);
+    }
+
+    synchronized void removeUser(GVRRenderData rdata)
+    {
+        mUsers.remove(rdata);
+    }
+
+    private int offsetOf(int index)
+    {
+        checkRange(index, 1);
+        return index * FLOATS_PER_INSTANCE;
+    }
+
+    private void checkRange(int first, int count)
+    {
+        if ((first < 0) || (first + count > mInstanceCount))
+        {
+            throw new IndexOutOfBoundsException("Instances " + first + " to " + (first + count - 1)
+                                                + " not in 0 to " + (mInstanceCount - 1));
+        }
+    }
+}
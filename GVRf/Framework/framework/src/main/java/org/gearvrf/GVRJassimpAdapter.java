@@ -9,6 +9,7 @@ import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -16,6 +17,9 @@ import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import static java.lang.Math.max;
 
 import org.gearvrf.animation.GVRAnimation;
@@ -46,6 +50,7 @@ import org.gearvrf.jassimp.JassimpConfig;
 import org.gearvrf.scene_objects.GVRModelSceneObject;
 import org.gearvrf.shaders.GVRPBRShader;
 import org.gearvrf.utility.Log;
+import org.gearvrf.utility.Threads;
 import org.joml.Matrix4f;
 import org.joml.Quaternionf;
 
@@ -59,6 +64,16 @@ class   GVRJassimpAdapter {
     private AiScene mScene;
     private GVRContext mContext;
     private String mFileName;
+    // Meshes and materials made before the nodes are processed, taken by the first node using each
+    private GVRMesh[] mMeshes;
+    private GVRMaterial[] mMaterials;
+    private GVRTexture mBrdfLUT;
+    // Scene objects to notify once the hierarchy is built
+    private List<GVRSceneObject> mLoadedObjects;
+    // Scene objects showing a placeholder and the index of their mesh, while streaming
+    private List<GVRSceneObject> mStreamObjects;
+    private List<Integer> mStreamMeshes;
+    private int mTexturePriority = GVRAssetLoader.DEFAULT_PRIORITY;
     private static final int MAX_TEX_COORDS = JassimpConfig.MAX_NUMBER_TEXCOORDS;
     private static final int MAX_VERTEX_COLORS = JassimpConfig.MAX_NUMBER_COLORSETS;
 
@@ -85,19 +100,23 @@ class   GVRJassimpAdapter {
     public GVRMesh createMesh(GVRContext ctx, AiMesh aiMesh, EnumSet<GVRImportSettings> settings)
     {
         String vertexDescriptor = "float3 a_position";
-        float[] verticesArray = null;
-        float[] tangentsArray = null;
-        float[] bitangentsArray = null;
-        float[] normalsArray = null;
         boolean doTexturing = !settings.contains(GVRImportSettings.NO_TEXTURING);
         boolean doLighting = !settings.contains(GVRImportSettings.NO_LIGHTING);
         boolean doAnimation = !settings.contains(GVRImportSettings.NO_ANIMATION);
+        /*
+         * Float attributes copied straight from the direct buffers of
+         * the AiMesh into the vertex buffer with one native call.
+         */
+        List<String> names = new ArrayList<String>();
+        List<FloatBuffer> buffers = new ArrayList<FloatBuffer>();
+        List<Integer> strides = new ArrayList<Integer>();
 
         // Vertices
         FloatBuffer verticesBuffer = aiMesh.getPositionBuffer();
         if (verticesBuffer != null) {
-            verticesArray = new float[verticesBuffer.capacity()];
-            verticesBuffer.get(verticesArray, 0, verticesBuffer.capacity());
+            names.add("a_position");
+            buffers.add(verticesBuffer);
+            strides.add(0);
         }
         // TexCoords
         if (doTexturing)
@@ -107,10 +126,18 @@ class   GVRJassimpAdapter {
                 FloatBuffer fbuf = aiMesh.getTexCoordBuffer(texIndex);
                 if (fbuf != null)
                 {
-                    vertexDescriptor += " float2 a_texcoord";
+                    String name = "a_texcoord";
                     if (texIndex > 0)
                     {
-                        vertexDescriptor += texIndex;
+                        name += texIndex;
+                    }
+                    vertexDescriptor += " float2 " + name;
+                    if (aiMesh.getNumUVComponents(texIndex) >= 2)
+                    {
+                        // The stride skips the w component of 3D texture coordinates
+                        names.add(name);
+                        buffers.add(fbuf);
+                        strides.add(aiMesh.getNumUVComponents(texIndex));
                     }
                 }
             }
@@ -122,10 +149,12 @@ class   GVRJassimpAdapter {
             if (normalsBuffer != null)
             {
                 vertexDescriptor += " float3 a_normal";
-                normalsArray = new float[normalsBuffer.capacity()];
-                normalsBuffer.get(normalsArray, 0, normalsBuffer.capacity());
+                names.add("a_normal");
+                buffers.add(normalsBuffer);
+                strides.add(0);
             }
         }
+        // Vertex Colors
         for(int c = 0; c < MAX_VERTEX_COLORS; c++)
         {
             FloatBuffer fbuf = aiMesh.getColorBuffer(c);
@@ -138,6 +167,9 @@ class   GVRJassimpAdapter {
                     name += c;
                 }
                 vertexDescriptor += " float4 " + name;
+                names.add(name);
+                buffers.add(fbuf);
+                strides.add(0);
             }
         }
 
@@ -148,34 +180,25 @@ class   GVRJassimpAdapter {
         if (doLighting && aiMesh.hasTangentsAndBitangents())
         {
             vertexDescriptor += " float3 a_tangent float3 a_bitangent";
-            FloatBuffer tangentBuffer = aiMesh.getTangentBuffer();
-            FloatBuffer bitangentBuffer = aiMesh.getBitangentBuffer();
-            tangentsArray = new float[tangentBuffer.capacity()];
-            tangentBuffer.get(tangentsArray, 0, tangentBuffer.capacity());
-            bitangentsArray = new float[bitangentBuffer.capacity()];
-            bitangentBuffer.get(bitangentsArray, 0, bitangentBuffer.capacity());
+            names.add("a_tangent");
+            buffers.add(aiMesh.getTangentBuffer());
+            strides.add(0);
+            names.add("a_bitangent");
+            buffers.add(aiMesh.getBitangentBuffer());
+            strides.add(0);
         }
 
         GVRMesh mesh = new GVRMesh(ctx, vertexDescriptor);
+        GVRVertexBuffer vbuf = mesh.getVertexBuffer();
+        int[] strideArray = new int[strides.size()];
 
-        // Vertex Colors
-        for (int c = 0; c < MAX_VERTEX_COLORS; c++)
+        for (int i = 0; i < strideArray.length; ++i)
         {
-            FloatBuffer fbuf = aiMesh.getColorBuffer(c);
-            if (fbuf != null)
-            {
-                FloatBuffer coords = FloatBuffer.allocate(aiMesh.getNumVertices() * 4);
-                FloatBuffer source = aiMesh.getColorBuffer(c);
-                String name = "a_color";
-
-                if (c > 0)
-                {
-                    name += c;
-                }
-                coords.put(source);
-                mesh.setFloatVec(name, coords);
-            }
+            strideArray[i] = strides.get(i);
         }
+        vbuf.setFloatVecs(names.toArray(new String[names.size()]),
+                          buffers.toArray(new FloatBuffer[buffers.size()]),
+                          strideArray);
 
         IntBuffer indices = aiMesh.getIndexBuffer();
         int len = indices.capacity();
@@ -184,56 +207,276 @@ class   GVRJassimpAdapter {
         indexBuffer.setIntVec(indices);
         mesh.setIndexBuffer(indexBuffer);
 
-        if (verticesArray != null)
+        // Texture coordinates with a single component
+        if (doTexturing)
         {
-            mesh.setVertices(verticesArray);
+            for (int texIndex = 0; texIndex < MAX_TEX_COORDS; texIndex++)
+            {
+                if ((aiMesh.getTexCoordBuffer(texIndex) != null) &&
+                    (aiMesh.getNumUVComponents(texIndex) < 2))
+                {
+                    float[] coords = new float[aiMesh.getNumVertices() * 2];
+                    for (int i = 0; i < aiMesh.getNumVertices(); ++i)
+                    {
+                        coords[2 * i] = aiMesh.getTexCoordU(i, texIndex);
+                        coords[2 * i + 1] = aiMesh.getTexCoordV(i, texIndex);
+                    }
+                    mesh.setTexCoords(coords, texIndex);
+                }
+            }
         }
-        if (normalsArray != null)
+        // Bones
+        if (doAnimation && aiMesh.hasBones())
         {
-            mesh.setNormals(normalsArray);
+            processBones(mesh, aiMesh.getBones());
         }
-        if (tangentsArray != null)
+        return mesh;
+    }
+
+    /*
+     * Work done for each index by forEachParallel.
+     */
+    private interface IndexTask
+    {
+        void run(int index);
+    }
+
+    /*
+     * Run a task for the indices 0 to count - 1 on background threads,
+     * one per core, with the calling thread taking part.
+     * Indices are started in increasing order.
+     * Returns when all of them are done.
+     */
+    private static void forEachParallel(final int count, final IndexTask task)
+    {
+        final AtomicInteger next = new AtomicInteger(0);
+        Runnable worker = new Runnable()
         {
-            mesh.setFloatArray("a_tangent", tangentsArray);
+            public void run()
+            {
+                int i;
+                while ((i = next.getAndIncrement()) < count)
+                {
+                    task.run(i);
+                }
+            }
+        };
+        int numThreads = Math.min(Runtime.getRuntime().availableProcessors(), count) - 1;
+        List<Future<?>> workers = new ArrayList<Future<?>>(Math.max(numThreads, 0));
+
+        for (int t = 0; t < numThreads; ++t)
+        {
+            workers.add(Threads.spawn(worker));
         }
-        if (bitangentsArray != null)
+        worker.run();
+        for (Future<?> f : workers)
         {
-            mesh.setFloatArray("a_bitangent", bitangentsArray);
+            try
+            {
+                f.get();
+            }
+            catch (InterruptedException | ExecutionException ex)
+            {
+                Log.e(TAG, "Mesh conversion did not finish: %s", ex.getMessage());
+            }
         }
-        // TexCords
-        if (doTexturing)
+    }
+
+    /*
+     * Convert the meshes used by the nodes before the nodes are processed.
+     * A mesh which could not be converted is left null, so it is
+     * converted again (and reports its error) when a node uses it.
+     */
+    private GVRMesh[] createMeshes(final List<AiMesh> aiMeshes, final boolean[] used,
+                                   final EnumSet<GVRImportSettings> settings)
+    {
+        final GVRMesh[] meshes = new GVRMesh[aiMeshes.size()];
+        final GVRContext ctx = mContext;
+
+        forEachParallel(meshes.length, new IndexTask()
         {
-            for (int texIndex = 0; texIndex < MAX_TEX_COORDS; texIndex++)
+            public void run(int i)
             {
-                FloatBuffer fbuf = aiMesh.getTexCoordBuffer(texIndex);
-                if (fbuf != null)
+                if (!used[i])
                 {
-                    FloatBuffer coords = FloatBuffer.allocate(aiMesh.getNumVertices() * 2);
-                    if (aiMesh.getNumUVComponents(texIndex) == 2)
-                    {
-                        FloatBuffer coordsSource = aiMesh.getTexCoordBuffer(texIndex);
-                        coords.put(coordsSource);
-                    }
-                    else
+                    return;
+                }
+                try
+                {
+                    meshes[i] = createMesh(ctx, aiMeshes.get(i), settings);
+                }
+                catch (RuntimeException ex)
+                {
+                    Log.e(TAG, "Cannot convert mesh %d: %s", i, ex.getMessage());
+                }
+            }
+        });
+        return meshes;
+    }
+
+    /*
+     * Make a box around the positions of a mesh, shown while
+     * the mesh is streamed.
+     */
+    private GVRMesh createProxyMesh(AiMesh aiMesh)
+    {
+        FloatBuffer positions = aiMesh.getPositionBuffer();
+        float[] bbox = { 0, 0, 0, 0, 0, 0 };
+        int n = (positions != null) ? positions.capacity() : 0;
+
+        for (int i = 0; i + 2 < n; i += 3)
+        {
+            for (int j = 0; j < 3; ++j)
+            {
+                float v = positions.get(i + j);
+                if ((i == 0) || (v < bbox[j]))
+                {
+                    bbox[j] = v;
+                }
+                if ((i == 0) || (v > bbox[j + 3]))
+                {
+                    bbox[j + 3] = v;
+                }
+            }
+        }
+        float[] corners = {
+                bbox[0], bbox[1], bbox[2],
+                bbox[3], bbox[1], bbox[2],
+                bbox[0], bbox[4], bbox[2],
+                bbox[3], bbox[4], bbox[2],
+                bbox[0], bbox[1], bbox[5],
+                bbox[3], bbox[1], bbox[5],
+                bbox[0], bbox[4], bbox[5],
+                bbox[3], bbox[4], bbox[5]
+        };
+        char[] indices = {
+                0, 2, 1, 1, 2, 3, 1, 3, 7, 1, 7, 5, 4, 5, 6, 5, 7, 6, 0, 6, 2, 0, 4, 6, 0, 1, 5, 0,
+                5, 4, 2, 7, 3, 2, 6, 7
+        };
+        GVRMesh mesh = new GVRMesh(mContext, "float3 a_position");
+
+        mesh.setVertices(corners);
+        mesh.setIndices(indices);
+        return mesh;
+    }
+
+    /*
+     * Streaming import: build the hierarchy with a box for each mesh
+     * and add it to the scene, then make the materials and meshes in
+     * order of distance from the camera. Each finished mesh replaces
+     * its box on the GL thread. The animations are made after that,
+     * see processScene.
+     */
+    private void streamScene(GVRAssetLoader.AssetRequest request, GVRSceneObject model,
+                             AiNode root, final List<AiMesh> aiMeshes, boolean[] used,
+                             Hashtable<String, GVRLight> lightList)
+    {
+        final EnumSet<GVRImportSettings> settings = request.getImportSettings();
+        GVRMaterial proxyMaterial = new GVRMaterial(mContext, GVRMaterial.GVRShaderType.Color.ID);
+
+        proxyMaterial.setColor(0.5f, 0.5f, 0.5f);
+        request.beginStage(GVRImportStats.Stage.HIERARCHY);
+        mMeshes = new GVRMesh[aiMeshes.size()];
+        mMaterials = new GVRMaterial[aiMeshes.size()];
+        for (int i = 0; i < used.length; ++i)
+        {
+            if (used[i])
+            {
+                mMeshes[i] = createProxyMesh(aiMeshes.get(i));
+                mMaterials[i] = proxyMaterial;
+            }
+        }
+        mStreamObjects = new ArrayList<GVRSceneObject>();
+        mStreamMeshes = new ArrayList<Integer>();
+        mLoadedObjects = new ArrayList<GVRSceneObject>();
+        recurseAssimpNodes(request, model, root, lightList);
+        sendLoadedEvents(mLoadedObjects);
+        request.endStage(GVRImportStats.Stage.HIERARCHY, mLoadedObjects.size());
+        request.addToScene(model);
+
+        final int count = mStreamObjects.size();
+        final GVRSceneObject[] objects = new GVRSceneObject[count];
+        final int[] meshIndices = new int[count];
+        final GVRMaterial[] materials = new GVRMaterial[count];
+
+        sortByDistance(request, objects, meshIndices);
+        request.beginStage(GVRImportStats.Stage.MATERIALS);
+        for (int i = 0; i < count; ++i)
+        {
+            // Textures of the closest objects load first
+            mTexturePriority = GVRAssetLoader.DEFAULT_PRIORITY + count - i;
+            materials[i] = createMeshMaterial(request, aiMeshes.get(meshIndices[i]));
+        }
+        mTexturePriority = GVRAssetLoader.DEFAULT_PRIORITY;
+        request.endStage(GVRImportStats.Stage.MATERIALS, count);
+
+        request.beginStage(GVRImportStats.Stage.MESHES);
+        final GVRContext ctx = mContext;
+        forEachParallel(count, new IndexTask()
+        {
+            public void run(int i)
+            {
+                final GVRRenderData rdata = objects[i].getRenderData();
+                final GVRMaterial material = materials[i];
+                final GVRMesh mesh;
+                try
+                {
+                    mesh = createMesh(ctx, aiMeshes.get(meshIndices[i]), settings);
+                }
+                catch (RuntimeException ex)
+                {
+                    Log.e(TAG, "Cannot convert mesh %d: %s", meshIndices[i], ex.getMessage());
+                    return;
+                }
+                ctx.runOnGlThread(new Runnable()
+                {
+                    public void run()
                     {
-                        for (int i = 0; i < aiMesh.getNumVertices(); ++i)
-                        {
-                            float u = aiMesh.getTexCoordU(i, texIndex);
-                            float v = aiMesh.getTexCoordV(i, texIndex);
-                            coords.put(u);
-                            coords.put(v);
-                        }
+                        rdata.setMesh(mesh);
+                        rdata.setMaterial(material);
                     }
-                    mesh.setTexCoords(coords.array(), texIndex);
-                }
+                });
             }
+        });
+        request.endStage(GVRImportStats.Stage.MESHES, count);
+        mStreamObjects = null;
+        mStreamMeshes = null;
+    }
+
+    /*
+     * Order the streamed scene objects by the distance
+     * of their bounding volume from the camera.
+     */
+    private void sortByDistance(GVRAssetLoader.AssetRequest request,
+                                GVRSceneObject[] objects, int[] meshIndices)
+    {
+        GVRScene scene = (request.getScene() != null) ? request.getScene() : mContext.getMainScene();
+        GVRTransform camera = scene.getMainCameraRig().getTransform();
+        final float[] distances = new float[objects.length];
+        Integer[] order = new Integer[objects.length];
+
+        for (int i = 0; i < objects.length; ++i)
+        {
+            GVRSceneObject.BoundingVolume bv = mStreamObjects.get(i).getBoundingVolume();
+            float dx = bv.center.x - camera.getPositionX();
+            float dy = bv.center.y - camera.getPositionY();
+            float dz = bv.center.z - camera.getPositionZ();
+
+            distances[i] = dx * dx + dy * dy + dz * dz;
+            order[i] = i;
         }
-        // Bones
-        if (doAnimation && aiMesh.hasBones())
+        Arrays.sort(order, new Comparator<Integer>()
         {
-            processBones(mesh, aiMesh.getBones());
+            public int compare(Integer a, Integer b)
+            {
+                return Float.compare(distances[a], distances[b]);
+            }
+        });
+        for (int i = 0; i < objects.length; ++i)
+        {
+            objects[i] = mStreamObjects.get(order[i]);
+            meshIndices[i] = mStreamMeshes.get(order[i]);
         }
-        return mesh;
     }
 
     public void processBones(GVRMesh mesh, List<AiBone> aiBones)
@@ -442,6 +685,7 @@ class   GVRJassimpAdapter {
             case NO_ANIMATION:
             case NO_LIGHTING:
             case NO_TEXTURING:
+            case STREAM:
                 return null;
             default:
                 // Unsupported setting
@@ -472,35 +716,102 @@ class   GVRJassimpAdapter {
         {
             return;
         }
-        recurseAssimpNodes(request, model, scene.getSceneRoot(sWrapperProvider), lightList);
+        List<AiMesh> aiMeshes = scene.getMeshes();
+        AiNode root = scene.getSceneRoot(sWrapperProvider);
+        boolean[] used = new boolean[aiMeshes.size()];
+
+        int numUsed = findUsedMeshes(root, used);
+
+        if (settings.contains(GVRImportSettings.STREAM))
+        {
+            streamScene(request, model, root, aiMeshes, used, lightList);
+        }
+        else
+        {
+            request.beginStage(GVRImportStats.Stage.MESHES);
+            mMeshes = createMeshes(aiMeshes, used, settings);
+            request.endStage(GVRImportStats.Stage.MESHES, numUsed);
+
+            request.beginStage(GVRImportStats.Stage.MATERIALS);
+            mMaterials = createMaterials(request, aiMeshes, used);
+            request.endStage(GVRImportStats.Stage.MATERIALS, numUsed);
+
+            request.beginStage(GVRImportStats.Stage.HIERARCHY);
+            mLoadedObjects = new ArrayList<GVRSceneObject>();
+            recurseAssimpNodes(request, model, root, lightList);
+            sendLoadedEvents(mLoadedObjects);
+            request.endStage(GVRImportStats.Stage.HIERARCHY, mLoadedObjects.size());
+        }
+        mMeshes = null;
+        mMaterials = null;
+        mLoadedObjects = null;
+        mBrdfLUT = null;
         if (!settings.contains(GVRImportSettings.NO_ANIMATION))
         {
-            List<AiAnimation> animations = scene.getAnimations();
+            final List<AiAnimation> animations = scene.getAnimations();
             if (animations.size() > 0)
             {
-                GVRAnimator animator = new GVRAnimator(mContext, startAnimations);
-                model.attachComponent(animator);
-                for (AiAnimation aiAnim : scene.getAnimations())
+                if (settings.contains(GVRImportSettings.STREAM))
                 {
-                    GVRAnimation animation = createAnimation(aiAnim, model);
-                    GVRModelSceneObject modelRoot = null;
-                    if (GVRModelSceneObject.class.isAssignableFrom(model.getClass()))
+                    /*
+                     * The skinning binds the bones of the meshes, which replace
+                     * the boxes in tasks already queued on the GL thread.
+                     * Tasks of the same priority run in order, so this one
+                     * runs after all of them. The asset may already be loaded
+                     * by then, so the animations are started here.
+                     */
+                    final GVRAssetLoader.AssetRequest streamRequest = request;
+                    final GVRSceneObject streamModel = model;
+                    final boolean streamStart = startAnimations;
+
+                    mContext.runOnGlThread(new Runnable()
                     {
-                        modelRoot = (GVRModelSceneObject) model;
-                    }
-                    if (animation != null)
-                    {
-                        animator.addAnimation(animation);
-                        if (modelRoot != null)
+                        public void run()
                         {
-                            modelRoot.getAnimations().add(animation);
+                            GVRAnimator animator = createAnimations(streamRequest, streamModel,
+                                                                    animations, false);
+                            if (streamStart)
+                            {
+                                animator.start();
+                            }
                         }
-                    }
+                    });
+                }
+                else
+                {
+                    createAnimations(request, model, animations, startAnimations);
                 }
             }
         }
     }
 
+    private GVRAnimator createAnimations(GVRAssetLoader.AssetRequest request, GVRSceneObject model,
+                                         List<AiAnimation> animations, boolean startAnimations)
+    {
+        request.beginStage(GVRImportStats.Stage.ANIMATIONS);
+        GVRAnimator animator = new GVRAnimator(mContext, startAnimations);
+        model.attachComponent(animator);
+        for (AiAnimation aiAnim : animations)
+        {
+            GVRAnimation animation = createAnimation(aiAnim, model);
+            GVRModelSceneObject modelRoot = null;
+            if (GVRModelSceneObject.class.isAssignableFrom(model.getClass()))
+            {
+                modelRoot = (GVRModelSceneObject) model;
+            }
+            if (animation != null)
+            {
+                animator.addAnimation(animation);
+                if (modelRoot != null)
+                {
+                    modelRoot.getAnimations().add(animation);
+                }
+            }
+        }
+        request.endStage(GVRImportStats.Stage.ANIMATIONS, animations.size());
+        return animator;
+    }
+
     private GVRSceneObject makeCamera()
     {
         List<AiCamera> cameras = mScene.getCameras();
@@ -534,21 +845,18 @@ class   GVRJassimpAdapter {
         Hashtable<String, GVRLight> lightlist)
     {
         final GVRSceneObject sceneObject;
-        final GVRContext context = mContext;
 
         if (node.getNumMeshes() == 0) {
             sceneObject = createSceneObject(mContext, node);
             parentSceneObject.addChildObject(sceneObject);
         } else if (node.getNumMeshes() == 1) {
             // add the scene object to the scene graph
-            AiMesh aiMesh = mScene.getMeshes().get(node.getMeshes()[0]);
-            sceneObject = createSubSceneObject(request, parentSceneObject, node, aiMesh);
+            sceneObject = createSubSceneObject(request, parentSceneObject, node, node.getMeshes()[0]);
         } else {
             sceneObject = createSceneObject(mContext, node);
             parentSceneObject.addChildObject(sceneObject);
             for (int i = 0; i < node.getNumMeshes(); i++) {
-                AiMesh aiMesh = mScene.getMeshes().get(node.getMeshes()[i]);
-                GVRSceneObject childSceneObject = createSubSceneObject(request, sceneObject, node, aiMesh);
+                GVRSceneObject childSceneObject = createSubSceneObject(request, sceneObject, node, node.getMeshes()[i]);
             }
         }
 
@@ -563,17 +871,29 @@ class   GVRJassimpAdapter {
         for (AiNode child : node.getChildren()) {
             recurseAssimpNodes(request, sceneObject, child, lightlist);
         }
+        mLoadedObjects.add(sceneObject);
+     }
+
+    /*
+     * Inform the loaded objects after they have been attached to the scene graph,
+     * children before parents, with one task on the framework thread.
+     */
+    private void sendLoadedEvents(final List<GVRSceneObject> sceneObjects)
+    {
+        final GVRContext context = mContext;
 
         context.runOnTheFrameworkThread(new Runnable() {
             public void run() {
-                // Inform the loaded object after it has been attached to the scene graph
-                context.getEventManager().sendEvent(
-                        sceneObject,
-                        ISceneObjectEvents.class,
-                        "onLoaded");
+                for (GVRSceneObject sceneObject : sceneObjects)
+                {
+                    context.getEventManager().sendEvent(
+                            sceneObject,
+                            ISceneObjectEvents.class,
+                            "onLoaded");
+                }
             }
         });
-     }
+    }
 
     private void attachLights(Hashtable<String, GVRLight> lightlist, GVRSceneObject sceneObject){
         String name = sceneObject.getName();
@@ -598,8 +918,8 @@ class   GVRJassimpAdapter {
      *            A reference to the AiNode for which we want to recurse all its
      *            children and meshes.
      *
-     * @param aiMesh
-     *            The assimp mesh
+     * @param meshIndex
+     *            Index of the assimp mesh in the scene
      **
      * @return The new {@link GVRSceneObject} with the input mesh for the node {@link node}
      *
@@ -610,25 +930,74 @@ class   GVRJassimpAdapter {
             GVRAssetLoader.AssetRequest assetRequest,
             GVRSceneObject parent,
             AiNode node,
-            AiMesh aiMesh)
+            int meshIndex)
     {
         EnumSet<GVRImportSettings> settings = assetRequest.getImportSettings();
-        GVRMesh mesh = createMesh(mContext, aiMesh, settings);
-        AiMaterial material = mScene.getMaterials().get(aiMesh.getMaterialIndex());
-        final GVRMaterial meshMaterial = createMaterial(material, assetRequest.getImportSettings());
+        AiMesh aiMesh = mScene.getMeshes().get(meshIndex);
+        GVRMesh mesh = mMeshes[meshIndex];
+        GVRMaterial meshMaterial = mMaterials[meshIndex];
+
+        // Nodes which share an AiMesh each get their own mesh and material, as before
+        if (mStreamObjects == null)
+        {
+            mMeshes[meshIndex] = null;
+            mMaterials[meshIndex] = null;
+        }
+        if (mesh == null)
+        {
+            mesh = createMesh(mContext, aiMesh, settings);
+        }
+        if (meshMaterial == null)
+        {
+            meshMaterial = createMeshMaterial(assetRequest, aiMesh);
+        }
         GVRSceneObject sceneObject = createSceneObject(mContext, node);
         GVRRenderData sceneObjectRenderData = new GVRRenderData(mContext);
+
+        sceneObjectRenderData.setMesh(mesh);
+        if (settings.contains(GVRImportSettings.NO_LIGHTING))
+        {
+            sceneObjectRenderData.disableLight();
+        }
+        sceneObjectRenderData.setMaterial(meshMaterial);
+        sceneObject.attachRenderData(sceneObjectRenderData);
+        if (mStreamObjects != null)
+        {
+            // The placeholders are replaced after the hierarchy is built
+            mStreamObjects.add(sceneObject);
+            mStreamMeshes.add(meshIndex);
+        }
+
+        parent.addChildObject(sceneObject);
+        return sceneObject;
+    }
+
+    /**
+     * Helper method to create the material for a mesh
+     * and start loading its textures.
+     *
+     * @param assetRequest
+     *            GVRAssetRequest containing the original request to load the model
+     *
+     * @param aiMesh
+     *            The assimp mesh
+     *
+     * @return The new {@link GVRMaterial} for the mesh
+     */
+    private GVRMaterial createMeshMaterial(GVRAssetLoader.AssetRequest assetRequest, AiMesh aiMesh)
+    {
+        EnumSet<GVRImportSettings> settings = assetRequest.getImportSettings();
+        AiMaterial material = mScene.getMaterials().get(aiMesh.getMaterialIndex());
+        final GVRMaterial meshMaterial = createMaterial(material, settings);
         AiColor diffuseColor = material.getDiffuseColor(sWrapperProvider);        /* Opacity */
         float opacity = diffuseColor.getAlpha();
 
-        sceneObjectRenderData.setMesh(mesh);
         if (!settings.contains(GVRImportSettings.NO_TEXTURING))
         {
             loadTextures(assetRequest, material, meshMaterial, aiMesh);
         }
         if (settings.contains(GVRImportSettings.NO_LIGHTING))
         {
-            sceneObjectRenderData.disableLight();
             if (material.getOpacity() > 0)
             {
                 opacity *= material.getOpacity();
@@ -676,12 +1045,51 @@ class   GVRJassimpAdapter {
         /* Specular Exponent */
         float specularExponent = material.getShininess();
         meshMaterial.setSpecularExponent(specularExponent);
+        return meshMaterial;
+    }
 
-        sceneObjectRenderData.setMaterial(meshMaterial);
-        sceneObject.attachRenderData(sceneObjectRenderData);
+    /*
+     * Create the materials of all the meshes before the hierarchy
+     * is built, so all the texture loads are started up front.
+     * Runs on the loading thread because the texture bookkeeping
+     * of the asset request is not thread safe.
+     */
+    private GVRMaterial[] createMaterials(GVRAssetLoader.AssetRequest assetRequest,
+                                         List<AiMesh> aiMeshes, boolean[] used)
+    {
+        GVRMaterial[] materials = new GVRMaterial[aiMeshes.size()];
 
-        parent.addChildObject(sceneObject);
-        return sceneObject;
+        for (int i = 0; i < materials.length; ++i)
+        {
+            if (used[i])
+            {
+                materials[i] = createMeshMaterial(assetRequest, aiMeshes.get(i));
+            }
+        }
+        return materials;
+    }
+
+    /*
+     * Mark the meshes used by a node and its descendants.
+     * @return number of meshes marked for the first time
+     */
+    private int findUsedMeshes(AiNode node, boolean[] used)
+    {
+        int count = 0;
+
+        for (int meshIndex : node.getMeshes())
+        {
+            if (!used[meshIndex])
+            {
+                used[meshIndex] = true;
+                ++count;
+            }
+        }
+        for (AiNode child : node.getChildren())
+        {
+            count += findUsedMeshes(child, used);
+        }
+        return count;
     }
 
     private static final Map<AiTextureType, String> textureMap;
@@ -771,11 +1179,15 @@ class   GVRJassimpAdapter {
                     m.setDiffuseColor(baseColorFactor.getRed(), baseColorFactor.getGreen(), baseColorFactor.getBlue(), baseColorFactor.getAlpha());
                 }
 
-                Bitmap bitmap = BitmapFactory.decodeResource(
-                        mContext.getContext().getResources(), R.drawable.brdflookup);
-                GVRTexture brdfLUTtex = new GVRTexture(mContext);
-                brdfLUTtex.setImage(new GVRBitmapImage(mContext, bitmap));
-                m.setTexture("brdfLUTTexture", brdfLUTtex);
+                // The lookup table is the same for every material, decode it once per model
+                if (mBrdfLUT == null)
+                {
+                    Bitmap bitmap = BitmapFactory.decodeResource(
+                            mContext.getContext().getResources(), R.drawable.brdflookup);
+                    mBrdfLUT = new GVRTexture(mContext);
+                    mBrdfLUT.setImage(new GVRBitmapImage(mContext, bitmap));
+                }
+                m.setTexture("brdfLUTTexture", mBrdfLUT);
                 return m;
             }
             catch (IllegalArgumentException e)
@@ -865,7 +1277,7 @@ class   GVRJassimpAdapter {
         else
         {
             texRequest = new GVRAssetLoader.TextureRequest(assetRequest, gvrTex, texFileName);
-            assetRequest.loadTexture(texRequest);
+            assetRequest.loadTexture(texRequest, mTexturePriority);
         }
     }
 
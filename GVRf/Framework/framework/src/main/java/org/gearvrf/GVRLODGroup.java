@@ -15,11 +15,7 @@
 
 package org.gearvrf;
 
-import org.gearvrf.utility.Log;
-import org.joml.Vector4f;
-
-import java.util.LinkedList;
-
+import java.util.Arrays;
 
 /**
  * Example:
@@ -36,6 +32,8 @@ import java.util.LinkedList;
  * lodGroup.addRange(9, sphereLowDensity);
  * root.attachComponent(lodGroup);
  * </pre>
+ * The levels of all the LOD groups are selected once per frame by the
+ * {@link GVRLODSystem} of the context.
  */
 public final class GVRLODGroup extends GVRBehavior {
     static private long TYPE_LODGROUP = newComponentType(GVRLODGroup.class);
@@ -49,9 +47,10 @@ public final class GVRLODGroup extends GVRBehavior {
         return TYPE_LODGROUP;
     }
 
-    private final Vector4f mCenter = new Vector4f();
-    private final Vector4f mVector = new Vector4f();
-    private final LinkedList<Object[]> mRanges = new LinkedList<>();
+    // Squared ranges in ascending order and the scene object for each
+    private float[] mRangesSquared = new float[2];
+    private GVRSceneObject[] mRangeObjects = new GVRSceneObject[2];
+    private int mRangeCount = 0;
 
     /**
      * Add a range to this LOD group. Specify the scene object that should be displayed in this
@@ -61,7 +60,7 @@ public final class GVRLODGroup extends GVRBehavior {
      * @param sceneObject scene object that should be rendered when in this range
      * @throws IllegalArgumentException if range is negative or sceneObject null
      */
-    public synchronized void addRange(final float range, final GVRSceneObject sceneObject)
+    public void addRange(final float range, final GVRSceneObject sceneObject)
     {
         if (null == sceneObject) {
             throw new IllegalArgumentException("sceneObject must be specified!");
@@ -70,87 +69,82 @@ public final class GVRLODGroup extends GVRBehavior {
             throw new IllegalArgumentException("range cannot be negative");
         }
 
-        final int size = mRanges.size();
         final float rangePow2 = range*range;
-        final Object[] newElement = new Object[] {rangePow2, sceneObject};
-
-        for (int i = 0; i < size; ++i) {
-            final Object[] el = mRanges.get(i);
-            final Float r = (Float)el[0];
-            if (r > rangePow2) {
-                mRanges.add(i, newElement);
-                break;
+        synchronized (this) {
+            int index = mRangeCount;
+            while ((index > 0) && (mRangesSquared[index - 1] > rangePow2)) {
+                --index;
             }
-        }
 
-        if (mRanges.size() == size) {
-            mRanges.add(newElement);
+            if (mRangeCount == mRangesSquared.length) {
+                mRangesSquared = Arrays.copyOf(mRangesSquared, mRangeCount * 2);
+                mRangeObjects = Arrays.copyOf(mRangeObjects, mRangeCount * 2);
+            }
+            System.arraycopy(mRangesSquared, index, mRangesSquared, index + 1, mRangeCount - index);
+            System.arraycopy(mRangeObjects, index, mRangeObjects, index + 1, mRangeCount - index);
+            mRangesSquared[index] = rangePow2;
+            mRangeObjects[index] = sceneObject;
+            ++mRangeCount;
         }
 
         final GVRSceneObject owner = getOwnerObject();
         if (null != owner) {
             owner.addChildObject(sceneObject);
+            getGVRContext().getLODSystem().invalidate();
         }
     }
 
-    /**
-     * Do not call directly.
-     * @deprecated
-     */
-    public void onDrawFrame(float frameTime) {
-        final GVRSceneObject owner = getOwnerObject();
-        if (owner == null) {
-            return;
-        }
-
-        final int size = mRanges.size();
-        final GVRTransform t = getGVRContext().getMainScene().getMainCameraRig().getCenterCamera().getTransform();
-
-        for (final Object[] range : mRanges) {
-            ((GVRSceneObject)range[1]).setEnable(false);
-        }
-
-        for (int i = size - 1; i >= 0; --i) {
-            final Object[] range = mRanges.get(i);
-            final GVRSceneObject child = (GVRSceneObject) range[1];
-            if (child.getParent() != owner) {
-                Log.w(TAG, "the scene object for distance greater than " + range[0] + " is not a child of the owner; skipping it");
-                continue;
-            }
+    synchronized int getRangeCount() {
+        return mRangeCount;
+    }
 
-            final float[] values = child.getBoundingVolumeRawValues();
-            mCenter.set(values[0], values[1], values[2], 1.0f);
-            mVector.set(t.getPositionX(), t.getPositionY(), t.getPositionZ(), 1.0f);
+    synchronized float getRangeSquared(int index) {
+        return mRangesSquared[index];
+    }
 
-            mVector.sub(mCenter);
-            mVector.negate();
+    synchronized GVRSceneObject getRangeObject(int index) {
+        return mRangeObjects[index];
+    }
 
-            float distance = mVector.dot(mVector);
+    // The LOD system locks the group while reading the ranges,
+    // so it is never called with the group locked.
+    @Override
+    public void onAttach(GVRSceneObject newOwner) {
+        super.onAttach(newOwner);
 
-            if (distance >= (Float) range[0]) {
-                child.setEnable(true);
-                break;
+        synchronized (this) {
+            for (int i = 0; i < mRangeCount; ++i) {
+                newOwner.addChildObject(mRangeObjects[i]);
             }
         }
+        if (isEnabled()) {
+            getGVRContext().getLODSystem().addGroup(this);
+        }
     }
 
     @Override
-    public synchronized void onAttach(GVRSceneObject newOwner) {
-        super.onAttach(newOwner);
+    public void onDetach(GVRSceneObject oldOwner) {
+        super.onDetach(oldOwner);
 
-        for (final Object[] el : mRanges) {
-            newOwner.addChildObject((GVRSceneObject)el[1]);
+        getGVRContext().getLODSystem().removeGroup(this);
+        synchronized (this) {
+            for (int i = 0; i < mRangeCount; ++i) {
+                oldOwner.removeChildObject(mRangeObjects[i]);
+            }
         }
     }
 
     @Override
-    public synchronized void onDetach(GVRSceneObject oldOwner) {
-        super.onDetach(oldOwner);
-
-        for (final Object[] el : mRanges) {
-            oldOwner.removeChildObject((GVRSceneObject)el[1]);
+    public void onEnable() {
+        super.onEnable();
+        if (getOwnerObject() != null) {
+            getGVRContext().getLODSystem().addGroup(this);
         }
     }
 
-    private static final String TAG = "GVRLODGroup";
-}
\ No newline at end of file
+    @Override
+    public void onDisable() {
+        super.onDisable();
+        getGVRContext().getLODSystem().removeGroup(this);
+    }
+}
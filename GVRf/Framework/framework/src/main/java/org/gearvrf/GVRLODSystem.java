@@ -0,0 +1,354 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf;
+
+import org.gearvrf.utility.Log;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Selects the level of detail of all the {@link GVRLODGroup} components
+ * of a context once per frame.
+ * <p>
+ * The ranges of all the groups are kept in flat arrays and the bounding
+ * volumes of the level scene objects are read with one native call, so each
+ * group only costs a few distance comparisons. Scene objects are enabled or
+ * disabled only when the level of their group changes.
+ * <p>
+ * Hysteresis keeps a group at its current level until the camera has moved
+ * past the range by a fraction of the range, so levels do not flicker when
+ * the camera rests near a boundary.
+ *
+ * @see GVRContext#getLODSystem()
+ */
+public final class GVRLODSystem implements GVRDrawFrameListener {
+    private static final String TAG = Log.tag(GVRLODSystem.class);
+
+    /**
+     * How the ranges of a {@link GVRLODGroup} are compared.
+     */
+    public enum Mode {
+        /** Ranges are distances from the camera */
+        DISTANCE,
+        /**
+         * Ranges are distances from the camera in units of the bounding
+         * radius of the group owner, at a 90 degree field of view. Large
+         * objects and narrow fields of view switch further away, so the
+         * level depends on the size of the object on the screen.
+         */
+        SCREEN_SPACE
+    }
+
+    // Selected levels which are not a range index
+    private static final int UNKNOWN = -2;
+    private static final int NONE = -1;
+
+    private final GVRContext mContext;
+    private final List<GVRLODGroup> mGroups = new ArrayList<GVRLODGroup>();
+    private boolean mListening = false;
+    private volatile boolean mDirty = false;
+
+    private volatile Mode mMode = Mode.DISTANCE;
+    private volatile float mHysteresis = 0;
+    private volatile int mSwitches = 0;
+    private volatile long mTotalSwitches = 0;
+
+    // Rebuilt from mGroups when it or a group changes
+    private int mGroupCount = 0;
+    private int mRangeCount = 0;
+    private GVRSceneObject[] mOwners = new GVRSceneObject[0];
+    private int[] mFirstRange = new int[1];
+    private int[] mSelected = new int[0];
+    private float[] mRangesSquared = new float[0];
+    private GVRSceneObject[] mRangeObjects = new GVRSceneObject[0];
+    // Range objects followed by owners
+    private long[] mNatives = new long[0];
+    private float[] mSpheres = new float[0];
+
+    GVRLODSystem(GVRContext context) {
+        mContext = context;
+    }
+
+    /**
+     * Set how the ranges are compared.
+     *
+     * @param mode
+     *            {@link Mode#DISTANCE} (the default) or
+     *            {@link Mode#SCREEN_SPACE}
+     */
+    public void setMode(Mode mode) {
+        mMode = mode;
+    }
+
+    /**
+     * @return how the ranges are compared
+     */
+    public Mode getMode() {
+        return mMode;
+    }
+
+    /**
+     * Set the hysteresis applied when a group changes its level.
+     * A group only switches to a farther level once the distance exceeds
+     * the range by this fraction, and stays at its level until the
+     * distance is this fraction below the range.
+     *
+     * @param hysteresis
+     *            fraction of the range between 0 (the default) and 1
+     */
+    public void setHysteresis(float hysteresis) {
+        if ((hysteresis < 0) || (hysteresis >= 1)) {
+            throw new IllegalArgumentException("hysteresis must be between 0 and 1");
+        }
+        mHysteresis = hysteresis;
+    }
+
+    /**
+     * @return the hysteresis applied when a group changes its level
+     */
+    public float getHysteresis() {
+        return mHysteresis;
+    }
+
+    /**
+     * @return number of groups which changed their level in the last frame
+     */
+    public int getSwitchCount() {
+        return mSwitches;
+    }
+
+    /**
+     * @return number of level changes since the system started
+     */
+    public long getTotalSwitchCount() {
+        return mTotalSwitches;
+    }
+
+    /**
+     * @return number of groups whose level is selected
+     */
+    public synchronized int getGroupCount() {
+        return mGroups.size();
+    }
+
+    synchronized void addGroup(GVRLODGroup group) {
+        if (mGroups.contains(group)) {
+            return;
+        }
+        mGroups.add(group);
+        mDirty = true;
+        if (!mListening) {
+            mContext.registerDrawFrameListener(this);
+            mListening = true;
+        }
+    }
+
+    synchronized void removeGroup(GVRLODGroup group) {
+        if (!mGroups.remove(group)) {
+            return;
+        }
+        mDirty = true;
+        if (mGroups.isEmpty() && mListening) {
+            mContext.unregisterDrawFrameListener(this);
+            mListening = false;
+        }
+    }
+
+    /**
+     * Called when the ranges of a group change.
+     * Groups call this without holding their own lock.
+     */
+    void invalidate() {
+        mDirty = true;
+    }
+
+    @Override
+    public synchronized void onDrawFrame(float frameTime) {
+        if (mDirty) {
+            // Cleared first so a change while rebuilding is not lost
+            mDirty = false;
+            rebuild();
+        }
+        if (mGroupCount == 0) {
+            mSwitches = 0;
+            return;
+        }
+        final GVRCameraRig rig = mContext.getMainScene().getMainCameraRig();
+        final GVRPerspectiveCamera camera = rig.getCenterCamera();
+        final GVRTransform t = camera.getTransform();
+        final float cx = t.getPositionX();
+        final float cy = t.getPositionY();
+        final float cz = t.getPositionZ();
+        final boolean screenSpace = (mMode == Mode.SCREEN_SPACE);
+        float tanSquared = 1;
+
+        if (screenSpace) {
+            final float tan = (float) Math.tan(Math.toRadians(camera.getFovY()) / 2);
+            tanSquared = tan * tan;
+        }
+        final float hysteresis = mHysteresis;
+        final float farther = (1 + hysteresis) * (1 + hysteresis);
+        final float current = (1 - hysteresis) * (1 - hysteresis);
+        int switches = 0;
+
+        NativeSceneObject.getBoundingSpheres(mNatives, mNatives.length, mSpheres);
+        for (int g = 0; g < mGroupCount; ++g) {
+            final GVRSceneObject owner = mOwners[g];
+            final int first = mFirstRange[g];
+            final int selected = mSelected[g];
+            float scale = 1;
+            int level = NONE;
+
+            if (screenSpace) {
+                final float radius = mSpheres[4 * (mRangeCount + g) + 3];
+                if (radius > 0) {
+                    scale = tanSquared / (radius * radius);
+                }
+            }
+            for (int i = mFirstRange[g + 1] - 1; i >= first; --i) {
+                if (mRangeObjects[i].getParent() != owner) {
+                    continue;
+                }
+                final int s = 4 * i;
+                final float dx = mSpheres[s] - cx;
+                final float dy = mSpheres[s + 1] - cy;
+                final float dz = mSpheres[s + 2] - cz;
+                final float distance = (dx * dx + dy * dy + dz * dz) * scale;
+                float range = mRangesSquared[i];
+
+                if (selected >= 0) {
+                    if (i - first > selected) {
+                        range *= farther;
+                    } else if (i - first == selected) {
+                        range *= current;
+                    }
+                }
+                if (distance >= range) {
+                    level = i - first;
+                    break;
+                }
+            }
+            if (level != selected) {
+                select(g, level);
+                ++switches;
+            }
+        }
+        mSwitches = switches;
+        mTotalSwitches += switches;
+    }
+
+    private void select(int g, int level) {
+        final int first = mFirstRange[g];
+        final int selected = mSelected[g];
+
+        if (selected == UNKNOWN) {
+            for (int i = first; i < mFirstRange[g + 1]; ++i) {
+                mRangeObjects[i].setEnable(false);
+            }
+        } else if (selected >= 0) {
+            mRangeObjects[first + selected].setEnable(false);
+        }
+        if (level >= 0) {
+            mRangeObjects[first + level].setEnable(true);
+        }
+        mSelected[g] = level;
+    }
+
+    /*
+     * Copy the ranges of all the groups into the flat arrays,
+     * keeping the selected level of the groups which did not change.
+     */
+    private void rebuild() {
+        final int groupCount = mGroups.size();
+        final GVRSceneObject[] owners = new GVRSceneObject[groupCount];
+        final int[] firstRange = new int[groupCount + 1];
+        final int[] selected = new int[groupCount];
+        final List<GVRSceneObject> rangeObjects = new ArrayList<GVRSceneObject>();
+        float[] rangesSquared = new float[mRangesSquared.length];
+        final Map<GVRSceneObject, Integer> oldGroups = new IdentityHashMap<GVRSceneObject, Integer>();
+        int g = 0;
+
+        for (int i = 0; i < mGroupCount; ++i) {
+            oldGroups.put(mOwners[i], i);
+        }
+
+        for (GVRLODGroup group : mGroups) {
+            final GVRSceneObject owner = group.getOwnerObject();
+            if (owner == null) {
+                continue;
+            }
+            synchronized (group) {
+                final int count = group.getRangeCount();
+                final int first = rangeObjects.size();
+
+                if (first + count > rangesSquared.length) {
+                    rangesSquared = Arrays.copyOf(rangesSquared, 2 * (first + count));
+                }
+                for (int i = 0; i < count; ++i) {
+                    rangesSquared[first + i] = group.getRangeSquared(i);
+                    rangeObjects.add(group.getRangeObject(i));
+                }
+                owners[g] = owner;
+                firstRange[g] = first;
+                selected[g] = findSelected(oldGroups.get(owner), rangeObjects, first, count);
+                ++g;
+            }
+        }
+        mGroupCount = g;
+        mRangeCount = rangeObjects.size();
+        firstRange[g] = mRangeCount;
+        mOwners = owners;
+        mFirstRange = firstRange;
+        mSelected = selected;
+        mRangesSquared = rangesSquared;
+        mRangeObjects = rangeObjects.toArray(new GVRSceneObject[mRangeCount]);
+        mNatives = new long[mRangeCount + mGroupCount];
+        mSpheres = new float[4 * mNatives.length];
+        for (int i = 0; i < mRangeCount; ++i) {
+            mNatives[i] = mRangeObjects[i].getNative();
+        }
+        for (int i = 0; i < mGroupCount; ++i) {
+            mNatives[mRangeCount + i] = mOwners[i].getNative();
+        }
+        Log.d(TAG, "%d LOD groups with %d ranges", mGroupCount, mRangeCount);
+    }
+
+    /*
+     * Keep the level of a group whose ranges did not change,
+     * otherwise every level is disabled on the next frame.
+     */
+    private int findSelected(Integer oldGroup, List<GVRSceneObject> rangeObjects,
+                             int first, int count) {
+        if (oldGroup == null) {
+            return UNKNOWN;
+        }
+        final int g = oldGroup;
+        final int oldFirst = mFirstRange[g];
+        if (mFirstRange[g + 1] - oldFirst != count) {
+            return UNKNOWN;
+        }
+        for (int i = 0; i < count; ++i) {
+            if (mRangeObjects[oldFirst + i] != rangeObjects.get(first + i)) {
+                return UNKNOWN;
+            }
+        }
+        return mSelected[g];
+    }
+}
@@ -1211,6 +1211,56 @@ public class GVRPicker extends GVRBehavior implements IEventReceiver {
         }
     }
 
+    /**
+     * Get the counters for all picks against a scene since the
+     * application started or {@link #resetPickStatistics()} was called.
+     * <p>
+     * The colliders in a scene are kept in a bounding volume hierarchy
+     * so a pick only tests the colliders whose bounds it touches.
+     * Comparing the colliders tested with the number of colliders in
+     * the scene shows how much the hierarchy saves.
+     *
+     * @return pick statistics
+     */
+    public static PickStatistics getPickStatistics() {
+        long[] counts = new long[3];
+        NativePicker.getPickStatistics(counts);
+        return new PickStatistics(counts[0], counts[1], counts[2]);
+    }
+
+    /**
+     * Reset the counters returned by {@link #getPickStatistics()}.
+     */
+    public static void resetPickStatistics() {
+        NativePicker.resetPickStatistics();
+    }
+
+    /**
+     * Counters for the picks against a scene.
+     *
+     * @see GVRPicker#getPickStatistics()
+     */
+    public static final class PickStatistics {
+        /** Number of picks against a scene */
+        public final long picks;
+        /** Number of bounding volume hierarchy nodes tested */
+        public final long nodesVisited;
+        /** Number of colliders tested for a hit */
+        public final long collidersTested;
+
+        PickStatistics(long picks, long nodesVisited, long collidersTested) {
+            this.picks = picks;
+            this.nodesVisited = nodesVisited;
+            this.collidersTested = collidersTested;
+        }
+
+        @Override
+        public String toString() {
+            return "picks=" + picks + " nodesVisited=" + nodesVisited
+                    + " collidersTested=" + collidersTested;
+        }
+    }
+
     /**
      * Internal utility to help JNI add hit objects to the pick list.
      */
@@ -1451,6 +1501,12 @@ final class NativePicker {
 
     static native GVRPicker.GVRPickedObject[] pickVisible(long scene);
 
+    static native GVRPicker.GVRPickedObject[] pickFrustum(long scene, float[] viewProjection);
+
+    static native void getPickStatistics(long[] counts);
+
+    static native void resetPickStatistics();
+
     static native boolean pickSceneObjectAgainstBoundingBox(long sceneObject,
                                                             float ox, float oy, float oz, float dx, float dy, float dz, ByteBuffer readbackBuffer);
 }
@@ -40,6 +40,7 @@ public final class GVRRenderData extends GVRComponent implements IRenderable, Pr
     private static final String TAG = "GVRRenderData";
 
     private GVRMesh mMesh;
+    private GVRInstanceBuffer mInstances;
     private ArrayList<GVRRenderPass> mRenderPassList;
     private boolean mLightMapEnabled;
     private boolean isLightEnabled;
@@ -149,6 +150,43 @@ public final class GVRRenderData extends GVRComponent implements IRenderable, Pr
         NativeRenderData.setMesh(getNative(), mesh.getNative());
     }
 
+    /**
+     * @return The {@link GVRInstanceBuffer instances} the mesh is
+     * drawn with, or null if it is drawn once.
+     */
+    public GVRInstanceBuffer getInstances() {
+        return mInstances;
+    }
+
+    /**
+     * Draw the mesh once for each instance in the buffer, with a
+     * single draw call. Each instance has its own transform, relative
+     * to the owner object, and color. The shader variant selected
+     * for the material places and tints the instances, and the
+     * bounds used for culling cover all of them.
+     * <p>
+     * Instanced meshes do not cast shadows and are not batched.
+     *
+     * @param instances
+     *            The instances to draw, or null to draw the mesh once.
+     */
+    public void setInstances(GVRInstanceBuffer instances) {
+        synchronized (this) {
+            if (mInstances != null) {
+                mInstances.removeUser(this);
+            }
+            mInstances = instances;
+            for (GVRRenderPass pass : mRenderPassList)
+            {
+                pass.setInstances(instances);
+            }
+            if (instances != null) {
+                instances.addUser(this);
+            }
+        }
+        NativeRenderData.setInstances(getNative(), (instances != null) ? instances.getNative() : 0);
+    }
+
     /**
      * Add a render {@link GVRRenderPass pass} to this RenderData.
      * @param pass
@@ -157,6 +195,7 @@ public final class GVRRenderData extends GVRComponent implements IRenderable, Pr
         GVRMesh mesh = getMesh();
         mRenderPassList.add(pass);
         pass.setMesh(mesh);
+        pass.setInstances(mInstances);
         NativeRenderData.addPass(getNative(), pass.getNative());
     }
 
@@ -855,6 +894,8 @@ class NativeRenderData {
 
     static native void setMesh(long renderData, long mesh);
 
+    static native void setInstances(long renderData, long instances);
+
     static native void addPass(long renderData, long renderPass);
 
     static native void removePass(long renderData, int renderPass);
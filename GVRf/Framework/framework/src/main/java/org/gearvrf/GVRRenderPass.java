@@ -33,6 +33,7 @@ public class GVRRenderPass extends GVRHybridObject implements IRenderable {
 
     private GVRMaterial     mMaterial;
     private GVRMesh         mMesh;
+    private GVRInstanceBuffer mInstances;
     private GVRCullFaceEnum mCullFace;
 
     public enum GVRCullFaceEnum {
@@ -126,6 +127,23 @@ public class GVRRenderPass extends GVRHybridObject implements IRenderable {
         mMesh = mesh;
     }
 
+    /**
+     * @return The {@link GVRInstanceBuffer instances} of the
+     * GVRRenderData this render pass is associated with, or null.
+     */
+    GVRInstanceBuffer getInstances() { return mInstances; }
+
+    /**
+     * Sets the instances to render. Only GVRRenderData should
+     * call this function - it is internal.
+     *
+     * @param instances
+     */
+    void setInstances(GVRInstanceBuffer instances)
+    {
+        mInstances = instances;
+    }
+
 
     public boolean isLightEnabled() { return false; }
 
@@ -327,6 +327,30 @@ public class GVRScene extends GVRHybridObject implements PrettyPrint, IScriptabl
     private GVRConsole mStatsConsole = null;
     private boolean mStatsEnabled = false;
     private boolean pendingStats = false;
+    private volatile int mDrawCallCount = 0;
+    private volatile int mTriangleCount = 0;
+
+    /**
+     * Returns the number of draw calls made to render the last frame,
+     * whether or not stats are displayed. An instanced mesh takes one
+     * draw call per render pass for all its instances.
+     *
+     * @return draw calls in the last frame, for all the eyes and shadow maps.
+     * @see GVRRenderData#setInstances(GVRInstanceBuffer)
+     */
+    public int getDrawCallCount() {
+        return mDrawCallCount;
+    }
+
+    /**
+     * Returns the number of triangles rendered in the last frame,
+     * counting every instance of an instanced mesh.
+     *
+     * @return triangles in the last frame, for all the eyes and shadow maps.
+     */
+    public int getTriangleCount() {
+        return mTriangleCount;
+    }
 
     /**
      * Returns whether displaying of stats is enabled for this scene.
@@ -371,17 +395,16 @@ public class GVRScene extends GVRHybridObject implements PrettyPrint, IScriptabl
         updateStatsEnabled();
         if (mStatsEnabled) {
             mStatsConsole.clear();
-            NativeScene.resetStats(getNative());
         }
+        NativeScene.resetStats(getNative());
     }
 
     void updateStats() {
+        mDrawCallCount = NativeScene.getNumberDrawCalls(getNative());
+        mTriangleCount = NativeScene.getNumberTriangles(getNative());
         if (mStatsEnabled) {
-            int numberDrawCalls = NativeScene.getNumberDrawCalls(getNative());
-            int numberTriangles = NativeScene.getNumberTriangles(getNative());
-
-            mStatsConsole.writeLine("Draw Calls: %d", numberDrawCalls);
-            mStatsConsole.writeLine("Triangles: %d", numberTriangles);
+            mStatsConsole.writeLine("Draw Calls: %d", mDrawCallCount);
+            mStatsConsole.writeLine("Triangles: %d", mTriangleCount);
 
             if (mStatMessage.length() > 0) {
                 String lines[] = mStatMessage.toString().split(System.lineSeparator());
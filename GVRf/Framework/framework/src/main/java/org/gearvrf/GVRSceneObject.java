@@ -1329,6 +1329,8 @@ class NativeSceneObject {
 
     static native float[] getBoundingVolume(long sceneObject);
 
+    static native void getBoundingSpheres(long[] sceneObjects, int count, float[] spheres);
+
     static native float[] expandBoundingVolumeByPoint(
             long sceneObject, float pointX, float pointY, float pointZ);
 
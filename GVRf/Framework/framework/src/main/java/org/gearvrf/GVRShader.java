@@ -423,12 +423,19 @@ public class GVRShader
 
     protected void bindCalcMatrixMethod(GVRShaderManager shaderManager, int nativeShader)
     {
-        if (isImplemented("calcMatrix", FloatBuffer.class, FloatBuffer.class))
+        if (hasCalcMatrix())
         {
             NativeShaderManager.bindCalcMatrix(shaderManager.getNative(), nativeShader, getClass());
         }
     }
 
+    /**
+     * @return true if this shader class declares calcMatrix(FloatBuffer, FloatBuffer)
+     */
+    boolean hasCalcMatrix()
+    {
+        return isImplemented("calcMatrix", FloatBuffer.class, FloatBuffer.class);
+    }
 
     protected void writeShader(GVRContext context, String fileName, String sourceCode)
     {
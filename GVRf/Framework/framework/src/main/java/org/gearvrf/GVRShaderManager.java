@@ -15,13 +15,17 @@
 
 package org.gearvrf;
 
+import java.io.File;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
 import java.lang.reflect.*;
 
 import org.gearvrf.GVRShaderTemplate;
 import org.gearvrf.GVRContext;
 import org.gearvrf.utility.Log;
+import org.gearvrf.utility.Threads;
 
 /**
  * Manages GearVRF shaders for rendering scene objects.
@@ -44,9 +48,14 @@ public class GVRShaderManager extends GVRHybridObject
                          String textureDescriptor, String vertexDescriptor,
                          String vertexShader, String fragmentShader)
     {
-        return NativeShaderManager.addShader(getNative(), signature,
+        int nativeShader = NativeShaderManager.addShader(getNative(), signature,
                 uniformDescriptor, textureDescriptor, vertexDescriptor,
                 vertexShader, fragmentShader);
+        if (nativeShader > 0)
+        {
+            mShaderIDs.put(signature, nativeShader);
+        }
+        return nativeShader;
     }
 
     /**
@@ -60,7 +69,108 @@ public class GVRShaderManager extends GVRHybridObject
      */
     public int getShader(String signature)
     {
-        return NativeShaderManager.getShader(getNative(), signature);
+        Integer nativeShader = mShaderIDs.get(signature);
+        if (nativeShader != null)
+        {
+            return nativeShader;
+        }
+        int id = NativeShaderManager.getShader(getNative(), signature);
+        if (id > 0)
+        {
+            mShaderIDs.put(signature, id);
+        }
+        return id;
+    }
+
+    /**
+     * Record the shader variants generated by the shader templates
+     * in a file and add the variants recorded by previous runs.
+     * <p>
+     * Generating a variant is done the first time an object with a new
+     * combination of material, mesh and lights is rendered, which
+     * shows as a hitch. The variants recorded in the file are read and
+     * added on a background thread, so the templates find them instead
+     * of generating them. Call this at startup and wait for the returned
+     * future while a loading screen is shown to avoid these hitches.
+     * <p>
+     * The file is discarded when the application or GearVRf is updated.
+     * @param file file to record the variants in, usually in
+     *             {@link android.content.Context#getCacheDir()}
+     * @return future which is done when the recorded variants have been added
+     */
+    public Future<?> enableVariantCache(File file)
+    {
+        final GVRShaderVariantCache cache = new GVRShaderVariantCache(getGVRContext(), file);
+
+        mVariantCache = cache;
+        return Threads.spawn(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                for (GVRShaderVariantCache.Variant variant : cache.load())
+                {
+                    addVariant(variant);
+                }
+            }
+        });
+    }
+
+    /**
+     * Stop recording shader variants. The file is kept.
+     */
+    public void disableVariantCache()
+    {
+        mVariantCache = null;
+    }
+
+    /**
+     * Called by {@link GVRShaderTemplate} after generating a variant.
+     */
+    void recordVariant(GVRShader shader, String signature,
+                       String uniformDescriptor, String textureDescriptor, String vertexDescriptor,
+                       String vertexShader, String fragmentShader)
+    {
+        GVRShaderVariantCache cache = mVariantCache;
+        if (cache != null)
+        {
+            cache.record(new GVRShaderVariantCache.Variant(signature, shader.getClass().getName(),
+                    shader.hasCalcMatrix(), uniformDescriptor, textureDescriptor, vertexDescriptor,
+                    vertexShader, fragmentShader));
+        }
+    }
+
+    private void addVariant(GVRShaderVariantCache.Variant variant)
+    {
+        Class<? extends GVRShader> shaderClass = null;
+
+        if (variant.calcMatrix)
+        {
+            try
+            {
+                shaderClass = Class.forName(variant.shaderClass, true,
+                        getGVRContext().getContext().getClassLoader()).asSubclass(GVRShader.class);
+            }
+            catch (ClassNotFoundException | ClassCastException ex)
+            {
+                Log.w(TAG, "Skipping shader variant %s, no shader class %s", variant.signature, variant.shaderClass);
+                return;
+            }
+        }
+        synchronized (this)
+        {
+            if (getShader(variant.signature) != 0)
+            {
+                return;
+            }
+            int nativeShader = addShader(variant.signature, variant.uniformDescriptor,
+                    variant.textureDescriptor, variant.vertexDescriptor,
+                    variant.vertexShader, variant.fragmentShader);
+            if ((nativeShader > 0) && (shaderClass != null))
+            {
+                NativeShaderManager.bindCalcMatrix(getNative(), nativeShader, shaderClass);
+            }
+        }
     }
 
     /**
@@ -121,6 +231,15 @@ public class GVRShaderManager extends GVRHybridObject
      * shaders are global.
      */
     protected Map<Class<? extends GVRShader>, GVRShaderId> mShaderTemplates = new HashMap<Class<? extends GVRShader>, GVRShaderId>();
+
+    /**
+     * Maps shader signatures to native shader IDs so rendering
+     * does not look up the same signature in native code every time.
+     * Native shaders are never removed, so entries never go stale.
+     */
+    private final Map<String, Integer> mShaderIDs = new ConcurrentHashMap<String, Integer>();
+    private volatile GVRShaderVariantCache mVariantCache = null;
+    private static final String TAG = Log.tag(GVRShaderManager.class);
 }
 
 class NativeShaderManager {
@@ -67,6 +67,12 @@ public class GVRShaderTemplate extends GVRShader
     private final static String TAG = "GVRShaderTemplate";
     // Keeping the start of shadow attribute from 25 since locations less than it are used up by vertex descriptor and texture coords.
     private final int shadowmapStartLocation = 25;
+    private final String mSignaturePrefix = getClass().getSimpleName();
+    // Guards the builder, the interned signatures and the light class names
+    private final StringBuilder mSignatureBuilder = new StringBuilder();
+    private final SignatureTable mSignatures = new SignatureTable();
+    private final Map<Class<?>, String> mLightClassNames = new HashMap<Class<?>, String>();
+    private final boolean mHasSignatureHooks = hasSignatureHooks();
 
     protected class LightClass
     {
@@ -166,24 +172,71 @@ public class GVRShaderTemplate extends GVRShader
      */
     protected String generateLightSignature(GVRLight[] lightlist)
     {
-        String sig = "";
-        HashMap<Class<? extends GVRLight>, Integer> lightCount = new HashMap<Class<? extends GVRLight>, Integer>();
+        StringBuilder sig = new StringBuilder();
 
-        if (lightlist != null)
+        synchronized (mSignatureBuilder)
         {
+            appendLightSignature(sig, lightlist);
+        }
+        return sig.toString();
+    }
+
+    /*
+     * Append the light signature without allocating. The light classes
+     * are appended in order of name so the signature is the same in
+     * every run. There are few lights, so each class is found by
+     * scanning the list for the next name instead of sorting.
+     */
+    private void appendLightSignature(StringBuilder sig, GVRLight[] lightlist)
+    {
+        if (lightlist == null)
+        {
+            return;
+        }
+        String prev = null;
+        while (true)
+        {
+            String next = null;
+            int count = 0;
+
             for (GVRLight light : lightlist)
             {
-                Integer n = lightCount.get(light.getClass());
-
-                if (n == null)
-                    lightCount.put(light.getClass(), 1);
-                else
-                    lightCount.put(light.getClass(), ++n);
+                String name = getLightClassName(light);
+                if ((prev != null) && (name.compareTo(prev) <= 0))
+                {
+                    continue;
+                }
+                int order = (next == null) ? -1 : name.compareTo(next);
+                if (order < 0)
+                {
+                    next = name;
+                    count = 1;
+                }
+                else if (order == 0)
+                {
+                    ++count;
+                }
             }
-            for (Map.Entry<Class<? extends GVRLight>, Integer> entry : lightCount.entrySet())
-                sig += "$" + entry.getKey().getSimpleName() + entry.getValue().toString();
+            if (next == null)
+            {
+                return;
+            }
+            sig.append('$').append(next).append(count);
+            prev = next;
         }
-        return sig.trim();
+    }
+
+    private String getLightClassName(GVRLight light)
+    {
+        Class<?> lightClass = light.getClass();
+        String name = mLightClassNames.get(lightClass);
+
+        if (name == null)
+        {
+            name = lightClass.getSimpleName();
+            mLightClassNames.put(lightClass, name);
+        }
+        return name;
     }
 
     /**
@@ -203,8 +256,16 @@ public class GVRShaderTemplate extends GVRShader
      */
     protected String generateVariantDefines(HashMap<String, Integer> definedNames, String vertexDesc, GVRShaderData material)
     {
-        String signature = getClass().getSimpleName();
+        StringBuilder signature = new StringBuilder();
+
+        appendVariantDefines(signature, definedNames, vertexDesc, material);
+        return signature.toString();
+    }
 
+    private void appendVariantDefines(StringBuilder signature, HashMap<String, Integer> definedNames,
+                                      String vertexDesc, GVRShaderData material)
+    {
+        signature.append(mSignaturePrefix);
         for (String name : mShaderDefines)
         {
             if (definedNames.containsKey(name))
@@ -212,34 +273,84 @@ public class GVRShaderTemplate extends GVRShader
                 Integer value = definedNames.get(name);
                 if (value != 0)
                 {
-                    signature += "$" + name;
+                    signature.append('$').append(name);
                 }
                 continue;
             }
             if (material.hasUniform(name))
             {
                 definedNames.put(name, 1);
-                signature += "$" + name;
+                signature.append('$').append(name);
             }
             else if ((vertexDesc != null) && vertexDesc.contains(name))
             {
                 definedNames.put(name, 1);
-                if (!signature.contains(name))
-                    signature += "$" + name;
+                if (signature.indexOf(name) < 0)
+                    signature.append('$').append(name);
             }
             else if (material.getTexture(name) != null)
             {
                 definedNames.put(name, 1);
-                signature += "$" + name;
+                signature.append('$').append(name);
                 String attrname = material.getTexCoordAttr(name);
                 if (attrname == null)
                 {
                     attrname = "a_texcoord";
                 }
-                signature += "-" +"#"+ attrname+ "#";
+                signature.append("-#").append(attrname).append('#');
+            }
+        }
+    }
+
+    /*
+     * Make the signature of a variant in the reusable builder and
+     * return its interned string. A signature seen before is found
+     * from the characters of the builder, so no string is made and
+     * the shader manager looks it up with its cached hash code.
+     * Shaders which override generateVariantDefines or
+     * generateLightSignature get their signature from those.
+     */
+    private String makeSignature(HashMap<String, Integer> definedNames, String vertexDesc,
+                                 GVRShaderData material, boolean withLights, GVRLight[] lightlist)
+    {
+        if (mHasSignatureHooks)
+        {
+            String signature = generateVariantDefines(definedNames, vertexDesc, material);
+            return withLights ? signature + generateLightSignature(lightlist) : signature;
+        }
+        synchronized (mSignatureBuilder)
+        {
+            mSignatureBuilder.setLength(0);
+            appendVariantDefines(mSignatureBuilder, definedNames, vertexDesc, material);
+            if (withLights)
+            {
+                appendLightSignature(mSignatureBuilder, lightlist);
             }
+            return mSignatures.intern(mSignatureBuilder);
         }
-        return signature;
+    }
+
+    /*
+     * True if a subclass overrides one of the protected signature methods.
+     */
+    private boolean hasSignatureHooks()
+    {
+        for (Class<?> c = getClass(); c != GVRShaderTemplate.class; c = c.getSuperclass())
+        {
+            try
+            {
+                c.getDeclaredMethod("generateVariantDefines", HashMap.class, String.class, GVRShaderData.class);
+                return true;
+            }
+            catch (NoSuchMethodException e) { }
+            try
+            {
+                c.getDeclaredMethod("generateLightSignature", GVRLight[].class);
+                return true;
+            }
+            catch (NoSuchMethodException e) { }
+        }
+        return false;
     }
 
     protected void updateDescriptors(GVRShaderData material, String meshDesc,
@@ -439,45 +550,92 @@ public class GVRShaderTemplate extends GVRShader
             variantDefines.put("MULTIVIEW", 0);
 
         String meshDesc = mesh.getVertexBuffer().getDescriptor();
-        String signature = generateVariantDefines(variantDefines, meshDesc, material);
-        signature += generateLightSignature(lightlist);
+        GVRInstanceBuffer instances = getInstances(rdata);
+
+        if (instances != null)
+        {
+            meshDesc += " " + instances.getDescriptor();
+        }
+        String signature = makeSignature(variantDefines, meshDesc, material, true, lightlist);
         GVRShaderManager shaderManager = context.getShaderManager();
         int nativeShader = shaderManager.getShader(signature);
 
+        if (nativeShader == 0)
+        {
+            /*
+             * Generate the sources without holding the lock so other
+             * threads can bind shaders which already exist. If two threads
+             * generate the same variant, the first one added is used.
+             */
+            Map<String, LightClass> lightClasses = scanLights(lightlist);
+            String vertexShaderSource = generateShaderVariant("Vertex", variantDefines,
+                                                              scene, lightClasses, material);
+            String fragmentShaderSource = generateShaderVariant("Fragment", variantDefines,
+                                                                scene, lightClasses, material);
+            nativeShader = addVariant(context, signature, material, meshDesc,
+                                      vertexShaderSource, fragmentShaderSource);
+        }
+        if (nativeShader > 0)
+        {
+            rdata.setShader(nativeShader, isMultiview);
+        }
+        return nativeShader;
+    }
+
+    /*
+     * Instance attributes define shader names like vertex attributes,
+     * so instanced renderables get their own variants.
+     */
+    private static GVRInstanceBuffer getInstances(IRenderable rdata)
+    {
+        if (rdata instanceof GVRRenderData)
+        {
+            return ((GVRRenderData) rdata).getInstances();
+        }
+        if (rdata instanceof GVRRenderPass)
+        {
+            return ((GVRRenderPass) rdata).getInstances();
+        }
+        return null;
+    }
+
+    /**
+     * Add a generated variant to the shader manager unless
+     * another thread added it first.
+     * @return native shader ID
+     */
+    private int addVariant(GVRContext context, String signature, GVRShaderData material, String meshDesc,
+                           String vertexShaderSource, String fragmentShaderSource)
+    {
+        StringBuilder uniformDescriptor = new StringBuilder();
+        StringBuilder textureDescriptor = new StringBuilder();
+        StringBuilder vertexDescriptor = new StringBuilder();
+        GVRShaderManager shaderManager = context.getShaderManager();
+
+        updateDescriptors(material, meshDesc, uniformDescriptor, textureDescriptor, vertexDescriptor);
         synchronized (shaderManager)
         {
-            if (nativeShader == 0)
-            {
-                Map<String, LightClass> lightClasses = scanLights(lightlist);
-
-                String vertexShaderSource = generateShaderVariant("Vertex", variantDefines,
-                                                                  scene, lightClasses, material);
-                String fragmentShaderSource = generateShaderVariant("Fragment", variantDefines,
-                                                                    scene, lightClasses, material);
-                StringBuilder uniformDescriptor = new StringBuilder();
-                StringBuilder textureDescriptor = new StringBuilder();
-                StringBuilder vertexDescriptor = new StringBuilder();
-                updateDescriptors(material, meshDesc, uniformDescriptor, textureDescriptor, vertexDescriptor);
-                nativeShader = shaderManager.addShader(signature, uniformDescriptor.toString(),
-                                                       textureDescriptor.toString(),
-                                                       vertexDescriptor.toString(),
-                                                       vertexShaderSource, fragmentShaderSource);
-                bindCalcMatrixMethod(shaderManager, nativeShader);
-                if (mWriteShadersToDisk)
-                {
-                    writeShader(context, "V-" + signature + ".glsl", vertexShaderSource);
-                    writeShader(context, "F-" + signature + ".glsl", fragmentShaderSource);
-                }
-                Log.i(TAG, "SHADER: generated shader #%d %s", nativeShader, signature);
-            }
-            else
+            int nativeShader = shaderManager.getShader(signature);
+
+            if (nativeShader != 0)
             {
                 Log.i(TAG, "SHADER: found shader #%d %s", nativeShader, signature);
+                return nativeShader;
             }
-            if (nativeShader > 0)
+            nativeShader = shaderManager.addShader(signature, uniformDescriptor.toString(),
+                                                   textureDescriptor.toString(),
+                                                   vertexDescriptor.toString(),
+                                                   vertexShaderSource, fragmentShaderSource);
+            bindCalcMatrixMethod(shaderManager, nativeShader);
+            if (mWriteShadersToDisk)
             {
-                rdata.setShader(nativeShader, isMultiview);
+                writeShader(context, "V-" + signature + ".glsl", vertexShaderSource);
+                writeShader(context, "F-" + signature + ".glsl", fragmentShaderSource);
             }
+            shaderManager.recordVariant(this, signature, uniformDescriptor.toString(),
+                                        textureDescriptor.toString(), vertexDescriptor.toString(),
+                                        vertexShaderSource, fragmentShaderSource);
+            Log.i(TAG, "SHADER: generated shader #%d %s", nativeShader, signature);
             return nativeShader;
         }
     }
@@ -497,40 +655,20 @@ public class GVRShaderTemplate extends GVRShader
     public int bindShader(GVRContext context, GVRShaderData material, String meshDesc)
     {
         HashMap<String, Integer> variantDefines = new HashMap<String, Integer>();
-        String signature = generateVariantDefines(variantDefines, meshDesc, material);
+        String signature = makeSignature(variantDefines, meshDesc, material, false, null);
         GVRShaderManager shaderManager = context.getShaderManager();
         int nativeShader = shaderManager.getShader(signature);
 
-        synchronized (shaderManager)
+        if (nativeShader == 0)
         {
-            if (nativeShader == 0)
-            {
-                String vertexShaderSource =
-                        generateShaderVariant("Vertex", variantDefines, null, null, material);
-                String fragmentShaderSource =
-                        generateShaderVariant("Fragment", variantDefines, null, null, material);
-                StringBuilder uniformDescriptor = new StringBuilder();
-                StringBuilder textureDescriptor = new StringBuilder();
-                StringBuilder vertexDescriptor = new StringBuilder();
-
-                updateDescriptors(material, meshDesc, uniformDescriptor, textureDescriptor, vertexDescriptor);
-                nativeShader = shaderManager.addShader(signature, uniformDescriptor.toString(),
-                                                       textureDescriptor.toString(), vertexDescriptor.toString(),
-                                                       vertexShaderSource, fragmentShaderSource);
-                bindCalcMatrixMethod(shaderManager, nativeShader);
-                if (mWriteShadersToDisk)
-                {
-                    writeShader(context, "V-" + signature + ".glsl", vertexShaderSource);
-                    writeShader(context, "F-" + signature + ".glsl", fragmentShaderSource);
-                }
-                Log.i(TAG, "SHADER: generated shader #%d %s", nativeShader, signature);
-            }
-            else
-            {
-                Log.i(TAG, "SHADER: found shader #%d %s", nativeShader, signature);
-            }
-            return nativeShader;
+            String vertexShaderSource =
+                    generateShaderVariant("Vertex", variantDefines, null, null, material);
+            String fragmentShaderSource =
+                    generateShaderVariant("Fragment", variantDefines, null, null, material);
+            nativeShader = addVariant(context, signature, material, meshDesc,
+                                      vertexShaderSource, fragmentShaderSource);
         }
+        return nativeShader;
     }
 
     /**
@@ -819,4 +957,60 @@ public class GVRShaderTemplate extends GVRShader
     }
 
     protected Set<String> mShaderDefines;
+
+    /*
+     * Open addressing set of signatures which finds a signature from
+     * any character sequence, such as a builder, without making a string.
+     * The hash is the one String uses, so it is cached in the strings.
+     */
+    private static final class SignatureTable
+    {
+        private String[] mTable = new String[64];
+        private int mCount = 0;
+
+        String intern(CharSequence chars)
+        {
+            int hash = 0;
+            for (int i = 0; i < chars.length(); ++i)
+            {
+                hash = 31 * hash + chars.charAt(i);
+            }
+            int mask = mTable.length - 1;
+            for (int i = hash & mask; mTable[i] != null; i = (i + 1) & mask)
+            {
+                String s = mTable[i];
+                if ((s.hashCode() == hash) && s.contentEquals(chars))
+                {
+                    return s;
+                }
+            }
+            String s = chars.toString();
+            if (2 * (mCount + 1) > mTable.length)
+            {
+                String[] old = mTable;
+                mTable = new String[old.length * 2];
+                for (String o : old)
+                {
+                    if (o != null)
+                    {
+                        insert(o);
+                    }
+                }
+            }
+            insert(s);
+            ++mCount;
+            return s;
+        }
+
+        private void insert(String s)
+        {
+            int mask = mTable.length - 1;
+            int i = s.hashCode() & mask;
+            while (mTable[i] != null)
+            {
+                i = (i + 1) & mask;
+            }
+            mTable[i] = s;
+        }
+    }
 }
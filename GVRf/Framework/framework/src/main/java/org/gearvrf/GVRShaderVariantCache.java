@@ -0,0 +1,383 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf;
+
+import android.content.Context;
+import android.content.pm.PackageManager;
+
+import org.gearvrf.utility.Log;
+import org.gearvrf.utility.Threads;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+
+/**
+ * Manifest of the shader variants generated by the shader templates.
+ * <p>
+ * Each variant a {@link GVRShaderTemplate} generates is appended to a file
+ * with its signature, descriptors and sources. The next time the application
+ * starts, the recorded variants are read on a background thread and added to
+ * the {@link GVRShaderManager} before the scene needs them, so the template
+ * finds them by signature instead of generating them while rendering.
+ * <p>
+ * The file starts with a stamp made from the GearVRf version, the time the
+ * application was last updated and the renderer. If the stamp does not match,
+ * the file is discarded. Each entry carries a checksum and reading stops at the
+ * first damaged entry, which is what a crash while appending leaves behind.
+ *
+ * @see GVRShaderManager#enableVariantCache(File)
+ */
+class GVRShaderVariantCache
+{
+    private static final String TAG = Log.tag(GVRShaderVariantCache.class);
+
+    /** Bump when the file layout changes */
+    private static final int VERSION = 1;
+    private static final int MAGIC = 0x53525647; // "GVRS"
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /**
+     * Signature, descriptors and sources of one shader variant.
+     */
+    static final class Variant
+    {
+        final String signature;
+        final String shaderClass;
+        final boolean calcMatrix;
+        final String uniformDescriptor;
+        final String textureDescriptor;
+        final String vertexDescriptor;
+        final String vertexShader;
+        final String fragmentShader;
+
+        Variant(String signature, String shaderClass, boolean calcMatrix,
+                String uniformDescriptor, String textureDescriptor, String vertexDescriptor,
+                String vertexShader, String fragmentShader)
+        {
+            this.signature = signature;
+            this.shaderClass = shaderClass;
+            this.calcMatrix = calcMatrix;
+            this.uniformDescriptor = uniformDescriptor;
+            this.textureDescriptor = textureDescriptor;
+            this.vertexDescriptor = vertexDescriptor;
+            this.vertexShader = vertexShader;
+            this.fragmentShader = fragmentShader;
+        }
+    }
+
+    private final File mFile;
+    private final String mStamp;
+
+    // Signatures queued or written, so a variant is only recorded once
+    private final Set<String> mRecorded = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    private final ConcurrentLinkedQueue<Variant> mPendingWrites = new ConcurrentLinkedQueue<Variant>();
+    private final AtomicBoolean mWriteScheduled = new AtomicBoolean(false);
+
+    // Guarded by this
+    private final Set<String> mWritten = new HashSet<String>();
+    private boolean mLoaded = false;
+
+    GVRShaderVariantCache(GVRContext context, File file)
+    {
+        mFile = file;
+        mStamp = makeStamp(context.getContext());
+    }
+
+    /**
+     * Read the variants recorded by previous runs.
+     * <p>
+     * Variants recorded before this is called are written afterwards,
+     * so they are never appended to a file which is then discarded.
+     *
+     * @return variants in the order they were recorded
+     */
+    synchronized List<Variant> load()
+    {
+        List<Variant> variants = new ArrayList<Variant>();
+        long validLength = 0;
+
+        if (mFile.isFile())
+        {
+            DataInputStream in = null;
+            try
+            {
+                in = new DataInputStream(new BufferedInputStream(new FileInputStream(mFile)));
+                if ((in.readInt() != MAGIC) || (in.readInt() != VERSION) || !mStamp.equals(in.readUTF()))
+                {
+                    Log.i(TAG, "Discarding shader variants recorded by another version");
+                }
+                else
+                {
+                    validLength = 4 + 4 + 2 + mStamp.getBytes(UTF8).length;
+                    long fileLength = mFile.length();
+                    byte[] record;
+                    while ((record = readRecord(in, fileLength - validLength)) != null)
+                    {
+                        Variant variant = fromBytes(record);
+                        validLength += 4 + record.length + 4;
+                        if (mWritten.add(variant.signature))
+                        {
+                            mRecorded.add(variant.signature);
+                            variants.add(variant);
+                        }
+                    }
+                }
+            }
+            catch (IOException ex)
+            {
+                Log.w(TAG, "Cannot read shader variants from %s: %s", mFile, ex.getMessage());
+            }
+            finally
+            {
+                closeQuietly(in);
+            }
+            truncate(validLength);
+        }
+        mLoaded = true;
+        writePending();
+        Log.d(TAG, "Loaded %d shader variants from %s", variants.size(), mFile);
+        return variants;
+    }
+
+    /**
+     * Record a generated variant. The file is written on a background thread.
+     */
+    void record(Variant variant)
+    {
+        if (!mRecorded.add(variant.signature))
+        {
+            return;
+        }
+        mPendingWrites.add(variant);
+        if (mWriteScheduled.compareAndSet(false, true))
+        {
+            Threads.spawnLow(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    // Clear first, so variants recorded while writing schedule another pass
+                    mWriteScheduled.set(false);
+                    synchronized (GVRShaderVariantCache.this)
+                    {
+                        if (mLoaded)
+                        {
+                            writePending();
+                        }
+                    }
+                }
+            });
+        }
+    }
+
+    // Called with the lock held
+    private void writePending()
+    {
+        if (mPendingWrites.isEmpty())
+        {
+            return;
+        }
+        boolean isNew = !mFile.isFile() || (mFile.length() == 0);
+        DataOutputStream out = null;
+        try
+        {
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(mFile, !isNew)));
+            if (isNew)
+            {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeUTF(mStamp);
+            }
+            Variant variant;
+            while ((variant = mPendingWrites.poll()) != null)
+            {
+                if (mWritten.add(variant.signature))
+                {
+                    writeVariant(out, variant);
+                }
+            }
+            out.flush();
+        }
+        catch (IOException ex)
+        {
+            Log.w(TAG, "Cannot write shader variants to %s: %s", mFile, ex.getMessage());
+        }
+        finally
+        {
+            closeQuietly(out);
+        }
+    }
+
+    private static void writeVariant(DataOutputStream out, Variant variant) throws IOException
+    {
+        byte[] record = toBytes(variant);
+        CRC32 crc = new CRC32();
+
+        crc.update(record);
+        out.writeInt(record.length);
+        out.write(record);
+        out.writeInt((int) crc.getValue());
+    }
+
+    /*
+     * Returns null at the end of the file or at the first damaged entry.
+     */
+    private static byte[] readRecord(DataInputStream in, long remaining) throws IOException
+    {
+        try
+        {
+            int length = in.readInt();
+            if ((length <= 0) || (length > remaining - 8))
+            {
+                return null;
+            }
+            byte[] record = new byte[length];
+            in.readFully(record);
+            CRC32 crc = new CRC32();
+            crc.update(record);
+            if (in.readInt() != (int) crc.getValue())
+            {
+                Log.w(TAG, "Damaged shader variant entry, ignoring the rest of the file");
+                return null;
+            }
+            return record;
+        }
+        catch (EOFException ex)
+        {
+            return null;
+        }
+    }
+
+    private static Variant fromBytes(byte[] record) throws IOException
+    {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+        return new Variant(in.readUTF(), in.readUTF(), in.readBoolean(),
+                           readString(in), readString(in), readString(in),
+                           readString(in), readString(in));
+    }
+
+    private static byte[] toBytes(Variant variant) throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(
+                variant.vertexShader.length() + variant.fragmentShader.length() + 256);
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeUTF(variant.signature);
+        out.writeUTF(variant.shaderClass);
+        out.writeBoolean(variant.calcMatrix);
+        writeString(out, variant.uniformDescriptor);
+        writeString(out, variant.textureDescriptor);
+        writeString(out, variant.vertexDescriptor);
+        writeString(out, variant.vertexShader);
+        writeString(out, variant.fragmentShader);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /*
+     * Shader sources may be longer than the 64K DataOutput.writeUTF allows.
+     */
+    private static void writeString(DataOutputStream out, String s) throws IOException
+    {
+        byte[] bytes = s.getBytes(UTF8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException
+    {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, UTF8);
+    }
+
+    /* Drop a damaged tail, or the whole file if it has another stamp */
+    private void truncate(long validLength)
+    {
+        if (mFile.length() == validLength)
+        {
+            return;
+        }
+        if (validLength == 0)
+        {
+            mFile.delete();
+            return;
+        }
+        RandomAccessFile raf = null;
+        try
+        {
+            raf = new RandomAccessFile(mFile, "rw");
+            raf.setLength(validLength);
+        }
+        catch (IOException ex)
+        {
+            mFile.delete();
+        }
+        finally
+        {
+            closeQuietly(raf);
+        }
+    }
+
+    private static String makeStamp(Context context)
+    {
+        long lastUpdate = 0;
+        try
+        {
+            lastUpdate = context.getPackageManager()
+                    .getPackageInfo(context.getPackageName(), 0).lastUpdateTime;
+        }
+        catch (PackageManager.NameNotFoundException ex)
+        {
+        }
+        return GVRVersion.CURRENT + "/" + lastUpdate + "/" + (GVRShader.isVulkanInstance() ? "vulkan" : "gl");
+    }
+
+    private static void closeQuietly(Closeable closeable)
+    {
+        if (closeable != null)
+        {
+            try
+            {
+                closeable.close();
+            }
+            catch (IOException ex)
+            {
+            }
+        }
+    }
+}
@@ -17,6 +17,8 @@ package org.gearvrf;
 
 import org.joml.Matrix4f;
 
+import java.nio.FloatBuffer;
+
 /**
  * One of the key GVRF classes: Encapsulates a 4x4 matrix that controls how GL
  * draws a mesh.
@@ -318,6 +320,34 @@ public class GVRTransform extends GVRComponent {
         return NativeTransform.getLocalModelMatrix(getNative());
     }
 
+    /**
+     * Get the 4x4 single matrix without allocating a new array.
+     *
+     * @param matrix
+     *            An array of at least 16 {@code float}s which receives the
+     *            4x4 matrix in OpenGL-compatible column-major format.
+     */
+    public void getModelMatrix(float[] matrix) {
+        if (matrix.length < 16) {
+            throw new IllegalArgumentException("Size less than 16.");
+        }
+        NativeTransform.copyModelMatrix(getNative(), matrix);
+    }
+
+    /**
+     * Get the 4x4 single local transform matrix without allocating a new array.
+     *
+     * @param matrix
+     *            An array of at least 16 {@code float}s which receives the
+     *            4x4 matrix in OpenGL-compatible column-major format.
+     */
+    public void getLocalModelMatrix(float[] matrix) {
+        if (matrix.length < 16) {
+            throw new IllegalArgumentException("Size less than 16.");
+        }
+        NativeTransform.copyLocalModelMatrix(getNative(), matrix);
+    }
+
     /**
      * Get the 4x4 single matrix.
      *
@@ -572,6 +602,10 @@ class NativeTransform {
 
     static native float[] getLocalModelMatrix(long transform);
 
+    static native void copyModelMatrix(long transform, float[] mat);
+
+    static native void copyLocalModelMatrix(long transform, float[] mat);
+
     static native void setModelMatrix(long tranform, float[] mat);
 
     static native void translate(long transform, float x, float y, float z);
@@ -592,4 +626,16 @@ class NativeTransform {
             float quatX, float quatY, float quatZ, float pivotX, float pivotY,
             float pivotZ);
 
+    static native void setTRSBatch(long[] transforms, int[] indices, int count,
+            FloatBuffer trs, int offset);
+
+    static native void getTRSBatch(long[] transforms, int[] indices, int count,
+            FloatBuffer trs, int offset);
+
+    static native void setModelMatrixBatch(long[] transforms, int[] indices, int count,
+            FloatBuffer matrices, int offset);
+
+    static native void getModelMatrixBatch(long[] transforms, int[] indices, int count,
+            FloatBuffer matrices, int offset, boolean local);
+
 }
@@ -0,0 +1,238 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.List;
+
+/**
+ * Reads and writes many {@link GVRTransform}s with one native call.
+ * <p>
+ * Each {@code GVRTransform} setter and getter crosses from Java to native
+ * code. Animating thousands of objects from Java (particles, crowds,
+ * interpolators) pays this cost for every object and property on every
+ * frame. A batch is built once from a list of transforms and then updates
+ * all of them, or a subset chosen by an index array, from a direct
+ * {@link FloatBuffer}.
+ * <p>
+ * Two layouts are supported:
+ * <ul>
+ * <li>TRS: {@link #TRS_STRIDE} floats per transform, position (x, y, z),
+ * rotation quaternion (w, x, y, z) and scale (x, y, z).</li>
+ * <li>Matrix: {@link #MATRIX_STRIDE} floats per transform, a 4x4 matrix in
+ * OpenGL-compatible column-major format.</li>
+ * </ul>
+ * The data for the i-th transform of a call starts at
+ * {@code buffer.position() + i * stride}. Buffers must be direct and in native
+ * byte order; {@link #allocate(int, int)} makes one. The buffer position is
+ * not changed.
+ */
+public final class GVRTransformBatch {
+    /** Floats per transform in the TRS layout */
+    public static final int TRS_STRIDE = 10;
+    /** Floats per transform in the matrix layout */
+    public static final int MATRIX_STRIDE = 16;
+
+    // The Java objects keep the native transforms alive
+    private final GVRTransform[] mTransforms;
+    private final long[] mNativeTransforms;
+
+    /**
+     * Construct a batch.
+     *
+     * @param transforms
+     *            transforms in the batch. Later changes to the list do not
+     *            affect the batch.
+     */
+    public GVRTransformBatch(List<GVRTransform> transforms) {
+        this(transforms.toArray(new GVRTransform[transforms.size()]));
+    }
+
+    /**
+     * Construct a batch.
+     *
+     * @param transforms
+     *            transforms in the batch
+     */
+    public GVRTransformBatch(GVRTransform... transforms) {
+        mTransforms = transforms.clone();
+        mNativeTransforms = new long[mTransforms.length];
+        for (int i = 0; i < mTransforms.length; ++i) {
+            mNativeTransforms[i] = mTransforms[i].getNative();
+        }
+    }
+
+    /**
+     * Allocate a buffer usable with a batch.
+     *
+     * @param count
+     *            number of transforms
+     * @param stride
+     *            {@link #TRS_STRIDE} or {@link #MATRIX_STRIDE}
+     * @return direct buffer in native byte order
+     */
+    public static FloatBuffer allocate(int count, int stride) {
+        return ByteBuffer.allocateDirect(count * stride * 4)
+                .order(ByteOrder.nativeOrder()).asFloatBuffer();
+    }
+
+    /** @return number of transforms in the batch */
+    public int getCount() {
+        return mTransforms.length;
+    }
+
+    /**
+     * @param index
+     *            index of a transform in the batch
+     * @return the transform
+     */
+    public GVRTransform getTransform(int index) {
+        return mTransforms[index];
+    }
+
+    /**
+     * Set the position, rotation and scale of all the transforms.
+     *
+     * @param trs
+     *            {@link #TRS_STRIDE} floats for each transform
+     */
+    public void setTRS(FloatBuffer trs) {
+        setTRS(null, mTransforms.length, trs);
+    }
+
+    /**
+     * Set the position, rotation and scale of some of the transforms.
+     *
+     * @param indices
+     *            indices of the transforms to set, or {@code null} for the
+     *            first {@code count} transforms
+     * @param count
+     *            number of transforms to set
+     * @param trs
+     *            {@link #TRS_STRIDE} floats for each transform to set
+     */
+    public void setTRS(int[] indices, int count, FloatBuffer trs) {
+        checkArguments(indices, count, trs, TRS_STRIDE);
+        NativeTransform.setTRSBatch(mNativeTransforms, indices, count, trs, trs.position());
+    }
+
+    /**
+     * Get the position, rotation and scale of some of the transforms.
+     *
+     * @param indices
+     *            indices of the transforms to get, or {@code null} for the
+     *            first {@code count} transforms
+     * @param count
+     *            number of transforms to get
+     * @param trs
+     *            receives {@link #TRS_STRIDE} floats for each transform
+     */
+    public void getTRS(int[] indices, int count, FloatBuffer trs) {
+        checkArguments(indices, count, trs, TRS_STRIDE);
+        NativeTransform.getTRSBatch(mNativeTransforms, indices, count, trs, trs.position());
+    }
+
+    /**
+     * Set the local matrix of some of the transforms. The scaling, rotation
+     * and translation are extracted from each matrix like
+     * {@link GVRTransform#setModelMatrix(float[])} does.
+     *
+     * @param indices
+     *            indices of the transforms to set, or {@code null} for the
+     *            first {@code count} transforms
+     * @param count
+     *            number of transforms to set
+     * @param matrices
+     *            {@link #MATRIX_STRIDE} floats for each transform to set
+     */
+    public void setModelMatrices(int[] indices, int count, FloatBuffer matrices) {
+        checkArguments(indices, count, matrices, MATRIX_STRIDE);
+        NativeTransform.setModelMatrixBatch(mNativeTransforms, indices, count, matrices,
+                matrices.position());
+    }
+
+    /**
+     * Get the world matrix of some of the transforms, like
+     * {@link GVRTransform#getModelMatrix(float[])}.
+     *
+     * @param indices
+     *            indices of the transforms to get, or {@code null} for the
+     *            first {@code count} transforms
+     * @param count
+     *            number of transforms to get
+     * @param matrices
+     *            receives {@link #MATRIX_STRIDE} floats for each transform
+     */
+    public void getModelMatrices(int[] indices, int count, FloatBuffer matrices) {
+        checkArguments(indices, count, matrices, MATRIX_STRIDE);
+        NativeTransform.getModelMatrixBatch(mNativeTransforms, indices, count, matrices,
+                matrices.position(), false);
+    }
+
+    /**
+     * Get the local matrix of some of the transforms, like
+     * {@link GVRTransform#getLocalModelMatrix(float[])}.
+     *
+     * @param indices
+     *            indices of the transforms to get, or {@code null} for the
+     *            first {@code count} transforms
+     * @param count
+     *            number of transforms to get
+     * @param matrices
+     *            receives {@link #MATRIX_STRIDE} floats for each transform
+     */
+    public void getLocalModelMatrices(int[] indices, int count, FloatBuffer matrices) {
+        checkArguments(indices, count, matrices, MATRIX_STRIDE);
+        NativeTransform.getModelMatrixBatch(mNativeTransforms, indices, count, matrices,
+                matrices.position(), true);
+    }
+
+    /*
+     * Native code does not check bounds, so everything is checked here.
+     */
+    private void checkArguments(int[] indices, int count, FloatBuffer buffer, int stride) {
+        if (!buffer.isDirect() || (buffer.order() != ByteOrder.nativeOrder())) {
+            throw new IllegalArgumentException("Buffer must be direct and in native byte order");
+        }
+        if (count < 0) {
+            throw new IllegalArgumentException("Negative count " + count);
+        }
+        if (buffer.remaining() < count * stride) {
+            throw new IllegalArgumentException("Buffer has room for "
+                    + buffer.remaining() / stride + " transforms, need " + count);
+        }
+        if (indices == null) {
+            if (count > mTransforms.length) {
+                throw new IndexOutOfBoundsException("Batch has " + mTransforms.length
+                        + " transforms, count is " + count);
+            }
+            return;
+        }
+        if (count > indices.length) {
+            throw new IndexOutOfBoundsException("Index array has " + indices.length
+                    + " entries, count is " + count);
+        }
+        for (int i = 0; i < count; ++i) {
+            int index = indices[i];
+            if ((index < 0) || (index >= mTransforms.length)) {
+                throw new IndexOutOfBoundsException("Index " + index + " at " + i
+                        + " outside batch of " + mTransforms.length);
+            }
+        }
+    }
+}
@@ -59,6 +59,7 @@ public class GVRVertexBuffer extends GVRHybridObject implements PrettyPrint
 {
     private static final String TAG = GVRVertexBuffer.class.getSimpleName();
     private String mDescriptor;
+    private static final Pattern sTypePattern = Pattern.compile("([a-zA-Z]+)([0-9]*)[ \t]+[a-zA-Z0-9_]+");
 
     /**
      * Construct a vertex buffer with the specified vertex layout.
@@ -438,6 +439,42 @@ public class GVRVertexBuffer extends GVRHybridObject implements PrettyPrint
         }
     }
 
+    /**
+     * Updates several float vertex attributes from direct buffers
+     * with one native call.
+     * <p>
+     * The vertex data is copied straight from each buffer into the
+     * interleaved vertex storage, without making a Java array first.
+     * The whole of each buffer is read, like {@link #setFloatVec(String, FloatBuffer)}.
+     * If the vertex count has not been established yet, the first
+     * attribute determines it.
+     * @param attributeNames names of the attributes to update
+     * @param data direct float buffers with the new values, one per attribute
+     * @param strides number of floats to the next vertex in each buffer,
+     *                or 0 if the values of an attribute are packed
+     * @throws IllegalArgumentException if an attribute name is not in the descriptor,
+     * a buffer is not direct or a buffer is the wrong size
+     */
+    public void setFloatVecs(String[] attributeNames, FloatBuffer[] data, int[] strides)
+    {
+        if ((data.length != attributeNames.length) || (strides.length != attributeNames.length))
+        {
+            throw new IllegalArgumentException("Need one buffer and stride for each attribute");
+        }
+        for (int i = 0; i < data.length; ++i)
+        {
+            if (!data[i].isDirect())
+            {
+                throw new IllegalArgumentException("Buffer for attribute " + attributeNames[i] + " must be direct");
+            }
+        }
+        int failed = NativeVertexBuffer.setFloatVecs(getNative(), attributeNames, data, strides);
+        if (failed >= 0)
+        {
+            throw new IllegalArgumentException("Attribute name " + attributeNames[failed] + " cannot be updated");
+        }
+    }
+
     /**
      * Updates a vertex attribute from an integer  buffer.
      * All of the entries of the input buffer are copied into
@@ -541,6 +578,26 @@ public class GVRVertexBuffer extends GVRHybridObject implements PrettyPrint
         return NativeVertexBuffer.getAttributeSize(getNative(), name);
     }
 
+    /**
+     * Get the number of bytes occupied by the vertex data,
+     * computed from the vertex descriptor and the vertex count.
+     * All vertex components are 32 bit floats or ints.
+     * @return number of bytes of vertex data.
+     */
+    public long getDataSize()
+    {
+        Matcher matcher = sTypePattern.matcher(mDescriptor);
+        int floatsPerVertex = 0;
+
+        while (matcher.find())
+        {
+            String size = matcher.group(2);
+            int n = size.isEmpty() ? 1 : Integer.parseInt(size);
+            floatsPerVertex += matcher.group(1).equalsIgnoreCase("mat") ? n * n : n;
+        }
+        return 4L * floatsPerVertex * getVertexCount();
+    }
+
     /**
      * Returns the bounding sphere of the vertices.
      * @param sphere destination array to get bounding sphere.
@@ -611,6 +668,10 @@ class NativeVertexBuffer {
 
     static native boolean setFloatArray(long vbuf, String name, float[] data, int stride, int offset);
 
+    static native int setFloatVecs(long vbuf, String[] names, FloatBuffer[] data, int[] strides);
+
+    static native boolean setVertexData(long vbuf, float[] data);
+
     static native int  getAttributeSize(long vbuf, String name);
 
     static native int getBoundingVolume(long vbuf, float[] bv);
@@ -35,13 +35,8 @@ import org.gearvrf.utility.VrAppSettings.EyeBufferParams.DepthFormat;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.Queue;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.locks.ReentrantLock;
 
 abstract class GVRViewManager extends GVRContext {
@@ -85,8 +80,7 @@ abstract class GVRViewManager extends GVRContext {
         mScriptManager.destroy();
 
         mFrameListeners.clear();
-        mRunnables.clear();
-        mRunnablesPostRender.clear();
+        mGLTaskQueue.clear();
         super.onDestroy();
     }
 
@@ -262,25 +256,25 @@ abstract class GVRViewManager extends GVRContext {
          * Without the sensor data, can't draw a scene properly.
          */
         if (!(mSensoredScene == null || !mMainScene.equals(mSensoredScene))) {
-            Runnable runnable;
-            while ((runnable = mRunnables.poll()) != null) {
-                try {
-                    runnable.run();
-                } catch (final Exception exc) {
-                    Log.e(TAG, "Runnable-on-GL %s threw %s", runnable, exc.toString());
-                    exc.printStackTrace();
-                }
-            }
+            final GVRFrameProfiler profiler = getFrameProfiler();
+
+            profiler.begin(GVRFrameProfiler.Phase.TASKS);
+            mGLTaskQueue.run();
+            profiler.end(GVRFrameProfiler.Phase.TASKS);
 
+            profiler.begin(GVRFrameProfiler.Phase.FRAME_LISTENERS);
             final List<GVRDrawFrameListener> frameListeners = mFrameListeners;
             for (GVRDrawFrameListener listener : frameListeners) {
+                final long start = System.nanoTime();
                 try {
                     listener.onDrawFrame(mFrameTime);
                 } catch (final Exception exc) {
                     Log.e(TAG, "DrawFrameListener %s threw %s", listener, exc.toString());
                     exc.printStackTrace();
                 }
+                profiler.endListener(listener, start);
             }
+            profiler.end(GVRFrameProfiler.Phase.FRAME_LISTENERS);
         }
 
         return currentTime;
@@ -330,17 +324,7 @@ abstract class GVRViewManager extends GVRContext {
             // execute pending runnables now so any necessary gl calls
             // are done before onInit().  As an example the request to
             // get the GL_MAX_TEXTURE_SIZE needs to be fulfilled.
-            synchronized (mRunnables) {
-                Runnable runnable = null;
-                while ((runnable = mRunnables.poll()) != null) {
-                    try {
-                        runnable.run();
-                    } catch (final Exception exc) {
-                        Log.e(TAG, "Runnable-on-GL %s threw %s", runnable, exc.toString());
-                        exc.printStackTrace();
-                    }
-                }
-            }
+            mGLTaskQueue.runAll();
 
             runOnTheFrameworkThread(new Runnable() {
                 @Override
@@ -491,58 +475,75 @@ abstract class GVRViewManager extends GVRContext {
 
     @Override
     public void runOnGlThread(Runnable runnable) {
-        if (mGLThreadID == Thread.currentThread().getId()) {
+        runOnGlThread(runnable, GVRGLTaskQueue.Priority.NORMAL);
+    }
+
+    @Override
+    public void runOnGlThread(Runnable runnable, GVRGLTaskQueue.Priority priority) {
+        if ((priority != GVRGLTaskQueue.Priority.LOW)
+                && (mGLThreadID == Thread.currentThread().getId())) {
             runnable.run();
         } else {
-            mRunnables.add(runnable);
+            mGLTaskQueue.post(runnable, priority);
         }
     }
 
     @Override
     public void runOnGlThreadPostRender(int delayFrames, Runnable runnable) {
-        synchronized (mRunnablesPostRender) {
-            mRunnablesPostRender.put(runnable, delayFrames);
-        }
+        mGLTaskQueue.postAfterRender(delayFrames, runnable);
+    }
+
+    @Override
+    public GVRGLTaskQueue getGLTaskQueue() {
+        return mGLTaskQueue;
     }
 
     protected void beforeDrawEyes() {
+        final GVRFrameProfiler profiler = getFrameProfiler();
+
+        profiler.beginFrame();
         GVRNotifications.notifyBeforeStep();
         mFrameHandler.beforeDrawEyes();
         if (null != mControllerReader) {
             mControllerReader.updatePosData();
         }
         getInputManager().updateGearControllers();
+        profiler.begin(GVRFrameProfiler.Phase.SHADOW_MAPS);
         makeShadowMaps(mMainScene.getNative(), getMainScene(), mRenderBundle.getShaderManager().getNative(),
                        mRenderBundle.getPostEffectRenderTextureA().getWidth(), mRenderBundle.getPostEffectRenderTextureA().getHeight());
+        profiler.end(GVRFrameProfiler.Phase.SHADOW_MAPS);
+        profiler.begin(GVRFrameProfiler.Phase.EYES);
     }
 
     protected void afterDrawEyes() {
+        final GVRFrameProfiler profiler = getFrameProfiler();
+
+        profiler.end(GVRFrameProfiler.Phase.EYES);
+
         // Execute post-rendering tasks (after drawing eyes, but
         // before afterDrawEyes handlers)
-        synchronized (mRunnablesPostRender) {
-            for (Iterator<Map.Entry<Runnable, Integer>> it = mRunnablesPostRender.entrySet().iterator(); it
-                    .hasNext();) {
-                Map.Entry<Runnable, Integer> entry = it.next();
-                if (entry.getValue() <= 0) {
-                    entry.getKey().run();
-                    it.remove();
-                } else {
-                    entry.setValue(entry.getValue() - 1);
-                }
-            }
-        }
+        profiler.begin(GVRFrameProfiler.Phase.POST_RENDER);
+        mGLTaskQueue.runPostRender();
+        profiler.end(GVRFrameProfiler.Phase.POST_RENDER);
 
         mFrameHandler.afterDrawEyes();
+        profiler.begin(GVRFrameProfiler.Phase.FINALIZE);
         finalizeUnreachableObjects();
+        profiler.end(GVRFrameProfiler.Phase.FINALIZE);
         GVRNotifications.notifyAfterStep();
+        profiler.endFrame();
     }
 
     void cullAndRender(GVRRenderTarget renderTarget, GVRScene scene)
     {
+        final GVRFrameProfiler profiler = getFrameProfiler();
+
+        profiler.begin(GVRFrameProfiler.Phase.CULL_AND_RENDER);
         cullAndRender(renderTarget.getNative(), scene.getNative(), scene,
                 mRenderBundle.getShaderManager().getNative(),
                 mRenderBundle.getPostEffectRenderTextureA().getNative(),
                 mRenderBundle.getPostEffectRenderTextureB().getNative());
+        profiler.end(GVRFrameProfiler.Phase.CULL_AND_RENDER);
     }
 
     @Override
@@ -819,8 +820,7 @@ abstract class GVRViewManager extends GVRContext {
     protected FrameHandler mFrameHandler = firstFrame;
 
     protected List<GVRDrawFrameListener> mFrameListeners = new CopyOnWriteArrayList<GVRDrawFrameListener>();
-    protected final Queue<Runnable> mRunnables = new LinkedBlockingQueue<Runnable>();
-    protected final Map<Runnable, Integer> mRunnablesPostRender = new HashMap<Runnable, Integer>();
+    protected final GVRGLTaskQueue mGLTaskQueue = new GVRGLTaskQueue();
 
     protected GVRScene mMainScene;
     protected GVRScene mPendingMainScene;
@@ -0,0 +1,36 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf;
+
+/**
+ * Interface for observing the progress of a model import.
+ * The asset loader raises this event on the context's event
+ * receiver and on the {@link IAssetEvents} handler of the
+ * request, if it also implements this interface.
+ * @see GVRImportStats
+ */
+public interface IAssetImportEvents extends IEvents
+{
+    /**
+     * Called when a stage of a model import finishes.
+     * Stages skipped by the import settings are not reported.
+     * @param context   GVRContext used to load the model
+     * @param filePath  File path or URL of the model.
+     * @param stage     stage which finished
+     * @param stats     statistics of the stages finished so far
+     */
+    public void onImportStage(GVRContext context, String filePath, GVRImportStats.Stage stage, GVRImportStats stats);
+}
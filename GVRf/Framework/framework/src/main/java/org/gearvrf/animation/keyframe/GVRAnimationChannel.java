@@ -21,112 +21,77 @@ import org.joml.Vector3f;
  */
 public final class GVRAnimationChannel implements PrettyPrint {
     private static final String TAG = GVRAnimationChannel.class.getSimpleName();
-    protected static interface ValueInterpolator<T> {
-        T interpolate(T begin, T end, float factor);
-    }
-
-    protected static ValueInterpolator<Vector3f> sInterpolatorVector3f = new ValueInterpolator<Vector3f>() {
-        public Vector3f interpolate(Vector3f begin, Vector3f end, float factor) {
-            return new Vector3f().set(end).sub(begin).mul(factor).add(begin);
-        }
-    };
-
-    protected static ValueInterpolator<Quaternionf> sInterpolatorQuaternion = new ValueInterpolator<Quaternionf>() {
-        public Quaternionf interpolate(Quaternionf begin, Quaternionf end, float factor) {
-            return new Quaternionf().set(begin).slerp(end, factor);
-        }
-    };
-
-    protected class KeyFrameInterplator<T> {
-        GVRKeyFrame<T>[] keys;
-        ValueInterpolator<T> interpolator;
 
-        private int lastKeyIndex;
+    /*
+     * Finds the key interval for a time in a flat array of key times.
+     * The last interval found is cached because consecutive samples
+     * usually fall into the same or a neighboring interval.
+     */
+    protected static final class KeyFinder {
+        private final float[] mTimes;
+        private int mLastKeyIndex;
 
-        KeyFrameInterplator(GVRKeyFrame<T>[] keys, ValueInterpolator<T> interpolator) {
-            this.keys = keys;
-            this.interpolator = interpolator;
-            lastKeyIndex = -1;
+        KeyFinder(float[] times) {
+            mTimes = times;
+            mLastKeyIndex = -1;
         }
 
-        protected T interpolate(float time) {
-            int index = getKeyIndex(time);
-            int nextIndex = index + 1;
-
-            if (index != -1 && keys[index].getTime() <= time && time < keys[nextIndex].getTime()) {
-                // interpolate
-                float deltaTime = (float)(keys[nextIndex].getTime() - keys[index].getTime());
-                float factor = (float)((time - keys[index].getTime()) / deltaTime);
-
-                T start = keys[index].getValue();
-                T end = keys[nextIndex].getValue();
-
-                return interpolator.interpolate(start, end, factor);
-            } else {
-                // time is out of range of animation time frame
-                float firstFrameTime = keys[0].getTime();
-                float lastFrameTime = keys[keys.length - 1].getTime();
-                T firstFrameValue = keys[0].getValue();
-                T lastFrameValue = keys[keys.length - 1].getValue();
-
-                if (time <= firstFrameTime) {
-                    return firstFrameValue;
-                } else if (time >= lastFrameTime) {
-                    return lastFrameValue;
-                } else {
-                    // Shouldn't happen
-                    return lastFrameValue;
-                }
-            }
-        }
+        /**
+         * Returns the index i of the interval [time(i), time(i + 1))
+         * containing the time, or -1 if the time is out of range.
+         */
+        int getKeyIndex(float time) {
+            final float[] times = mTimes;
+            final int last = mLastKeyIndex;
 
-        protected int getKeyIndex(float time) {
             // Try cached key first
-            if (lastKeyIndex != -1) {
-                if (keys[lastKeyIndex].getTime() <= time && time < keys[lastKeyIndex + 1].getTime()) {
-                    return lastKeyIndex;
+            if (last != -1) {
+                if (times[last] <= time && time < times[last + 1]) {
+                    return last;
                 }
 
                 // Try neighboring keys
-                if (lastKeyIndex + 2 < keys.length &&
-                        keys[lastKeyIndex + 1].getTime() <= time && time < keys[lastKeyIndex + 2].getTime()) {
-                    return ++lastKeyIndex;
+                if (last + 2 < times.length &&
+                        times[last + 1] <= time && time < times[last + 2]) {
+                    return ++mLastKeyIndex;
                 }
 
-                if (lastKeyIndex >= 1 &&
-                        keys[lastKeyIndex - 1].getTime() <= time && time < keys[lastKeyIndex].getTime()) {
-                    return --lastKeyIndex;
+                if (last >= 1 &&
+                        times[last - 1] <= time && time < times[last]) {
+                    return --mLastKeyIndex;
                 }
             }
 
             // Binary search for the interval
             // Each of the index i represents an interval I(i) = [time(i), time(i + 1)).
-            int low = 0, high = keys.length - 2;
+            int low = 0, high = times.length - 2;
             // invariant: I(low)...I(high) contains time if time can be found
             // post-condition: |high - low| <= 1, only need to check I(low) and I(low + 1)
             while (high - low > 1) {
                 int mid = (low + high) / 2;
-                if (time < keys[mid].getTime()) {
+                if (time < times[mid]) {
                     high = mid;
-                } else if (time >= keys[mid + 1].getTime()) {
+                } else if (time >= times[mid + 1]) {
                     low = mid + 1;
                 } else {
                     // time in I(mid) by definition
-                    return lastKeyIndex = mid;
+                    return mLastKeyIndex = mid;
                 }
             }
 
-            if (keys[low].getTime() <= time && time < keys[low + 1].getTime()) {
-                return lastKeyIndex = low;
+            if (times[low] <= time && time < times[low + 1]) {
+                return mLastKeyIndex = low;
             }
 
-            if (low + 2 < keys.length &&
-                    keys[low + 1].getTime() <= time && time < keys[low + 2].getTime()) {
-                return lastKeyIndex = low + 1;
+            if (low + 2 < times.length &&
+                    times[low + 1] <= time && time < times[low + 2]) {
+                return mLastKeyIndex = low + 1;
             }
 
-            Log.v(TAG, "Warning: interpolation failed at time " + time);
-            return lastKeyIndex = -1;
+            if (time > times[0] && time < times[times.length - 1]) {
+                Log.v(TAG, "Warning: interpolation failed at time " + time);
+            }
+            return mLastKeyIndex = -1;
         }
     }
 
@@ -142,19 +107,53 @@ public final class GVRAnimationChannel implements PrettyPrint {
      */
     public GVRAnimationChannel(String nodeName, int numPosKeys, int numRotKeys, 
             int numScaleKeys, GVRAnimationBehavior preBehavior, GVRAnimationBehavior postBehavior) {
+        this(nodeName, new float[numPosKeys], new float[numPosKeys * 3],
+                new float[numRotKeys], new float[numRotKeys * 4],
+                new float[numScaleKeys], new float[numScaleKeys * 3],
+                preBehavior, postBehavior);
+    }
 
+    /**
+     * Constructs a channel from flat arrays of keys. The arrays are
+     * used directly, not copied.
+     *
+     * @param nodeName name of corresponding scene graph node
+     * @param posTimes times of the position keys
+     * @param posValues x, y, z of each position key
+     * @param rotTimes times of the rotation keys
+     * @param rotValues x, y, z, w of each rotation key
+     * @param scaleTimes times of the scaling keys
+     * @param scaleValues x, y, z of each scaling key
+     * @param preBehavior behavior before animation start
+     * @param postBehavior behavior after animation end
+     */
+    public GVRAnimationChannel(String nodeName, float[] posTimes, float[] posValues,
+            float[] rotTimes, float[] rotValues, float[] scaleTimes, float[] scaleValues,
+            GVRAnimationBehavior preBehavior, GVRAnimationBehavior postBehavior) {
+        if (posValues.length != posTimes.length * 3
+                || rotValues.length != rotTimes.length * 4
+                || scaleValues.length != scaleTimes.length * 3) {
+            throw new IllegalArgumentException("Key values do not match key times");
+        }
         m_nodeName = nodeName;
-        mPositionKeys = new GVRPositionKey[numPosKeys];
-        mRotationKeys = new GVRRotationKey[numRotKeys];
-        mScaleKeys = new GVRScaleKey[numScaleKeys];
+        mPosTimes = posTimes;
+        mPosValues = posValues;
+        mRotTimes = rotTimes;
+        mRotValues = rotValues;
+        mScaleTimes = scaleTimes;
+        mScaleValues = scaleValues;
         mPreState = preBehavior;
         mPostState = postBehavior;
 
-        mPositionInterpolator = new KeyFrameInterplator<Vector3f>(mPositionKeys, sInterpolatorVector3f);
-        mRotationInterpolator = new KeyFrameInterplator<Quaternionf>(mRotationKeys, sInterpolatorQuaternion);
-        mScaleInterpolator = new KeyFrameInterplator<Vector3f>(mScaleKeys, sInterpolatorVector3f);
+        mPosFinder = new KeyFinder(mPosTimes);
+        mRotFinder = new KeyFinder(mRotTimes);
+        mScaleFinder = new KeyFinder(mScaleTimes);
 
         mCurrentTransform = new Matrix4f();
+        mTempPosition = new Vector3f();
+        mTempScale = new Vector3f();
+        mTempRotation = new Quaternionf();
+        mTempSlerpEnd = new Quaternionf();
     }
 
 
@@ -176,7 +175,7 @@ public final class GVRAnimationChannel implements PrettyPrint {
      * @return the number of position keys
      */
     public int getNumPosKeys() {
-        return mPositionKeys.length;
+        return mPosTimes.length;
     }
     
     /**
@@ -186,7 +185,7 @@ public final class GVRAnimationChannel implements PrettyPrint {
      * @return the time component
      */
     public double getPosKeyTime(int keyIndex) {
-        return mPositionKeys[keyIndex].getTime();
+        return mPosTimes[keyIndex];
     }
 
     /**
@@ -197,11 +196,16 @@ public final class GVRAnimationChannel implements PrettyPrint {
      * @return the position as vector
      */
     public Vector3f getPosKeyVector(int keyIndex) {
-        return mPositionKeys[keyIndex].getValue();
+        int i = keyIndex * 3;
+        return new Vector3f(mPosValues[i], mPosValues[i + 1], mPosValues[i + 2]);
     }
 
     public void setPosKeyVector(int keyIndex, float time, final float x, final float y, final float z) {
-        mPositionKeys[keyIndex] = new GVRPositionKey(time, x, y, z);
+        int i = keyIndex * 3;
+        mPosTimes[keyIndex] = time;
+        mPosValues[i] = x;
+        mPosValues[i + 1] = y;
+        mPosValues[i + 2] = z;
     }
 
     /** 
@@ -210,7 +214,7 @@ public final class GVRAnimationChannel implements PrettyPrint {
      * @return the number of rotation keys
      */
     public int getNumRotKeys() {
-       return mRotationKeys.length;
+       return mRotTimes.length;
     }
 
 
@@ -221,7 +225,7 @@ public final class GVRAnimationChannel implements PrettyPrint {
      * @return the time component
      */
     public double getRotKeyTime(int keyIndex) {
-        return mRotationKeys[keyIndex].getTime();
+        return mRotTimes[keyIndex];
     }
 
 
@@ -234,11 +238,17 @@ public final class GVRAnimationChannel implements PrettyPrint {
      * @return the rotation as quaternion
      */
     public Quaternionf getRotKeyQuaternion(int keyIndex) {
-        return mRotationKeys[keyIndex].getValue();
+        int i = keyIndex * 4;
+        return new Quaternionf(mRotValues[i], mRotValues[i + 1], mRotValues[i + 2], mRotValues[i + 3]);
     } 
 
     public void setRotKeyQuaternion(int keyIndex, float time, Quaternionf rot) {
-        mRotationKeys[keyIndex] = new GVRRotationKey(time, rot.x, rot.y, rot.z, rot.w);
+        int i = keyIndex * 4;
+        mRotTimes[keyIndex] = time;
+        mRotValues[i] = rot.x;
+        mRotValues[i + 1] = rot.y;
+        mRotValues[i + 2] = rot.z;
+        mRotValues[i + 3] = rot.w;
     }
 
     /** 
@@ -247,7 +257,7 @@ public final class GVRAnimationChannel implements PrettyPrint {
      * @return the number of scaling keys
      */
     public int getNumScaleKeys() {
-        return mScaleKeys.length;
+        return mScaleTimes.length;
     }
 
 
@@ -258,7 +268,7 @@ public final class GVRAnimationChannel implements PrettyPrint {
      * @return the time component
      */
     public double getScaleKeyTime(int keyIndex) {
-        return mRotationKeys[keyIndex].getTime();
+        return mScaleTimes[keyIndex];
     }
 
 
@@ -270,11 +280,16 @@ public final class GVRAnimationChannel implements PrettyPrint {
      * @return the scaling factor as vector
      */
     public Vector3f getScaleKeyVector(int keyIndex) {
-        return mScaleKeys[keyIndex].getValue();
+        int i = keyIndex * 3;
+        return new Vector3f(mScaleValues[i], mScaleValues[i + 1], mScaleValues[i + 2]);
     }
 
     public void setScaleKeyVector(int keyIndex, float time, final float x, final float y, final float z) {
-        mScaleKeys[keyIndex] = new GVRScaleKey(time, x, y, z);
+        int i = keyIndex * 3;
+        mScaleTimes[keyIndex] = time;
+        mScaleValues[i] = x;
+        mScaleValues[i + 1] = y;
+        mScaleValues[i + 2] = z;
     }
 
     /** 
@@ -305,58 +320,110 @@ public final class GVRAnimationChannel implements PrettyPrint {
 
     /**
      * Obtains the transform for a specific time in animation.
+     * The returned matrix is owned by the channel and is
+     * overwritten by the next call.
      * 
      * @param animationTime The time in animation.
      * 
      * @return The transform.
      */
     public Matrix4f animate(float animationTime) {
-        Vector3f scale = getScale(animationTime);
-        Vector3f pos = getPosition(animationTime);
-        Quaternionf rot = getRotation(animationTime);
+        return animate(animationTime, mCurrentTransform);
+    }
 
-        // Allocation-free
-        Matrix4f mat = mCurrentTransform.set(rot);
+    /**
+     * Computes the transform for a specific time in animation
+     * without allocating any objects.
+     *
+     * @param animationTime The time in animation.
+     * @param mat           Receives the transform.
+     *
+     * @return {@code mat}
+     */
+    public Matrix4f animate(float animationTime, Matrix4f mat) {
+        Vector3f scale = getScale(animationTime, mTempScale);
+        Vector3f pos = getPosition(animationTime, mTempPosition);
+        Quaternionf rot = getRotation(animationTime, mTempRotation);
 
+        mat.set(rot);
         mat.scale(scale).setTranslation(pos);
 
         return mat;
     }
 
-    protected Vector3f getPosition(float time) {
-        Vector3f defaultPosition = new Vector3f();
-        
-        if (mPositionKeys.length == 0) {
-            return defaultPosition;
-        } else if (mPositionKeys.length == 1) {
-            return mPositionKeys[0].getValue();
-        }
+    /**
+     * Samples the position keys.
+     *
+     * @param time  The time in animation.
+     * @param dest  Receives the position.
+     * @return {@code dest}
+     */
+    public Vector3f getPosition(float time, Vector3f dest) {
+        return sampleVector(mPosTimes, mPosValues, mPosFinder, time, 0f, dest);
+    }
 
-        return mPositionInterpolator.interpolate(time);
+    /**
+     * Samples the scaling keys.
+     *
+     * @param time  The time in animation.
+     * @param dest  Receives the scaling factor.
+     * @return {@code dest}
+     */
+    public Vector3f getScale(float time, Vector3f dest) {
+        return sampleVector(mScaleTimes, mScaleValues, mScaleFinder, time, 1f, dest);
     }
 
-    protected Vector3f getScale(float time) {
-        Vector3f defaultScale = new Vector3f(1f, 1f, 1f);
-        
-        if (mScaleKeys.length == 0) {
-            return defaultScale;
-        } else if (mScaleKeys.length == 1) {
-            return mScaleKeys[0].getValue();
+    /**
+     * Samples the rotation keys.
+     *
+     * @param time  The time in animation.
+     * @param dest  Receives the rotation.
+     * @return {@code dest}
+     */
+    public Quaternionf getRotation(float time, Quaternionf dest) {
+        final float[] times = mRotTimes;
+        final float[] values = mRotValues;
+        final int numKeys = times.length;
+
+        if (numKeys == 0) {
+            return dest.identity();
+        }
+        int index = (numKeys == 1) ? -1 : mRotFinder.getKeyIndex(time);
+        if (index == -1) {
+            // time is out of range of animation time frame
+            int i = (time <= times[0]) ? 0 : (numKeys - 1) * 4;
+            return dest.set(values[i], values[i + 1], values[i + 2], values[i + 3]);
         }
+        float factor = (time - times[index]) / (times[index + 1] - times[index]);
+        int i = index * 4;
 
-        return mScaleInterpolator.interpolate(time);
+        mTempSlerpEnd.set(values[i + 4], values[i + 5], values[i + 6], values[i + 7]);
+        return dest.set(values[i], values[i + 1], values[i + 2], values[i + 3])
+                   .slerp(mTempSlerpEnd, factor);
     }
 
-    protected Quaternionf getRotation(float time) {
-        Quaternionf defaultRotation = new Quaternionf();
+    private static Vector3f sampleVector(float[] times, float[] values, KeyFinder finder,
+                                         float time, float defaultValue, Vector3f dest) {
+        final int numKeys = times.length;
 
-        if (mRotationKeys.length == 0) {
-            return defaultRotation;
-        } else if (mRotationKeys.length == 1) {
-            return mRotationKeys[0].getValue();
+        if (numKeys == 0) {
+            return dest.set(defaultValue, defaultValue, defaultValue);
         }
-
-        return mRotationInterpolator.interpolate(time);
+        int index = (numKeys == 1) ? -1 : finder.getKeyIndex(time);
+        if (index == -1) {
+            // time is out of range of animation time frame
+            int i = (time <= times[0]) ? 0 : (numKeys - 1) * 3;
+            return dest.set(values[i], values[i + 1], values[i + 2]);
+        }
+        float factor = (time - times[index]) / (times[index + 1] - times[index]);
+        int i = index * 3;
+        float x = values[i];
+        float y = values[i + 1];
+        float z = values[i + 2];
+
+        return dest.set(x + (values[i + 3] - x) * factor,
+                        y + (values[i + 4] - y) * factor,
+                        z + (values[i + 5] - z) * factor);
     }
 
     @Override
@@ -364,9 +431,9 @@ public final class GVRAnimationChannel implements PrettyPrint {
         sb.append(Log.getSpaces(indent));
         sb.append(GVRAnimationChannel.class.getSimpleName());
         sb.append(" [nodeName=" + m_nodeName + ", positionKeys="
-                + mPositionKeys.length + ", rotationKeys="
-                + mRotationKeys.length + ", scaleKeys="
-                + mScaleKeys.length + ", m_preState=" + mPreState
+                + mPosTimes.length + ", rotationKeys="
+                + mRotTimes.length + ", scaleKeys="
+                + mScaleTimes.length + ", m_preState=" + mPreState
                 + ", m_postState=" + mPostState + "]");
         sb.append(System.lineSeparator());
     }
@@ -383,15 +450,26 @@ public final class GVRAnimationChannel implements PrettyPrint {
      */
     private final String m_nodeName;
 
-    private final GVRPositionKey[] mPositionKeys;
-    private final GVRRotationKey[] mRotationKeys;
-    private final GVRScaleKey[] mScaleKeys;
+    /*
+     * Keys are stored in flat arrays: one time per key and
+     * three (position, scale) or four (rotation) values per key.
+     */
+    private final float[] mPosTimes;
+    private final float[] mPosValues;
+    private final float[] mRotTimes;
+    private final float[] mRotValues;
+    private final float[] mScaleTimes;
+    private final float[] mScaleValues;
 
-    private final KeyFrameInterplator<Vector3f> mPositionInterpolator;
-    private final KeyFrameInterplator<Quaternionf> mRotationInterpolator;
-    private final KeyFrameInterplator<Vector3f> mScaleInterpolator;
+    private final KeyFinder mPosFinder;
+    private final KeyFinder mRotFinder;
+    private final KeyFinder mScaleFinder;
 
     protected Matrix4f mCurrentTransform;
+    private final Vector3f mTempPosition;
+    private final Vector3f mTempScale;
+    private final Quaternionf mTempRotation;
+    private final Quaternionf mTempSlerpEnd;
 
     /**
      * Pre-animation behavior.
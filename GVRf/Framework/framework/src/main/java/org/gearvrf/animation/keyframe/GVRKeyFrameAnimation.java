@@ -24,6 +24,7 @@ public class GVRKeyFrameAnimation extends GVRAnimation implements PrettyPrint {
 
     protected GVRSceneObject mTarget;
     protected Matrix4f[] mTransforms;
+    private float mTransformsTime = Float.NaN;
 
     /**
      * Constructor.
@@ -46,6 +47,42 @@ public class GVRKeyFrameAnimation extends GVRAnimation implements PrettyPrint {
         mTarget = target;
     }
 
+    /**
+     * @return the name of the animation
+     */
+    public String getName() {
+        return mName;
+    }
+
+    /**
+     * @return the duration of the animation in ticks
+     */
+    public float getDurationTicks() {
+        return mDurationTicks;
+    }
+
+    /**
+     * @return the number of ticks per second
+     */
+    public float getTicksPerSecond() {
+        return mTicksPerSecond;
+    }
+
+    /**
+     * @return the number of channels
+     */
+    public int getNumChannels() {
+        return mChannels.size();
+    }
+
+    /**
+     * @param index index of the channel
+     * @return the channel
+     */
+    public GVRAnimationChannel getChannel(int index) {
+        return mChannels.get(index);
+    }
+
     /**
      * Add a channel to the animation.
      * @param channel The animation channel.
@@ -65,6 +102,7 @@ public class GVRKeyFrameAnimation extends GVRAnimation implements PrettyPrint {
         for (int i = 0; i < mTransforms.length; ++i) {
             mTransforms[i] = new Matrix4f();
         }
+        mTransformsTime = Float.NaN;
     }
 
     @Override
@@ -123,10 +161,17 @@ public class GVRKeyFrameAnimation extends GVRAnimation implements PrettyPrint {
         mSkinningController.animate(getDuration() * ratio);
     }
 
+    /*
+     * The node and skinning controllers both ask for the transforms
+     * of the same tick, so they are only sampled once per tick.
+     */
     protected Matrix4f[] getTransforms(float animationTime) {
-        int i = 0;
-        for (GVRAnimationChannel channel : mChannels) {
-            mTransforms[i++].set(channel.animate(animationTime));
+        if (animationTime == mTransformsTime) {
+            return mTransforms;
+        }
+        mTransformsTime = animationTime;
+        for (int i = 0; i < mTransforms.length; ++i) {
+            mChannels.get(i).animate(animationTime, mTransforms[i]);
         }
         return mTransforms;
     }
@@ -32,6 +32,7 @@ public class GVRNodeAnimationController extends GVRAnimationController {
     }
 
     protected List<AnimationItem> animatedNodes;
+    private final float[] mTempMatrix = new float[16];
 
     /**
      * Constructs a list of animated {@link GVRSceneObject}.
@@ -75,8 +76,10 @@ public class GVRNodeAnimationController extends GVRAnimationController {
     protected void animateImpl(float animationTick) {
         Matrix4f[] animationTransform = animation.getTransforms(animationTick);
 
-        for (AnimationItem item : animatedNodes) {
-            item.target.getTransform().setModelMatrix(animationTransform[item.channelId]);
+        for (int i = 0; i < animatedNodes.size(); ++i) {
+            AnimationItem item = animatedNodes.get(i);
+            animationTransform[item.channelId].get(mTempMatrix);
+            item.target.getTransform().setModelMatrix(mTempMatrix);
         }
     }
 }
\ No newline at end of file
@@ -30,6 +30,20 @@ public class GVRSkinningController extends GVRAnimationController {
     protected Map<String, SceneAnimNode> nodeByName;
     protected Map<GVRSceneObject, List<GVRBone>> boneMap;
 
+    /*
+     * Bones resolved to their animation nodes once at bind time,
+     * in parallel arrays, so animating does not look up names.
+     */
+    private GVRBone[] mBones;
+    private SceneAnimNode[] mBoneNodes;
+
+    // Scratch storage so animating a frame does not allocate
+    private final Matrix4f mIdentity = new Matrix4f();
+    private final Matrix4f mTempOffset = new Matrix4f();
+    private final Matrix4f mTempFinal = new Matrix4f();
+    private final Matrix4f mTempInverse = new Matrix4f();
+    private final float[] mTempMatrix = new float[16];
+
     protected class SceneAnimNode {
         GVRSceneObject sceneObject;
         SceneAnimNode parent;
@@ -67,6 +81,35 @@ public class GVRSkinningController extends GVRAnimationController {
         pruneTree(animRoot);
         MeshVisitor visitor = new MeshVisitor();
         sceneRoot.forAllComponents(visitor, GVRRenderData.getComponentType());
+        bindBones();
+    }
+
+    /**
+     * Resolves the bones in {@link #boneMap} to their animation nodes.
+     * This must be called again if the bone map is changed.
+     */
+    protected void bindBones() {
+        List<GVRBone> bones = new ArrayList<GVRBone>();
+        List<SceneAnimNode> nodes = new ArrayList<SceneAnimNode>();
+
+        for (Entry<GVRSceneObject, List<GVRBone>> ent : boneMap.entrySet())
+        {
+            // Transform all bone splits (a bone can be split into multiple instances if they influence
+            // different meshes)
+            SceneAnimNode node = nodeByName.get(ent.getKey().getName());
+            if (node == null)
+            {
+                Log.w(TAG, "cannot find the animation node for bone %s", ent.getKey().getName());
+                continue;
+            }
+            for (GVRBone bone : ent.getValue())
+            {
+                bones.add(bone);
+                nodes.add(node);
+            }
+        }
+        mBones = bones.toArray(new GVRBone[bones.size()]);
+        mBoneNodes = nodes.toArray(new SceneAnimNode[nodes.size()]);
     }
 
     protected SceneAnimNode createAnimationTree(GVRSceneObject node, SceneAnimNode parent)
@@ -154,20 +197,10 @@ public class GVRSkinningController extends GVRAnimationController {
     protected void animateImpl(float animationTick) {
         Matrix4f[] animationTransform = animation.getTransforms(animationTick);
 
-        updateTransforms(animRoot, new Matrix4f(), animationTransform);
-        for (Entry<GVRSceneObject, List<GVRBone>> ent : boneMap.entrySet())
+        updateTransforms(animRoot, mIdentity, animationTransform);
+        for (int i = 0; i < mBones.length; ++i)
         {
-            // Transform all bone splits (a bone can be split into multiple instances if they influence
-            // different meshes)
-            SceneAnimNode node = nodeByName.get(ent.getKey().getName());
-            if (node == null)
-            {
-                return;
-            }
-            for (GVRBone bone : ent.getValue())
-            {
-                updateBoneMatrices(bone, node);
-            }
+            updateBoneMatrices(mBones[i], mBones[i].getOffsetMatrix(mTempOffset), mBoneNodes[i]);
         }
     }
 
@@ -176,25 +209,32 @@ public class GVRSkinningController extends GVRAnimationController {
             node.localTransform.set(animationTransform[node.channelId]);
         } else {
             // Default local transform
-            node.localTransform.set(node.sceneObject.getTransform().getLocalModelMatrix4f());
+            node.sceneObject.getTransform().getLocalModelMatrix(mTempMatrix);
+            node.localTransform.set(mTempMatrix);
         }
 
         parentTransform.mul(node.localTransform, node.globalTransform);
 
-        for (SceneAnimNode child : node.children) {
-            updateTransforms(child, node.globalTransform, animationTransform);
+        for (int i = 0; i < node.children.size(); ++i) {
+            updateTransforms(node.children.get(i), node.globalTransform, animationTransform);
         }
     }
 
     protected void updateBoneMatrices(GVRBone bone, SceneAnimNode node) {
-        Matrix4f finalMatrix = new Matrix4f().set(bone.getOffsetMatrix());
+        updateBoneMatrices(bone, bone.getOffsetMatrix(), node);
+    }
+
+    private void updateBoneMatrices(GVRBone bone, Matrix4f offsetMatrix, SceneAnimNode node) {
+        Matrix4f finalMatrix = mTempFinal.set(offsetMatrix);
 
         node.globalTransform.mul(finalMatrix, finalMatrix);
 
-        Matrix4f globalInverse = new Matrix4f().set(bone.getSceneObject().getTransform().getModelMatrix4f()).invert();
+        bone.getSceneObject().getTransform().getModelMatrix(mTempMatrix);
+        Matrix4f globalInverse = mTempInverse.set(mTempMatrix).invert();
         globalInverse.mul(finalMatrix, finalMatrix);
 
-        bone.setFinalTransformMatrix(finalMatrix);
+        finalMatrix.get(mTempMatrix);
+        bone.setFinalTransformMatrix(mTempMatrix);
     }
 
     /* Returns true if the subtree should be kept */
@@ -21,6 +21,7 @@ import static android.opengl.GLES20.glGetError;
 import static android.opengl.GLES20.glGetIntegerv;
 import static org.gearvrf.utility.Threads.threadId;
 
+import java.io.ByteArrayInputStream;
 import java.io.FileDescriptor;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -37,6 +38,7 @@ import org.gearvrf.asynchronous.Throttler.GlConverter;
 import org.gearvrf.utility.Exceptions;
 import org.gearvrf.utility.Log;
 import org.gearvrf.utility.RecycleBin;
+import org.gearvrf.utility.ResourceReader;
 import org.gearvrf.utility.Threads;
 
 import android.app.Activity;
@@ -347,9 +349,12 @@ class AsyncBitmapTexture {
         protected Bitmap loadResource() throws IOException {
             Bitmap bitmap;
             String resourceName = resource.getResourceFilename();
+            DecodedTextureCache diskCache = DecodedTextureCache.get();
             if (resourceName.toLowerCase().endsWith("tga")) {
                 // decodeStream for sure do not support tga
                 bitmap = decodeStreamTGA(resource.getStream());
+            } else if (diskCache != null) {
+                bitmap = loadThroughDiskCache(diskCache);
             } else {
                 bitmap = decodeStream(resource.getStream(),
                         glMaxTextureSize, glMaxTextureSize, true, null, false);
@@ -358,6 +363,28 @@ class AsyncBitmapTexture {
             resource.closeStream();
             return bitmap;
         }
+
+        /*
+         * Reading the encoded file is much cheaper than decoding it, so the
+         * content is read to compute the cache key and only decoded on a miss.
+         */
+        private Bitmap loadThroughDiskCache(DecodedTextureCache diskCache) throws IOException {
+            byte[] encoded = ResourceReader.readStream(resource.getStream());
+            if (encoded == null) {
+                throw new IOException("Cannot read " + resource.getResourceFilename());
+            }
+            String key = diskCache.makeKey(resource, encoded,
+                    glMaxTextureSize, glMaxTextureSize);
+            Bitmap bitmap = diskCache.load(key);
+            if (bitmap == null) {
+                bitmap = decodeStream(new ByteArrayInputStream(encoded),
+                        glMaxTextureSize, glMaxTextureSize, true, null, false);
+                if (bitmap != null) {
+                    diskCache.store(key, bitmap);
+                }
+            }
+            return bitmap;
+        }
     }
 
     static Bitmap decodeStreamTGA(InputStream stream) throws IOException {
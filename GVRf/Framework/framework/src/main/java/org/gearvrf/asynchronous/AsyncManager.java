@@ -81,7 +81,7 @@ public class AsyncManager {
 
         mFactories = new HashMap<Class<? extends GVRHybridObject>, AsyncLoaderFactory<? extends GVRHybridObject, ?>>(); 
 
-        // Setup default scheduler to Throttler
-        mScheduler = Throttler.get();
+        // Setup default scheduler to the work-stealing decode scheduler
+        mScheduler = DecodeScheduler.get();
     }
 }
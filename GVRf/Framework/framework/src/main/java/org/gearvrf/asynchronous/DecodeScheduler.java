@@ -0,0 +1,405 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.asynchronous;
+
+import static org.gearvrf.utility.Threads.VERBOSE_SCHEDULING;
+import static org.gearvrf.utility.Threads.threadId;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.gearvrf.GVRAndroidResource;
+import org.gearvrf.GVRAndroidResource.CancelableCallback;
+import org.gearvrf.GVRAssetLoader;
+import org.gearvrf.GVRContext;
+import org.gearvrf.GVRHybridObject;
+import org.gearvrf.asynchronous.Throttler.AsyncLoader;
+import org.gearvrf.asynchronous.Throttler.AsyncLoaderFactory;
+import org.gearvrf.utility.Exceptions;
+import org.gearvrf.utility.Log;
+
+/**
+ * Work-stealing scheduler for asynchronous resource loads.
+ *
+ * <p>
+ * Each decode thread owns one deque per priority lane. A request is pushed
+ * onto the deques of one thread, chosen round-robin; the owner takes the
+ * newest request of its highest non-empty lane (LIFO, like the
+ * {@link Throttler}) and an idle thread steals the oldest request of the
+ * highest lane from the other threads. There is no global lock: duplicate
+ * requests for the same {@link GVRAndroidResource} are merged through a
+ * {@link ConcurrentHashMap}, and each merged request has its own lock.
+ *
+ * <p>
+ * Priorities are the {@link GVRContext#LOWEST_PRIORITY} to
+ * {@link GVRContext#HIGHEST_PRIORITY} values passed to the load calls. A
+ * duplicate request with a higher priority moves the load to a higher lane.
+ * Loads whose callbacks all return {@code false} from
+ * {@link CancelableCallback#stillWanted(GVRAndroidResource)} are dropped
+ * before they run. The resource stream is opened on the decode thread, not
+ * the caller's.
+ *
+ * <p>
+ * This is the default scheduler; use
+ * {@link AsyncManager#setScheduler(Scheduler)} to select another one.
+ */
+public class DecodeScheduler implements Scheduler {
+    private static final String TAG = Log.tag(DecodeScheduler.class);
+
+    private static final int CORE_COUNT = Runtime.getRuntime()
+            .availableProcessors();
+
+    /**
+     * Number of decode threads. Leave one core for the GL thread, as the
+     * {@link Throttler} does.
+     */
+    private static final int DECODE_THREAD_COUNT = Math.max(CORE_COUNT - 1, 1);
+
+    private static final int DECODE_THREAD_PRIORITY = (Thread.MIN_PRIORITY + Thread.NORM_PRIORITY) / 2;
+
+    /*
+     * Priority lanes, highest first
+     */
+    private static final int LANE_HIGH = 0;
+    private static final int LANE_DEFAULT = 1;
+    private static final int LANE_LOW = 2;
+    private static final int LANE_COUNT = 3;
+
+    /*
+     * Singleton
+     */
+
+    private static volatile DecodeScheduler sInstance;
+
+    public static DecodeScheduler get() {
+        if (sInstance == null) {
+            synchronized (DecodeScheduler.class) {
+                if (sInstance == null) {
+                    sInstance = new DecodeScheduler();
+                }
+            }
+        }
+        return sInstance;
+    }
+
+    private final ConcurrentHashMap<GVRAndroidResource, PendingLoad<?, ?>> mPending =
+            new ConcurrentHashMap<GVRAndroidResource, PendingLoad<?, ?>>();
+    private final Worker[] mWorkers;
+    private final AtomicInteger mNextWorker = new AtomicInteger();
+
+    /*
+     * One permit per queued entry. A thread which acquires a permit is
+     * guaranteed to find an entry in some deque, so idle threads sleep
+     * instead of spinning.
+     */
+    private final Semaphore mQueued = new Semaphore(0);
+
+    private DecodeScheduler() {
+        mWorkers = new Worker[DECODE_THREAD_COUNT];
+        for (int i = 0; i < mWorkers.length; ++i) {
+            mWorkers[i] = new Worker(i);
+        }
+        for (Worker worker : mWorkers) {
+            worker.start();
+        }
+    }
+
+    /**
+     * Map a {@link GVRContext} priority to a lane.
+     */
+    private static int toLane(int priority) {
+        if (priority > GVRAssetLoader.DEFAULT_PRIORITY) {
+            return LANE_HIGH;
+        } else if (priority < GVRAssetLoader.DEFAULT_PRIORITY) {
+            return LANE_LOW;
+        }
+        return LANE_DEFAULT;
+    }
+
+    /*
+     * Scheduler
+     */
+
+    @Override
+    public <OUTPUT extends GVRHybridObject, INTER> void registerCallback(
+            GVRContext gvrContext, Class<OUTPUT> outClass,
+            CancelableCallback<OUTPUT> callback, GVRAndroidResource request,
+            int priority) {
+        if (request == null) {
+            throw Exceptions.IllegalArgument("request must not be null");
+        }
+        if (callback == null) {
+            throw Exceptions.IllegalArgument("callback must not be null");
+        }
+
+        PendingLoad<OUTPUT, INTER> load = null;
+        while (true) {
+            @SuppressWarnings("unchecked")
+            PendingLoad<OUTPUT, INTER> existing = (PendingLoad<OUTPUT, INTER>) mPending.get(request);
+            if (existing != null) {
+                int lane = existing.addCallback(callback, priority);
+                if (lane >= 0) {
+                    if (VERBOSE_SCHEDULING) {
+                        Log.d(TAG, "Thread %d: merged request %s into %s",
+                                threadId(), request, existing);
+                    }
+                    if (lane < LANE_COUNT) {
+                        // Priority went up: queue again in the higher lane
+                        enqueue(existing, lane);
+                    }
+                    return;
+                }
+                // Already delivered: it will remove itself, load again
+                mPending.remove(request, existing);
+                continue;
+            }
+
+            if (load == null) {
+                @SuppressWarnings("unchecked")
+                AsyncLoaderFactory<OUTPUT, INTER> factory =
+                        (AsyncLoaderFactory<OUTPUT, INTER>) AsyncManager.get().getFactories().get(outClass);
+                if (factory == null) {
+                    callback.failed(new IOException("Cannot find loader factory"), request);
+                    return;
+                }
+                load = new PendingLoad<OUTPUT, INTER>(gvrContext, factory, request,
+                        callback, priority);
+            }
+            if (mPending.putIfAbsent(request, load) == null) {
+                if (VERBOSE_SCHEDULING) {
+                    Log.d(TAG, "Thread %d: queueing %s for request %s",
+                            threadId(), load, request);
+                }
+                enqueue(load, toLane(priority));
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return number of loads which are queued or running
+     */
+    public int getPendingCount() {
+        return mPending.size();
+    }
+
+    private void enqueue(PendingLoad<?, ?> load, int lane) {
+        Worker worker;
+        Thread current = Thread.currentThread();
+        if ((current instanceof Worker) && ((Worker) current).mOwner == this) {
+            // Loads started by a load (e.g. a texture of a model) stay local
+            worker = (Worker) current;
+        } else {
+            int index = (mNextWorker.getAndIncrement() & Integer.MAX_VALUE) % mWorkers.length;
+            worker = mWorkers[index];
+        }
+        worker.mLanes[lane].addLast(load);
+        mQueued.release();
+    }
+
+    /**
+     * A load and the callbacks waiting for it.
+     *
+     * The same load may be queued in several lanes after its priority went
+     * up; the first thread to claim it runs it, the other entries are skipped.
+     */
+    private final class PendingLoad<OUTPUT extends GVRHybridObject, INTER>
+            implements CancelableCallback<OUTPUT> {
+        private final GVRAndroidResource mRequest;
+        private final List<CancelableCallback<OUTPUT>> mCallbacks =
+                new ArrayList<CancelableCallback<OUTPUT>>(1);
+        private final AsyncLoader<OUTPUT, INTER> mLoader;
+        private final AtomicBoolean mClaimed = new AtomicBoolean(false);
+        private int mLane;
+        private boolean mDone = false;
+
+        PendingLoad(GVRContext gvrContext, AsyncLoaderFactory<OUTPUT, INTER> factory,
+                GVRAndroidResource request, CancelableCallback<OUTPUT> callback,
+                int priority) {
+            mRequest = request;
+            mCallbacks.add(callback);
+            mLane = toLane(priority);
+            mLoader = factory.threadProc(gvrContext, request, this, priority);
+        }
+
+        /**
+         * @return -1 if the load is finished, the new lane if the priority
+         *         went up, {@link #LANE_COUNT} otherwise
+         */
+        synchronized int addCallback(CancelableCallback<OUTPUT> callback, int priority) {
+            if (mDone) {
+                return -1;
+            }
+            mCallbacks.add(callback);
+            int lane = toLane(priority);
+            if (lane < mLane && !mClaimed.get()) {
+                mLane = lane;
+                return lane;
+            }
+            return LANE_COUNT;
+        }
+
+        /** @return true if this thread is the one to run the load */
+        boolean claim() {
+            return mClaimed.compareAndSet(false, true);
+        }
+
+        boolean isClaimed() {
+            return mClaimed.get();
+        }
+
+        void run() {
+            synchronized (this) {
+                // Atomic with addCallback(), so no callback is dropped
+                mDone = !stillWanted(mRequest);
+            }
+            if (mDone) {
+                if (VERBOSE_SCHEDULING) {
+                    Log.d(TAG, "Canceling %s, request %s", this, mRequest);
+                }
+                mPending.remove(mRequest, this);
+                return;
+            }
+            try {
+                mRequest.openStream();
+            } catch (Exception e) {
+                failed(e, mRequest);
+                return;
+            }
+            mLoader.run();
+        }
+
+        private synchronized List<CancelableCallback<OUTPUT>> finish() {
+            mDone = true;
+            List<CancelableCallback<OUTPUT>> listeners =
+                    new ArrayList<CancelableCallback<OUTPUT>>(mCallbacks);
+            mCallbacks.clear();
+            return listeners;
+        }
+
+        @Override
+        public void loaded(OUTPUT gvrResource, GVRAndroidResource androidResource) {
+            List<CancelableCallback<OUTPUT>> listeners = finish();
+            mPending.remove(mRequest, this);
+            for (CancelableCallback<OUTPUT> callback : listeners) {
+                // Each callback in its own exception frame
+                try {
+                    callback.loaded(gvrResource, androidResource);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+
+        @Override
+        public void failed(Throwable t, GVRAndroidResource androidResource) {
+            List<CancelableCallback<OUTPUT>> listeners = finish();
+            mPending.remove(mRequest, this);
+            for (CancelableCallback<OUTPUT> callback : listeners) {
+                try {
+                    callback.failed(t, androidResource);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+
+        /** Drops the callbacks which are no longer wanted */
+        @Override
+        public synchronized boolean stillWanted(GVRAndroidResource request) {
+            Iterator<CancelableCallback<OUTPUT>> iter = mCallbacks.iterator();
+            while (iter.hasNext()) {
+                if (!iter.next().stillWanted(request)) {
+                    iter.remove();
+                }
+            }
+            return !mCallbacks.isEmpty();
+        }
+    }
+
+    private final class Worker extends Thread {
+        final DecodeScheduler mOwner = DecodeScheduler.this;
+        final ConcurrentLinkedDeque<PendingLoad<?, ?>>[] mLanes;
+        private final int mIndex;
+
+        @SuppressWarnings("unchecked")
+        Worker(int index) {
+            super("GVRDecode-" + index);
+            mIndex = index;
+            mLanes = new ConcurrentLinkedDeque[LANE_COUNT];
+            for (int i = 0; i < LANE_COUNT; ++i) {
+                mLanes[i] = new ConcurrentLinkedDeque<PendingLoad<?, ?>>();
+            }
+            setDaemon(true);
+            setPriority(DECODE_THREAD_PRIORITY);
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                try {
+                    mQueued.acquire();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                PendingLoad<?, ?> load = take();
+                if ((load == null) || !load.claim()) {
+                    // Stale entry of a load which moved to a higher lane
+                    continue;
+                }
+                try {
+                    load.run();
+                } catch (Throwable t) {
+                    Log.e(TAG, "Load of %s threw %s", load.mRequest, t);
+                }
+            }
+        }
+
+        /*
+         * Highest lane first. Within a lane, our own newest entry,
+         * then the oldest entry of the other threads.
+         */
+        private PendingLoad<?, ?> take() {
+            while (true) {
+                for (int lane = 0; lane < LANE_COUNT; ++lane) {
+                    PendingLoad<?, ?> load = mLanes[lane].pollLast();
+                    if (load != null) {
+                        return load;
+                    }
+                    for (int i = 1; i < mWorkers.length; ++i) {
+                        Worker victim = mWorkers[(mIndex + i) % mWorkers.length];
+                        load = victim.mLanes[lane].pollFirst();
+                        if (load != null) {
+                            return load;
+                        }
+                    }
+                }
+                /*
+                 * We hold a permit, so an entry has been pushed but may not
+                 * be visible yet, or another thread raced past it. Try again.
+                 */
+                Thread.yield();
+            }
+        }
+    }
+}
@@ -0,0 +1,354 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.asynchronous;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.zip.CRC32;
+
+import org.gearvrf.GVRAndroidResource;
+import org.gearvrf.utility.Log;
+
+import android.graphics.Bitmap;
+import android.graphics.Bitmap.Config;
+
+/**
+ * Persistent cache of decoded bitmaps.
+ *
+ * <p>
+ * {@link AsyncBitmapTexture} decodes the same PNG and JPEG files every time the
+ * application starts. This cache stores the decoded (and possibly downsampled)
+ * pixels in a file per texture, keyed by the resource identity, a hash of the
+ * encoded content and the requested size. Later loads memory-map the file and
+ * copy the pixels into a bitmap without decoding.
+ *
+ * <p>
+ * Each file starts with a header holding a format version and a checksum of
+ * the pixels. Files with a different version, a wrong length or a bad checksum
+ * are deleted and the texture is decoded again. Files are written under a
+ * temporary name and renamed, so a crash while writing never leaves a partial
+ * entry. When the total size of the files exceeds the budget, the least
+ * recently used files are deleted.
+ */
+class DecodedTextureCache {
+    private static final String TAG = Log.tag(DecodedTextureCache.class);
+
+    /** Bump when the file layout changes */
+    private static final int VERSION = 1;
+    private static final int MAGIC = 0x47565254; // "GVRT"
+    private static final String DIRECTORY = "gvrf_decoded_textures";
+    private static final String SUFFIX = ".tex";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /*
+     * Header: magic, version, width, height, config, hasAlpha,
+     * pixel byte count, pixel checksum (all ints)
+     */
+    private static final int HEADER_SIZE = 8 * 4;
+
+    private static final int CHECKSUM_CHUNK = 64 * 1024;
+
+    private static volatile DecodedTextureCache sInstance = null;
+
+    private final File mDirectory;
+    private final long mMaxSize;
+    private long mSize;
+
+    private DecodedTextureCache(File directory, long maxSize) {
+        mDirectory = directory;
+        mMaxSize = maxSize;
+        mSize = 0;
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.getName().endsWith(SUFFIX)) {
+                    mSize += file.length();
+                } else {
+                    file.delete(); // leftover temporary file
+                }
+            }
+        }
+        trim();
+    }
+
+    /**
+     * Enable the cache.
+     *
+     * @param cacheDirectory
+     *            Parent directory of the cache files, usually
+     *            {@link android.content.Context#getCacheDir()}
+     * @param maxSize
+     *            Budget in bytes
+     */
+    static void enable(File cacheDirectory, long maxSize) {
+        File directory = new File(cacheDirectory, DIRECTORY);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            Log.e(TAG, "Cannot create texture cache directory %s", directory);
+            sInstance = null;
+            return;
+        }
+        sInstance = new DecodedTextureCache(directory, maxSize);
+    }
+
+    /** Disable the cache. The files are kept for the next time it is enabled. */
+    static void disable() {
+        sInstance = null;
+    }
+
+    /** @return the cache, or {@code null} if it is not enabled */
+    static DecodedTextureCache get() {
+        return sInstance;
+    }
+
+    /**
+     * Compute the key of a texture.
+     *
+     * @param resource
+     *            Texture resource
+     * @param encoded
+     *            Encoded (PNG, JPEG, ...) content of the resource
+     * @param requestedWidth
+     *            Width passed to the decoder
+     * @param requestedHeight
+     *            Height passed to the decoder
+     * @return file name of the cache entry
+     */
+    String makeKey(GVRAndroidResource resource, byte[] encoded,
+            int requestedWidth, int requestedHeight) {
+        CRC32 crc = new CRC32();
+        crc.update(encoded);
+        String name = resource.getResourceFilename();
+        return String.format("%08x-%08x-%x-%dx%d", resource.hashCode(),
+                crc.getValue(), encoded.length, requestedWidth, requestedHeight)
+                + ((name != null) ? "-" + name.replaceAll("[^A-Za-z0-9_.]", "_") : "");
+    }
+
+    /**
+     * Load a cached bitmap.
+     *
+     * @param key
+     *            Key from {@link #makeKey}
+     * @return the bitmap, or {@code null} if it is not cached or the cache
+     *         entry is damaged
+     */
+    Bitmap load(String key) {
+        File file = new File(mDirectory, key + SUFFIX);
+        if (!file.isFile()) {
+            return null;
+        }
+        RandomAccessFile raf = null;
+        try {
+            raf = new RandomAccessFile(file, "r");
+            FileChannel channel = raf.getChannel();
+            long length = channel.size();
+            if (length < HEADER_SIZE) {
+                throw new IOException("truncated header");
+            }
+            MappedByteBuffer mapped = channel.map(MapMode.READ_ONLY, 0, length);
+
+            if (mapped.getInt() != MAGIC || mapped.getInt() != VERSION) {
+                throw new IOException("unknown format");
+            }
+            int width = mapped.getInt();
+            int height = mapped.getInt();
+            Config config = toConfig(mapped.getInt());
+            boolean hasAlpha = mapped.getInt() != 0;
+            int byteCount = mapped.getInt();
+            int checksum = mapped.getInt();
+
+            if ((config == null) || (width <= 0) || (height <= 0)
+                    || (length != HEADER_SIZE + (long) byteCount)) {
+                throw new IOException("bad header");
+            }
+            if (checksum(mapped, HEADER_SIZE, byteCount) != checksum) {
+                throw new IOException("bad checksum");
+            }
+
+            Bitmap bitmap = Bitmap.createBitmap(width, height, config);
+            if (bitmap.getByteCount() != byteCount) {
+                throw new IOException("size mismatch");
+            }
+            mapped.position(HEADER_SIZE);
+            bitmap.copyPixelsFromBuffer(mapped);
+            bitmap.setHasAlpha(hasAlpha);
+
+            // Most recently used
+            file.setLastModified(System.currentTimeMillis());
+            return bitmap;
+        } catch (IOException e) {
+            Log.w(TAG, "Discarding cached texture %s: %s", key, e.getMessage());
+            remove(file);
+            return null;
+        } finally {
+            close(raf);
+        }
+    }
+
+    /**
+     * Save a decoded bitmap.
+     *
+     * @param key
+     *            Key from {@link #makeKey}
+     * @param bitmap
+     *            Decoded bitmap
+     */
+    void store(String key, Bitmap bitmap) {
+        int configCode = fromConfig(bitmap.getConfig());
+        if (configCode < 0) {
+            return;
+        }
+        int byteCount = bitmap.getByteCount();
+        long length = HEADER_SIZE + (long) byteCount;
+        if (length > mMaxSize) {
+            return;
+        }
+        File temp = new File(mDirectory, key + TEMP_SUFFIX + Thread.currentThread().getId());
+        File file = new File(mDirectory, key + SUFFIX);
+        RandomAccessFile raf = null;
+        boolean written = false;
+        try {
+            raf = new RandomAccessFile(temp, "rw");
+            raf.setLength(length);
+            MappedByteBuffer mapped = raf.getChannel().map(MapMode.READ_WRITE, 0, length);
+
+            mapped.position(HEADER_SIZE);
+            bitmap.copyPixelsToBuffer(mapped);
+            int checksum = checksum(mapped, HEADER_SIZE, byteCount);
+
+            mapped.position(0);
+            mapped.putInt(MAGIC);
+            mapped.putInt(VERSION);
+            mapped.putInt(bitmap.getWidth());
+            mapped.putInt(bitmap.getHeight());
+            mapped.putInt(configCode);
+            mapped.putInt(bitmap.hasAlpha() ? 1 : 0);
+            mapped.putInt(byteCount);
+            mapped.putInt(checksum);
+            mapped.force();
+            written = true;
+        } catch (IOException e) {
+            Log.w(TAG, "Cannot cache texture %s: %s", key, e.getMessage());
+        } finally {
+            close(raf);
+        }
+        if (!written) {
+            temp.delete();
+            return;
+        }
+        synchronized (this) {
+            long oldLength = file.isFile() ? file.length() : 0;
+            if (temp.renameTo(file)) {
+                mSize += length - oldLength;
+                trim();
+            } else {
+                temp.delete();
+            }
+        }
+    }
+
+    private synchronized void remove(File file) {
+        long length = file.length();
+        if (file.delete()) {
+            mSize -= length;
+        }
+    }
+
+    /* Delete the least recently used files until within budget */
+    private synchronized void trim() {
+        if (mSize <= mMaxSize) {
+            return;
+        }
+        File[] files = mDirectory.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File lhs, File rhs) {
+                long l = lhs.lastModified();
+                long r = rhs.lastModified();
+                return (l < r) ? -1 : ((l == r) ? 0 : 1);
+            }
+        });
+        for (File file : files) {
+            if (mSize <= mMaxSize) {
+                break;
+            }
+            if (file.getName().endsWith(SUFFIX)) {
+                long length = file.length();
+                if (file.delete()) {
+                    mSize -= length;
+                    Log.d(TAG, "Evicted cached texture %s", file.getName());
+                }
+            }
+        }
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset, int count) {
+        CRC32 crc = new CRC32();
+        byte[] chunk = new byte[Math.min(CHECKSUM_CHUNK, Math.max(count, 1))];
+        ByteBuffer source = buffer.duplicate();
+        source.position(offset);
+        int remaining = count;
+        while (remaining > 0) {
+            int n = Math.min(remaining, chunk.length);
+            source.get(chunk, 0, n);
+            crc.update(chunk, 0, n);
+            remaining -= n;
+        }
+        return (int) crc.getValue();
+    }
+
+    private static int fromConfig(Config config) {
+        if (config == Config.ARGB_8888) {
+            return 0;
+        } else if (config == Config.RGB_565) {
+            return 1;
+        } else if (config == Config.ALPHA_8) {
+            return 2;
+        }
+        return -1;
+    }
+
+    private static Config toConfig(int code) {
+        switch (code) {
+            case 0:
+                return Config.ARGB_8888;
+            case 1:
+                return Config.RGB_565;
+            case 2:
+                return Config.ALPHA_8;
+            default:
+                return null;
+        }
+    }
+
+    private static void close(RandomAccessFile raf) {
+        if (raf != null) {
+            try {
+                raf.close();
+            } catch (IOException e) {
+            }
+        }
+    }
+}
@@ -72,6 +72,33 @@ public class GVRAsynchronousResourceLoader {
         AsyncBitmapTexture.setup(gvrContext);
     }
 
+    /**
+     * Keep decoded bitmap textures in a persistent cache.
+     *
+     * Decoding PNG and JPEG files dominates the load time of many
+     * applications. With the cache enabled, the decoded pixels of each
+     * bitmap texture are saved in the application's cache directory and
+     * later loads of the same content skip decoding. The least recently
+     * used entries are deleted when the cache exceeds its budget.
+     *
+     * @param gvrContext
+     *            The GVRF context
+     * @param maxSize
+     *            Budget of the cache, in bytes
+     */
+    public static void enableTextureDiskCache(GVRContext gvrContext, long maxSize) {
+        DecodedTextureCache.enable(gvrContext.getContext().getCacheDir(), maxSize);
+    }
+
+    /**
+     * Stop using the persistent bitmap cache. Cached entries are kept on disk.
+     *
+     * @see #enableTextureDiskCache(GVRContext, long)
+     */
+    public static void disableTextureDiskCache() {
+        DecodedTextureCache.disable();
+    }
+
     /**
      * Load a compressed texture asynchronously.
      * 
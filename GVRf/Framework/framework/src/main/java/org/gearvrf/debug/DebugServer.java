@@ -15,20 +15,32 @@
 
 package org.gearvrf.debug;
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
 import java.io.PrintStream;
-import java.net.ServerSocket;
-import java.net.Socket;
-import java.net.SocketException;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.io.StringReader;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.gearvrf.GVRContext;
+import org.gearvrf.asynchronous.AsyncManager;
+import org.gearvrf.asynchronous.DecodeScheduler;
+import org.gearvrf.asynchronous.Scheduler;
 import org.gearvrf.debug.cli.Shell;
 
+import android.os.SystemClock;
 import android.util.Log;
 
 /**
@@ -43,78 +55,98 @@ import android.util.Log;
  *
  * To connect to the debug server, you can use telnet from Linux, or
  * putty from Windows. If Windows environment, you would need to configure
- * the terminal to add a CR (\r) for each LF (\n) for proper display.
+ * the terminal to add a CR (\r) for each LF (\n) for proper display. <p>
+ *
+ * All the sessions are served by one thread with non-blocking sockets.
+ * Commands run on that thread, never on the GL thread. <p>
+ *
+ * The command 'telemetry <i>period</i>' switches a session to binary
+ * frames and sends the live metrics every <i>period</i> milliseconds;
+ * 'telemetry off' switches back to text. Each frame is a 32-bit payload
+ * length, a one byte type and the payload, all big-endian:
+ * <ul>
+ * <li>{@link #FRAME_TEXT}: shell output in UTF-8.</li>
+ * <li>{@link #FRAME_SCHEMA}: a 16-bit column count, then the name of each
+ * column added with {@link #addTelemetry(GVRStatsLine.GVRStandardColumn)}
+ * in {@link DataOutputStream#writeUTF(String)} format. Sent before the
+ * first metrics and whenever the columns change.</li>
+ * <li>{@link #FRAME_METRICS}: 64-bit uptime in milliseconds, 32-bit float
+ * frame time in seconds, 32-bit count of queued asynchronous loads
+ * (-1 if unknown), a 16-bit column count and the latest value of each
+ * column as a 32-bit float (NaN if the column has no value).</li>
+ * </ul>
+ * Metrics are dropped, not queued, for a client which does not read
+ * them fast enough.
  */
 public class DebugServer implements Runnable {
     public static final int DEFAULT_DEBUG_PORT = 1645;
     public static final int NUM_CLIENTS = 2;
+    /**
+     * @deprecated sessions are line based; line editing
+     * and history are left to the client.
+     */
+    @Deprecated
     public static final boolean SIMULATE_TELNET = true;
 
+    /** Frame type of shell output in telemetry mode */
+    public static final byte FRAME_TEXT = 1;
+    /** Frame type of the telemetry column names */
+    public static final byte FRAME_SCHEMA = 2;
+    /** Frame type of a telemetry sample */
+    public static final byte FRAME_METRICS = 3;
+
+    private static final String TAG = "DebugServer";
     private static final String PROMPT = "gvrf";
     private static final String APP_NAME = "GearVR Framework";
+    private static final String TELEMETRY_COMMAND = "telemetry";
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static final int READ_BUFFER_SIZE = 4096;
+    private static final int MAX_LINE_LENGTH = 4096;
+    // A session with more output waiting than this gets no metrics
+    private static final int MAX_QUEUED_BYTES = 256 * 1024;
+    private static final int FRAME_HEADER_SIZE = 5;
 
     // Need a way to stop the program...
-    private boolean shuttingDown;
-    private ServerSocket serverSocket;
-    private DebugConnection debugConnection;
+    private volatile boolean shuttingDown;
+    private volatile Selector selector;
+
+    private final List<Session> sessions = new ArrayList<Session>();
+    private final ConcurrentLinkedQueue<String> pendingErrors = new ConcurrentLinkedQueue<String>();
+    private final List<GVRStatsLine.GVRStandardColumn<? extends Number>> telemetryColumns =
+            new CopyOnWriteArrayList<GVRStatsLine.GVRStandardColumn<? extends Number>>();
+    private volatile int telemetryVersion = 0;
 
     private GVRContext gvrContext;
     int port;
     int maxClients;
 
-    class DebugConnection implements Callable<Object> {
-        private Socket socket;
-        private PrintStream errorLog = null;
-        
-        public DebugConnection(Socket socket) {
-            this.socket = socket;
-        }
-
-        @Override
-        public Object call() throws Exception {
-            // Hand over to shell
-            Shell shell = null;
-
-            if (SIMULATE_TELNET) {
-                // Supporting editing and history
-                shell = GVRConsoleFactory.createTelnetConsoleShell(PROMPT, APP_NAME,
-                        new ShellCommandHandler(gvrContext),
-                        socket.getInputStream(), socket.getOutputStream());
-            } else {
-                // Simple console
-                PrintStream out = new PrintStream(socket.getOutputStream());
-                errorLog = out;
-                shell = GVRConsoleFactory.createConsoleShell(PROMPT, APP_NAME,
-                        new ShellCommandHandler(gvrContext),
-                        new BufferedReader(new InputStreamReader(socket.getInputStream())),
-                        out, out, null);
-            }
+    /*
+     * State of one client. Only used by the server thread.
+     */
+    private final class Session {
+        final SocketChannel channel;
+        final SelectionKey key;
+        final Shell shell;
+        final ByteArrayOutputStream shellOutput = new ByteArrayOutputStream();
+        final ByteArrayOutputStream line = new ByteArrayOutputStream();
+        final ArrayDeque<ByteBuffer> writeQueue = new ArrayDeque<ByteBuffer>();
+        int queuedBytes = 0;
+        boolean closing = false;
 
-            shell.commandLoop();
-            errorLog = null;
-            socket.close();
-            this.socket = null;
-            return null;
-        }
-        
-        public void logError(String message)
-        {
-            try
-            {
-                if ((errorLog == null) && (this.socket != null))
-                {
-                    errorLog = new PrintStream(socket.getOutputStream());
-                }                
-            }
-            catch (IOException ex)
-            {
-                ex.printStackTrace();
-            }
-            if (errorLog != null)
-            {
-                errorLog.print(message);
-            }
-            Log.e("SCRIPT", "ERROR: " + message);
+        // 0 in text mode
+        long telemetryPeriod = 0;
+        long nextTelemetry = 0;
+        int sentTelemetryVersion = -1;
+
+        Session(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+            PrintStream out = new PrintStream(shellOutput, true);
+            shell = GVRConsoleFactory.createConsoleShell(PROMPT, APP_NAME,
+                    new ShellCommandHandler(gvrContext),
+                    new BufferedReader(new StringReader("")),
+                    out, out, null);
         }
     }
 
@@ -154,17 +186,48 @@ public class DebugServer implements Runnable {
     }
 
     /**
-     * Shuts down the server. Active connections are not affected.
+     * Adds a column to the telemetry sent to the clients.
+     * @param column column whose latest value is sent
+     */
+    public synchronized void addTelemetry(GVRStatsLine.GVRStandardColumn<? extends Number> column) {
+        telemetryColumns.add(column);
+        ++telemetryVersion;
+    }
+
+    /**
+     * Adds the frames per second of a tracer to the telemetry.
+     * @param tracer FPS tracer
+     */
+    public void addTelemetry(GVRFPSTracer tracer) {
+        addTelemetry(tracer.mStatColumn);
+    }
+
+    /**
+     * Adds the call duration of a tracer to the telemetry.
+     * @param tracer method call tracer
+     */
+    public void addTelemetry(GVRMethodCallTracer tracer) {
+        addTelemetry(tracer.getStatColumn());
+    }
+
+    /**
+     * Removes a column from the telemetry.
+     * @param column column added with {@link #addTelemetry(GVRStatsLine.GVRStandardColumn)}
+     */
+    public synchronized void removeTelemetry(GVRStatsLine.GVRStandardColumn<? extends Number> column) {
+        if (telemetryColumns.remove(column)) {
+            ++telemetryVersion;
+        }
+    }
+
+    /**
+     * Shuts down the server and closes all the sessions.
      */
     public void shutdown() {
-        debugConnection = null;
         shuttingDown = true;
-        try {
-            if (serverSocket != null) {
-                serverSocket.close();
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
+        Selector s = selector;
+        if (s != null) {
+            s.wakeup();
         }
     }
 
@@ -173,36 +236,319 @@ public class DebugServer implements Runnable {
      */
     @Override
     public void run() {
-        ExecutorService executorService = Executors.newFixedThreadPool(maxClients);
+        ServerSocketChannel serverChannel = null;
+        ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+
         try {
-            serverSocket = new ServerSocket(port, maxClients);
+            selector = Selector.open();
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.configureBlocking(false);
+            serverChannel.socket().setReuseAddress(true);
+            serverChannel.socket().bind(new InetSocketAddress(port), maxClients);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+
             while (!shuttingDown) {
-                try {
-                    Socket socket = serverSocket.accept();
-                    debugConnection = new DebugConnection(socket);
-                    executorService.submit(debugConnection);
-                } catch (SocketException e) {
-                    // closed
-                    debugConnection = null;
+                long timeout = sendTelemetry();
+                if (timeout > 0) {
+                    selector.select(timeout);
+                } else {
+                    selector.select();
+                }
+                sendErrors();
+
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept(serverChannel);
+                        continue;
+                    }
+                    Session session = (Session) key.attachment();
+                    try {
+                        if (key.isReadable()) {
+                            read(session, readBuffer);
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            write(session);
+                        }
+                    } catch (IOException e) {
+                        close(session);
+                    } catch (RuntimeException e) {
+                        // Such as a script error in the shell, only this session fails
+                        Log.e(TAG, "Debug session failed: " + e);
+                        e.printStackTrace();
+                        close(session);
+                    }
                 }
             }
         } catch (IOException e) {
             e.printStackTrace();
         } finally {
+            for (Session session : new ArrayList<Session>(sessions)) {
+                close(session);
+            }
             try {
-                debugConnection = null;
-                serverSocket.close();
-            } catch (Exception e) {
+                if (serverChannel != null) {
+                    serverChannel.close();
+                }
+                if (selector != null) {
+                    selector.close();
+                }
+            } catch (IOException e) {
             }
-            executorService.shutdownNow();
+            selector = null;
         }
     }
-    
+
+    /**
+     * Reports an error to all the sessions.
+     * Can be called from any thread.
+     * @param message error message
+     */
     public void logError(String message)
     {
-        if (debugConnection != null)
-        {
-            debugConnection.logError(message);
+        Log.e("SCRIPT", "ERROR: " + message);
+        pendingErrors.add(message);
+        Selector s = selector;
+        if (s != null) {
+            s.wakeup();
+        }
+    }
+
+    private void accept(ServerSocketChannel serverChannel) throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        if (sessions.size() >= maxClients) {
+            Log.w(TAG, "Too many debug sessions, closing " + channel.socket().getRemoteSocketAddress());
+            channel.close();
+            return;
+        }
+        channel.configureBlocking(false);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        Session session = new Session(channel, key);
+        key.attach(session);
+        sessions.add(session);
+        session.shell.enterLoop();
+        prompt(session);
+    }
+
+    private void read(Session session, ByteBuffer buffer) throws IOException {
+        buffer.clear();
+        int n = session.channel.read(buffer);
+        if (n < 0) {
+            close(session);
+            return;
+        }
+        buffer.flip();
+        while (buffer.hasRemaining() && !session.closing) {
+            byte b = buffer.get();
+            if (b == '\n') {
+                String line = new String(session.line.toByteArray(), UTF8);
+                session.line.reset();
+                processLine(session, line);
+            } else if ((b != '\r') && (session.line.size() < MAX_LINE_LENGTH)) {
+                session.line.write(b);
+            }
+        }
+    }
+
+    private void processLine(Session session, String line) {
+        String[] words = line.trim().split("\\s+");
+
+        if (words[0].equals(TELEMETRY_COMMAND)) {
+            setTelemetry(session, (words.length > 1) ? words[1] : null);
+        } else if (!session.shell.processInput(line)) {
+            session.shell.leaveLoop();
+            flushShellOutput(session);
+            session.closing = true;
+            if (session.writeQueue.isEmpty()) {
+                close(session);
+            }
+            return;
+        }
+        prompt(session);
+    }
+
+    private void setTelemetry(Session session, String period) {
+        PrintStream out = new PrintStream(session.shellOutput, true);
+        long ms = 100;
+
+        if ("off".equals(period)) {
+            ms = 0;
+        } else if (period != null) {
+            try {
+                ms = Math.max(Long.parseLong(period), 0);
+            } catch (NumberFormatException e) {
+                out.println("usage: telemetry [period in ms | off]");
+                return;
+            }
+        }
+        if (ms == 0) {
+            flushShellOutput(session);
+            session.telemetryPeriod = 0;
+            out.println("telemetry off");
+        } else {
+            out.println("telemetry every " + ms + " ms");
+            flushShellOutput(session);
+            session.telemetryPeriod = ms;
+            session.nextTelemetry = 0;
+            session.sentTelemetryVersion = -1;
+        }
+    }
+
+    private void prompt(Session session) {
+        PrintStream out = new PrintStream(session.shellOutput, true);
+        out.print(session.shell.getPrompt());
+        out.flush();
+        flushShellOutput(session);
+    }
+
+    private void flushShellOutput(Session session) {
+        if (session.shellOutput.size() == 0) {
+            return;
+        }
+        byte[] text = session.shellOutput.toByteArray();
+        session.shellOutput.reset();
+        if (session.telemetryPeriod > 0) {
+            ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER_SIZE + text.length);
+            frame.putInt(text.length).put(FRAME_TEXT).put(text);
+            frame.flip();
+            queue(session, frame);
+        } else {
+            queue(session, ByteBuffer.wrap(text));
+        }
+    }
+
+    private void queue(Session session, ByteBuffer data) {
+        session.writeQueue.addLast(data);
+        session.queuedBytes += data.remaining();
+        if (session.key.isValid()) {
+            session.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        }
+    }
+
+    private void write(Session session) throws IOException {
+        while (!session.writeQueue.isEmpty()) {
+            ByteBuffer data = session.writeQueue.peekFirst();
+            int n = session.channel.write(data);
+            session.queuedBytes -= n;
+            if (data.hasRemaining()) {
+                return;
+            }
+            session.writeQueue.pollFirst();
+        }
+        if (session.closing) {
+            close(session);
+        } else {
+            session.key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+
+    private void close(Session session) {
+        sessions.remove(session);
+        session.key.cancel();
+        try {
+            session.channel.close();
+        } catch (IOException e) {
+        }
+    }
+
+    private void sendErrors() {
+        String message;
+        while ((message = pendingErrors.poll()) != null) {
+            for (Session session : sessions) {
+                new PrintStream(session.shellOutput, true).print(message);
+                flushShellOutput(session);
+            }
+        }
+    }
+
+    /*
+     * Queue the metrics for the sessions which are due.
+     * @return milliseconds until the next session is due, 0 if none is waiting
+     */
+    private long sendTelemetry() {
+        long now = SystemClock.uptimeMillis();
+        long next = Long.MAX_VALUE;
+        ByteBuffer metrics = null;
+        ByteBuffer schema = null;
+        int version = telemetryVersion;
+
+        for (Session session : sessions) {
+            if ((session.telemetryPeriod == 0) || session.closing) {
+                continue;
+            }
+            if (now >= session.nextTelemetry) {
+                session.nextTelemetry = now + session.telemetryPeriod;
+                if (session.queuedBytes <= MAX_QUEUED_BYTES) {
+                    if (session.sentTelemetryVersion != version) {
+                        if (schema == null) {
+                            schema = makeSchemaFrame();
+                        }
+                        queue(session, schema.duplicate());
+                        session.sentTelemetryVersion = version;
+                    }
+                    if (metrics == null) {
+                        metrics = makeMetricsFrame(now);
+                    }
+                    queue(session, metrics.duplicate());
+                }
+            }
+            next = Math.min(next, session.nextTelemetry);
+        }
+        return (next == Long.MAX_VALUE) ? 0 : Math.max(next - now, 1);
+    }
+
+    private ByteBuffer makeSchemaFrame() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        List<GVRStatsLine.GVRStandardColumn<? extends Number>> columns =
+                new ArrayList<GVRStatsLine.GVRStandardColumn<? extends Number>>(telemetryColumns);
+
+        try {
+            out.writeInt(0);
+            out.writeByte(FRAME_SCHEMA);
+            out.writeShort(columns.size());
+            for (GVRStatsLine.GVRStandardColumn<? extends Number> column : columns) {
+                out.writeUTF(column.getName());
+            }
+            out.flush();
+        } catch (IOException e) {
+            // Cannot happen with a byte array
+        }
+        ByteBuffer frame = ByteBuffer.wrap(bytes.toByteArray());
+        frame.putInt(0, frame.capacity() - FRAME_HEADER_SIZE);
+        return frame;
+    }
+
+    /*
+     * Only reads values which other threads publish,
+     * nothing here waits for the GL thread.
+     */
+    private ByteBuffer makeMetricsFrame(long now) {
+        List<GVRStatsLine.GVRStandardColumn<? extends Number>> columns =
+                new ArrayList<GVRStatsLine.GVRStandardColumn<? extends Number>>(telemetryColumns);
+        int payload = 8 + 4 + 4 + 2 + 4 * columns.size();
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER_SIZE + payload);
+        Scheduler scheduler = AsyncManager.get().getScheduler();
+        int pending = (scheduler instanceof DecodeScheduler)
+                ? ((DecodeScheduler) scheduler).getPendingCount() : -1;
+
+        frame.putInt(payload).put(FRAME_METRICS);
+        frame.putLong(now);
+        frame.putFloat(gvrContext.getFrameTime());
+        frame.putInt(pending);
+        frame.putShort((short) columns.size());
+        for (GVRStatsLine.GVRStandardColumn<? extends Number> column : columns) {
+            frame.putFloat((float) column.getLastValue());
         }
+        frame.flip();
+        return frame;
     }
-}
\ No newline at end of file
+}
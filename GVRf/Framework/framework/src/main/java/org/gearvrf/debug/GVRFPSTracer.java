@@ -15,10 +15,6 @@
 
 package org.gearvrf.debug;
 
-import java.util.LinkedList;
-import java.util.List;
-import java.util.ListIterator;
-
 import org.gearvrf.GVRTime;
 
 /**
@@ -26,18 +22,33 @@ import org.gearvrf.GVRTime;
  * time window.
  */
 public class GVRFPSTracer {
-    protected GVRStatsLine.GVRStandardColumn<Float> mStatColumn;
-    protected List<Long> mTimestamps;
+    protected GVRStatsLine.GVRFloatColumn mStatColumn;
 
     private static int BUFFER_SECONDS = 3;
+    private static final int DEFAULT_SAMPLES = 300;
+    // Enough for 240 frames per second
+    private static final int MAX_TIMESTAMPS = BUFFER_SECONDS * 240;
+
+    // Ring of the frame times in the window, oldest first
+    private final long[] mTimestamps = new long[MAX_TIMESTAMPS];
+    private int mFirst = 0;
+    private int mCount = 0;
 
     /**
-     * Constructor.
+     * Constructor, keeping the latest rates in a {@link GVRStatsLine.GVRRingBufferColumn}.
      * @param name The name of the FPS tracer.
      */
     public GVRFPSTracer(String name) {
-        mStatColumn = new GVRStatsLine.GVRStandardColumn<Float>(name);
-        mTimestamps = new LinkedList<Long>();
+        this(new GVRStatsLine.GVRRingBufferColumn(name, DEFAULT_SAMPLES));
+    }
+
+    /**
+     * Constructor.
+     * @param column The column the frame rates are added to,
+     *               such as a {@link GVRStatsLine.GVRHistogramColumn}.
+     */
+    public GVRFPSTracer(GVRStatsLine.GVRFloatColumn column) {
+        mStatColumn = column;
     }
 
     /**
@@ -54,17 +65,17 @@ public class GVRFPSTracer {
     public synchronized void tick() {
         long currentTime = GVRTime.getMilliTime();
         long cutoffTime = currentTime - BUFFER_SECONDS * 1000;
-        ListIterator<Long> it = mTimestamps.listIterator();
-        while (it.hasNext()) {
-            Long timestamp = it.next();
-            if (timestamp < cutoffTime) {
-                it.remove();
-            } else {
-                break;
-            }
+        while (mCount > 0 && mTimestamps[mFirst] < cutoffTime) {
+            mFirst = (mFirst + 1) % MAX_TIMESTAMPS;
+            --mCount;
         }
 
-        mTimestamps.add(currentTime);
-        mStatColumn.addValue(((float)mTimestamps.size()) / BUFFER_SECONDS);
+        if (mCount == MAX_TIMESTAMPS) {
+            mFirst = (mFirst + 1) % MAX_TIMESTAMPS;
+            --mCount;
+        }
+        mTimestamps[(mFirst + mCount) % MAX_TIMESTAMPS] = currentTime;
+        ++mCount;
+        mStatColumn.addValue(((float) mCount) / BUFFER_SECONDS);
     }
 }
@@ -0,0 +1,185 @@
+/* Copyright 2016 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.debug;
+
+/**
+ * Histogram of non-negative values in log-linear buckets, in the style of
+ * HdrHistogram. Values below 32 have a bucket each; above that every power
+ * of two is split into 16 buckets, so a percentile is within 1/16 of
+ * the recorded values whatever their size.
+ * <p>
+ * The buckets are allocated once, so recording never allocates. Values
+ * larger than the highest value given to the constructor are counted in
+ * the last bucket, although {@link #getMax()} is always exact.
+ * <p>
+ * The histogram does no locking. It is meant to be recorded by a single
+ * thread; reading it from another thread while it records gives
+ * approximate results.
+ */
+public class GVRHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_HALF = 1 << (SUB_BUCKET_BITS - 1);
+
+    private final long[] mCounts;
+    private long mCount;
+    private long mSum;
+    private long mMin = Long.MAX_VALUE;
+    private long mMax = Long.MIN_VALUE;
+
+    /**
+     * Constructor.
+     * @param highestValue
+     *         The highest value to tell apart from larger ones.
+     */
+    public GVRHistogram(long highestValue) {
+        if (highestValue < 1) {
+            throw new IllegalArgumentException("highestValue must be positive");
+        }
+        mCounts = new long[bucketIndex(highestValue) + 1];
+    }
+
+    /**
+     * Copy constructor, to take a snapshot of a histogram.
+     * @param other The histogram to copy.
+     */
+    public GVRHistogram(GVRHistogram other) {
+        mCounts = other.mCounts.clone();
+        mCount = other.mCount;
+        mSum = other.mSum;
+        mMin = other.mMin;
+        mMax = other.mMax;
+    }
+
+    private static int bucketIndex(long value) {
+        final int msb = 63 - Long.numberOfLeadingZeros(value);
+
+        if (msb < SUB_BUCKET_BITS) {
+            return (int) value;
+        }
+        final int shift = msb - SUB_BUCKET_BITS + 1;
+        return shift * SUB_BUCKET_HALF + (int) (value >>> shift);
+    }
+
+    /*
+     * Highest value counted in a bucket
+     */
+    private static long bucketValue(int index) {
+        if (index < 2 * SUB_BUCKET_HALF) {
+            return index;
+        }
+        final int shift = index / SUB_BUCKET_HALF - 1;
+        final long sub = index - shift * SUB_BUCKET_HALF;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    /**
+     * Adds a value to the histogram.
+     * @param value The value, negative values count as 0.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        final int index = bucketIndex(value);
+
+        ++mCounts[Math.min(index, mCounts.length - 1)];
+        ++mCount;
+        mSum += value;
+        if (value < mMin) {
+            mMin = value;
+        }
+        if (value > mMax) {
+            mMax = value;
+        }
+    }
+
+    /**
+     * Removes all the values.
+     */
+    public void reset() {
+        for (int i = 0; i < mCounts.length; ++i) {
+            mCounts[i] = 0;
+        }
+        mCount = 0;
+        mSum = 0;
+        mMin = Long.MAX_VALUE;
+        mMax = Long.MIN_VALUE;
+    }
+
+    /**
+     * Gets the number of values recorded.
+     * @return the number of values.
+     */
+    public long getCount() {
+        return mCount;
+    }
+
+    /**
+     * Gets the smallest value recorded.
+     * @return the smallest value, or 0 if none.
+     */
+    public long getMin() {
+        return (mCount > 0) ? mMin : 0;
+    }
+
+    /**
+     * Gets the largest value recorded.
+     * @return the largest value, or 0 if none.
+     */
+    public long getMax() {
+        return (mCount > 0) ? mMax : 0;
+    }
+
+    /**
+     * Gets the mean of the values recorded.
+     * @return the mean, or NaN if none.
+     */
+    public double getMean() {
+        return (mCount > 0) ? (double) mSum / mCount : Double.NaN;
+    }
+
+    /**
+     * Gets the value below which a percentage of the values fall.
+     * @param percentile The percentage, between 0 and 100.
+     * @return the highest value of the bucket holding the percentile,
+     *         or 0 if no value was recorded.
+     */
+    public long getPercentile(double percentile) {
+        if (mCount == 0) {
+            return 0;
+        }
+        final long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * mCount));
+        long total = 0;
+
+        for (int i = 0; i < mCounts.length; ++i) {
+            total += mCounts[i];
+            if (total >= target) {
+                return Math.max(mMin, Math.min(bucketValue(i), mMax));
+            }
+        }
+        return mMax;
+    }
+
+    @Override
+    public String toString() {
+        if (mCount == 0) {
+            return "n/a";
+        }
+        return String.format("n=%d, min=%d, mean=%.1f, p50=%d, p95=%d, p99=%d, max=%d",
+                             mCount, getMin(), getMean(), getPercentile(50),
+                             getPercentile(95), getPercentile(99), getMax());
+    }
+}
@@ -18,15 +18,29 @@ package org.gearvrf.debug;
 import org.gearvrf.GVRTime;
 
 public class GVRMethodCallTracer {
-    protected GVRStatsLine.GVRStandardColumn<Float> mStatColumn;
+    protected GVRStatsLine.GVRFloatColumn mStatColumn;
 
     private long mEnterTime;
     private long mLeaveTime;
 
     private static final float NANO_TO_MILLIS = 1000000.0f;
+    private static final int DEFAULT_SAMPLES = 300;
 
+    /**
+     * Constructor, keeping the latest calls in a {@link GVRStatsLine.GVRRingBufferColumn}.
+     * @param name The name of the tracer.
+     */
     public GVRMethodCallTracer(String name) {
-        mStatColumn = new GVRStatsLine.GVRStandardColumn<Float>(name);
+        this(new GVRStatsLine.GVRRingBufferColumn(name, DEFAULT_SAMPLES));
+    }
+
+    /**
+     * Constructor.
+     * @param column The column the call times in milliseconds are added to,
+     *               such as a {@link GVRStatsLine.GVRHistogramColumn}.
+     */
+    public GVRMethodCallTracer(GVRStatsLine.GVRFloatColumn column) {
+        mStatColumn = column;
         mEnterTime = -1;
     }
 
@@ -17,6 +17,7 @@ package org.gearvrf.debug;
 
 import java.text.DecimalFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.gearvrf.GVRTime;
@@ -272,6 +273,17 @@ public class GVRStatsLine {
             }
         }
 
+        /**
+         * Gets the latest data point, without formatting.
+         * @return the value added last since the line started, or NaN if none.
+         */
+        public synchronized double getLastValue() {
+            if (mData.isEmpty()) {
+                return Double.NaN;
+            }
+            return mData.get(mData.size() - 1).doubleValue();
+        }
+
         protected String formatDecimal(double value) {
             return mDecimalFormat.format(value);
         }
@@ -284,4 +296,204 @@ public class GVRStatsLine {
             mDecimalFormat = new DecimalFormat(fmt);
         }
     }
+
+    /**
+     * A column of float samples stored without boxing. The samples are
+     * added with {@link #addValue(float)} by a single thread without
+     * locking, so adding a sample never allocates or blocks. Unlike a
+     * {@link GVRStandardColumn}, the samples are not cleared when a new
+     * line starts, so the statistics cover more than one line.
+     */
+    public static abstract class GVRFloatColumn extends GVRStandardColumn<Float> {
+        protected volatile float mLastValue = Float.NaN;
+
+        /**
+         * Constructor.
+         * @param name
+         *         The name of the statistic column. It will be printed in the log line.
+         */
+        public GVRFloatColumn(String name) {
+            super(name);
+        }
+
+        /**
+         * Adds a data point to the statistics, without boxing it.
+         * Must always be called from the same thread.
+         * @param value The value to be added.
+         */
+        public abstract void addValue(float value);
+
+        @Override
+        public void addValue(Float value) {
+            if (value != null) {
+                addValue(value.floatValue());
+            }
+        }
+
+        @Override
+        protected void onStartLine() {
+        }
+
+        /**
+         * Gets the latest data point, without formatting.
+         * @return the value added last since the column was reset, or NaN if none.
+         */
+        @Override
+        public double getLastValue() {
+            return mLastValue;
+        }
+
+        protected String formatSummary(long count, double min, double mean, double p50,
+                                       double p95, double p99, double max) {
+            return String.format("%s (n=%d, min=%s, p50=%s, p95=%s, p99=%s, max=%s)",
+                                 formatDecimal(mean), count, formatDecimal(min),
+                                 formatDecimal(p50), formatDecimal(p95),
+                                 formatDecimal(p99), formatDecimal(max));
+        }
+    }
+
+    /**
+     * This class keeps the latest samples in a fixed size ring buffer,
+     * so the statistics are those of a sliding window and the memory used
+     * does not grow however long the column is used.
+     */
+    public static class GVRRingBufferColumn extends GVRFloatColumn {
+        private final float[] mSamples;
+        private final float[] mSorted;
+        private int mNext = 0;
+        private volatile int mSize = 0;
+
+        /**
+         * Constructor.
+         * @param name
+         *         The name of the statistic column. It will be printed in the log line.
+         * @param capacity
+         *         The number of latest samples to keep.
+         */
+        public GVRRingBufferColumn(String name, int capacity) {
+            super(name);
+            if (capacity < 1) {
+                throw new IllegalArgumentException("capacity must be positive");
+            }
+            mSamples = new float[capacity];
+            mSorted = new float[capacity];
+        }
+
+        @Override
+        public void addValue(float value) {
+            mSamples[mNext] = value;
+            mNext = (mNext + 1) % mSamples.length;
+            mLastValue = value;
+            if (mSize < mSamples.length) {
+                mSize = mSize + 1;
+            }
+        }
+
+        /**
+         * Resets the column. Must be called from the thread which adds the samples.
+         */
+        @Override
+        public void reset() {
+            mSize = 0;
+            mNext = 0;
+            mLastValue = Float.NaN;
+        }
+
+        @Override
+        public synchronized Object getStat() {
+            final int n = mSize;
+
+            switch (n) {
+                case 0:
+                    return "n/a";
+                case 1:
+                    return formatDecimal(mLastValue);
+                default: {
+                    System.arraycopy(mSamples, 0, mSorted, 0, n);
+                    Arrays.sort(mSorted, 0, n);
+
+                    DescriptiveResult res = Stats.computeDescriptive(mSorted, n);
+                    return formatSummary(n, mSorted[0], res.mean, percentile(n, 50),
+                                         percentile(n, 95), percentile(n, 99), mSorted[n - 1]);
+                }
+            }
+        }
+
+        private float percentile(int n, double percentile) {
+            final int index = (int) Math.ceil(percentile / 100.0 * n) - 1;
+            return mSorted[Math.max(0, Math.min(index, n - 1))];
+        }
+    }
+
+    /**
+     * This class counts the samples in a {@link GVRHistogram}, so the
+     * percentiles of all the samples since the column was reset can be
+     * printed in constant memory, as for a long soak test.
+     */
+    public static class GVRHistogramColumn extends GVRFloatColumn {
+        private final GVRHistogram mHistogram;
+        private final float mResolution;
+
+        /**
+         * Constructor for samples between 0 and 10000 with a resolution
+         * of 0.01, such as times in milliseconds or frame rates.
+         * @param name
+         *         The name of the statistic column. It will be printed in the log line.
+         */
+        public GVRHistogramColumn(String name) {
+            this(name, 0.01f, 10000.0f);
+        }
+
+        /**
+         * Constructor.
+         * @param name
+         *         The name of the statistic column. It will be printed in the log line.
+         * @param resolution
+         *         The smallest difference between two samples which is kept.
+         * @param highestValue
+         *         The highest sample to tell apart from larger ones.
+         */
+        public GVRHistogramColumn(String name, float resolution, float highestValue) {
+            super(name);
+            if (resolution <= 0) {
+                throw new IllegalArgumentException("resolution must be positive");
+            }
+            mResolution = resolution;
+            mHistogram = new GVRHistogram(Math.max(1, Math.round(highestValue / resolution)));
+        }
+
+        /**
+         * Adds a data point to the statistics. Negative values count as 0.
+         * @param value The value to be added.
+         */
+        @Override
+        public void addValue(float value) {
+            mHistogram.record(Math.round(value / mResolution));
+            mLastValue = value;
+        }
+
+        /**
+         * Resets the column. Must be called from the thread which adds the samples.
+         */
+        @Override
+        public void reset() {
+            mHistogram.reset();
+            mLastValue = Float.NaN;
+        }
+
+        @Override
+        public Object getStat() {
+            final long n = mHistogram.getCount();
+
+            if (n == 0) {
+                return "n/a";
+            }
+            return formatSummary(n, mHistogram.getMin() * mResolution,
+                                 mHistogram.getMean() * mResolution,
+                                 mHistogram.getPercentile(50) * mResolution,
+                                 mHistogram.getPercentile(95) * mResolution,
+                                 mHistogram.getPercentile(99) * mResolution,
+                                 mHistogram.getMax() * mResolution);
+        }
+    }
 }
@@ -46,4 +46,27 @@ public class Stats {
 
         return desc;
     }
+
+    public static DescriptiveResult computeDescriptive(float[] data, int n) {
+        DescriptiveResult desc = new DescriptiveResult();
+
+        desc.n = n;
+        if (desc.n == 0)
+            return desc;
+
+        for (int i = 0; i < n; ++i) {
+            desc.mean += data[i];
+        }
+
+        desc.mean /= desc.n;
+
+        for (int i = 0; i < n; ++i) {
+            desc.stdev += (data[i] - desc.mean) * (data[i] - desc.mean);
+        }
+
+        desc.stdev /= (desc.n - 1);
+        desc.stdev = Math.sqrt(desc.stdev);
+
+        return desc;
+    }
 }
@@ -21,6 +21,7 @@ import java.util.List;
 
 import org.gearvrf.debug.cli.util.ArrayHashMultiMap;
 import org.gearvrf.debug.cli.util.MultiMap;
+import org.gearvrf.debug.cli.util.Strings;
 
 /**
  * Shell is the class interacting with user.
@@ -222,36 +223,30 @@ public class Shell {
      * @throws java.io.IOException when can't readLine() from input.
      */
     public void commandLoop() throws IOException {
+        enterLoop();
+        while (processInput(input.readCommand(path))) {
+        }
+        leaveLoop();
+    }
+
+    /**
+     * Starts a command session without reading the input.
+     * Use this with {@link #processInput(String)} and {@link #leaveLoop()}
+     * when the lines come from somewhere else, such as a network session.
+     */
+    public void enterLoop() {
         for (Object handler : allHandlers) {
             if (handler instanceof ShellManageable) {
                 ((ShellManageable)handler).cliEnterLoop();
             }
         }
         output.output(appName, outputConverter);
-        String command = "";
-        while (true) {
-            try {
-                command = input.readCommand(path);
-                if (command.trim().equals("exit")) {
-                    if (lineProcessor == null)
-                        break;
-                    else {
-                        path = savedPath;
-                        lineProcessor = null;
-                    }
-                }
+    }
 
-                processLine(command);
-            } catch (TokenException te) {
-                lastException = te;
-                output.outputException(command, te);
-            } catch (CLIException clie) {
-                lastException = clie;
-                if (!command.trim().equals("exit")) {
-                    output.outputException(clie);
-                }
-            }
-        }
+    /**
+     * Ends a command session started by {@link #enterLoop()}.
+     */
+    public void leaveLoop() {
         for (Object handler : allHandlers) {
             if (handler instanceof ShellManageable) {
                 ((ShellManageable)handler).cliLeaveLoop();
@@ -259,6 +254,44 @@ public class Shell {
         }
     }
 
+    /**
+     * Processes one line of the command session, the way the command
+     * loop does. Errors are directed to the shell's Output.
+     *
+     * @param command Full command line
+     * @return false if the line ends the session
+     */
+    public boolean processInput(String command) {
+        try {
+            if (command.trim().equals("exit")) {
+                if (lineProcessor == null)
+                    return false;
+                else {
+                    path = savedPath;
+                    lineProcessor = null;
+                }
+            }
+
+            processLine(command);
+        } catch (TokenException te) {
+            lastException = te;
+            output.outputException(command, te);
+        } catch (CLIException clie) {
+            lastException = clie;
+            if (!command.trim().equals("exit")) {
+                output.outputException(clie);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the prompt for the current path, as the console prints it
+     */
+    public String getPrompt() {
+        return Strings.joinStrings(path, false, '/') + "> ";
+    }
+
     private void outputHeader(String header, Object[] parameters) {
         if (header == null || header.isEmpty()) {
             output.outputHeader(null);
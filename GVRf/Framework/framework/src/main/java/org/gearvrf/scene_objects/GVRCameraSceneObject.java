@@ -24,6 +24,7 @@ import android.hardware.Camera.Parameters;
 import org.gearvrf.GVRContext;
 import org.gearvrf.GVREventListeners;
 import org.gearvrf.GVRExternalTexture;
+import org.gearvrf.GVRGLTaskQueue;
 import org.gearvrf.GVRMaterial;
 import org.gearvrf.GVRMaterial.GVRShaderType;
 import org.gearvrf.GVRMesh;
@@ -86,7 +87,7 @@ public class GVRCameraSceneObject extends GVRSceneObject {
 
             @Override
             public void onFrameAvailable(SurfaceTexture surfaceTexture) {
-                GVRCameraSceneObject.this.gvrContext.runOnGlThread(onFrameAvailableGLCallback);
+                GVRCameraSceneObject.this.gvrContext.runOnGlThread(onFrameAvailableGLCallback, GVRGLTaskQueue.Priority.HIGH);
             }
         });
 
@@ -129,7 +130,7 @@ public class GVRCameraSceneObject extends GVRSceneObject {
 
             @Override
             public void onFrameAvailable(SurfaceTexture surfaceTexture) {
-                GVRCameraSceneObject.this.gvrContext.runOnGlThread(onFrameAvailableGLCallback);
+                GVRCameraSceneObject.this.gvrContext.runOnGlThread(onFrameAvailableGLCallback, GVRGLTaskQueue.Priority.HIGH);
             }
         });
 
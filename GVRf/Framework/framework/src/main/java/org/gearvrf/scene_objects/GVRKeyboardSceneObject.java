@@ -43,6 +43,7 @@ import org.gearvrf.GVRComponent;
 import org.gearvrf.GVRContext;
 import org.gearvrf.GVREventListeners;
 import org.gearvrf.GVRExternalTexture;
+import org.gearvrf.GVRGLTaskQueue;
 import org.gearvrf.GVRMaterial;
 import org.gearvrf.GVRMesh;
 import org.gearvrf.GVRMeshCollider;
@@ -647,7 +648,7 @@ public class GVRKeyboardSceneObject extends GVRSceneObject {
 
                 @Override
                 public void onFrameAvailable(SurfaceTexture surfaceTexture) {
-                    gvrContext.runOnGlThread(onFrameAvailableGLCallback);
+                    gvrContext.runOnGlThread(onFrameAvailableGLCallback, GVRGLTaskQueue.Priority.HIGH);
                 }
             });
         }
@@ -24,6 +24,7 @@ import org.gearvrf.GVRContext;
 import org.gearvrf.GVRDrawFrameListener;
 import org.gearvrf.GVREventListeners;
 import org.gearvrf.GVRExternalTexture;
+import org.gearvrf.GVRGLTaskQueue;
 import org.gearvrf.GVRMaterial;
 import org.gearvrf.GVRMaterial.GVRShaderType;
 import org.gearvrf.GVRMesh;
@@ -387,7 +388,7 @@ public class GVRVideoSceneObject extends GVRSceneObject {
 
                 @Override
                 public void onFrameAvailable(SurfaceTexture surfaceTexture) {
-                    mContext.runOnGlThread(onFrameAvailableGLCallback);
+                    mContext.runOnGlThread(onFrameAvailableGLCallback, GVRGLTaskQueue.Priority.HIGH);
                 }
             });
         }
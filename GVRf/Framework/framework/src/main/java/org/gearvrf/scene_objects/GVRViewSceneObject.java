@@ -48,6 +48,7 @@ import org.gearvrf.GVRApplication;
 import org.gearvrf.GVRCollider;
 import org.gearvrf.GVRContext;
 import org.gearvrf.GVRExternalTexture;
+import org.gearvrf.GVRGLTaskQueue;
 import org.gearvrf.GVRMaterial;
 import org.gearvrf.GVRMesh;
 import org.gearvrf.GVRMeshCollider;
@@ -757,7 +758,7 @@ public class GVRViewSceneObject extends GVRSceneObject {
 
                 @Override
                 public void onFrameAvailable(SurfaceTexture surfaceTexture) {
-                    mGVRContext.runOnGlThread(onFrameAvailableGLCallback);
+                    mGVRContext.runOnGlThread(onFrameAvailableGLCallback, GVRGLTaskQueue.Priority.HIGH);
                 }
             });
 
@@ -19,12 +19,14 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.script.Bindings;
+import javax.script.Invocable;
 import javax.script.ScriptContext;
 import javax.script.ScriptEngine;
 import javax.script.ScriptException;
@@ -49,15 +51,18 @@ public abstract class GVRScriptFile {
     protected final GVRContext mGvrContext;
     protected final String mLanguage;
 
-    // Lock for engine access and mBadFunctions
+    // Lock for engine access
     protected final Object mEngineLock = new Object();
     protected final ScriptEngine mLocalEngine;
-    private Set<String> mBadFunctions;
+    // Functions are called directly instead of evaluating a statement
+    private final Invocable mInvocable;
+    private final Set<String> mBadFunctions =
+            Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
 
     // Lock for mScriptText and dirty flag
     protected final Object mScriptTextLock = new Object();
     protected String mScriptText;
-    protected boolean mScriptTextDirty;
+    protected volatile boolean mScriptTextDirty;
 
     // Caching parameter names to reduce object creation
     private static final int sNumOfCachedParamNames = 10;
@@ -97,6 +102,7 @@ public abstract class GVRScriptFile {
         // enforce context
         ScriptEngine engine = mGvrContext.getScriptManager().getEngine(mLanguage);
         mLocalEngine = engine.getFactory().getScriptEngine();
+        mInvocable = (mLocalEngine instanceof Invocable) ? (Invocable) mLocalEngine : null;
 
         // Add globals
         mGvrContext.getScriptManager().addGlobalBindings(mLocalEngine);
@@ -158,6 +164,11 @@ public abstract class GVRScriptFile {
 
     /**
      * Invokes a function defined in the script.
+     * <p>
+     * If the engine supports {@link Invocable} the function is called
+     * directly with the parameters. Otherwise a statement calling the
+     * function is evaluated with the parameters bound to {@code arg0},
+     * {@code arg1} and so on.
      *
      * @param funcName
      *     The function name.
@@ -179,6 +190,10 @@ public abstract class GVRScriptFile {
             return false;
         }
 
+        if (mInvocable != null) {
+            return invokeDirect(funcName, params);
+        }
+
         String statement = getInvokeStatementCached(funcName, params);
 
         synchronized (mEngineLock) {
@@ -205,6 +220,22 @@ public abstract class GVRScriptFile {
         return true;
     }
 
+    private boolean invokeDirect(String funcName, Object[] params) {
+        if (localBindings == null) {
+            // Values the script sets are read back from here
+            localBindings = mLocalEngine.getBindings(ScriptContext.ENGINE_SCOPE);
+        }
+        try {
+            mInvocable.invokeFunction(funcName, params);
+        } catch (ScriptException | NoSuchMethodException e) {
+            // The function is either undefined or throws, avoid invoking it later
+            addBadFunction(funcName);
+            mLastError = e.getMessage();
+            return false;
+        }
+        return true;
+    }
+
     /**
      * Access to values modified during invoking of Script file
      * Enables X3D to get values script modifies..
@@ -215,38 +246,24 @@ public abstract class GVRScriptFile {
     }
 
     private void resetBadFunctions() {
-        if (mBadFunctions == null) {
-            return;
-        }
-
-        synchronized (mEngineLock) {
-            mBadFunctions.clear();
-        }
+        mBadFunctions.clear();
     }
 
     private boolean isBadFunction(String funcName) {
-        if (mBadFunctions == null) {
-            return false;
-        }
-
-        synchronized (mEngineLock) {
-            return mBadFunctions.contains(funcName);
-        }
+        return !mBadFunctions.isEmpty() && mBadFunctions.contains(funcName);
     }
 
     private void addBadFunction(String funcName) {
-        synchronized (mEngineLock) {
-            // Lazy initialization
-            if (mBadFunctions == null) {
-                mBadFunctions = new HashSet<String>();
-            }
-            mBadFunctions.add(funcName);
-        }
+        mBadFunctions.add(funcName);
     }
 
     protected void checkDirty() {
+        mLastError = null;
+        // Only lock when the script has changed
+        if (!mScriptTextDirty) {
+            return;
+        }
         synchronized (mScriptTextLock) {
-            mLastError = null;
             if (mScriptTextDirty) {
                 mScriptTextDirty = false;
 
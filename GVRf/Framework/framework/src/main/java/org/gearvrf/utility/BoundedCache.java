@@ -0,0 +1,250 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.utility;
+
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache with a byte budget.
+ * <p>
+ * Resources are held strongly until the sum of their sizes exceeds the
+ * budget. Then the least recently used ({@link EvictionPolicy#LRU}) or the
+ * least frequently used ({@link EvictionPolicy#LFU}) resources are evicted.
+ * An evicted resource is still found by {@link #get(Object)} as long as the
+ * application keeps it in memory, so the same resource is never loaded twice.
+ * <p>
+ * The cache counts hits, misses and evictions so its budget can be tuned.
+ * All methods are thread-safe.
+ *
+ * @param <K> key type
+ * @param <V> resource type
+ */
+public class BoundedCache<K, V> {
+    private static final String TAG = Log.tag(BoundedCache.class);
+
+    /**
+     * Which resources are evicted first when the cache is over budget.
+     */
+    public enum EvictionPolicy {
+        /** Evict the resource which was not used for the longest time */
+        LRU,
+        /** Evict the resource which was used the fewest times */
+        LFU
+    }
+
+    /**
+     * Computes the memory used by a resource.
+     */
+    public interface Sizer<V> {
+        /**
+         * @return approximate number of bytes of CPU and GPU memory used by
+         *         the resource
+         */
+        long sizeOf(V resource);
+    }
+
+    private static final class Entry<V> {
+        final V resource;
+        final long size;
+        int useCount;
+
+        Entry(V resource, long size) {
+            this.resource = resource;
+            this.size = size;
+            this.useCount = 1;
+        }
+    }
+
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<K, Entry<V>> mEntries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true);
+    private final Map<K, WeakReference<V>> mEvicted = new HashMap<K, WeakReference<V>>();
+    private final Sizer<V> mSizer;
+    private final EvictionPolicy mPolicy;
+    private long mMaxSize;
+    private long mSize;
+
+    private long mHitCount;
+    private long mMissCount;
+    private long mEvictionCount;
+
+    /**
+     * Construct a cache.
+     * @param maxSize   budget in bytes
+     * @param policy    eviction policy
+     * @param sizer     computes the size of resources
+     */
+    public BoundedCache(long maxSize, EvictionPolicy policy, Sizer<V> sizer) {
+        Assert.checkNotNull("policy", policy);
+        Assert.checkNotNull("sizer", sizer);
+
+        mMaxSize = maxSize;
+        mPolicy = policy;
+        mSizer = sizer;
+    }
+
+    /** Add a resource to the cache, evicting others if over budget */
+    public synchronized void put(K key, V resource) {
+        long size = Math.max(0, mSizer.sizeOf(resource));
+        Entry<V> old = mEntries.put(key, new Entry<V>(resource, size));
+
+        if (old != null) {
+            mSize -= old.size;
+        }
+        mEvicted.remove(key);
+        mSize += size;
+        trimToSize(mMaxSize);
+    }
+
+    /** Get the cached resource, or {@code null} */
+    public synchronized V get(K key) {
+        Entry<V> entry = mEntries.get(key);
+        if (entry != null) {
+            ++entry.useCount;
+            ++mHitCount;
+            return entry.resource;
+        }
+
+        WeakReference<V> reference = mEvicted.get(key);
+        V resource = (reference != null) ? reference.get() : null;
+        if (resource == null) {
+            if (reference != null) {
+                // In map, but not in memory
+                mEvicted.remove(key);
+            }
+            ++mMissCount;
+            return null;
+        }
+
+        // Still in use by the application, bring it back
+        ++mHitCount;
+        mEvicted.remove(key);
+        long size = Math.max(0, mSizer.sizeOf(resource));
+        mEntries.put(key, new Entry<V>(resource, size));
+        mSize += size;
+        trimToSize(mMaxSize);
+        return resource;
+    }
+
+    /** Remove a resource from the cache */
+    public synchronized void remove(K key) {
+        Entry<V> entry = mEntries.remove(key);
+        if (entry != null) {
+            mSize -= entry.size;
+        }
+        mEvicted.remove(key);
+    }
+
+    /** Remove all resources from the cache. The counters are not reset. */
+    public synchronized void clear() {
+        mEntries.clear();
+        mEvicted.clear();
+        mSize = 0;
+    }
+
+    /**
+     * Change the budget, evicting resources if the cache
+     * is now over budget.
+     * @param maxSize   budget in bytes
+     */
+    public synchronized void setMaxSize(long maxSize) {
+        mMaxSize = maxSize;
+        trimToSize(maxSize);
+    }
+
+    /** @return budget in bytes */
+    public synchronized long getMaxSize() {
+        return mMaxSize;
+    }
+
+    /** @return total size of the resources held by the cache in bytes */
+    public synchronized long getSize() {
+        return mSize;
+    }
+
+    /** @return number of resources held by the cache */
+    public synchronized int getCount() {
+        return mEntries.size();
+    }
+
+    /** @return number of times {@link #get(Object)} found the resource */
+    public synchronized long getHitCount() {
+        return mHitCount;
+    }
+
+    /** @return number of times {@link #get(Object)} returned {@code null} */
+    public synchronized long getMissCount() {
+        return mMissCount;
+    }
+
+    /** @return number of resources evicted to stay within budget */
+    public synchronized long getEvictionCount() {
+        return mEvictionCount;
+    }
+
+    /** @return eviction policy */
+    public EvictionPolicy getEvictionPolicy() {
+        return mPolicy;
+    }
+
+    private void trimToSize(long maxSize) {
+        while ((mSize > maxSize) && !mEntries.isEmpty()) {
+            Map.Entry<K, Entry<V>> victim = (mPolicy == EvictionPolicy.LFU)
+                    ? findLeastFrequent() : mEntries.entrySet().iterator().next();
+            K key = victim.getKey();
+            Entry<V> entry = victim.getValue();
+
+            mEntries.remove(key);
+            mSize -= entry.size;
+            mEvicted.put(key, new WeakReference<V>(entry.resource));
+            ++mEvictionCount;
+            Log.d(TAG, "evicted %s (%d bytes)", key, entry.size);
+        }
+        purgeEvicted();
+    }
+
+    /*
+     * Ties are broken by recency, because the iteration
+     * starts with the least recently used entry.
+     */
+    private Map.Entry<K, Entry<V>> findLeastFrequent() {
+        Map.Entry<K, Entry<V>> victim = null;
+        for (Map.Entry<K, Entry<V>> e : mEntries.entrySet()) {
+            if ((victim == null) || (e.getValue().useCount < victim.getValue().useCount)) {
+                victim = e;
+            }
+        }
+        return victim;
+    }
+
+    private void purgeEvicted() {
+        Iterator<WeakReference<V>> iter = mEvicted.values().iterator();
+        while (iter.hasNext()) {
+            if (iter.next().get() == null) {
+                iter.remove();
+            }
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%s[size=%d, maxSize=%d, count=%d, hits=%d, misses=%d, evictions=%d]",
+                mPolicy, mSize, mMaxSize, mEntries.size(), mHitCount, mMissCount, mEvictionCount);
+    }
+}
@@ -16,49 +16,89 @@
 package org.gearvrf.utility;
 
 import org.gearvrf.GVRAndroidResource;
-
-import java.lang.ref.WeakReference;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import org.gearvrf.GVRImage;
+import org.gearvrf.GVRIndexBuffer;
+import org.gearvrf.GVRMesh;
+import org.gearvrf.GVRVertexBuffer;
+import org.gearvrf.utility.BoundedCache.EvictionPolicy;
+import org.gearvrf.utility.BoundedCache.Sizer;
 
 /**
  * Basic cache-by-resource-description.
  *
- * Keeps system from reloading resources, so long as a previous copy is still in
- * memory.
+ * Keeps system from reloading resources. Recently used resources are kept
+ * in memory up to a byte budget (see {@link BoundedCache}); beyond that, a
+ * resource is only found so long as a previous copy is still in memory.
  *
  * @since 2.0.2
  */
 public class ResourceCacheBase<T> {
     private static final String TAG = Log.tag(ResourceCacheBase.class);
 
-    private final Map<GVRAndroidResource, WeakReference<T>> cache //
-            = new ConcurrentHashMap<GVRAndroidResource, WeakReference<T>>();
+    /** Default budget, in bytes */
+    public static final long DEFAULT_MAX_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * Sizes {@link GVRImage} and {@link GVRMesh} resources.
+     * Other resources are counted as zero bytes.
+     */
+    public static final Sizer<Object> DEFAULT_SIZER = new Sizer<Object>() {
+        @Override
+        public long sizeOf(Object resource) {
+            if (resource instanceof GVRImage) {
+                return ((GVRImage) resource).getDataSize();
+            }
+            if (resource instanceof GVRMesh) {
+                GVRMesh mesh = (GVRMesh) resource;
+                GVRVertexBuffer vbuf = mesh.getVertexBuffer();
+                GVRIndexBuffer ibuf = mesh.getIndexBuffer();
+                return ((vbuf != null) ? vbuf.getDataSize() : 0)
+                        + ((ibuf != null) ? ibuf.getDataSize() : 0);
+            }
+            return 0;
+        }
+    };
+
+    private final BoundedCache<GVRAndroidResource, T> cache;
+
+    /** Construct a LRU cache with the {@linkplain #DEFAULT_MAX_SIZE default budget} */
+    public ResourceCacheBase() {
+        this(DEFAULT_MAX_SIZE, EvictionPolicy.LRU);
+    }
 
-    /** Save a weak reference to the resource */
+    /**
+     * Construct a cache.
+     * @param maxSize   budget in bytes
+     * @param policy    eviction policy
+     */
+    @SuppressWarnings("unchecked")
+    public ResourceCacheBase(long maxSize, EvictionPolicy policy) {
+        cache = new BoundedCache<GVRAndroidResource, T>(maxSize, policy, (Sizer<T>) (Sizer<?>) DEFAULT_SIZER);
+    }
+
+    /** Save the resource */
     public void put(GVRAndroidResource androidResource, T resource) {
         Log.d(TAG, "put resource %s to cache", androidResource);
 
-        cache.put(androidResource, new WeakReference<T>(resource));
+        cache.put(androidResource, resource);
     }
 
     /** Get the cached resource, or {@code null} */
     public T get(GVRAndroidResource androidResource) {
-        WeakReference<T> reference = cache.get(androidResource);
-        if (reference == null) {
-            // Not in map
-            // Log.d(TAG, "get(%s) returning %s", androidResource, null);
-            return null;
-        }
-        T cached = reference.get();
-        if (cached == null) {
-            // In map, but not in memory
-            cache.remove(androidResource);
-        } else {
+        T cached = cache.get(androidResource);
+        if (cached != null) {
             // No one will ever read this stream
             androidResource.closeStream();
         }
         // Log.d(TAG, "get(%s) returning %s", androidResource, cached);
         return cached;
     }
+
+    /**
+     * Get the underlying cache, to change its budget
+     * or read its hit, miss and eviction counters.
+     */
+    public BoundedCache<GVRAndroidResource, T> getCache() {
+        return cache;
+    }
 }
@@ -0,0 +1,395 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/***************************************************************************
+ * Bounding volume hierarchy over the world bounds of the colliders
+ * in a scene, used by the picker to skip colliders which cannot be hit.
+ ***************************************************************************/
+
+#include "collider_bvh.h"
+
+#include <algorithm>
+#include <cmath>
+#include <limits>
+
+#include "objects/bounding_volume.h"
+#include "objects/scene_object.h"
+#include "objects/components/collider.h"
+
+namespace gvr {
+
+/*
+ * Maximum number of colliders in a leaf node.
+ */
+static const int LEAF_SIZE = 4;
+
+/*
+ * The hierarchy is rebuilt when refitting has made the total
+ * surface area of the nodes this many times larger than after
+ * the last build.
+ */
+static const float REBUILD_RATIO = 2.0f;
+
+static float surfaceArea(const glm::vec3& min_corner, const glm::vec3& max_corner)
+{
+    glm::vec3 d = max_corner - min_corner;
+    float area = 2.0f * (d.x * d.y + d.y * d.z + d.z * d.x);
+
+    // Unbounded colliders and empty nodes do not count
+    return (std::isfinite(area) && (area > 0)) ? area : 0.0f;
+}
+
+ColliderBVH::ColliderBVH() :
+        version_(0),
+        valid_(false),
+        build_cost_(0)
+{
+}
+
+void ColliderBVH::computeBounds(Leaf& leaf)
+{
+    Collider* collider = leaf.collider;
+    SceneObject* owner = collider->owner_object();
+    BoundingVolume bounds;
+
+    collider->clearBoundsDirty();
+    if ((owner != NULL) && collider->getWorldBounds(owner, bounds))
+    {
+        // The frustum picker tests the bounds of the owner, not the collider
+        BoundingVolume& ownerBounds = owner->getBoundingVolume();
+        if (ownerBounds.radius() > 0)
+        {
+            bounds.expand(ownerBounds);
+        }
+        leaf.min_corner = bounds.min_corner();
+        leaf.max_corner = bounds.max_corner();
+    }
+    else
+    {
+        // No bounds, always tested
+        leaf.min_corner = glm::vec3(-std::numeric_limits<float>::infinity());
+        leaf.max_corner = glm::vec3(std::numeric_limits<float>::infinity());
+    }
+}
+
+void ColliderBVH::update(const std::vector<Component*>& colliders, unsigned int version)
+{
+    if (!valid_ || (version != version_) || (colliders.size() != leaves_.size()))
+    {
+        version_ = version;
+        rebuild(colliders);
+        return;
+    }
+    bool changed = false;
+    for (auto it = leaves_.begin(); it != leaves_.end(); ++it)
+    {
+        if (it->collider->isBoundsDirty())
+        {
+            computeBounds(*it);
+            changed = true;
+        }
+    }
+    if (changed && (refit() > REBUILD_RATIO * build_cost_))
+    {
+        rebuild(colliders);
+    }
+}
+
+void ColliderBVH::rebuild(const std::vector<Component*>& colliders)
+{
+    int n = colliders.size();
+
+    leaves_.resize(n);
+    nodes_.clear();
+    nodes_.reserve(n > 0 ? (2 * n) / LEAF_SIZE + 1 : 1);
+    for (int i = 0; i < n; ++i)
+    {
+        Leaf& leaf = leaves_[i];
+        leaf.collider = static_cast<Collider*>(colliders[i]);
+        leaf.index = i;
+        computeBounds(leaf);
+    }
+    build(0, n);
+    build_cost_ = refit();
+    valid_ = true;
+}
+
+/*
+ * Build the subtree for leaves_[first, first + count) top down.
+ * The leaves are split at the median of their centers along the
+ * longest axis of the centers. Children are always created after
+ * their parent, which refit() relies on.
+ */
+int ColliderBVH::build(int first, int count)
+{
+    int nodeIndex = nodes_.size();
+    nodes_.push_back(Node());
+
+    Node& node = nodes_[nodeIndex];
+    node.left = -1;
+    node.right = -1;
+    node.first = first;
+    node.count = count;
+    if (count <= LEAF_SIZE)
+    {
+        return nodeIndex;
+    }
+
+    glm::vec3 cmin(std::numeric_limits<float>::infinity());
+    glm::vec3 cmax(-std::numeric_limits<float>::infinity());
+    for (int i = first; i < first + count; ++i)
+    {
+        glm::vec3 c = (leaves_[i].min_corner + leaves_[i].max_corner) * 0.5f;
+        if (std::isfinite(c.x) && std::isfinite(c.y) && std::isfinite(c.z))
+        {
+            cmin = glm::min(cmin, c);
+            cmax = glm::max(cmax, c);
+        }
+    }
+    glm::vec3 extent = cmax - cmin;
+    int axis = 0;
+    if (extent.y > extent[axis])
+    {
+        axis = 1;
+    }
+    if (extent.z > extent[axis])
+    {
+        axis = 2;
+    }
+
+    int half = count / 2;
+    std::nth_element(leaves_.begin() + first, leaves_.begin() + first + half,
+                     leaves_.begin() + first + count,
+                     [axis](const Leaf& a, const Leaf& b)
+                     {
+                         // Unbounded leaves have NaN centers, keep them together
+                         float ca = a.min_corner[axis] + a.max_corner[axis];
+                         float cb = b.min_corner[axis] + b.max_corner[axis];
+                         if (std::isnan(ca))
+                         {
+                             return false;
+                         }
+                         return std::isnan(cb) || (ca < cb);
+                     });
+
+    int left = build(first, half);
+    int right = build(first + half, count - half);
+
+    // push_back may have moved the nodes
+    nodes_[nodeIndex].left = left;
+    nodes_[nodeIndex].right = right;
+    return nodeIndex;
+}
+
+/*
+ * Recompute the node bounds from the leaves, children first.
+ * @returns total surface area of the nodes
+ */
+float ColliderBVH::refit()
+{
+    float cost = 0;
+
+    for (int i = nodes_.size() - 1; i >= 0; --i)
+    {
+        Node& node = nodes_[i];
+
+        if (node.left < 0)
+        {
+            node.min_corner = glm::vec3(std::numeric_limits<float>::infinity());
+            node.max_corner = glm::vec3(-std::numeric_limits<float>::infinity());
+            for (int j = node.first; j < node.first + node.count; ++j)
+            {
+                node.min_corner = glm::min(node.min_corner, leaves_[j].min_corner);
+                node.max_corner = glm::max(node.max_corner, leaves_[j].max_corner);
+            }
+        }
+        else
+        {
+            const Node& left = nodes_[node.left];
+            const Node& right = nodes_[node.right];
+            node.min_corner = glm::min(left.min_corner, right.min_corner);
+            node.max_corner = glm::max(left.max_corner, right.max_corner);
+        }
+        cost += surfaceArea(node.min_corner, node.max_corner);
+    }
+    return cost;
+}
+
+/*
+ * Walk the hierarchy, descending into the nodes which pass the test.
+ * Tests are written to reject only when clearly outside, so the
+ * NaNs which unbounded colliders produce never cause a miss.
+ */
+template <typename TEST>
+int ColliderBVH::query(const TEST& test, std::vector<int>& hits) const
+{
+    int visited = 0;
+
+    if (nodes_.empty() || leaves_.empty())
+    {
+        return 0;
+    }
+    /*
+     * The median split keeps the depth of most hierarchies well within
+     * the fixed stack. Deeper ones, such as many colliders with the
+     * same bounds, continue on a stack in the heap.
+     */
+    const int FIXED_STACK_SIZE = 64;
+    int fixed_stack[FIXED_STACK_SIZE];
+    std::vector<int> heap_stack;
+    int* stack = fixed_stack;
+    int capacity = FIXED_STACK_SIZE;
+    int top = 0;
+
+    stack[top++] = 0;
+    while (top > 0)
+    {
+        const Node& node = nodes_[stack[--top]];
+
+        ++visited;
+        if (!test(node.min_corner, node.max_corner))
+        {
+            continue;
+        }
+        if (node.left < 0)
+        {
+            for (int j = node.first; j < node.first + node.count; ++j)
+            {
+                const Leaf& leaf = leaves_[j];
+                if (test(leaf.min_corner, leaf.max_corner))
+                {
+                    hits.push_back(leaf.index);
+                }
+            }
+        }
+        else
+        {
+            if (top + 2 > capacity)
+            {
+                if (stack == fixed_stack)
+                {
+                    heap_stack.assign(fixed_stack, fixed_stack + top);
+                }
+                capacity *= 2;
+                heap_stack.resize(capacity);
+                stack = heap_stack.data();
+            }
+            stack[top++] = node.right;
+            stack[top++] = node.left;
+        }
+    }
+    return visited;
+}
+
+namespace {
+
+struct RayTest {
+    glm::vec3 origin;
+    glm::vec3 inv_dir;
+
+    /*
+     * The ray is treated as a line, because the colliders
+     * do not all ignore hits behind the ray origin.
+     */
+    bool operator()(const glm::vec3& min_corner, const glm::vec3& max_corner) const
+    {
+        float tmin = -std::numeric_limits<float>::infinity();
+        float tmax = std::numeric_limits<float>::infinity();
+
+        for (int a = 0; a < 3; ++a)
+        {
+            float t0 = (min_corner[a] - origin[a]) * inv_dir[a];
+            float t1 = (max_corner[a] - origin[a]) * inv_dir[a];
+
+            if (inv_dir[a] < 0)
+            {
+                std::swap(t0, t1);
+            }
+            if (t0 > tmin)
+            {
+                tmin = t0;
+            }
+            if (t1 < tmax)
+            {
+                tmax = t1;
+            }
+            if (tmin > tmax)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+};
+
+struct SphereTest {
+    glm::vec3 center;
+    float radius;
+
+    bool operator()(const glm::vec3& min_corner, const glm::vec3& max_corner) const
+    {
+        glm::vec3 closest = glm::clamp(center, min_corner, max_corner);
+        glm::vec3 d = closest - center;
+        return !(glm::dot(d, d) > radius * radius);
+    }
+};
+
+struct FrustumTest {
+    const glm::vec4* planes;
+
+    bool operator()(const glm::vec3& min_corner, const glm::vec3& max_corner) const
+    {
+        for (int i = 0; i < 6; ++i)
+        {
+            const glm::vec4& p = planes[i];
+            // Corner furthest along the plane normal
+            glm::vec3 v((p.x >= 0) ? max_corner.x : min_corner.x,
+                        (p.y >= 0) ? max_corner.y : min_corner.y,
+                        (p.z >= 0) ? max_corner.z : min_corner.z);
+            if (p.x * v.x + p.y * v.y + p.z * v.z + p.w < 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+};
+
+}
+
+int ColliderBVH::raycast(const glm::vec3& rayStart, const glm::vec3& rayDir, std::vector<int>& hits) const
+{
+    RayTest test;
+    test.origin = rayStart;
+    test.inv_dir = glm::vec3(1.0f / rayDir.x, 1.0f / rayDir.y, 1.0f / rayDir.z);
+    return query(test, hits);
+}
+
+int ColliderBVH::sphereQuery(const glm::vec3& center, float radius, std::vector<int>& hits) const
+{
+    SphereTest test;
+    test.center = center;
+    test.radius = radius;
+    return query(test, hits);
+}
+
+int ColliderBVH::frustumQuery(const glm::vec4 planes[6], std::vector<int>& hits) const
+{
+    FrustumTest test;
+    test.planes = planes;
+    return query(test, hits);
+}
+
+}
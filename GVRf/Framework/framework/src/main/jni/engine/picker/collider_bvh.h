@@ -0,0 +1,115 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+/***************************************************************************
+ * Bounding volume hierarchy over the world bounds of the colliders
+ * in a scene, used by the picker to skip colliders which cannot be hit.
+ ***************************************************************************/
+
+#ifndef COLLIDER_BVH_H_
+#define COLLIDER_BVH_H_
+
+#include <vector>
+#include "glm/glm.hpp"
+
+namespace gvr {
+class Component;
+class Collider;
+
+class ColliderBVH {
+public:
+    ColliderBVH();
+
+    /*
+     * Bring the hierarchy up to date with the collider list.
+     *
+     * The hierarchy is rebuilt when the list changes (the version is
+     * different) or when moving colliders have made it too loose.
+     * Otherwise only the colliders whose bounds changed are refitted.
+     * Must be called with the collider list locked.
+     *
+     * @param colliders  collider list of the scene
+     * @param version    changes whenever a collider is added or removed
+     */
+    void update(const std::vector<Component*>& colliders, unsigned int version);
+
+    /*
+     * Find the colliders whose bounds are hit by a ray.
+     *
+     * @param rayStart      origin of the ray in world coordinates
+     * @param rayDir        direction of the ray in world coordinates
+     * @param hits          receives indices into the collider list
+     * @returns number of hierarchy nodes visited
+     */
+    int raycast(const glm::vec3& rayStart, const glm::vec3& rayDir, std::vector<int>& hits) const;
+
+    /*
+     * Find the colliders whose bounds touch a sphere.
+     *
+     * @param center    center of the sphere in world coordinates
+     * @param radius    radius of the sphere
+     * @param hits      receives indices into the collider list
+     * @returns number of hierarchy nodes visited
+     */
+    int sphereQuery(const glm::vec3& center, float radius, std::vector<int>& hits) const;
+
+    /*
+     * Find the colliders whose bounds are inside or intersect a frustum.
+     *
+     * @param planes    the six planes of the frustum, normals pointing inside
+     * @param hits      receives indices into the collider list
+     * @returns number of hierarchy nodes visited
+     */
+    int frustumQuery(const glm::vec4 planes[6], std::vector<int>& hits) const;
+
+private:
+    struct Node {
+        glm::vec3 min_corner;
+        glm::vec3 max_corner;
+        int left;       // child nodes, -1 for a leaf node
+        int right;
+        int first;      // range of leaves_ for a leaf node
+        int count;
+    };
+
+    struct Leaf {
+        Collider* collider;
+        int index;      // in the collider list
+        glm::vec3 min_corner;
+        glm::vec3 max_corner;
+    };
+
+    ColliderBVH(const ColliderBVH&) = delete;
+    ColliderBVH& operator=(const ColliderBVH&) = delete;
+
+    void rebuild(const std::vector<Component*>& colliders);
+    int build(int first, int count);
+    float refit();
+    static void computeBounds(Leaf& leaf);
+
+    template <typename TEST>
+    int query(const TEST& test, std::vector<int>& hits) const;
+
+    std::vector<Node> nodes_;
+    std::vector<Leaf> leaves_;
+    unsigned int version_;
+    bool valid_;
+    float build_cost_;
+};
+
+}
+
+#endif
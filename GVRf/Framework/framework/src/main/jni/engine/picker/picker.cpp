@@ -19,6 +19,8 @@
 
 #include "picker.h"
 
+#include <algorithm>
+#include <atomic>
 #include <limits>
 #include "glm/glm.hpp"
 #include "glm/gtc/matrix_inverse.hpp"
@@ -32,6 +34,65 @@
 
 namespace gvr {
 
+static std::atomic<long long> sPicks(0);
+static std::atomic<long long> sNodesVisited(0);
+static std::atomic<long long> sCollidersTested(0);
+
+/*
+ * Finds the colliders which may be hit by a query.
+ * The bounding volume hierarchy of the scene is brought up
+ * to date and queried. If only visible objects are pickable,
+ * the colliders which are not in the visible list are dropped.
+ * The candidates are indices into the list of all colliders,
+ * in the order of that list.
+ * Must be called with the collider list locked.
+ */
+template <typename QUERY>
+static void findCandidates(Scene* scene, const QUERY& query, std::vector<int>& candidates)
+{
+    const std::vector<Component*>& colliders = scene->getAllColliders();
+    ColliderBVH& bvh = scene->getColliderBVH();
+    bool visibleOnly = scene->getPickVisible();
+    std::vector<int> hits;
+
+    bvh.update(colliders, scene->getColliderVersion());
+    int visited = query(bvh, hits);
+    std::sort(hits.begin(), hits.end());
+    for (auto it = hits.begin(); it != hits.end(); ++it)
+    {
+        Collider* collider = static_cast<Collider*>(colliders[*it]);
+        if (!visibleOnly || collider->isInVisibleList())
+        {
+            candidates.push_back(*it);
+        }
+    }
+    sNodesVisited += visited;
+    sCollidersTested += candidates.size();
+}
+
+static void findCandidates(Scene* scene, const glm::vec3& rayStart, const glm::vec3& rayDir,
+                           std::vector<int>& candidates)
+{
+    findCandidates(scene, [&rayStart, &rayDir](const ColliderBVH& bvh, std::vector<int>& hits)
+    {
+        return bvh.raycast(rayStart, rayDir, hits);
+    }, candidates);
+}
+
+void Picker::getPickStatistics(long long& picks, long long& nodesVisited, long long& collidersTested)
+{
+    picks = sPicks;
+    nodesVisited = sNodesVisited;
+    collidersTested = sCollidersTested;
+}
+
+void Picker::resetPickStatistics()
+{
+    sPicks = 0;
+    sNodesVisited = 0;
+    sCollidersTested = 0;
+}
+
 /*
  * Intersects all the colliders in the scene with the input ray
  * and returns the list of collisions.
@@ -41,13 +102,17 @@ void Picker::pickScene(Scene* scene, std::vector<ColliderData>& picklist, Transf
 {
     glm::vec3 ray_start(ox, oy, oz);
     glm::vec3 ray_dir(dx, dy, dz);
-    const std::vector<Component*>& colliders = scene->lockColliders();
+    scene->lockColliders();
+    const std::vector<Component*>& colliders = scene->getAllColliders();
     const glm::mat4& model_matrix = t->getModelMatrix();
+    std::vector<int> candidates;
 
     Collider::transformRay(model_matrix, ray_start, ray_dir);
-    for (auto it = colliders.begin(); it != colliders.end(); ++it)
+    findCandidates(scene, ray_start, ray_dir, candidates);
+    ++sPicks;
+    for (auto it = candidates.begin(); it != candidates.end(); ++it)
     {
-        Collider* collider = static_cast<Collider*>(*it);
+        Collider* collider = static_cast<Collider*>(colliders[*it]);
         SceneObject* owner = collider->owner_object();
         if (collider->enabled() && (owner != NULL) && owner->enabled())
         {
@@ -77,14 +142,18 @@ void Picker::pickClosest(Scene* scene,
 {
     glm::vec3 ray_start(ox, oy, oz);
     glm::vec3 ray_dir(dx, dy, dz);
-    const std::vector<Component*>& colliders = scene->lockColliders();
+    scene->lockColliders();
+    const std::vector<Component*>& colliders = scene->getAllColliders();
     const glm::mat4& model_matrix = t->getModelMatrix();
+    std::vector<int> candidates;
 
     closest.Distance = std::numeric_limits<float>::infinity();
     Collider::transformRay(model_matrix, ray_start, ray_dir);
-    for (auto it = colliders.begin(); it != colliders.end(); ++it)
+    findCandidates(scene, ray_start, ray_dir, candidates);
+    ++sPicks;
+    for (auto it = candidates.begin(); it != candidates.end(); ++it)
     {
-        Collider* collider = static_cast<Collider*>(*it);
+        Collider* collider = static_cast<Collider*>(colliders[*it]);
         SceneObject* owner = collider->owner_object();
         if (collider->enabled() && (owner != NULL) && owner->enabled())
         {
@@ -112,40 +181,58 @@ void Picker::pickBounds(Scene* scene,
                         std::vector<ColliderData>& picklist,
                         const std::vector<SceneObject*>& collidables)
 {
-    const std::vector<Component*>& colliders = scene->lockColliders();
+    scene->lockColliders();
+    const std::vector<Component*>& colliders = scene->getAllColliders();
+    std::vector<std::pair<int, int>> pairs;    // collider index, cursor ID
+    std::vector<int> candidates;
+    int n = collidables.size();
 
-    for (auto it = colliders.begin(); it != colliders.end(); ++it)
+    ++sPicks;
+    for (int cursorID = 0; cursorID < n; ++cursorID)
     {
-        int cursorID = 0;
-        for (auto it2 = collidables.begin(); it2 != collidables.end(); ++it2)
+        SceneObject* collidable = collidables[cursorID];
+        if ((collidable == NULL) || !collidable->enabled())
         {
-            SceneObject* collidable = *it2;
-            if ((collidable == NULL) || !collidable->enabled())
-            {
-                ++cursorID;
-                continue;
-            }
-            BoundingVolume& bv = collidable->getBoundingVolume();
+            continue;
+        }
+        BoundingVolume& bv = collidable->getBoundingVolume();
+        glm::vec3 center(bv.center());
+        float radius = bv.radius();
+
+        if ((radius <= 0) || (radius == std::numeric_limits<float>::infinity()))
+        {
+            continue;
+        }
+        candidates.clear();
+        findCandidates(scene, [&center, radius](const ColliderBVH& bvh, std::vector<int>& hits)
+        {
+            return bvh.sphereQuery(center, radius, hits);
+        }, candidates);
+        for (auto it = candidates.begin(); it != candidates.end(); ++it)
+        {
+            pairs.push_back(std::make_pair(*it, cursorID));
+        }
+    }
+    // Report the hits in collider order, then collidable order
+    std::sort(pairs.begin(), pairs.end());
+    for (auto it = pairs.begin(); it != pairs.end(); ++it)
+    {
+        Collider* collider = static_cast<Collider*>(colliders[it->first]);
+        SceneObject* owner = collider->owner_object();
+        int cursorID = it->second;
+
+        if (collider->enabled() && (owner != NULL) && owner->enabled())
+        {
+            BoundingVolume& bv = collidables[cursorID]->getBoundingVolume();
             glm::vec3 center(bv.center());
             float bsphere[4] = { center.x, center.y, center.z, bv.radius()};
-            Collider* collider = reinterpret_cast<Collider*>(*it);
-            SceneObject* owner = collider->owner_object();
-
-            if (collider->enabled() &&
-                (owner != NULL) &&
-                owner->enabled() &&
-                (bsphere[3] > 0) &&
-                (bsphere[3] != std::numeric_limits<float>::infinity()))
+            ColliderData data = collider->isHit(owner, bsphere);
+            if (data.IsHit)
             {
-                ColliderData data = collider->isHit(owner, bsphere);
-                if (data.IsHit)
-                {
-                    data.CollidableIndex = cursorID;      // cursor ID is index of collidable
-                    data.ObjectHit = owner;
-                    picklist.push_back(data);
-                }
+                data.CollidableIndex = cursorID;      // cursor ID is index of collidable
+                data.ObjectHit = owner;
+                picklist.push_back(data);
             }
-            ++cursorID;
         }
     }
     scene->unlockColliders();
@@ -230,4 +317,50 @@ void Picker::pickVisible(Scene* scene, Transform* t, std::vector<ColliderData>&
     std::sort(picklist.begin(), picklist.end(), compareColliderData);
     scene->unlockColliders();
 }
+
+/*
+ * Returns the list of colliders inside or intersecting a view frustum.
+ * The planes of the frustum are extracted from the view projection
+ * matrix. Only the bounds of the colliders are tested, so the list
+ * may include colliders which are just outside the frustum.
+ */
+void Picker::pickFrustum(Scene* scene, const glm::mat4& viewProjection, std::vector<ColliderData>& picklist)
+{
+    glm::mat4 m = glm::transpose(viewProjection);
+    glm::vec4 planes[6] =
+    {
+        m[3] + m[0],    // left
+        m[3] - m[0],    // right
+        m[3] + m[1],    // bottom
+        m[3] - m[1],    // top
+        m[3] + m[2],    // near
+        m[3] - m[2]     // far
+    };
+    std::vector<int> candidates;
+
+    scene->lockColliders();
+    const std::vector<Component*>& colliders = scene->getAllColliders();
+    findCandidates(scene, [&planes](const ColliderBVH& bvh, std::vector<int>& hits)
+    {
+        return bvh.frustumQuery(planes, hits);
+    }, candidates);
+    ++sPicks;
+    for (auto it = candidates.begin(); it != candidates.end(); ++it)
+    {
+        Collider* collider = static_cast<Collider*>(colliders[*it]);
+        SceneObject* owner = collider->owner_object();
+        if (collider->enabled() && (owner != NULL) && owner->enabled())
+        {
+            ColliderData data(collider);
+            Transform* trans = owner->transform();
+            glm::mat4 worldmtx = trans->getModelMatrix();
+            data.HitPosition = glm::vec3(worldmtx[3]);
+            data.Distance = glm::length(data.HitPosition);
+            data.IsHit = true;
+            picklist.push_back(data);
+        }
+    }
+    std::sort(picklist.begin(), picklist.end(), compareColliderData);
+    scene->unlockColliders();
+}
 }
@@ -41,6 +41,10 @@ private:
 
 public:
     static void pickVisible(Scene* scene, Transform* t, std::vector<ColliderData>& pickList);
+    static void pickFrustum(
+            Scene* scene,
+            const glm::mat4& viewProjection,
+            std::vector<ColliderData>& pickList);
     static void pickScene(
             Scene* scene, std::vector<ColliderData>& pickList,
             Transform* t,
@@ -64,6 +68,15 @@ public:
     static glm::vec3 pickSceneObjectAgainstBoundingBox(
             SceneObject* scene_object, float ox, float oy, float oz,
             float dx, float dy, float dz);
+
+    /*
+     * Counters for all picks against a scene since the last reset.
+     * @param picks             number of picks
+     * @param nodesVisited      bounding volume hierarchy nodes tested
+     * @param collidersTested   colliders tested for a hit
+     */
+    static void getPickStatistics(long long& picks, long long& nodesVisited, long long& collidersTested);
+    static void resetPickStatistics();
 };
 
 }
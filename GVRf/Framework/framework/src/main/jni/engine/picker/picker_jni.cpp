@@ -57,6 +57,15 @@ extern "C" {
     JNIEXPORT jobjectArray JNICALL
     Java_org_gearvrf_NativePicker_pickVisible(JNIEnv * env,
             jobject obj, jlong jscene);
+    JNIEXPORT jobjectArray JNICALL
+    Java_org_gearvrf_NativePicker_pickFrustum(JNIEnv * env,
+            jobject obj, jlong jscene, jfloatArray jviewProjection);
+    JNIEXPORT void JNICALL
+    Java_org_gearvrf_NativePicker_getPickStatistics(JNIEnv * env,
+            jobject obj, jlongArray jcounts);
+    JNIEXPORT void JNICALL
+    Java_org_gearvrf_NativePicker_resetPickStatistics(JNIEnv * env,
+            jobject obj);
 }
 
 JNIEXPORT jlongArray JNICALL
@@ -330,21 +339,13 @@ Java_org_gearvrf_NativePicker_pickSceneObjectAgainstBoundingBox(JNIEnv * env,
     return true;
 }
 
-JNIEXPORT jobjectArray JNICALL
-Java_org_gearvrf_NativePicker_pickVisible(JNIEnv * env,
-        jobject obj, jlong jscene)
+static jobjectArray makePickList(JNIEnv * env, const std::vector<ColliderData>& colliders)
 {
     jclass pickerClass = env->FindClass("org/gearvrf/GVRPicker");
     jclass hitClass = env->FindClass("org/gearvrf/GVRPicker$GVRPickedObject");
     jmethodID makeHitMesh = env->GetStaticMethodID(pickerClass, "makeHitMesh", "(JFFFFIFFFFFFFF)Lorg/gearvrf/GVRPicker$GVRPickedObject;");
     jmethodID makeHit = env->GetStaticMethodID(pickerClass, "makeHit", "(JFFFF)Lorg/gearvrf/GVRPicker$GVRPickedObject;");
 
-    Scene* scene = reinterpret_cast<Scene*>(jscene);
-    std::vector<ColliderData> colliders;
-    Transform* t = scene->main_camera_rig()->getHeadTransform();
-
-    Picker::pickVisible(scene, t, colliders);
-
     int i = 0;
     int size = colliders.size();
     jobjectArray pickList = env->NewObjectArray(size, hitClass, NULL);
@@ -380,4 +381,47 @@ Java_org_gearvrf_NativePicker_pickVisible(JNIEnv * env,
     return pickList;
 }
 
+JNIEXPORT jobjectArray JNICALL
+Java_org_gearvrf_NativePicker_pickVisible(JNIEnv * env,
+        jobject obj, jlong jscene)
+{
+    Scene* scene = reinterpret_cast<Scene*>(jscene);
+    std::vector<ColliderData> colliders;
+    Transform* t = scene->main_camera_rig()->getHeadTransform();
+
+    Picker::pickVisible(scene, t, colliders);
+    return makePickList(env, colliders);
+}
+
+JNIEXPORT jobjectArray JNICALL
+Java_org_gearvrf_NativePicker_pickFrustum(JNIEnv * env,
+        jobject obj, jlong jscene, jfloatArray jviewProjection)
+{
+    Scene* scene = reinterpret_cast<Scene*>(jscene);
+    std::vector<ColliderData> colliders;
+    jfloat* mtx = env->GetFloatArrayElements(jviewProjection, 0);
+    glm::mat4 viewProjection = glm::make_mat4(mtx);
+
+    env->ReleaseFloatArrayElements(jviewProjection, mtx, JNI_ABORT);
+    Picker::pickFrustum(scene, viewProjection, colliders);
+    return makePickList(env, colliders);
+}
+
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativePicker_getPickStatistics(JNIEnv * env,
+        jobject obj, jlongArray jcounts)
+{
+    long long picks, nodesVisited, collidersTested;
+    Picker::getPickStatistics(picks, nodesVisited, collidersTested);
+    jlong counts[3] = { picks, nodesVisited, collidersTested };
+    env->SetLongArrayRegion(jcounts, 0, 3, counts);
+}
+
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativePicker_resetPickStatistics(JNIEnv * env,
+        jobject obj)
+{
+    Picker::resetPickStatistics();
+}
+
 }
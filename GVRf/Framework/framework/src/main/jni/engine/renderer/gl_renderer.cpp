@@ -567,6 +567,11 @@ namespace gvr
          */
         if (rstate.is_shadow && curr_material)
         {
+            // the depth shaders do not have instance attributes
+            if (render_data->instances())
+            {
+                return;
+            }
             const char* depthShaderName = mesh->hasBones() ? "GVRDepthShader$a_bone_weights$a_bone_indices" : "GVRDepthShader";
             shader = rstate.shader_manager->findShader(depthShaderName);
 
@@ -594,6 +599,12 @@ namespace gvr
          * No material override, render the mesh once for each pass
          * using a different shader each time.
          */
+        int instanceCount = render_data->instance_count();
+
+        if (instanceCount > 0)
+        {
+            indexCount *= instanceCount;
+        }
         for (int curr_pass = 0; curr_pass < render_data->pass_count(); ++curr_pass)
         {
             numberTriangles += indexCount;
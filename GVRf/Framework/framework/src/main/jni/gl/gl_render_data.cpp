@@ -15,6 +15,7 @@
 
 #include "engine/renderer/gl_renderer.h"
 #include "gl/gl_render_data.h"
+#include "gl/gl_vertex_buffer.h"
 #include "objects/scene_object.h"
 namespace gvr
 {
@@ -25,6 +26,7 @@ namespace gvr
         int         indexCount = mesh_->getIndexCount();
         int         vertexCount = mesh_->getVertexCount();
         int         mode = draw_mode();
+        int         instanceCount = instance_count();
 
         if (mesh_->hasBones() && bones_ubo_ && shader->hasBones())
         {
@@ -37,19 +39,43 @@ namespace gvr
 #endif
         mesh_->getVertexBuffer()->bindToShader(shader, mesh_->getIndexBuffer());
         checkGLError("renderMesh::mesh_->getVertexBuffer()->bindToShader(");
-        switch (mesh_->getIndexSize())
+        if (instanceCount > 0)
         {
-            case 2:
-            glDrawElements(mode, indexCount, GL_UNSIGNED_SHORT, 0);
-            break;
+            GLVertexBuffer* glinstances = static_cast<GLVertexBuffer*>(instances_);
 
-            case 4:
-            glDrawElements(mode, indexCount, GL_UNSIGNED_INT, 0);
-            break;
+            glinstances->bindAsInstances(shader);
+            switch (mesh_->getIndexSize())
+            {
+                case 2:
+                glDrawElementsInstanced(mode, indexCount, GL_UNSIGNED_SHORT, 0, instanceCount);
+                break;
 
-            default:
-            glDrawArrays(mode, 0, vertexCount);
-            break;
+                case 4:
+                glDrawElementsInstanced(mode, indexCount, GL_UNSIGNED_INT, 0, instanceCount);
+                break;
+
+                default:
+                glDrawArraysInstanced(mode, 0, vertexCount, instanceCount);
+                break;
+            }
+            glinstances->unbindInstances();
+        }
+        else
+        {
+            switch (mesh_->getIndexSize())
+            {
+                case 2:
+                glDrawElements(mode, indexCount, GL_UNSIGNED_SHORT, 0);
+                break;
+
+                case 4:
+                glDrawElements(mode, indexCount, GL_UNSIGNED_INT, 0);
+                break;
+
+                default:
+                glDrawArrays(mode, 0, vertexCount);
+                break;
+            }
         }
         checkGLError(" RenderData::render after draw");
         glBindVertexArray(0);
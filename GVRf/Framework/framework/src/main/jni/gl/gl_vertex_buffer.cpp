@@ -14,7 +14,7 @@
 namespace gvr {
     GLVertexBuffer::GLVertexBuffer(const char* layout_desc, int vertexCount)
     : VertexBuffer(layout_desc, vertexCount),
-      mVBufferID(-1), mVArrayID(-1), mProgramID(-1)
+      mVBufferID(-1), mVArrayID(-1), mProgramID(-1), mInstanceProgramID(-1)
     {
     }
 
@@ -93,6 +93,63 @@ namespace gvr {
         });
     }
 
+    /***
+     * Binds this VertexBuffer as per-instance attributes of the
+     * vertex array currently bound, which is the one of the mesh
+     * being drawn. Each attribute advances once per instance
+     * instead of once per vertex. Unlike mesh attributes,
+     * instance attributes are not part of the shader's vertex
+     * descriptor, so they are looked up by name in the program.
+     * @param shader shader the instances are rendered with
+     * @see unbindInstances
+     */
+    void GLVertexBuffer::bindAsInstances(Shader* shader)
+    {
+        GLuint programId = static_cast<GLShader*>(shader)->getProgramId();
+
+        if (mInstanceProgramID != programId)
+        {
+            mInstanceProgramID = programId;
+            mInstanceLocations.clear();
+            forEachEntry([this, programId](const DataDescriptor::DataEntry& e)
+            {
+                mInstanceLocations.push_back(glGetAttribLocation(programId, e.Name));
+            });
+        }
+        GL(glBindBuffer(GL_ARRAY_BUFFER, mVBufferID));
+        int i = 0;
+        forEachEntry([this, &i](const DataDescriptor::DataEntry& e)
+        {
+            GLint loc = mInstanceLocations[i++];
+
+            if ((loc >= 0) && e.IsSet)
+            {
+                GL(glEnableVertexAttribArray(loc));
+                GL(glVertexAttribPointer(loc, e.Size / sizeof(float),
+                                         e.IsInt ? GL_INT : GL_FLOAT, GL_FALSE,
+                                         getTotalSize(), reinterpret_cast<GLvoid*>(e.Offset)));
+                GL(glVertexAttribDivisor(loc, 1));
+            }
+        });
+    }
+
+    /***
+     * Removes the per-instance attributes from the vertex array
+     * currently bound, so the mesh can be drawn without instances.
+     * @see bindAsInstances
+     */
+    void GLVertexBuffer::unbindInstances()
+    {
+        for (GLint loc : mInstanceLocations)
+        {
+            if (loc >= 0)
+            {
+                GL(glVertexAttribDivisor(loc, 0));
+                GL(glDisableVertexAttribArray(loc));
+            }
+        }
+    }
+
     bool GLVertexBuffer::updateGPU(Renderer* renderer, IndexBuffer* ibuf, Shader* shader)
     {
         std::lock_guard<std::mutex> lock(mLock);
@@ -31,11 +31,15 @@ namespace gvr {
 
         virtual bool    updateGPU(Renderer*, IndexBuffer*f, Shader*);
         virtual void    bindToShader(Shader*, IndexBuffer*);
+        void            bindAsInstances(Shader*);
+        void            unbindInstances();
 
     protected:
         GLuint          mVBufferID;
         GLuint          mVArrayID;
         GLuint          mProgramID;
+        GLuint          mInstanceProgramID;
+        std::vector<GLint> mInstanceLocations;
     };
 
 } // end gvrf
@@ -37,6 +37,31 @@ namespace gvr {
         return data;
     }
 
+    /*
+     * The world bounds enclose the box isHit uses for rays (transformed
+     * by the model matrix) and the one it uses for spheres (centered
+     * on the bounds of the owner).
+     */
+    bool BoxCollider::getWorldBounds(SceneObject* owner, BoundingVolume& bounds)
+    {
+        glm::mat4       model_matrix;
+        BoundingVolume  box;
+        Transform*      t = owner->transform();
+
+        if (t != NULL)
+        {
+            model_matrix = t->getModelMatrix();
+        }
+        box.expand(half_extents_);
+        box.expand(-half_extents_);
+        bounds.transform(box, model_matrix);
+
+        const BoundingVolume& ownerBounds = owner->getBoundingVolume();
+        bounds.expand(ownerBounds.center() + half_extents_);
+        bounds.expand(ownerBounds.center() - half_extents_);
+        return true;
+    }
+
     /*
      * Determine if the sphere hits the box.
      * @param sphere array with sphere center and radius
@@ -21,10 +21,12 @@
 #ifndef COLLIDER_H_
 #define COLLIDER_H_
 
+#include <atomic>
 #include <vector>
 #include "glm/glm.hpp"
 
 #include "collider_shape_types.h"
+#include "objects/bounding_volume.h"
 #include "objects/scene_object.h"
 
 namespace gvr {
@@ -111,11 +113,54 @@ public:
     virtual void onRemovedFromScene(Scene* scene);
     static void transformSphere(const glm::mat4& model_matrix, float* sphere);
 
+    /*
+     * Compute an axis aligned box in world coordinates which contains
+     * everything this collider can hit. The picker uses it to skip
+     * colliders which cannot be hit.
+     *
+     * @param owner     SceneObject which owns this collider.
+     * @param bounds    receives the world bounds
+     *
+     * @returns false if the collider has no bounds and must always be tested
+     */
+    virtual bool getWorldBounds(SceneObject* owner, BoundingVolume& bounds) {
+        return false;
+    }
+
+    /*
+     * Called when the transform of the owner or the geometry of
+     * the collider changes, so the picker recomputes the world bounds.
+     */
+    void invalidateBounds() {
+        bounds_dirty_ = true;
+    }
+
+    bool isBoundsDirty() const {
+        return bounds_dirty_;
+    }
+
+    void clearBoundsDirty() {
+        bounds_dirty_ = false;
+    }
+
+    /*
+     * Set by the scene while this collider is in its visible collider list.
+     */
+    void setInVisibleList(bool visible) {
+        in_visible_list_ = visible;
+    }
+
+    bool isInVisibleList() const {
+        return in_visible_list_;
+    }
+
 protected:
-    Collider() : Component(Collider::getComponentType()), pick_distance_(0) {}
-    explicit Collider(long long type) : Component(type), pick_distance_(0) {}
+    Collider() : Component(Collider::getComponentType()), pick_distance_(0), bounds_dirty_(true), in_visible_list_(false) {}
+    explicit Collider(long long type) : Component(type), pick_distance_(0), bounds_dirty_(true), in_visible_list_(false) {}
 
     float pick_distance_;
+    std::atomic<bool> bounds_dirty_;
+    bool in_visible_list_;
 
     Collider(const Collider& collider) = delete;
     Collider(Collider&& collider) = delete;
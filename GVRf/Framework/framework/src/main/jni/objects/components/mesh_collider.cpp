@@ -114,6 +114,27 @@ namespace gvr
         return data;
     }
 
+/*
+ * The world bounds are the bounds of the mesh transformed
+ * by the model matrix of the owner.
+ */
+    bool MeshCollider::getWorldBounds(SceneObject* owner, BoundingVolume& bounds)
+    {
+        Mesh* mesh = mesh_;
+        RenderData* rd = owner->render_data();
+
+        if ((mesh == NULL) && (rd != NULL))
+        {
+            mesh = rd->mesh();
+        }
+        if ((mesh == NULL) || (owner->transform() == NULL))
+        {
+            return false;
+        }
+        bounds.transform(mesh->getBoundingVolume(), owner->transform()->getModelMatrix());
+        return true;
+    }
+
 /*
  * Hit test the bounding sphere of the mesh against the input sphere.
  *
@@ -83,11 +83,77 @@ void RenderData::set_mesh(Mesh* mesh)
         SceneObject* owner = owner_object();
         if (owner)
         {
+            Collider* collider = static_cast<Collider*>(owner->getComponent(Collider::getComponentType()));
+            if (collider)
+            {
+                collider->invalidateBounds();
+            }
             owner->dirtyHierarchicalBoundingVolume();
         }
     }
 }
 
+void RenderData::set_instances(VertexBuffer* instances)
+{
+    if (instances_ != instances)
+    {
+        // the shader variant depends on whether there are instances
+        instances_ = instances;
+        hash_code_dirty_ = true;
+        markDirty();
+    }
+    SceneObject* owner = owner_object();
+    if (owner)
+    {
+        owner->dirtyHierarchicalBoundingVolume();
+    }
+}
+
+int RenderData::instance_count() const
+{
+    return instances_ ? instances_->getVertexCount() : 0;
+}
+
+/**
+ * Compute the bounds of all the instances in the coordinate
+ * space of the owner object. Each instance has an affine transform
+ * whose rows are the a_instance_row0, a_instance_row1 and
+ * a_instance_row2 attributes of the instance buffer.
+ * @param meshBounds    bounds of the mesh
+ * @param bv            where to store the bounds of the instances
+ */
+void RenderData::getInstanceBoundingVolume(const BoundingVolume& meshBounds, BoundingVolume& bv) const
+{
+    int index, ofs0, ofs1, ofs2, size;
+
+    bv.reset();
+    if ((instances_ == nullptr) ||
+        !instances_->getInfo("a_instance_row0", index, ofs0, size) ||
+        !instances_->getInfo("a_instance_row1", index, ofs1, size) ||
+        !instances_->getInfo("a_instance_row2", index, ofs2, size))
+    {
+        bv = meshBounds;
+        return;
+    }
+    ofs0 /= sizeof(float);
+    ofs1 /= sizeof(float);
+    ofs2 /= sizeof(float);
+    instances_->forAllVertices([&meshBounds, &bv, ofs0, ofs1, ofs2](int iter, const float* vertex)
+    {
+        const float* row0 = vertex + ofs0;
+        const float* row1 = vertex + ofs1;
+        const float* row2 = vertex + ofs2;
+        glm::mat4 m(row0[0], row1[0], row2[0], 0,
+                    row0[1], row1[1], row2[1], 0,
+                    row0[2], row1[2], row2[2], 0,
+                    row0[3], row1[3], row2[3], 1);
+        BoundingVolume instanceBounds;
+
+        instanceBounds.transform(meshBounds, m);
+        bv.expand(instanceBounds);
+    });
+}
+
 int RenderData::cull_face(int pass) const {
     if (pass >= 0 && pass < render_pass_list_.size()) {
         return render_pass_list_[pass]->cull_face();
@@ -326,7 +392,13 @@ bool RenderData::updateGPU(Renderer* renderer, Shader* shader)
             bones_ubo_->updateGPU(renderer);
         }
     }
-    return vbuf->updateGPU(renderer, mesh_->getIndexBuffer(), shader);
+    bool updated = vbuf->updateGPU(renderer, mesh_->getIndexBuffer(), shader);
+
+    if (instances_)
+    {
+        updated &= instances_->updateGPU(renderer, nullptr, shader);
+    }
+    return updated;
 }
 
 void RenderData::setBindShaderObject(JNIEnv* env, jobject bindShaderObject) {
@@ -40,6 +40,8 @@ class Light;
 class Batch;
 class TextureCapturer;
 class RenderPass;
+class VertexBuffer;
+class BoundingVolume;
 struct RenderState;
 
 class RenderData: public Component {
@@ -87,6 +89,7 @@ public:
     {
         hash_code = rdata.hash_code;
         mesh_ = rdata.mesh_;
+        instances_ = rdata.instances_;
         render_data_flags.use_light_ = rdata.render_data_flags.use_light_;
         render_data_flags.use_lightmap_ = rdata.render_data_flags.use_lightmap_;
         render_data_flags.batching_ = rdata.render_data_flags.batching_;
@@ -137,6 +140,24 @@ public:
     virtual bool updateGPU(Renderer*,Shader*);
     void set_mesh(Mesh* mesh);
 
+    /**
+     * Get the per-instance attributes the mesh is drawn with.
+     * @return instance buffer, or null if the mesh is drawn once
+     */
+    VertexBuffer* instances() const {
+        return instances_;
+    }
+
+    /**
+     * Draw the mesh once for each vertex of the given buffer,
+     * in a single draw call. Passing the current buffer again
+     * tells the render data its contents have changed.
+     * @param instances instance buffer, or null to draw the mesh once
+     */
+    void set_instances(VertexBuffer* instances);
+    int instance_count() const;
+    void getInstanceBoundingVolume(const BoundingVolume& meshBounds, BoundingVolume& bv) const;
+
     void add_pass(RenderPass* render_pass);
     void remove_pass(int pass);
     RenderPass* pass(int pass);
@@ -230,7 +251,7 @@ public:
     }
 
     bool batching() {
-        return render_data_flags.batching_;
+        return render_data_flags.batching_ && (instances_ == nullptr);
     }
 
     void setBatch(Batch* batch) {
@@ -402,6 +423,7 @@ protected:
     static const int DEFAULT_RENDERING_ORDER = Geometry;
     jmethodID bindShaderMethod_;
     Mesh* mesh_;
+    VertexBuffer* instances_ = nullptr;
     UniformBlock* bones_ubo_;
     Batch* batch_;
     std::string hash_code;
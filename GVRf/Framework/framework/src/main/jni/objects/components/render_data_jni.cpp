@@ -34,6 +34,10 @@ extern "C" {
     Java_org_gearvrf_NativeRenderData_setMesh(JNIEnv * env,
                                               jobject obj, jlong jrender_data, jlong jmesh);
 
+    JNIEXPORT void JNICALL
+    Java_org_gearvrf_NativeRenderData_setInstances(JNIEnv * env,
+                                                   jobject obj, jlong jrender_data, jlong jinstances);
+
     JNIEXPORT void JNICALL
     Java_org_gearvrf_NativeRenderData_addPass(JNIEnv* env,
                                               jobject obj, jlong jrender_data, jlong jrender_pass);
@@ -211,6 +215,14 @@ Java_org_gearvrf_NativeRenderData_setMesh(JNIEnv * env,
     render_data->set_mesh(mesh);
 }
 
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeRenderData_setInstances(JNIEnv * env,
+                                               jobject obj, jlong jrender_data, jlong jinstances) {
+    RenderData* render_data = reinterpret_cast<RenderData*>(jrender_data);
+    VertexBuffer* instances = reinterpret_cast<VertexBuffer*>(jinstances);
+    render_data->set_instances(instances);
+}
+
 JNIEXPORT void JNICALL
 Java_org_gearvrf_NativeRenderData_addPass(JNIEnv* env,
                                           jobject obj, jlong jrender_data, jlong jrender_pass) {
@@ -82,6 +82,48 @@ ColliderData SphereCollider::isHit(SceneObject* owner, const glm::vec3& rayStart
     return data;
 }
 
+/*
+ * The world bounds enclose the sphere isHit uses: the bounding sphere
+ * of the mesh (or the collider radius) scaled by the largest scale
+ * of the model matrix.
+ */
+bool SphereCollider::getWorldBounds(SceneObject* owner, BoundingVolume& bounds)
+{
+    glm::vec3 sphCenter(0, 0, 0);
+    float radius = radius_;
+    RenderData* rd = owner->render_data();
+    Transform* t = owner->transform();
+
+    if (t == NULL)
+    {
+        return false;
+    }
+    if ((rd != NULL) && (rd->mesh() != NULL))
+    {
+        const BoundingVolume& meshbv = rd->mesh()->getBoundingVolume();
+        sphCenter = meshbv.center();
+        if (radius <= 0)
+        {
+            radius = meshbv.radius();
+        }
+    }
+    if (radius <= 0)
+    {
+        radius = 1;
+    }
+    glm::mat4 model_matrix = t->getModelMatrix();
+    float scale = glm::max(glm::length(glm::vec3(model_matrix[0])),
+                           glm::max(glm::length(glm::vec3(model_matrix[1])),
+                                    glm::length(glm::vec3(model_matrix[2]))));
+    glm::vec3 center(model_matrix * glm::vec4(sphCenter, 1));
+
+    radius *= scale;
+    bounds.reset();
+    bounds.expand(center - glm::vec3(radius));
+    bounds.expand(center + glm::vec3(radius));
+    return true;
+}
+
 /*
  * Determine if the input sphere hits the sphere collider.
  * @param owner       SceneObject which owns this collider.
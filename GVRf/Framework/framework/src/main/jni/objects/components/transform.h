@@ -164,6 +164,27 @@ public:
         invalidate(true);
     }
 
+    /*
+     * Set position, rotation and scale with one lock and one
+     * invalidation, for the batched transform updates.
+     */
+    void set_trs(const glm::vec3& position, const glm::quat& rotation, const glm::vec3& scale) {
+        {
+            std::lock_guard<std::mutex> lock(mutex_);
+            position_ = position;
+            rotation_ = rotation;
+            scale_ = scale;
+        }
+        invalidate(true);
+    }
+
+    void get_trs(glm::vec3& position, glm::quat& rotation, glm::vec3& scale) const {
+        std::lock_guard<std::mutex> lock(mutex_);
+        position = position_;
+        rotation = rotation_;
+        scale = scale_;
+    }
+
     const glm::vec3& scale() const {
         return scale_;
     }
@@ -24,6 +24,8 @@
 #include "util/gvr_log.h"
 #include "glm/gtc/type_ptr.hpp"
 
+#include <cstring>
+
 namespace gvr {
 extern "C" {
 JNIEXPORT jlong JNICALL
@@ -114,6 +116,14 @@ JNIEXPORT jfloatArray JNICALL
 Java_org_gearvrf_NativeTransform_getLocalModelMatrix(JNIEnv * env,
         jobject obj, jlong jtransform);
 
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeTransform_copyModelMatrix(JNIEnv * env,
+        jobject obj, jlong jtransform, jfloatArray mat);
+
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeTransform_copyLocalModelMatrix(JNIEnv * env,
+        jobject obj, jlong jtransform, jfloatArray mat);
+
 JNIEXPORT void JNICALL
 Java_org_gearvrf_NativeTransform_setModelMatrix(JNIEnv * env,
         jobject obj, jlong jtransform, jfloatArray mat);
@@ -148,6 +158,26 @@ Java_org_gearvrf_NativeTransform_rotateWithPivot(
         jfloat quat_x, jfloat quat_y, jfloat quat_z, jfloat pivot_x,
         jfloat pivot_y, jfloat pivot_z);
 
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeTransform_setTRSBatch(JNIEnv * env,
+        jobject obj, jlongArray jtransforms, jintArray jindices, jint count,
+        jobject jtrs, jint offset);
+
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeTransform_getTRSBatch(JNIEnv * env,
+        jobject obj, jlongArray jtransforms, jintArray jindices, jint count,
+        jobject jtrs, jint offset);
+
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeTransform_setModelMatrixBatch(JNIEnv * env,
+        jobject obj, jlongArray jtransforms, jintArray jindices, jint count,
+        jobject jmatrices, jint offset);
+
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeTransform_getModelMatrixBatch(JNIEnv * env,
+        jobject obj, jlongArray jtransforms, jintArray jindices, jint count,
+        jobject jmatrices, jint offset, jboolean local);
+
 }
 ;
 
@@ -346,6 +376,22 @@ Java_org_gearvrf_NativeTransform_getLocalModelMatrix(JNIEnv * env,
     return jmatrix;
 }
 
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeTransform_copyModelMatrix(JNIEnv * env,
+        jobject obj, jlong jtransform, jfloatArray mat) {
+    Transform* transform = reinterpret_cast<Transform*>(jtransform);
+    glm::mat4 matrix = transform->getModelMatrix();
+    env->SetFloatArrayRegion(mat, 0, 16, glm::value_ptr(matrix));
+}
+
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeTransform_copyLocalModelMatrix(JNIEnv * env,
+        jobject obj, jlong jtransform, jfloatArray mat) {
+    Transform* transform = reinterpret_cast<Transform*>(jtransform);
+    glm::mat4 matrix = transform->getLocalModelMatrix();
+    env->SetFloatArrayRegion(mat, 0, 16, glm::value_ptr(matrix));
+}
+
 JNIEXPORT void JNICALL
 Java_org_gearvrf_NativeTransform_setModelMatrix(JNIEnv * env,
 		jobject obj, jlong jtransform, jfloatArray mat){
@@ -406,5 +452,109 @@ Java_org_gearvrf_NativeTransform_rotateWithPivot(
             pivot_y, pivot_z);
 }
 
+/*
+ * The batch functions walk "count" transforms. With an index array,
+ * the i-th element of the buffer belongs to transforms[indices[i]],
+ * otherwise to transforms[i]. The Java side checks the bounds.
+ */
+class TransformBatch {
+public:
+    TransformBatch(JNIEnv* env, jlongArray jtransforms, jintArray jindices) :
+            env_(env), jtransforms_(jtransforms), jindices_(jindices), indices_(nullptr) {
+        transforms_ = env->GetLongArrayElements(jtransforms, 0);
+        if (jindices != nullptr) {
+            indices_ = env->GetIntArrayElements(jindices, 0);
+        }
+    }
+
+    ~TransformBatch() {
+        if (indices_ != nullptr) {
+            env_->ReleaseIntArrayElements(jindices_, indices_, JNI_ABORT);
+        }
+        env_->ReleaseLongArrayElements(jtransforms_, transforms_, JNI_ABORT);
+    }
+
+    Transform* get(int i) const {
+        int index = (indices_ != nullptr) ? indices_[i] : i;
+        return reinterpret_cast<Transform*>(transforms_[index]);
+    }
+
+private:
+    JNIEnv* env_;
+    jlongArray jtransforms_;
+    jintArray jindices_;
+    jlong* transforms_;
+    jint* indices_;
+};
+
+static const int TRS_STRIDE = 10;
+static const int MATRIX_STRIDE = 16;
+
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeTransform_setTRSBatch(JNIEnv * env,
+        jobject obj, jlongArray jtransforms, jintArray jindices, jint count,
+        jobject jtrs, jint offset) {
+    const float* trs = static_cast<float*>(env->GetDirectBufferAddress(jtrs)) + offset;
+    TransformBatch batch(env, jtransforms, jindices);
+
+    for (int i = 0; i < count; ++i, trs += TRS_STRIDE) {
+        batch.get(i)->set_trs(glm::vec3(trs[0], trs[1], trs[2]),
+                              glm::quat(trs[3], trs[4], trs[5], trs[6]),
+                              glm::vec3(trs[7], trs[8], trs[9]));
+    }
+}
+
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeTransform_getTRSBatch(JNIEnv * env,
+        jobject obj, jlongArray jtransforms, jintArray jindices, jint count,
+        jobject jtrs, jint offset) {
+    float* trs = static_cast<float*>(env->GetDirectBufferAddress(jtrs)) + offset;
+    TransformBatch batch(env, jtransforms, jindices);
+
+    for (int i = 0; i < count; ++i, trs += TRS_STRIDE) {
+        glm::vec3 position;
+        glm::quat rotation;
+        glm::vec3 scale;
+
+        batch.get(i)->get_trs(position, rotation, scale);
+        trs[0] = position.x;
+        trs[1] = position.y;
+        trs[2] = position.z;
+        trs[3] = rotation.w;
+        trs[4] = rotation.x;
+        trs[5] = rotation.y;
+        trs[6] = rotation.z;
+        trs[7] = scale.x;
+        trs[8] = scale.y;
+        trs[9] = scale.z;
+    }
+}
+
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeTransform_setModelMatrixBatch(JNIEnv * env,
+        jobject obj, jlongArray jtransforms, jintArray jindices, jint count,
+        jobject jmatrices, jint offset) {
+    const float* matrices = static_cast<float*>(env->GetDirectBufferAddress(jmatrices)) + offset;
+    TransformBatch batch(env, jtransforms, jindices);
+
+    for (int i = 0; i < count; ++i, matrices += MATRIX_STRIDE) {
+        batch.get(i)->setModelMatrix(glm::make_mat4x4(matrices));
+    }
+}
+
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeTransform_getModelMatrixBatch(JNIEnv * env,
+        jobject obj, jlongArray jtransforms, jintArray jindices, jint count,
+        jobject jmatrices, jint offset, jboolean local) {
+    float* matrices = static_cast<float*>(env->GetDirectBufferAddress(jmatrices)) + offset;
+    TransformBatch batch(env, jtransforms, jindices);
+
+    for (int i = 0; i < count; ++i, matrices += MATRIX_STRIDE) {
+        Transform* transform = batch.get(i);
+        glm::mat4 matrix = local ? transform->getLocalModelMatrix() : transform->getModelMatrix();
+        std::memcpy(matrices, glm::value_ptr(matrix), sizeof(matrix));
+    }
+}
+
 
 }
@@ -36,7 +36,8 @@ Scene::Scene() :
         frustum_flag_(false),
         dirtyFlag_(0),
         occlusion_flag_(false),
-        pick_visible_(true)
+        pick_visible_(true),
+        collider_version_(0)
 
 { }
 
@@ -117,15 +118,24 @@ void Scene::removeAllSceneObjects() {
 
 void Scene::clearAllColliders() {
     lockColliders();
+    clearVisibleColliders();
     allColliders.clear();
-    visibleColliders.clear();
+    ++collider_version_;
     unlockColliders();
 }
 
+void Scene::clearVisibleColliders() {
+    for (auto it = visibleColliders.begin(); it != visibleColliders.end(); ++it) {
+        static_cast<Collider*>(*it)->setInVisibleList(false);
+    }
+    visibleColliders.clear();
+}
+
 void Scene::pick(SceneObject* sceneobj) {
     if (pick_visible_) {
          Collider* collider = static_cast<Collider*>(sceneobj->getComponent(Collider::getComponentType()));
-        if (collider) {
+        if (collider && !collider->isInVisibleList()) {
+            collider->setInVisibleList(true);
             visibleColliders.push_back(collider);
         }
      }
@@ -136,6 +146,7 @@ void Scene::addCollider(Collider* collider) {
     if (it == allColliders.end()) {
         lockColliders();
         allColliders.push_back(collider);
+        ++collider_version_;
         unlockColliders();
     }
 }
@@ -145,6 +156,13 @@ void Scene::removeCollider(Collider* collider) {
     if (it != allColliders.end()) {
         lockColliders();
         allColliders.erase(it);
+        // The collider may be deleted before the next frame
+        auto vis = std::find(visibleColliders.begin(), visibleColliders.end(), collider);
+        if (vis != visibleColliders.end()) {
+            visibleColliders.erase(vis);
+        }
+        collider->setInVisibleList(false);
+        ++collider_version_;
         unlockColliders();
     }
 }
@@ -31,6 +31,7 @@
 #include "engine/renderer/renderer.h"
 #include "objects/lightlist.h"
 #include "objects/scene_object.h"
+#include "engine/picker/collider_bvh.h"
 
 
 namespace gvr {
@@ -151,7 +152,7 @@ public:
      * to contain only the pickable objects that are visible.
      * This function does not lock the collider list!
      */
-    void clearVisibleColliders() { visibleColliders.clear(); }
+    void clearVisibleColliders();
 
     /*
      * Called during culling to add a scene object's
@@ -165,11 +166,34 @@ public:
      * is returned. Otherwise the list of all colliders is returned.
      * You should call unlockColliders after you are done with the list.
      */
-    const std::vector<Component*> lockColliders() {
+    const std::vector<Component*>& lockColliders() {
         collider_mutex_.lock();
         return pick_visible_ ? visibleColliders : allColliders;
     }
 
+    /*
+     * Get the list of all colliders, visible or not.
+     * Only call this while the collider list is locked.
+     */
+    const std::vector<Component*>& getAllColliders() const {
+        return allColliders;
+    }
+
+    /*
+     * Get the bounding volume hierarchy over all colliders.
+     * Only use it while the collider list is locked.
+     */
+    ColliderBVH& getColliderBVH() {
+        return collider_bvh_;
+    }
+
+    /*
+     * Changes whenever a collider is added or removed.
+     */
+    unsigned int getColliderVersion() const {
+        return collider_version_;
+    }
+
     /*
      * Unlock the collider list.
      * Don't call this unless you have called lockColliders first.
@@ -216,6 +240,8 @@ private:
     LightList lights_;
     std::vector<Component*> allColliders;
     std::vector<Component*> visibleColliders;
+    ColliderBVH collider_bvh_;
+    unsigned int collider_version_;
 };
 
 }
@@ -252,10 +252,15 @@ void SceneObject::removeChildObject(SceneObject* child)
 void SceneObject::onTransformChanged()
 {
     Transform* t = transform();
+    Collider* collider = static_cast<Collider*>(getComponent(Collider::getComponentType()));
     if (t)
     {
         t->invalidate();
     }
+    if (collider)
+    {
+        collider->invalidateBounds();
+    }
     setTransformDirty();
     dirtyHierarchicalBoundingVolume();
     if (getChildrenCount() > 0)
@@ -322,6 +327,11 @@ void SceneObject::dirtyHierarchicalBoundingVolume() {
 
     bounding_volume_dirty_ = true;
 
+    // Box colliders depend on the bounds of their owner
+    Collider* collider = static_cast<Collider*>(getComponent(Collider::getComponentType()));
+    if (collider != NULL) {
+        collider->invalidateBounds();
+    }
     if (parent_ != NULL) {
         parent_->dirtyHierarchicalBoundingVolume();
     }
@@ -491,7 +501,14 @@ BoundingVolume& SceneObject::getBoundingVolume() {
         // || !transform_->isModelMatrixValid()) {
         mesh_bounding_volume = rdata->mesh()->getBoundingVolume();
         if (mesh_bounding_volume.radius() > 0) {
-            mesh_bounding_volume.transform(rdata->mesh()->getBoundingVolume(), transform()->getModelMatrix());
+            // An instanced mesh is drawn wherever its instances are
+            if (rdata->instances() != NULL) {
+                BoundingVolume instance_bounding_volume;
+                rdata->getInstanceBoundingVolume(rdata->mesh()->getBoundingVolume(), instance_bounding_volume);
+                mesh_bounding_volume.transform(instance_bounding_volume, transform()->getModelMatrix());
+            } else {
+                mesh_bounding_volume.transform(rdata->mesh()->getBoundingVolume(), transform()->getModelMatrix());
+            }
             transformed_bounding_volume_ = mesh_bounding_volume;
         }
     }
@@ -80,6 +80,10 @@ extern "C" {
     Java_org_gearvrf_NativeSceneObject_getBoundingVolume(JNIEnv * env,
             jobject obj, jlong jSceneObject);
 
+    JNIEXPORT void JNICALL
+    Java_org_gearvrf_NativeSceneObject_getBoundingSpheres(JNIEnv * env,
+            jobject obj, jlongArray jSceneObjects, jint count, jfloatArray jSpheres);
+
     JNIEXPORT jfloatArray JNICALL
     Java_org_gearvrf_NativeSceneObject_expandBoundingVolumeByPoint(JNIEnv * env,
             jobject obj, jlong jSceneObject, jfloat pointX, jfloat pointY, jfloat pointZ);
@@ -220,6 +224,30 @@ Java_org_gearvrf_NativeSceneObject_getBoundingVolume(JNIEnv * env,
     return boundingVolumeToArray(env, bvol);
 }
 
+/*
+ * Reads the center and radius of the bounding volumes of many scene objects
+ * into one array, four floats per scene object.
+ */
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeSceneObject_getBoundingSpheres(JNIEnv * env,
+        jobject obj, jlongArray jSceneObjects, jint count, jfloatArray jSpheres) {
+    jlong* sceneObjects = env->GetLongArrayElements(jSceneObjects, 0);
+    std::vector<jfloat> spheres(4 * count);
+
+    for (int i = 0; i < count; ++i) {
+        SceneObject* sceneObject = reinterpret_cast<SceneObject*>(sceneObjects[i]);
+        const BoundingVolume& bvol = sceneObject->getBoundingVolume();
+        jfloat* sphere = spheres.data() + 4 * i;
+
+        sphere[0] = bvol.center().x;
+        sphere[1] = bvol.center().y;
+        sphere[2] = bvol.center().z;
+        sphere[3] = bvol.radius();
+    }
+    env->ReleaseLongArrayElements(jSceneObjects, sceneObjects, JNI_ABORT);
+    env->SetFloatArrayRegion(jSpheres, 0, 4 * count, spheres.data());
+}
+
 JNIEXPORT jfloatArray JNICALL
 Java_org_gearvrf_NativeSceneObject_expandBoundingVolumeByPoint(JNIEnv * env,
         jobject obj, jlong jSceneObject, jfloat pointX, jfloat pointY, jfloat pointZ) {
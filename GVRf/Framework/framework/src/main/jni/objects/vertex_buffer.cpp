@@ -7,6 +7,7 @@
 #include "vertex_buffer.h"
 #include "util/gvr_log.h"
 #include <sstream>
+#include <cstring>
 
 namespace gvr {
 
@@ -154,6 +155,29 @@ namespace gvr {
         return true;
     }
 
+    bool    VertexBuffer::setVertexData(const float* src, int srcSize)
+    {
+        std::lock_guard<std::mutex> lock(mLock);
+        int vsize = getVertexSize();
+
+        if ((src == NULL) || (vsize == 0) || (srcSize <= 0) || ((srcSize % vsize) != 0))
+        {
+            LOGE("VertexBuffer: cannot copy %d floats to vertices of %d floats", srcSize, vsize);
+            return false;
+        }
+        if (!setVertexCount(srcSize / vsize))
+        {
+            return false;
+        }
+        memcpy(mVertexData, src, srcSize * sizeof(float));
+        forEachEntry([](DataEntry& e)
+        {
+            e.IsSet = true;
+        });
+        markDirty();
+        return true;
+    }
+
 
     bool    VertexBuffer::getFloatVec(const char* attributeName, float* dest, int destSize, int destStride) const
     {
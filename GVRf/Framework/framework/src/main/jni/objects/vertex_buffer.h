@@ -93,6 +93,20 @@ namespace gvr {
          */
         bool    getFloatVec(const char* attributeName, float* dest, int destSize, int destStride) const;
 
+        /**
+         * Set all the vertices at once from interleaved data.
+         * The source array must be laid out like this vertex buffer,
+         * with the attributes of each vertex in descriptor order.
+         * If the vertex count has not been established yet,
+         * the size of the source array determines it.
+         *
+         * @param src         pointer to interleaved float source data.
+         * @param srcSize     number of floats in the source array.
+         * @return true if the vertices were set, false if the size is wrong.
+         * @see setFloatVec
+         */
+        bool    setVertexData(const float* src, int srcSize);
+
         /**
          * Set all the values for an integer vertex attribute.
          * If the named entry is not an int vector in the descriptor
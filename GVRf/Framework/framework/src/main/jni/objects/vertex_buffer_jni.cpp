@@ -60,6 +60,15 @@ namespace gvr {
     Java_org_gearvrf_NativeVertexBuffer_setFloatArray(JNIEnv* env, jobject obj,
                                                     jlong jvbuf, jstring attribName,
                                                     jfloatArray data, jint stride, jint ofs);
+
+    JNIEXPORT bool JNICALL
+    Java_org_gearvrf_NativeVertexBuffer_setVertexData(JNIEnv* env, jobject obj,
+                                                      jlong jvbuf, jfloatArray data);
+
+    JNIEXPORT jint JNICALL
+    Java_org_gearvrf_NativeVertexBuffer_setFloatVecs(JNIEnv* env, jobject obj,
+                                                     jlong jvbuf, jobjectArray attribNames,
+                                                     jobjectArray jfloatbufs, jintArray strides);
     JNIEXPORT bool JNICALL
     Java_org_gearvrf_NativeVertexBuffer_setFloatVec(JNIEnv* env, jobject obj,
                                                     jlong jvbuf, jstring attribName,
@@ -194,12 +203,59 @@ Java_org_gearvrf_NativeVertexBuffer_setFloatArray(JNIEnv * env, jobject obj,
     VertexBuffer* vbuf = reinterpret_cast<VertexBuffer*>(jvbuf);
     const char* char_key = env->GetStringUTFChars(attribName, 0);
 
-    jfloat* attribData = env->GetFloatArrayElements(jdata, 0) + ofs;
-    bool rc = vbuf->setFloatVec(char_key, attribData, static_cast<int>(env->GetArrayLength(jdata)), stride);
+    jfloat* arrayData = env->GetFloatArrayElements(jdata, 0);
+    bool rc = vbuf->setFloatVec(char_key, arrayData + ofs, static_cast<int>(env->GetArrayLength(jdata)), stride);
+    env->ReleaseFloatArrayElements(jdata, arrayData, JNI_ABORT);
     env->ReleaseStringUTFChars(attribName, char_key);
     return rc;
 }
 
+JNIEXPORT bool JNICALL
+Java_org_gearvrf_NativeVertexBuffer_setVertexData(JNIEnv * env, jobject obj,
+                                                  jlong jvbuf, jfloatArray jdata)
+{
+    VertexBuffer* vbuf = reinterpret_cast<VertexBuffer*>(jvbuf);
+    jfloat* arrayData = env->GetFloatArrayElements(jdata, 0);
+    bool rc = vbuf->setVertexData(arrayData, static_cast<int>(env->GetArrayLength(jdata)));
+    env->ReleaseFloatArrayElements(jdata, arrayData, JNI_ABORT);
+    return rc;
+}
+
+/*
+ * Sets several float attributes from direct buffers.
+ * Returns the index of the first attribute which could not be set,
+ * or -1 if all of them were set.
+ */
+JNIEXPORT jint JNICALL
+Java_org_gearvrf_NativeVertexBuffer_setFloatVecs(JNIEnv* env, jobject obj,
+                                                 jlong jvbuf, jobjectArray attribNames,
+                                                 jobjectArray jfloatbufs, jintArray jstrides)
+{
+    VertexBuffer* vbuf = reinterpret_cast<VertexBuffer*>(jvbuf);
+    int n = env->GetArrayLength(attribNames);
+    jint* strides = env->GetIntArrayElements(jstrides, 0);
+    jint failed = -1;
+
+    for (int i = 0; (i < n) && (failed < 0); ++i)
+    {
+        jstring attribName = static_cast<jstring>(env->GetObjectArrayElement(attribNames, i));
+        jobject jfloatbuf = env->GetObjectArrayElement(jfloatbufs, i);
+        const char* char_key = env->GetStringUTFChars(attribName, 0);
+        float* bufptr = (float*) env->GetDirectBufferAddress(jfloatbuf);
+        int capacity = env->GetDirectBufferCapacity(jfloatbuf);
+
+        if ((bufptr == NULL) || !vbuf->setFloatVec(char_key, bufptr, capacity, strides[i]))
+        {
+            failed = i;
+        }
+        env->ReleaseStringUTFChars(attribName, char_key);
+        env->DeleteLocalRef(attribName);
+        env->DeleteLocalRef(jfloatbuf);
+    }
+    env->ReleaseIntArrayElements(jstrides, strides, JNI_ABORT);
+    return failed;
+}
+
 JNIEXPORT bool JNICALL
 Java_org_gearvrf_NativeVertexBuffer_setFloatVec(JNIEnv* env, jobject obj,
                                                 jlong jvbuf, jstring attribName,